@@ -0,0 +1,114 @@
+package com.team3.ministore.benchmark;
+
+import com.team3.ministore.common.utils.Availability;
+import com.team3.ministore.common.utils.DateRangeIndex;
+import com.team3.ministore.common.utils.WorkDays;
+import com.team3.ministore.scheduling.ScheduleProblem;
+import com.team3.ministore.scheduling.ScheduleSolver;
+import com.team3.ministore.utils.Role;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Time;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// The solver alone on synthetic rosters, no database: the staffs are 60% cashiers, 25% guards and 15% managers, most
+// of them work five days a week, one in twenty is on leave for a few days, and the shifts ask for about 90% of what
+// the staffs can work in a week
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AutoScheduleBenchmark {
+
+    private static final int MAX_SHIFTS_PER_WEEK = 5;
+    private static final double DEMAND = 0.9;
+
+    @Param({"100", "500"})
+    public int staffs;
+
+    @Param({"1", "4"})
+    public int weeks;
+
+    @Param("42")
+    public long randomSeed;
+
+    private ScheduleProblem problem;
+
+    private ExecutorService executor;
+
+    private ScheduleSolver solver;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(randomSeed);
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = from.plusWeeks(weeks).minusDays(1);
+        problem = new ScheduleProblem(from, to, MAX_SHIFTS_PER_WEEK);
+
+        int cashiers = staffs * 60 / 100;
+        int guards = staffs * 25 / 100;
+        for (int i = 0; i < staffs; i++) {
+            Role role = i < cashiers ? Role.CASHIER : i < cashiers + guards ? Role.GUARD : Role.MANAGER;
+            problem.addStaff(role, Availability.ofWorkDays(workDays(random)), leaveDays(random, from, to));
+        }
+
+        // Cashiers on two shifts a day, guards on a day and an overnight shift, managers on one
+        addShifts(from, to, Role.CASHIER, cashiers, "06:00", "14:00", "14:00", "22:00");
+        addShifts(from, to, Role.GUARD, guards, "06:00", "18:00", "18:00", "06:00");
+        addShifts(from, to, Role.MANAGER, staffs - cashiers - guards, "08:00", "17:00");
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        executor = Executors.newFixedThreadPool(cores);
+        solver = new ScheduleSolver(executor, cores, Duration.ofSeconds(10));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public int[] solve() {
+        return solver.solve(problem, randomSeed);
+    }
+
+    // Staff of a role on each shift of a day, so that the week asks for DEMAND of what they can work. The times are
+    // the start and the end of each shift.
+    private void addShifts(LocalDate from, LocalDate to, Role role, int roleStaffs, String... times) {
+        int shifts = times.length / 2;
+        int staffPerShift = Math.max(1, (int) (roleStaffs * MAX_SHIFTS_PER_WEEK * DEMAND / (7 * shifts)));
+
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            for (int shift = 0; shift < shifts; shift++) {
+                Time startTime = Time.valueOf(times[2 * shift] + ":00");
+                Time endTime = Time.valueOf(times[2 * shift + 1] + ":00");
+                for (int i = 0; i < staffPerShift; i++) problem.addSlot(role, date, startTime, endTime);
+            }
+        }
+    }
+
+    // A fifth of the staffs works the whole week, the others five random days
+    private static int workDays(Random random) {
+        if (random.nextInt(5) == 0) return WorkDays.WHOLE_WEEK;
+
+        int mask = WorkDays.WHOLE_WEEK;
+        while (Integer.bitCount(mask) > 5) mask &= ~WorkDays.bit(DayOfWeek.of(1 + random.nextInt(7)));
+        return mask;
+    }
+
+    private static DateRangeIndex leaveDays(Random random, LocalDate from, LocalDate to) {
+        if (random.nextInt(20) != 0) return DateRangeIndex.empty();
+
+        LocalDate start = from.plusDays(random.nextInt((int) (to.toEpochDay() - from.toEpochDay() + 1)));
+        return DateRangeIndex.of(List.of(start), date -> date, date -> date.plusDays(1 + random.nextInt(4)));
+    }
+}
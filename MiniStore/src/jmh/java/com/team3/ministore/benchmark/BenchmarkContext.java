@@ -0,0 +1,93 @@
+package com.team3.ministore.benchmark;
+
+import com.team3.ministore.MiniStoreApplication;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.ClassUtils;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.UUID;
+
+// Starts the application without the web server on a private in-memory database
+public class BenchmarkContext {
+
+    public static ConfigurableApplicationContext start() {
+        // Each trial gets its own database so that the data of a previous trial never leaks in,
+        // it is dropped when the context shuts down
+        String url = "jdbc:h2:mem:ministore-" + UUID.randomUUID()
+                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=DATE,HOUR,VALUE;DB_CLOSE_DELAY=-1";
+
+        return new SpringApplicationBuilder(MiniStoreApplication.class)
+                .web(WebApplicationType.NONE)
+                .initializers(context -> context.getBeanFactory().addBeanPostProcessor(new FetchSizeAdapter()))
+                .properties(
+                        "spring.main.banner-mode=off",
+                        // DevTools would start a live reload server and shut the database down a second time
+                        "spring.autoconfigure.exclude="
+                                + "org.springframework.boot.devtools.autoconfigure.LocalDevToolsAutoConfiguration,"
+                                + "org.springframework.boot.devtools.autoconfigure.DevToolsDataSourceAutoConfiguration",
+                        "spring.datasource.url=" + url,
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.open-in-view=false",
+                        "logging.level.root=WARN",
+                        "vnpay.pay-url=http://localhost/pay",
+                        "vnpay.return-url=http://localhost/return",
+                        "vnpay.tmn-code=BENCH",
+                        "vnpay.hash-secret=BENCH"
+                )
+                .run();
+    }
+
+    // The streaming queries ask for the MySQL fetch size Integer.MIN_VALUE, which H2 rejects,
+    // so negative fetch sizes are turned into the driver default
+    private static class FetchSizeAdapter implements BeanPostProcessor {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource)) return bean;
+
+            return wrap(bean, (target, method, args) -> {
+                Object result = method.invoke(target, args);
+                return result instanceof Connection ? wrapConnection(result) : result;
+            });
+        }
+
+        private static Object wrapConnection(Object connection) {
+            return wrap(connection, (target, method, args) -> {
+                Object result = method.invoke(target, args);
+                return result instanceof Statement ? wrapStatement(result) : result;
+            });
+        }
+
+        private static Object wrapStatement(Object statement) {
+            return wrap(statement, (target, method, args) -> {
+                if (method.getName().equals("setFetchSize") && (Integer) args[0] < 0) args[0] = 0;
+                return method.invoke(target, args);
+            });
+        }
+
+        private static Object wrap(Object target, Invoker invoker) {
+            return Proxy.newProxyInstance(target.getClass().getClassLoader(), ClassUtils.getAllInterfaces(target),
+                    (proxy, method, args) -> {
+                        try {
+                            return invoker.invoke(target, method, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    });
+        }
+    }
+
+    private interface Invoker {
+        Object invoke(Object target, Method method, Object[] args) throws Exception;
+    }
+}
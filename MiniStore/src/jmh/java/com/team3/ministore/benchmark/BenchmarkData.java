@@ -0,0 +1,54 @@
+package com.team3.ministore.benchmark;
+
+import com.team3.ministore.dto.SeedOptions;
+import com.team3.ministore.service.SeedService;
+import com.team3.ministore.utils.StaffStatus;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Random;
+
+// Seeds the benchmark database with the application's SeedService and keeps the ids to pick from
+public class BenchmarkData {
+
+    // Fixed seed, every trial works on the same data
+    private final Random random = new Random(42);
+
+    private final List<Integer> staffIds;
+    private final List<Integer> productIds;
+
+    private BenchmarkData(List<Integer> staffIds, List<Integer> productIds) {
+        this.staffIds = staffIds;
+        this.productIds = productIds;
+    }
+
+    public static BenchmarkData seed(ConfigurableApplicationContext context, SeedOptions options) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        // Hibernate maps Order.staff as a one-to-one and generates a unique key on orders.staff_id,
+        // the real schema has none
+        dropUniqueKeys(jdbcTemplate, "orders");
+
+        context.getBean(SeedService.class).seed(options);
+
+        return new BenchmarkData(
+                jdbcTemplate.queryForList("SELECT staff_id FROM staffs WHERE status = ?", Integer.class,
+                        StaffStatus.ACTIVE.ordinal()),
+                jdbcTemplate.queryForList("SELECT product_id FROM products", Integer.class));
+    }
+
+    public int randomStaffId() {
+        return staffIds.get(random.nextInt(staffIds.size()));
+    }
+
+    public int randomProductId() {
+        return productIds.get(random.nextInt(productIds.size()));
+    }
+
+    private static void dropUniqueKeys(JdbcTemplate jdbcTemplate, String table) {
+        jdbcTemplate.queryForList("SELECT constraint_name FROM information_schema.table_constraints " +
+                        "WHERE table_name = ? AND constraint_type = 'UNIQUE'", String.class, table)
+                .forEach(name -> jdbcTemplate.execute("ALTER TABLE " + table + " DROP CONSTRAINT " + name));
+    }
+}
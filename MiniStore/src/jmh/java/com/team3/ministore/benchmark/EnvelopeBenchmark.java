@@ -0,0 +1,75 @@
+package com.team3.ministore.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.team3.ministore.common.responsehandler.ResponseHandler;
+import com.team3.ministore.common.utils.DateUtils;
+import com.team3.ministore.dto.SellingProduct;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// A response built and written to JSON, with the typed envelope and with the map it replaced. Run with -prof gc to
+// compare the bytes allocated per response (gc.alloc.rate.norm), no application context needed:
+// -Djmh.args="EnvelopeBenchmark -prof gc"
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EnvelopeBenchmark {
+
+    // Rows of content, 0 for a response without content
+    @Param({"0", "20"})
+    public int items;
+
+    // Same settings as the message converter of Spring MVC
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+
+    private List<SellingProduct> content;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        content = items == 0 ? null : new ArrayList<>(items);
+        for (int i = 0; i < items; i++) content.add(new SellingProduct("Product " + i, 10L * i, 1000f * i));
+    }
+
+    @Benchmark
+    public int typedEnvelope() throws IOException {
+        return write(ResponseHandler.getResponse(content, HttpStatus.OK));
+    }
+
+    @Benchmark
+    public int mapEnvelope() throws IOException {
+        return write(getMapResponse(content, HttpStatus.OK));
+    }
+
+    private int write(ResponseEntity<Object> response) throws IOException {
+        out.reset();
+        objectMapper.writeValue(out, response.getBody());
+        return out.size();
+    }
+
+    // ResponseHandler.getResponse before the typed envelope
+    private static ResponseEntity<Object> getMapResponse(Object content, HttpStatus status) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("content", content);
+        map.put("errors", null);
+        map.put("timestamp", DateUtils.toString(LocalDateTime.now()));
+        map.put("status", status.value());
+
+        return new ResponseEntity<>(map, status);
+    }
+}
@@ -0,0 +1,45 @@
+package com.team3.ministore.benchmark;
+
+import com.team3.ministore.dto.StaffDetails;
+import com.team3.ministore.jwt.JwtUtils;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Token checks only, no application context or database needed
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private JwtUtils jwtUtils;
+
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtUtils = new JwtUtils();
+
+        StaffDetails staff = new StaffDetails("staff1", "", List.of(new SimpleGrantedAuthority("CASHIER")));
+        token = jwtUtils.generateJwtToken(new UsernamePasswordAuthenticationToken(staff, null, staff.getAuthorities()));
+    }
+
+    @Benchmark
+    public Optional<Claims> parseJwtToken() {
+        return jwtUtils.parseJwtToken(token);
+    }
+
+    // The validate-then-read sequence that parses the token twice
+    @Benchmark
+    public String validateAndGetUsername() {
+        return jwtUtils.validateJwtToken(token) ? jwtUtils.getUsernameFromToken(token) : null;
+    }
+}
@@ -0,0 +1,267 @@
+package com.team3.ministore.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+// Replays a mix of POS and back office requests against a running server and prints the latency percentiles.
+// Best run on a database filled with --seed.enabled=true, see README.md.
+//
+// Options: --url=http://localhost:8080 --threads=16 --warmup=10 --duration=60 (seconds)
+//          --username=admin --password=123456 --days=30 (date range of the back office reports)
+public class LoadDriver {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    private final String url;
+    private final List<Operation> operations = new ArrayList<>();
+    private int totalWeight;
+
+    private String token;
+    private List<JsonNode> products = List.of();
+    private List<Integer> staffIds = List.of();
+
+    private LoadDriver(String url, int days) {
+        this.url = url;
+
+        // POS traffic: scanning, searching and checking out
+        add("GET /products/barcode/{barcode}", 35, random -> get("/products/barcode/" + randomProduct(random).path("barCode").asText()));
+        add("GET /products?search", 15, random -> get("/products?curPage=1&perPage=10&search="
+                + randomProduct(random).path("name").asText().replaceAll(".* ", "")));
+        add("POST /orders/add", 20, this::createOrder);
+
+        // Back office traffic
+        add("GET /orders", 10, random -> get("/orders?curPage=1&perPage=20"));
+        add("GET /staffs", 5, random -> get("/staffs?curPage=1&perPage=20"));
+        add("GET /shift-planning", 5, random -> get("/shift-planning?from=" + LocalDate.now().minusDays(6) + "&to=" + LocalDate.now()));
+        add("GET /timesheets/payroll", 3, random -> get("/timesheets/payroll?from=" + LocalDate.now().minusDays(days) + "&to=" + LocalDate.now()));
+        add("GET /sales/revenue", 4, random -> get("/sales/revenue?by=day&from=" + LocalDate.now().minusDays(days) + "&to=" + LocalDate.now()));
+        add("GET /sales/top-products", 3, random -> get("/sales/top-products?limit=10&from=" + LocalDate.now().minusDays(days) + "&to=" + LocalDate.now()));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("="))
+                throw new IllegalArgumentException("Invalid option: " + arg);
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+
+        LoadDriver driver = new LoadDriver(options.getOrDefault("url", "http://localhost:8080"),
+                Integer.parseInt(options.getOrDefault("days", "30")));
+        driver.login(options.getOrDefault("username", "admin"), options.getOrDefault("password", "123456"));
+        driver.discover();
+        driver.run(Integer.parseInt(options.getOrDefault("threads", "16")),
+                Integer.parseInt(options.getOrDefault("warmup", "10")),
+                Integer.parseInt(options.getOrDefault("duration", "60")));
+    }
+
+    private void add(String name, int weight, Function<Random, HttpRequest> request) {
+        operations.add(new Operation(name, weight, request));
+        totalWeight += weight;
+    }
+
+    private void login(String username, String password) throws Exception {
+        ObjectNode body = objectMapper.createObjectNode().put("username", username).put("password", password);
+        HttpResponse<String> response = client.send(request("/auth/login")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString())).build(), HttpResponse.BodyHandlers.ofString());
+
+        if (response.statusCode() == 200) token = objectMapper.readTree(response.body()).path("content").asText();
+        else System.out.println("Login failed (" + response.statusCode() + "), running without a token");
+    }
+
+    // Products and staffs to pick from, taken from the server so that every request hits existing rows
+    private void discover() throws Exception {
+        products = new ArrayList<>();
+        content(send(get("/products?curPage=1&perPage=1000"))).forEach(products::add);
+
+        staffIds = new ArrayList<>();
+        content(send(get("/staffs?curPage=1&perPage=1000"))).forEach(staff -> {
+            if (staff.path("status").asText().equals("ACTIVE")) staffIds.add(staff.path("staffId").asInt());
+        });
+
+        if (products.isEmpty() || staffIds.isEmpty())
+            throw new IllegalStateException("The server has no products or active staffs, seed it first");
+        System.out.println("Using " + products.size() + " products and " + staffIds.size() + " staffs");
+    }
+
+    private void run(int threads, int warmupSeconds, int durationSeconds) throws InterruptedException {
+        long warmupEnd = System.nanoTime() + warmupSeconds * 1_000_000_000L;
+        long end = warmupEnd + durationSeconds * 1_000_000_000L;
+
+        List<Worker> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Worker worker = new Worker(warmupEnd, end);
+            workers.add(worker);
+            worker.start();
+        }
+        for (Worker worker : workers) worker.join();
+
+        // Merge the latencies of all workers per operation
+        Map<String, Latencies> results = new LinkedHashMap<>();
+        operations.forEach(operation -> results.put(operation.name, new Latencies()));
+        for (Worker worker : workers) {
+            worker.results.forEach((name, latencies) -> results.get(name).addAll(latencies));
+        }
+
+        Latencies all = new Latencies();
+        results.values().forEach(all::addAll);
+        results.put("TOTAL", all);
+
+        System.out.printf("%n%d threads, %d s measured%n%n", threads, durationSeconds);
+        System.out.printf("%-32s %8s %7s %9s %9s %9s %9s %9s %9s%n",
+                "Operation", "Count", "Errors", "Req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "Max ms");
+        results.forEach((name, latencies) -> {
+            long[] sorted = latencies.sorted();
+            System.out.printf("%-32s %8d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    name, sorted.length, latencies.errors, (double) sorted.length / durationSeconds,
+                    percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 99), percentile(sorted, 99.9),
+                    sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6);
+        });
+    }
+
+    private HttpRequest createOrder(Random random) {
+        ArrayNode orderItems = objectMapper.createArrayNode();
+        double grandTotal = 0;
+        for (int i = 1 + random.nextInt(5); i > 0; i--) {
+            JsonNode product = randomProduct(random);
+            int quantity = 1 + random.nextInt(3);
+            orderItems.addObject().put("productId", product.path("productId").asInt()).put("quantity", quantity);
+            grandTotal += product.path("price").asDouble() * quantity;
+        }
+
+        ObjectNode body = objectMapper.createObjectNode()
+                .put("staffId", staffIds.get(random.nextInt(staffIds.size())))
+                .put("orderDate", LocalDateTime.now().withNano(0).toString())
+                .put("grandTotal", grandTotal)
+                .put("paymentStatus", "SUCCESS");
+        body.set("orderItems", orderItems);
+
+        return request("/orders/add").header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString())).build();
+    }
+
+    private JsonNode randomProduct(Random random) {
+        return products.get(random.nextInt(products.size()));
+    }
+
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url + path)).timeout(Duration.ofSeconds(30));
+        if (token != null) builder.header("Authorization", "Bearer " + token);
+        return builder;
+    }
+
+    private JsonNode send(HttpRequest request) throws Exception {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200)
+            throw new IllegalStateException(request.uri() + " answered " + response.statusCode());
+        return objectMapper.readTree(response.body());
+    }
+
+    // The page inside the response envelope
+    private static JsonNode content(JsonNode response) {
+        return response.path("content").path("content");
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+
+    private class Worker extends Thread {
+        private final long warmupEnd;
+        private final long end;
+        private final Map<String, Latencies> results = new HashMap<>();
+
+        private Worker(long warmupEnd, long end) {
+            this.warmupEnd = warmupEnd;
+            this.end = end;
+        }
+
+        @Override
+        public void run() {
+            Random random = ThreadLocalRandom.current();
+            long now;
+            while ((now = System.nanoTime()) < end) {
+                Operation operation = pick(random);
+                HttpRequest request = operation.request.apply(random);
+
+                boolean failed;
+                try {
+                    failed = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() >= 400;
+                } catch (Exception e) {
+                    failed = true;
+                }
+                long latency = System.nanoTime() - now;
+
+                if (now < warmupEnd) continue;
+                Latencies latencies = results.computeIfAbsent(operation.name, name -> new Latencies());
+                if (failed) latencies.errors++;
+                else latencies.add(latency);
+            }
+        }
+
+        private Operation pick(Random random) {
+            int value = random.nextInt(totalWeight);
+            for (Operation operation : operations) {
+                value -= operation.weight;
+                if (value < 0) return operation;
+            }
+            return operations.get(operations.size() - 1);
+        }
+    }
+
+    private static class Operation {
+        private final String name;
+        private final int weight;
+        private final Function<Random, HttpRequest> request;
+
+        private Operation(String name, int weight, Function<Random, HttpRequest> request) {
+            this.name = name;
+            this.weight = weight;
+            this.request = request;
+        }
+    }
+
+    // Latencies in nanoseconds of the successful requests
+    private static class Latencies {
+        private long[] values = new long[1024];
+        private int size;
+        private long errors;
+
+        private void add(long value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        private void addAll(Latencies other) {
+            for (int i = 0; i < other.size; i++) add(other.values[i]);
+            errors += other.errors;
+        }
+
+        private long[] sorted() {
+            long[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
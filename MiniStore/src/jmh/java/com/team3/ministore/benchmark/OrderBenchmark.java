@@ -0,0 +1,53 @@
+package com.team3.ministore.benchmark;
+
+import com.team3.ministore.dto.OrderDto;
+import com.team3.ministore.dto.OrderItemDto;
+import com.team3.ministore.model.Order;
+import com.team3.ministore.service.OrderService;
+import com.team3.ministore.utils.PaymentStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderBenchmark {
+
+    // Items of each order, the round trips of an order do not grow with them
+    @Param({"1", "3", "30"})
+    public int items;
+
+    private OrderService orderService;
+
+    @Setup(Level.Trial)
+    public void setUp(SeededDatabase db) {
+        orderService = db.getBean(OrderService.class);
+    }
+
+    @Benchmark
+    public Order createOrders(SeededDatabase db) throws Exception {
+        List<OrderItemDto> orderItems = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            OrderItemDto item = new OrderItemDto();
+            item.setProductId(db.data.randomProductId());
+            item.setQuantity(1);
+            orderItems.add(item);
+        }
+
+        OrderDto dto = new OrderDto();
+        dto.setStaffId(db.data.randomStaffId());
+        dto.setOrderDate(LocalDateTime.now());
+        dto.setGrandTotal(10000f);
+        dto.setPaymentStatus(PaymentStatus.SUCCESS);
+        dto.setOrderItems(orderItems);
+
+        return orderService.createOrders(dto);
+    }
+}
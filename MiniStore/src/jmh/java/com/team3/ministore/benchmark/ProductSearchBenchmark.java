@@ -0,0 +1,50 @@
+package com.team3.ministore.benchmark;
+
+import com.team3.ministore.dto.ProductDto;
+import com.team3.ministore.service.ProductService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductSearchBenchmark {
+
+    // Each matches about a tenth of the products, see SeedServiceImpl.PRODUCT_WORDS:
+    // a whole word, the start of a word and a word with a typo
+    @Param({"milk", "cof", "cofee"})
+    public String search;
+
+    @Param("10")
+    public int pageSize;
+
+    private ProductService productService;
+
+    // The controllers rely on the session kept open for the web request to load the categories,
+    // a read-only transaction stands in for it
+    private TransactionTemplate transactionTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp(SeededDatabase db) {
+        productService = db.getBean(ProductService.class);
+        transactionTemplate = new TransactionTemplate(db.getBean(PlatformTransactionManager.class));
+        transactionTemplate.setReadOnly(true);
+    }
+
+    @Benchmark
+    public Page<ProductDto> searchProducts() {
+        return transactionTemplate.execute(status -> productService.getAllProducts(search, 1, pageSize));
+    }
+
+    @Benchmark
+    public Page<ProductDto> listProducts() {
+        return transactionTemplate.execute(status -> productService.getAllProducts(1, pageSize));
+    }
+}
@@ -0,0 +1,72 @@
+package com.team3.ministore.benchmark;
+
+import com.team3.ministore.dto.ScheduleShiftTemplateDto;
+import com.team3.ministore.dto.ScheduleTemplateDto;
+import com.team3.ministore.dto.ShiftDto;
+import com.team3.ministore.service.ScheduleTemplateService;
+import com.team3.ministore.utils.Role;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Time;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScheduleTemplateBenchmark {
+
+    // Shifts of the template, spread over the week
+    @Param("500")
+    public int shifts;
+
+    private ScheduleTemplateService scheduleTemplateService;
+
+    // Every application is rolled back, so that the shifts table does not grow during the trial
+    private TransactionTemplate transactionTemplate;
+
+    private int scheduleTemplateId;
+
+    private LocalDate weekStart;
+
+    @Setup(Level.Trial)
+    public void setUp(SeededDatabase db) {
+        scheduleTemplateService = db.getBean(ScheduleTemplateService.class);
+        transactionTemplate = new TransactionTemplate(db.getBean(PlatformTransactionManager.class));
+        weekStart = db.toDate.plusWeeks(1);
+
+        List<ScheduleShiftTemplateDto> scheduleShiftTemplates = new ArrayList<>(shifts);
+        for (int i = 0; i < shifts; i++) {
+            ScheduleShiftTemplateDto shift = new ScheduleShiftTemplateDto();
+            shift.setDate(db.fromDate.plusDays(i % 7));
+            shift.setStartTime(Time.valueOf(i % 2 == 0 ? "06:00:00" : "14:00:00"));
+            shift.setEndTime(Time.valueOf(i % 2 == 0 ? "14:00:00" : "22:00:00"));
+            shift.setName(i % 2 == 0 ? "Morning shift" : "Afternoon shift");
+            shift.setRole(Role.CASHIER);
+            shift.setSalaryCoefficient(1f);
+            shift.setStaffId(db.data.randomStaffId());
+            scheduleShiftTemplates.add(shift);
+        }
+
+        ScheduleTemplateDto scheduleTemplate = new ScheduleTemplateDto();
+        scheduleTemplate.setName("Benchmark week");
+        scheduleTemplate.setScheduleShiftTemplates(scheduleShiftTemplates);
+        scheduleTemplateId = scheduleTemplateService.createScheduleTemplate(scheduleTemplate).getScheduleTemplateId();
+    }
+
+    @Benchmark
+    public Optional<List<ShiftDto>> applyScheduleTemplate() {
+        return transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            return scheduleTemplateService.applyScheduleTemplate(scheduleTemplateId, weekStart, false);
+        });
+    }
+}
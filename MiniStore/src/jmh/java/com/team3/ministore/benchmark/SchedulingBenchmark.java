@@ -0,0 +1,40 @@
+package com.team3.ministore.benchmark;
+
+import com.team3.ministore.controller.ShiftPlanningController;
+import com.team3.ministore.dto.StaffDto;
+import com.team3.ministore.service.TimesheetService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SchedulingBenchmark {
+
+    private TimesheetService timesheetService;
+
+    private ShiftPlanningController shiftPlanningController;
+
+    @Setup(Level.Trial)
+    public void setUp(SeededDatabase db) {
+        timesheetService = db.getBean(TimesheetService.class);
+        shiftPlanningController = db.getBean(ShiftPlanningController.class);
+    }
+
+    @Benchmark
+    public List<StaffDto> getPayroll(SeededDatabase db) {
+        return timesheetService.getPayroll(db.fromDate, db.toDate);
+    }
+
+    // Goes through the controller, so the date parsing and the response wrapping are measured as well
+    @Benchmark
+    public ResponseEntity<Object> getShiftPlanning(SeededDatabase db) {
+        return shiftPlanningController.getShiftPlanning(db.fromDate.toString(), db.toDate.toString(), null);
+    }
+}
@@ -0,0 +1,56 @@
+package com.team3.ministore.benchmark;
+
+import com.team3.ministore.dto.SeedOptions;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+
+// Application context on a database seeded once per trial, the sizes can be changed with -p staffs=... etc.
+@State(Scope.Benchmark)
+public class SeededDatabase {
+
+    @Param("50")
+    public int staffs;
+
+    @Param("1000")
+    public int products;
+
+    @Param("10000")
+    public int orders;
+
+    // Number of days of shifts and orders up to today
+    @Param("28")
+    public int days;
+
+    public ConfigurableApplicationContext context;
+
+    public BenchmarkData data;
+
+    public LocalDate fromDate;
+
+    public LocalDate toDate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+
+        toDate = LocalDate.now();
+        fromDate = toDate.minusDays(days - 1);
+        data = BenchmarkData.seed(context, new SeedOptions(staffs, products, orders, days, 0, "123456", 42));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+}
@@ -0,0 +1,78 @@
+package com.team3.ministore.benchmark;
+
+import com.team3.ministore.dto.CreateShiftDto;
+import com.team3.ministore.dto.ShiftConflict;
+import com.team3.ministore.dto.ShiftDto;
+import com.team3.ministore.service.ShiftService;
+import com.team3.ministore.utils.Role;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.sql.Time;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Throughput in shifts per second
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ShiftBenchmark {
+
+    private static final int SHIFTS = 500;
+
+    private ShiftService shiftService;
+
+    private EntityManager entityManager;
+
+    // Every batch is rolled back, so that the shifts table does not grow during the trial
+    private TransactionTemplate transactionTemplate;
+
+    private List<CreateShiftDto> shifts;
+
+    @Setup(Level.Trial)
+    public void setUp(SeededDatabase db) {
+        shiftService = db.getBean(ShiftService.class);
+        entityManager = db.getBean(EntityManager.class);
+        transactionTemplate = new TransactionTemplate(db.getBean(PlatformTransactionManager.class));
+
+        // One shift a day past the seeded leaves, so that none conflicts and createShifts saves them all
+        shifts = new ArrayList<>(SHIFTS);
+        for (int i = 0; i < SHIFTS; i++) {
+            CreateShiftDto shift = new CreateShiftDto();
+            shift.setStaffId(db.data.randomStaffId());
+            shift.setDate(db.toDate.plusDays(3 + i));
+            shift.setPublished(false);
+            shift.setStartTime(Time.valueOf("06:00:00"));
+            shift.setEndTime(Time.valueOf("14:00:00"));
+            shift.setName("Morning shift");
+            shift.setSalaryCoefficient(1f);
+            shift.setRole(Role.CASHIER);
+            shifts.add(shift);
+        }
+    }
+
+    // The inserts are flushed before the rollback, otherwise the batched ones would never be sent
+    @Benchmark
+    @OperationsPerInvocation(SHIFTS)
+    public List<ShiftDto> createShifts() {
+        return transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            List<ShiftDto> created = shiftService.createShifts(shifts);
+            entityManager.flush();
+            return created;
+        });
+    }
+
+    // The conflict check run by a bulk create, against the seeded shifts and leaves
+    @Benchmark
+    @OperationsPerInvocation(SHIFTS)
+    public List<ShiftConflict> getConflicts() {
+        return shiftService.getConflicts(shifts);
+    }
+}
@@ -0,0 +1,46 @@
+package com.team3.ministore.benchmark;
+
+import com.team3.ministore.cache.StaffAvailabilityIndex;
+import com.team3.ministore.common.utils.Availability;
+import com.team3.ministore.dto.StaffMetaInfo;
+import com.team3.ministore.service.StaffService;
+import com.team3.ministore.utils.Role;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Who is free for a cashier shift from 14:00 to 22:00: the index alone, and the service that also drops the staffs
+// on leave and loads the others. Try a bigger roster with -p staffs=500.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StaffAvailabilityBenchmark {
+
+    private static final LocalTime START_TIME = LocalTime.of(14, 0);
+    private static final LocalTime END_TIME = LocalTime.of(22, 0);
+
+    private StaffAvailabilityIndex staffAvailabilityIndex;
+
+    private StaffService staffService;
+
+    @Setup(Level.Trial)
+    public void setUp(SeededDatabase db) {
+        staffAvailabilityIndex = db.getBean(StaffAvailabilityIndex.class);
+        staffService = db.getBean(StaffService.class);
+    }
+
+    @Benchmark
+    public List<Integer> getAvailableStaffIds(SeededDatabase db) {
+        return staffAvailabilityIndex.getAvailableStaffIds(Role.CASHIER, Availability.slots(db.fromDate, START_TIME, END_TIME));
+    }
+
+    @Benchmark
+    public List<StaffMetaInfo> getAvailableStaffs(SeededDatabase db) {
+        return staffService.getAvailableStaffs(Role.CASHIER, db.fromDate, START_TIME, END_TIME);
+    }
+}
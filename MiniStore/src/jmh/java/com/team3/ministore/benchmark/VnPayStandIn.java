@@ -0,0 +1,141 @@
+package com.team3.ministore.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.team3.ministore.config.VnPayConfig;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+// Local stand-in of the VNPay payment page. Start the application with --vnpay.pay-url=http://localhost:8090/pay
+// and the same --vnpay.hash-secret, then open a payment URL from POST /orders/payment: the stand-in checks its
+// signature, sends the signed payment notification to the IPN URL several times at once, like VNPay retrying,
+// prints the answers and redirects to the return URL with the result.
+//
+// Options: --port=8090 --hash-secret=... --ipn-url=http://localhost:8080/orders/payment/ipn
+//          --response-code=00 (anything else is a failed payment) --duplicates=3
+public class VnPayStandIn {
+
+    private static final DateTimeFormatter PAY_DATE = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    private final VnPayConfig signer = new VnPayConfig();
+    private final String hashSecret;
+    private final String ipnUrl;
+    private final String responseCode;
+    private final int duplicates;
+
+    private VnPayStandIn(String hashSecret, String ipnUrl, String responseCode, int duplicates) {
+        this.hashSecret = hashSecret;
+        this.ipnUrl = ipnUrl;
+        this.responseCode = responseCode;
+        this.duplicates = duplicates;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("="))
+                throw new IllegalArgumentException("Invalid option: " + arg);
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        if (!options.containsKey("hash-secret")) throw new IllegalArgumentException("--hash-secret is required");
+
+        VnPayStandIn standIn = new VnPayStandIn(options.get("hash-secret"),
+                options.getOrDefault("ipn-url", "http://localhost:8080/orders/payment/ipn"),
+                options.getOrDefault("response-code", "00"),
+                Integer.parseInt(options.getOrDefault("duplicates", "3")));
+
+        int port = Integer.parseInt(options.getOrDefault("port", "8090"));
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/pay", standIn::pay);
+        server.start();
+        System.out.println("VNPay stand-in listening on http://localhost:" + port + "/pay");
+    }
+
+    private void pay(HttpExchange exchange) throws IOException {
+        Map<String, String> payment = parse(exchange.getRequestURI().getRawQuery());
+
+        if (!sign(payment).equalsIgnoreCase(payment.getOrDefault("vnp_SecureHash", ""))) {
+            System.out.println("Rejected payment " + payment.get("vnp_TxnRef") + ": invalid signature");
+            respond(exchange, 400, "Invalid signature");
+            return;
+        }
+
+        Map<String, String> result = new TreeMap<>();
+        result.put("vnp_Amount", payment.get("vnp_Amount"));
+        result.put("vnp_BankCode", payment.get("vnp_BankCode"));
+        result.put("vnp_OrderInfo", payment.get("vnp_OrderInfo"));
+        result.put("vnp_PayDate", LocalDateTime.now().format(PAY_DATE));
+        result.put("vnp_ResponseCode", responseCode);
+        result.put("vnp_TmnCode", payment.get("vnp_TmnCode"));
+        result.put("vnp_TransactionNo", String.valueOf(ThreadLocalRandom.current().nextInt(10_000_000, 100_000_000)));
+        result.put("vnp_TransactionStatus", responseCode);
+        result.put("vnp_TxnRef", payment.get("vnp_TxnRef"));
+        result.put("vnp_SecureHash", sign(result));
+        String query = query(result);
+
+        // The duplicates go out together, so that they race on the order
+        List<CompletableFuture<String>> answers = new ArrayList<>();
+        for (int i = 0; i < duplicates; i++) {
+            answers.add(client.sendAsync(HttpRequest.newBuilder(URI.create(ipnUrl + "?" + query)).GET().build(),
+                    HttpResponse.BodyHandlers.ofString()).thenApply(response -> response.statusCode() + " " + response.body()));
+        }
+        for (CompletableFuture<String> answer : answers) {
+            System.out.println("IPN " + payment.get("vnp_TxnRef") + ": " + answer.exceptionally(Throwable::toString).join());
+        }
+
+        exchange.getResponseHeaders().add("Location", payment.get("vnp_ReturnUrl") + "?" + query);
+        respond(exchange, 302, "");
+    }
+
+    // Same hash data as VnPayConfig: the vnp_ fields but the hash, sorted by name, with URL-encoded values
+    private String sign(Map<String, String> fields) {
+        String hashData = new TreeMap<>(fields).entrySet().stream()
+                .filter(field -> field.getKey().startsWith("vnp_") && !field.getKey().startsWith("vnp_SecureHash")
+                        && field.getValue() != null && !field.getValue().isEmpty())
+                .map(field -> field.getKey() + "=" + URLEncoder.encode(field.getValue(), StandardCharsets.US_ASCII))
+                .collect(Collectors.joining("&"));
+        return signer.hmacSHA512(hashSecret, hashData);
+    }
+
+    private static String query(Map<String, String> fields) {
+        return fields.entrySet().stream()
+                .map(field -> field.getKey() + "=" + URLEncoder.encode(field.getValue(), StandardCharsets.US_ASCII))
+                .collect(Collectors.joining("&"));
+    }
+
+    private static Map<String, String> parse(String query) {
+        Map<String, String> fields = new HashMap<>();
+        if (query == null) return fields;
+
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator < 0) continue;
+            fields.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.US_ASCII),
+                    URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.US_ASCII));
+        }
+        return fields;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+}
@@ -3,11 +3,28 @@ package com.team3.ministore;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
+import java.util.Map;
+
 @SpringBootApplication
 public class MiniStoreApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(MiniStoreApplication.class, args);
+        SpringApplication application = new SpringApplication(MiniStoreApplication.class);
+        // Defaults only, the external configuration can override them
+        application.setDefaultProperties(Map.of(
+                "management.endpoints.web.exposure.include", "health,metrics,prometheus",
+                "management.metrics.tags.application", "ministore",
+                "management.metrics.distribution.percentiles-histogram.http.server.requests", "true",
+                "management.metrics.distribution.percentiles-histogram.spring.data.repository.invocations", "true",
+                // MySQL Connector/J: a JDBC batch is sent as multi-row INSERTs, the prepared statements are kept
+                // on the server and per connection
+                "spring.datasource.hikari.data-source-properties.rewriteBatchedStatements", "true",
+                "spring.datasource.hikari.data-source-properties.useServerPrepStmts", "true",
+                "spring.datasource.hikari.data-source-properties.cachePrepStmts", "true",
+                "spring.datasource.hikari.data-source-properties.prepStmtCacheSize", "250",
+                "spring.datasource.hikari.data-source-properties.prepStmtCacheSqlLimit", "2048"
+        ));
+        application.run(args);
     }
 
 }
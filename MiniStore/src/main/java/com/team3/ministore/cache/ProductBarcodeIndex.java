@@ -0,0 +1,112 @@
+package com.team3.ministore.cache;
+
+import com.team3.ministore.dto.BarcodeIndexStats;
+import com.team3.ministore.dto.ProductBarcode;
+import com.team3.ministore.model.Product;
+import com.team3.ministore.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+// Write-through barcode index. It holds a snapshot of every product that has a barcode, so a scan
+// is answered without the database and a miss means that no product uses the barcode.
+// The stock of the snapshots follows the committed orders through InventoryServiceImpl.
+// It only sees the writes of this instance: the unique key ux_products_barcode is what keeps
+// barcodes unique, the index only spares the query of the common case. Rows saved before the
+// key may still share a barcode: each barcode keeps the ids of all its products and answers
+// with the lowest like findFirstByBarCode, the next one taking over when it goes.
+@Component
+public class ProductBarcodeIndex {
+    private static final Logger logger = LoggerFactory.getLogger(ProductBarcodeIndex.class);
+
+    // The sets are never changed once published, a write replaces the set of the barcode
+    private volatile Map<String, SortedSet<Integer>> productIds = new ConcurrentHashMap<>();
+    // The snapshots are never changed once published either
+    private volatile Map<Integer, ProductBarcode> products = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    public Optional<Integer> getProductId(String barcode) {
+        return getProduct(barcode).map(ProductBarcode::getProductId);
+    }
+
+    public Optional<ProductBarcode> getProduct(String barcode) {
+        SortedSet<Integer> ids = barcode == null ? null : productIds.get(barcode);
+        ProductBarcode product = ids == null ? null : products.get(ids.first());
+
+        if (product == null) misses.increment();
+        else hits.increment();
+
+        return Optional.ofNullable(product);
+    }
+
+    public synchronized void put(Product product) {
+        remove(product.getProductId());
+        if (product.getBarCode() == null || product.getBarCode().isEmpty()) return;
+
+        SortedSet<Integer> ids = new TreeSet<>(productIds.getOrDefault(product.getBarCode(), Collections.emptySortedSet()));
+        ids.add(product.getProductId());
+        products.put(product.getProductId(), new ProductBarcode(product));
+        productIds.put(product.getBarCode(), Collections.unmodifiableSortedSet(ids));
+    }
+
+    // Called once the stock change is committed, quantity is negative for a sale
+    public synchronized void addInventory(int productId, int quantity) {
+        products.computeIfPresent(productId, (id, product) -> new ProductBarcode(product.getProductId(),
+                product.getBarCode(), product.getName(), product.getDescription(), product.getPrice(),
+                product.getInventory() + quantity, product.getCategoryId()));
+    }
+
+    // The barcode is unlinked before the snapshot goes, so a lookup never finds an id without its product
+    public synchronized void remove(int productId) {
+        ProductBarcode product = products.get(productId);
+        if (product == null) return;
+        String barcode = product.getBarCode();
+
+        SortedSet<Integer> ids = new TreeSet<>(productIds.get(barcode));
+        ids.remove(productId);
+        if (ids.isEmpty()) productIds.remove(barcode);
+        else productIds.put(barcode, Collections.unmodifiableSortedSet(ids));
+        products.remove(productId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        Map<String, SortedSet<Integer>> newProductIds = new ConcurrentHashMap<>();
+        Map<Integer, ProductBarcode> newProducts = new ConcurrentHashMap<>();
+
+        try (Stream<ProductBarcode> stream = productRepository.streamAllBarcodes()) {
+            stream.forEach(p -> {
+                newProductIds.computeIfAbsent(p.getBarCode(), barcode -> new TreeSet<>()).add(p.getProductId());
+                newProducts.put(p.getProductId(), p);
+            });
+        }
+        newProductIds.replaceAll((barcode, ids) -> Collections.unmodifiableSortedSet(ids));
+
+        productIds = newProductIds;
+        products = newProducts;
+        logger.info("Barcode index rebuilt with {} products.", newProducts.size());
+    }
+
+    public BarcodeIndexStats getStats() {
+        return new BarcodeIndexStats(products.size(), hits.sum(), misses.sum());
+    }
+}
@@ -0,0 +1,230 @@
+package com.team3.ministore.cache;
+
+import com.team3.ministore.dto.ProductSearchDocument;
+import com.team3.ministore.model.Product;
+import com.team3.ministore.repository.ProductRepository;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.*;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+// Write-through full-text index of the products, held in memory. It matches the words of the name, description
+// and category by prefix and with typos, and the barcode by prefix, so a search never scans the products table.
+@Component
+public class ProductSearchIndex {
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    private static final String ID = "id";
+    private static final String BARCODE = "barcode";
+    private static final String NAME = "name";
+    private static final String DESCRIPTION = "description";
+    private static final String CATEGORY = "category";
+
+    // A word found in the name counts more than in the category, and more than in the description
+    private static final Map<String, Float> TEXT_FIELDS = Map.of(NAME, 3f, CATEGORY, 2f, DESCRIPTION, 1f);
+
+    // Best matches first, then the order of the product list
+    private static final Sort SORT = new Sort(SortField.FIELD_SCORE, new SortField(ID, SortField.Type.INT));
+
+    private final Analyzer analyzer = new ProductAnalyzer();
+
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @PostConstruct
+    public void open() throws IOException {
+        writer = new IndexWriter(new ByteBuffersDirectory(), new IndexWriterConfig(analyzer));
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+    }
+
+    // Ids of one page of the products matching every word of the search
+    public Page<Integer> search(String search, Pageable pageable) {
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                int offset = (int) pageable.getOffset();
+                TopFieldCollector collector = TopFieldCollector.create(SORT, offset + pageable.getPageSize(), Integer.MAX_VALUE);
+                searcher.search(query(search), collector);
+
+                List<Integer> productIds = new ArrayList<>();
+                for (ScoreDoc scoreDoc : collector.topDocs(offset, pageable.getPageSize()).scoreDocs) {
+                    productIds.add((Integer) ((FieldDoc) scoreDoc).fields[1]);
+                }
+
+                return new PageImpl<>(productIds, pageable, collector.getTotalHits());
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public synchronized void put(Product product) {
+        String categoryName = product.getCategory() == null ? null : product.getCategory().getName();
+        write(new ProductSearchDocument(product.getProductId(), product.getBarCode(), product.getName(),
+                product.getDescription(), categoryName));
+        refresh();
+    }
+
+    public synchronized void remove(int productId) {
+        try {
+            writer.deleteDocuments(new Term(ID, String.valueOf(productId)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        refresh();
+    }
+
+    // The products of a renamed category are found by the new name only
+    @Transactional(readOnly = true)
+    public synchronized void putCategory(int categoryId) {
+        productRepository.findSearchDocumentsByCategoryId(categoryId).forEach(this::write);
+        refresh();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        AtomicInteger count = new AtomicInteger();
+
+        // Searches keep reading the previous index until the refresh at the end
+        try (Stream<ProductSearchDocument> stream = productRepository.streamAllSearchDocuments()) {
+            writer.deleteAll();
+            stream.forEach(document -> {
+                write(document);
+                count.incrementAndGet();
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        refresh();
+        logger.info("Search index rebuilt with {} products.", count.get());
+    }
+
+    private void write(ProductSearchDocument product) {
+        String id = String.valueOf(product.getProductId());
+
+        Document document = new Document();
+        document.add(new StringField(ID, id, Field.Store.NO));
+        document.add(new NumericDocValuesField(ID, product.getProductId()));
+        if (product.getBarCode() != null) document.add(new StringField(BARCODE, product.getBarCode(), Field.Store.NO));
+        if (product.getName() != null) document.add(new TextField(NAME, product.getName(), Field.Store.NO));
+        if (product.getDescription() != null)
+            document.add(new TextField(DESCRIPTION, product.getDescription(), Field.Store.NO));
+        if (product.getCategoryName() != null)
+            document.add(new TextField(CATEGORY, product.getCategoryName(), Field.Store.NO));
+
+        try {
+            writer.updateDocument(new Term(ID, id), document);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Makes the writes visible to the next search
+    private void refresh() {
+        try {
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Query query(String search) throws IOException {
+        BooleanQuery.Builder words = new BooleanQuery.Builder();
+        List<String> terms = terms(search);
+        for (String term : terms) {
+            BooleanQuery.Builder anyField = new BooleanQuery.Builder();
+            TEXT_FIELDS.forEach((field, boost) ->
+                    anyField.add(new BoostQuery(termQuery(new Term(field, term)), boost), BooleanClause.Occur.SHOULD));
+            words.add(anyField.build(), BooleanClause.Occur.MUST);
+        }
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        if (!terms.isEmpty()) query.add(words.build(), BooleanClause.Occur.SHOULD);
+        query.add(new PrefixQuery(new Term(BARCODE, search.trim())), BooleanClause.Occur.SHOULD);
+        return query.build();
+    }
+
+    // The same word scores higher than a longer word starting with it, which scores higher than a word with a typo.
+    // Words of 4 letters or more may have one typo, of 8 letters or more two.
+    private static Query termQuery(Term term) {
+        BooleanQuery.Builder query = new BooleanQuery.Builder()
+                .add(new BoostQuery(new TermQuery(term), 4f), BooleanClause.Occur.SHOULD)
+                .add(new BoostQuery(new PrefixQuery(term), 2f), BooleanClause.Occur.SHOULD);
+
+        int length = term.text().length();
+        if (length >= 4) query.add(new FuzzyQuery(term, length >= 8 ? 2 : 1, 1), BooleanClause.Occur.SHOULD);
+        return query.build();
+    }
+
+    private List<String> terms(String text) throws IOException {
+        List<String> terms = new ArrayList<>();
+        try (TokenStream stream = analyzer.tokenStream(NAME, text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) terms.add(term.toString());
+            stream.end();
+        }
+        return terms;
+    }
+
+    // Lower case words without accents, so that "sua" finds "Sữa"
+    private static class ProductAnalyzer extends Analyzer {
+
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            Tokenizer tokenizer = new StandardTokenizer();
+            return new TokenStreamComponents(tokenizer, new ASCIIFoldingFilter(new LowerCaseFilter(tokenizer)));
+        }
+
+        @Override
+        protected TokenStream normalize(String fieldName, TokenStream in) {
+            return new ASCIIFoldingFilter(new LowerCaseFilter(in));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.team3.ministore.cache;
+
+import com.team3.ministore.model.Category;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import java.util.Map;
+import java.util.function.Function;
+
+// Regions of the Hibernate second-level cache, for the reference data read by most planning, payroll and catalog
+// requests. Hibernate evicts the entries itself when it writes these tables, including the cached query results.
+// The writes it cannot see are evicted through this class: the JDBC inserts of the seeder and the product counts
+// of the categories.
+@Component
+public class ReferenceDataCache {
+    public static final String CATEGORIES = "categories";
+    public static final String SHIFT_TEMPLATES = "shift-templates";
+    public static final String HOLIDAYS = "holidays";
+    public static final String SALARIES = "salaries";
+    public static final String HOLIDAY_QUERIES = "holiday-queries";
+    public static final String SALARY_QUERIES = "salary-queries";
+
+    // Most entries kept by each entity region
+    public static final Map<String, Long> ENTITY_REGIONS = Map.of(
+            CATEGORIES, 1_000L,
+            SHIFT_TEMPLATES, 1_000L,
+            HOLIDAYS, 1_000L,
+            SALARIES, 10_000L);
+
+    // Most results kept by each query region, one per distinct set of parameters
+    public static final Map<String, Long> QUERY_REGIONS = Map.of(
+            HOLIDAY_QUERIES, 1_000L,
+            SALARY_QUERIES, 100L);
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // ministore.cache.hit.ratio per region, NaN until the region is first read
+    @PostConstruct
+    public void registerHitRatios() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        ENTITY_REGIONS.keySet().forEach(region -> registerHitRatio(statistics, region,
+                regionStatistics -> regionStatistics.getDomainDataRegionStatistics(region)));
+        QUERY_REGIONS.keySet().forEach(region -> registerHitRatio(statistics, region,
+                regionStatistics -> regionStatistics.getQueryRegionStatistics(region)));
+    }
+
+    // A category carries the number of its products, so every product write makes them stale
+    public void evictCategories() {
+        entityManagerFactory.getCache().evict(Category.class);
+    }
+
+    public void evictAll() {
+        entityManagerFactory.getCache().evictAll();
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+    }
+
+    // The gauge only keeps a weak reference to its state, so it reads the statistics held by the session factory
+    private void registerHitRatio(Statistics statistics, String region,
+                                  Function<Statistics, CacheRegionStatistics> regionStatistics) {
+        Gauge.builder("ministore.cache.hit.ratio", statistics, state -> {
+                    CacheRegionStatistics cacheRegion = regionStatistics.apply(state);
+                    if (cacheRegion == null) return Double.NaN;
+
+                    long requests = cacheRegion.getHitCount() + cacheRegion.getMissCount();
+                    return requests == 0 ? Double.NaN : (double) cacheRegion.getHitCount() / requests;
+                })
+                .description("Share of the second-level cache reads answered from the cache")
+                .tag("region", region)
+                .register(meterRegistry);
+    }
+}
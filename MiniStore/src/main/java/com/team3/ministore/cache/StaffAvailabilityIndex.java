@@ -0,0 +1,136 @@
+package com.team3.ministore.cache;
+
+import com.team3.ministore.common.utils.Availability;
+import com.team3.ministore.common.utils.WorkDays;
+import com.team3.ministore.model.Staff;
+import com.team3.ministore.repository.StaffRepository;
+import com.team3.ministore.utils.Role;
+import com.team3.ministore.utils.StaffStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+// Write-through index of the availability of the active staffs. The masks are turned around: for each role and hour
+// of the week, a bit set of the staffs of the role available then, so that the staffs free for a whole shift are the
+// AND of the bit sets of its hours, 64 staffs per instruction.
+@Component
+public class StaffAvailabilityIndex {
+    private static final Logger logger = LoggerFactory.getLogger(StaffAvailabilityIndex.class);
+
+    // Availability of each indexed staff, the source the role indexes are built from
+    private final Map<Integer, Entry> entries = new HashMap<>();
+
+    private volatile Map<Role, RoleIndex> roleIndexes = Map.of();
+
+    @Autowired
+    private StaffRepository staffRepository;
+
+    // Ids of the active staffs of the role (any role but ADMIN for ALL_ROLES) available for every given slot
+    public List<Integer> getAvailableStaffIds(Role role, int[] slots) {
+        Map<Role, RoleIndex> indexes = roleIndexes;
+
+        List<Integer> staffIds = new ArrayList<>();
+        for (RoleIndex index : indexes.values()) {
+            if (role == Role.ALL_ROLES ? index.role != Role.ADMIN : index.role == role) index.collect(slots, staffIds);
+        }
+        return staffIds;
+    }
+
+    public synchronized void put(Staff staff) {
+        if (staff.getStatus() != StaffStatus.ACTIVE || staff.getRole() == null) {
+            remove(staff.getStaffId());
+            return;
+        }
+
+        entries.put(staff.getStaffId(), new Entry(staff.getRole(), availability(staff)));
+        roleIndexes = build(entries);
+    }
+
+    public synchronized void remove(int staffId) {
+        if (entries.remove(staffId) != null) roleIndexes = build(entries);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        entries.clear();
+        List<Integer> unreadWorkDays = new ArrayList<>();
+        for (Staff staff : staffRepository.findAllByStatus(StaffStatus.ACTIVE)) {
+            if (staff.getRole() != null) entries.put(staff.getStaffId(), new Entry(staff.getRole(), availability(staff)));
+            if (staff.getAvailability() == null && WorkDays.parse(staff.getWorkDays()) == 0) unreadWorkDays.add(staff.getStaffId());
+        }
+
+        roleIndexes = build(entries);
+        logger.info("Availability index rebuilt with {} staffs.", entries.size());
+        if (!unreadWorkDays.isEmpty())
+            logger.warn("No day could be read from the work days of the staffs {}, they have no available hours until "
+                    + "they are set through PUT /staffs/{id}/availability.", unreadWorkDays);
+    }
+
+    // Staffs saved before the availability column only have their work days
+    public static byte[] availability(Staff staff) {
+        return staff.getAvailability() != null ? staff.getAvailability() : Availability.parse(staff.getWorkDays());
+    }
+
+    private static Map<Role, RoleIndex> build(Map<Integer, Entry> entries) {
+        Map<Role, List<Integer>> staffIds = new EnumMap<>(Role.class);
+        new TreeMap<>(entries).forEach((staffId, entry) ->
+                staffIds.computeIfAbsent(entry.role, role -> new ArrayList<>()).add(staffId));
+
+        Map<Role, RoleIndex> indexes = new EnumMap<>(Role.class);
+        staffIds.forEach((role, ids) -> {
+            RoleIndex index = new RoleIndex(role, ids.stream().mapToInt(Integer::intValue).toArray());
+            for (int i = 0; i < index.staffIds.length; i++) {
+                byte[] availability = entries.get(index.staffIds[i]).availability;
+                for (int slot = 0; slot < Availability.SLOTS; slot++) {
+                    if (Availability.contains(availability, slot)) index.slots[slot][i >>> 6] |= 1L << (i & 63);
+                }
+            }
+            indexes.put(role, index);
+        });
+        return indexes;
+    }
+
+    private static class Entry {
+        private final Role role;
+        private final byte[] availability;
+
+        private Entry(Role role, byte[] availability) {
+            this.role = role;
+            this.availability = availability;
+        }
+    }
+
+    // Staffs of a role by id, and for each slot the bits of the staffs available then
+    private static class RoleIndex {
+        private final Role role;
+        private final int[] staffIds;
+        private final long[][] slots;
+
+        private RoleIndex(Role role, int[] staffIds) {
+            this.role = role;
+            this.staffIds = staffIds;
+            this.slots = new long[Availability.SLOTS][(staffIds.length + 63) >>> 6];
+        }
+
+        private void collect(int[] slots, List<Integer> result) {
+            int words = (staffIds.length + 63) >>> 6;
+            for (int word = 0; word < words; word++) {
+                long available = -1L;
+                for (int slot : slots) available &= this.slots[slot][word];
+
+                while (available != 0) {
+                    int i = (word << 6) + Long.numberOfTrailingZeros(available);
+                    if (i < staffIds.length) result.add(staffIds[i]);
+                    available &= available - 1;
+                }
+            }
+        }
+    }
+}
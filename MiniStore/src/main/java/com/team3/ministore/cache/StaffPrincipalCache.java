@@ -0,0 +1,76 @@
+package com.team3.ministore.cache;
+
+import com.team3.ministore.dto.StaffDetails;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bounded cache of the authenticated staffs, so a request with a valid token does not query the staff table.
+// Entries expire after TTL_MILLIS and are dropped by StaffServiceImpl when a staff is updated or deleted.
+@Component
+public class StaffPrincipalCache {
+    private static final long TTL_MILLIS = 5 * 60 * 1000L;
+    private static final int MAX_SIZE = 1000;
+
+    private final Map<String, CachedPrincipal> principals = new ConcurrentHashMap<>();
+
+    // Bumped by every invalidation. A staff loaded while it changed is returned but not cached, or it could put
+    // the staff as it was before the change back in the cache for the whole TTL. Invalidations are rare, so one
+    // counter for all the staffs is enough.
+    private final AtomicLong generation = new AtomicLong();
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    public StaffDetails getPrincipal(String username) throws UsernameNotFoundException {
+        long now = System.currentTimeMillis();
+
+        CachedPrincipal cached = principals.get(username);
+        if (cached != null && cached.expiresAt > now) return cached.staffDetails;
+
+        long loadedGeneration = generation.get();
+        StaffDetails staffDetails = (StaffDetails) userDetailsService.loadUserByUsername(username);
+
+        if (principals.size() >= MAX_SIZE) evict(now);
+        // Checked under the lock of the entry: an invalidation either comes first and is seen here,
+        // or removes the entry right after it is put
+        principals.compute(username, (key, current) -> generation.get() == loadedGeneration
+                ? new CachedPrincipal(staffDetails, now + TTL_MILLIS) : current);
+
+        return staffDetails;
+    }
+
+    public void invalidate(String username) {
+        if (username == null) return;
+
+        generation.incrementAndGet();
+        principals.remove(username);
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        principals.clear();
+    }
+
+    private void evict(long now) {
+        principals.values().removeIf(cached -> cached.expiresAt <= now);
+
+        // Still full, start over rather than tracking the least recently used entries
+        if (principals.size() >= MAX_SIZE) principals.clear();
+    }
+
+    private static class CachedPrincipal {
+        private final StaffDetails staffDetails;
+        private final long expiresAt;
+
+        private CachedPrincipal(StaffDetails staffDetails, long expiresAt) {
+            this.staffDetails = staffDetails;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
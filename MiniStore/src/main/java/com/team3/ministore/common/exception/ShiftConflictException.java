@@ -0,0 +1,20 @@
+package com.team3.ministore.common.exception;
+
+import com.team3.ministore.dto.ShiftConflict;
+
+import java.util.List;
+
+// Generated shifts that conflict with saved shifts or approved leaves. Thrown inside the transaction that would insert
+// them, so that nothing is saved, and answered with 409 and the conflicts like POST /shifts/add/multiple.
+public class ShiftConflictException extends RuntimeException {
+    private final List<ShiftConflict> conflicts;
+
+    public ShiftConflictException(List<ShiftConflict> conflicts) {
+        super(conflicts.size() + " conflicting shifts");
+        this.conflicts = conflicts;
+    }
+
+    public List<ShiftConflict> getConflicts() {
+        return conflicts;
+    }
+}
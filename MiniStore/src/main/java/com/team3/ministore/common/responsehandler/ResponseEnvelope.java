@@ -0,0 +1,36 @@
+package com.team3.ministore.common.responsehandler;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+// Body of every response built by ResponseHandler. It serializes to the same JSON as the map it replaces:
+// {"content":...,"errors":...,"timestamp":"...","status":...} in this order, nulls included.
+@JsonSerialize(using = ResponseEnvelopeSerializer.class)
+public final class ResponseEnvelope {
+    private final Object content;
+    private final Object errors;
+    private final String timestamp;
+    private final int status;
+
+    public ResponseEnvelope(Object content, Object errors, String timestamp, int status) {
+        this.content = content;
+        this.errors = errors;
+        this.timestamp = timestamp;
+        this.status = status;
+    }
+
+    public Object getContent() {
+        return content;
+    }
+
+    public Object getErrors() {
+        return errors;
+    }
+
+    public String getTimestamp() {
+        return timestamp;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,27 @@
+package com.team3.ministore.common.responsehandler;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+// Writes the envelope field by field, without the bean introspection of the default serializer
+public class ResponseEnvelopeSerializer extends StdSerializer<ResponseEnvelope> {
+
+    public ResponseEnvelopeSerializer() {
+        super(ResponseEnvelope.class);
+    }
+
+    @Override
+    public void serialize(ResponseEnvelope envelope, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(envelope);
+        gen.writeFieldName("content");
+        provider.defaultSerializeValue(envelope.getContent(), gen);
+        gen.writeFieldName("errors");
+        provider.defaultSerializeValue(envelope.getErrors(), gen);
+        gen.writeStringField("timestamp", envelope.getTimestamp());
+        gen.writeNumberField("status", envelope.getStatus());
+        gen.writeEndObject();
+    }
+}
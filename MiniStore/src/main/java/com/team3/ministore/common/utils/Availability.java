@@ -0,0 +1,75 @@
+package com.team3.ministore.common.utils;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+// Hours of the week a staff can work, as a mask of SLOTS bits: bit day * 24 + hour, Monday 0:00 being bit 0. Stored
+// in Staff.availability as BYTES bytes, bit i in byte i / 8, so that every day takes three bytes of its own.
+public final class Availability {
+    public static final int HOURS_PER_DAY = 24;
+    public static final int SLOTS = 7 * HOURS_PER_DAY;
+    public static final int BYTES = SLOTS / 8;
+
+    private Availability() {
+    }
+
+    // Whole days from the legacy Staff.workDays text, see WorkDays.parse
+    public static byte[] parse(String workDays) {
+        return ofWorkDays(WorkDays.parse(workDays));
+    }
+
+    public static byte[] ofWorkDays(int workDays) {
+        byte[] mask = new byte[BYTES];
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if ((workDays & WorkDays.bit(day)) == 0) continue;
+            for (int hour = 0; hour < HOURS_PER_DAY; hour++) set(mask, slot(day, hour));
+        }
+        return mask;
+    }
+
+    // Adds the whole hours within a window on the day: a window starting or ending within an hour does not take it,
+    // the staff is not available for all of it. An end time up to the start time is on the next day.
+    public static void add(byte[] mask, DayOfWeek day, LocalTime startTime, LocalTime endTime) {
+        int start = startTime.toSecondOfDay();
+        int end = end(start, endTime);
+        for (int hour = (start + 3599) / 3600; hour < end / 3600; hour++) set(mask, (slot(day, 0) + hour) % SLOTS);
+    }
+
+    // Slots a shift on the date takes, an end time up to the start time is on the next day (Sunday night runs into
+    // Monday morning). Unlike a window, a shift starting or ending within an hour takes all of it.
+    public static int[] slots(LocalDate date, LocalTime startTime, LocalTime endTime) {
+        int start = startTime.toSecondOfDay();
+        int end = end(start, endTime);
+
+        // Up to the hour holding the last second of the shift
+        int first = start / 3600;
+        int[] slots = new int[(end - 1) / 3600 - first + 1];
+        for (int i = 0; i < slots.length; i++) slots[i] = (slot(date.getDayOfWeek(), first) + i) % SLOTS;
+        return slots;
+    }
+
+    public static int slot(DayOfWeek day, int hour) {
+        return (day.getValue() - 1) * HOURS_PER_DAY + hour;
+    }
+
+    public static boolean contains(byte[] mask, int slot) {
+        return mask != null && (mask[slot >>> 3] & (1 << (slot & 7))) != 0;
+    }
+
+    public static boolean containsAll(byte[] mask, int[] slots) {
+        for (int slot : slots) {
+            if (!contains(mask, slot)) return false;
+        }
+        return true;
+    }
+
+    private static void set(byte[] mask, int slot) {
+        mask[slot >>> 3] |= (byte) (1 << (slot & 7));
+    }
+
+    private static int end(int start, LocalTime endTime) {
+        int end = endTime.toSecondOfDay();
+        return end <= start ? end + HOURS_PER_DAY * 3600 : end;
+    }
+}
@@ -0,0 +1,45 @@
+package com.team3.ministore.common.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Opaque continuation tokens for keyset pagination: the sort keys of the last row, joined and Base64 encoded
+public class CursorUtils {
+    private static final String SEPARATOR = "|";
+
+    public static String encode(Object... keys) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < keys.length; i++) {
+            if (i > 0) builder.append(SEPARATOR);
+            builder.append(keys[i]);
+        }
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(builder.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Returns null for the first page (no cursor)
+    public static String[] decode(String cursor, int numOfKeys) throws IllegalArgumentException {
+        if (cursor == null || cursor.isBlank()) return null;
+
+        String[] keys;
+        try {
+            keys = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\" + SEPARATOR, -1);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+
+        if (keys.length != numOfKeys) throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        return keys;
+    }
+
+    public static Integer decodeId(String cursor) throws IllegalArgumentException {
+        String[] keys = decode(cursor, 1);
+        if (keys == null) return null;
+
+        try {
+            return Integer.parseInt(keys[0]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
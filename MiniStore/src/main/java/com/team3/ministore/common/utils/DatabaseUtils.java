@@ -0,0 +1,36 @@
+package com.team3.ministore.common.utils;
+
+import org.hibernate.Hibernate;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class DatabaseUtils {
+    // MySQL Connector/J only streams a result set row by row with this fetch size
+    public static final String STREAMING_FETCH_SIZE = "" + Integer.MIN_VALUE;
+
+    // Rows per INSERT statement, keeps the statements far below max_allowed_packet
+    public static final int ROWS_PER_INSERT = 500;
+
+    // Whether a lazy association was loaded by the fetch plan of the query. The DTOs only convert those,
+    // walking an unloaded one would run a select per row (or fail outside the session)
+    public static boolean isFetched(Object association) {
+        return association != null && Hibernate.isInitialized(association);
+    }
+
+    // One INSERT ... VALUES (...), (...) statement per ROWS_PER_INSERT rows. Joins the current transaction like
+    // the repositories.
+    public static void insertRows(JdbcTemplate jdbcTemplate, String table, String columns, List<Object[]> rows) {
+        if (rows.isEmpty()) return;
+
+        String row = "(" + String.join(", ", Collections.nCopies(rows.get(0).length, "?")) + ")";
+        for (int from = 0; from < rows.size(); from += ROWS_PER_INSERT) {
+            List<Object[]> chunk = rows.subList(from, Math.min(from + ROWS_PER_INSERT, rows.size()));
+            jdbcTemplate.update("INSERT INTO " + table + " (" + columns + ") VALUES "
+                            + String.join(", ", Collections.nCopies(chunk.size(), row)),
+                    chunk.stream().flatMap(Arrays::stream).toArray());
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.team3.ministore.common.utils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+// Immutable set of inclusive date ranges (leaves, holidays, ...) merged into sorted,
+// non-overlapping ranges so that a lookup is a binary search instead of a scan
+public final class DateRangeIndex {
+
+    private static final DateRangeIndex EMPTY = new DateRangeIndex(new long[0], new long[0]);
+
+    private final long[] starts;
+    private final long[] ends;
+
+    private DateRangeIndex(long[] starts, long[] ends) {
+        this.starts = starts;
+        this.ends = ends;
+    }
+
+    public static DateRangeIndex empty() {
+        return EMPTY;
+    }
+
+    public static <T> DateRangeIndex of(Collection<T> items, Function<T, LocalDate> startDate, Function<T, LocalDate> endDate) {
+        if (items == null || items.isEmpty()) return EMPTY;
+
+        List<long[]> ranges = new ArrayList<>(items.size());
+        for (T item : items) {
+            LocalDate start = startDate.apply(item);
+            LocalDate end = endDate.apply(item);
+            if (start == null || end == null) continue;
+
+            if (start.isAfter(end)) {
+                // A reversed range only matches its two bounds
+                ranges.add(new long[]{start.toEpochDay(), start.toEpochDay()});
+                ranges.add(new long[]{end.toEpochDay(), end.toEpochDay()});
+            } else {
+                ranges.add(new long[]{start.toEpochDay(), end.toEpochDay()});
+            }
+        }
+        if (ranges.isEmpty()) return EMPTY;
+
+        ranges.sort((a, b) -> Long.compare(a[0], b[0]));
+
+        // Merge overlapping and adjacent ranges
+        long[] starts = new long[ranges.size()];
+        long[] ends = new long[ranges.size()];
+        int size = 0;
+        for (long[] range : ranges) {
+            if (size > 0 && range[0] <= ends[size - 1] + 1) {
+                ends[size - 1] = Math.max(ends[size - 1], range[1]);
+            } else {
+                starts[size] = range[0];
+                ends[size] = range[1];
+                size++;
+            }
+        }
+
+        return new DateRangeIndex(Arrays.copyOf(starts, size), Arrays.copyOf(ends, size));
+    }
+
+    public boolean contains(LocalDate date) {
+        if (date == null || starts.length == 0) return false;
+
+        long day = date.toEpochDay();
+        int index = Arrays.binarySearch(starts, day);
+        // Not found: take the last range starting before the date
+        if (index < 0) index = -index - 2;
+
+        return index >= 0 && day <= ends[index];
+    }
+
+    public boolean isEmpty() {
+        return starts.length == 0;
+    }
+
+    public int size() {
+        return starts.length;
+    }
+}
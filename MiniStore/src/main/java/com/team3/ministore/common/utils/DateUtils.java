@@ -1,6 +1,8 @@
 package com.team3.ministore.common.utils;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 
 public class DateUtils {
@@ -8,6 +10,9 @@ public static final String DATE_FORMAT = "yyyy-MM-dd HH:mm:ss";
 	
 	private static DateTimeFormatter formatter= DateTimeFormatter.ofPattern(DATE_FORMAT);
 	
+	// The format has no fraction of second, so the current time is formatted once per second
+	private static volatile CachedTimestamp currentTimestamp = new CachedTimestamp(Long.MIN_VALUE, null);
+	
 	public static LocalDateTime toDate(String date) {
 		return LocalDateTime.parse(date,formatter);
 	}
@@ -15,5 +20,27 @@ public static final String DATE_FORMAT = "yyyy-MM-dd HH:mm:ss";
 	public static String toString(LocalDateTime date) {
 		return date.format(formatter);
 	}
+	
+	// Same as toString(LocalDateTime.now())
+	public static String currentTimestamp() {
+		long second = System.currentTimeMillis() / 1000;
+		CachedTimestamp cached = currentTimestamp;
+		
+		if (cached.second != second) {
+			cached = new CachedTimestamp(second, toString(LocalDateTime.ofInstant(Instant.ofEpochSecond(second), ZoneId.systemDefault())));
+			currentTimestamp = cached;
+		}
+		
+		return cached.value;
+	}
+	
+	private static class CachedTimestamp {
+		private final long second;
+		private final String value;
+		
+		private CachedTimestamp(long second, String value) {
+			this.second = second;
+			this.value = value;
+		}
+	}
 }
-
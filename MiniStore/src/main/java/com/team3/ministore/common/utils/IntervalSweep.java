@@ -0,0 +1,36 @@
+package com.team3.ministore.common.utils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.BiConsumer;
+import java.util.function.ToLongFunction;
+
+// Overlapping pairs of half-open intervals [start, end): the intervals are sorted by start and swept with a heap of
+// the ones still open, so it takes O(n log n) plus one step per pair instead of comparing every two intervals
+public final class IntervalSweep {
+
+    private IntervalSweep() {
+    }
+
+    // Calls overlap with each overlapping pair, the interval starting first (or ending first on a tie) first.
+    // Empty and reversed intervals overlap nothing, touching ones do not overlap.
+    public static <T> void forEachOverlap(List<T> items, ToLongFunction<T> start, ToLongFunction<T> end,
+                                          BiConsumer<T, T> overlap) {
+        List<T> sorted = new ArrayList<>(items.size());
+        for (T item : items) {
+            if (start.applyAsLong(item) < end.applyAsLong(item)) sorted.add(item);
+        }
+        sorted.sort(Comparator.<T>comparingLong(start).thenComparingLong(end));
+
+        PriorityQueue<T> open = new PriorityQueue<>(Comparator.comparingLong(end));
+        for (T item : sorted) {
+            long itemStart = start.applyAsLong(item);
+            while (!open.isEmpty() && end.applyAsLong(open.peek()) <= itemStart) open.poll();
+
+            for (T openItem : open) overlap.accept(openItem, item);
+            open.add(item);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.team3.ministore.common.utils;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Days of the week a staff works, as a bit mask with bit 0 for Monday up to bit 6 for Sunday.
+// Staff.workDays is free text such as "MON, TUE, WED", "Mon - Fri", "Weekends" or "Whole week".
+public final class WorkDays {
+    public static final int WHOLE_WEEK = 0b1111111;
+    public static final int WEEKDAYS = 0b0011111;
+    public static final int WEEKENDS = 0b1100000;
+
+    // Any word starting with the first three letters of a day ("wed", "Wednesday", ...)
+    private static final String DAY = "(?<![A-Z])(MON|TUE|WED|THU|FRI|SAT|SUN)[A-Z]*";
+    private static final Pattern DAY_PATTERN = Pattern.compile(DAY);
+    private static final Pattern RANGE_PATTERN = Pattern.compile(DAY + "(?:\\s*[-\\u2013\\u2014~]\\s*|\\s+(?:TO|THROUGH|THRU|UNTIL)\\s+)" + DAY);
+    private static final Pattern WHOLE_WEEK_PATTERN = Pattern.compile(
+            "(?<![A-Z])((WHOLE|FULL|ALL|ENTIRE)\\s+WEEK|EVERY\\s*DAYS?|ALL\\s+DAYS|DAILY)(?![A-Z])");
+    private static final Pattern WEEKDAYS_PATTERN = Pattern.compile("(?<![A-Z])WEEK\\s*DAYS?(?![A-Z])");
+    private static final Pattern WEEKENDS_PATTERN = Pattern.compile("(?<![A-Z])WEEK\\s*-?\\s*ENDS?(?![A-Z])");
+
+    private WorkDays() {
+    }
+
+    // Days, ranges of days ("Mon - Fri", "Friday to Monday"), "Weekdays", "Weekends" and "Whole week" / "Every day"
+    // count. Empty text is the whole week, nothing restricts the days. Text without any of them is no day at all (0):
+    // there is no telling which days it means, so the staff gets no hours until they are set through the availability.
+    public static int parse(String workDays) {
+        if (workDays == null || workDays.isBlank()) return WHOLE_WEEK;
+
+        String text = workDays.toUpperCase(Locale.ROOT);
+        if (WHOLE_WEEK_PATTERN.matcher(text).find()) return WHOLE_WEEK;
+
+        int mask = 0;
+        if (WEEKDAYS_PATTERN.matcher(text).find()) mask |= WEEKDAYS;
+        if (WEEKENDS_PATTERN.matcher(text).find()) mask |= WEEKENDS;
+
+        // A range from a later day runs over Sunday ("Fri - Mon")
+        Matcher range = RANGE_PATTERN.matcher(text);
+        while (range.find()) {
+            int first = dayIndex(range.group(1));
+            int last = dayIndex(range.group(2));
+            for (int day = first; day != (last + 1) % 7; day = (day + 1) % 7) mask |= 1 << day;
+        }
+
+        Matcher day = DAY_PATTERN.matcher(range.replaceAll(" "));
+        while (day.find()) mask |= 1 << dayIndex(day.group(1));
+        return mask;
+    }
+
+    public static int bit(DayOfWeek day) {
+        return 1 << (day.getValue() - 1);
+    }
+
+    public static boolean contains(int mask, LocalDate date) {
+        return (mask & bit(date.getDayOfWeek())) != 0;
+    }
+
+    private static int dayIndex(String prefix) {
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (day.name().startsWith(prefix)) return day.getValue() - 1;
+        }
+        throw new IllegalArgumentException(prefix);
+    }
+}
@@ -9,11 +9,13 @@ import com.team3.ministore.utils.Role;
 import com.team3.ministore.utils.StaffStatus;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
 
 @Component
+@Order(1)
 public class DatabaseSeeder implements CommandLineRunner {
 
     @Autowired
@@ -0,0 +1,47 @@
+package com.team3.ministore.config;
+
+import com.team3.ministore.dto.SeedOptions;
+import com.team3.ministore.service.SeedService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+// Fills the database with generated data on startup, only when started with --seed.enabled=true.
+// Runs after DatabaseSeeder, which skips the admin account once there are staffs.
+@Component
+@Order(2)
+@ConditionalOnProperty(name = "seed.enabled", havingValue = "true")
+public class DatasetSeeder implements CommandLineRunner {
+
+    @Autowired
+    private SeedService seedService;
+
+    @Value("${seed.staffs:50}")
+    private int staffs;
+
+    @Value("${seed.products:2000}")
+    private int products;
+
+    @Value("${seed.orders:300000}")
+    private int orders;
+
+    @Value("${seed.days:180}")
+    private int days;
+
+    @Value("${seed.planned-days:14}")
+    private int plannedDays;
+
+    @Value("${seed.password:123456}")
+    private String password;
+
+    @Value("${seed.random-seed:42}")
+    private long randomSeed;
+
+    @Override
+    public void run(String... args) {
+        seedService.seed(new SeedOptions(staffs, products, orders, days, plannedDays, password, randomSeed));
+    }
+}
@@ -0,0 +1,91 @@
+package com.team3.ministore.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.team3.ministore.cache.ReferenceDataCache;
+import com.team3.ministore.metrics.QueryCountInspector;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class HibernateConfig {
+
+    public static final int BATCH_SIZE = 50;
+
+    // Safety net for the rows changed outside the application, Hibernate evicts its own writes right away
+    private static final long CACHE_TTL_MINUTES = 60;
+
+    // Group inserts and updates of the same table into JDBC batches. Inserts of the entities with IDENTITY ids
+    // cannot be batched, the bulk ones take their ids from IdSequenceRepository instead.
+    @Bean
+    public HibernatePropertiesCustomizer batchingCustomizer() {
+        return properties -> {
+            properties.put("hibernate.jdbc.batch_size", BATCH_SIZE);
+            properties.put("hibernate.order_inserts", true);
+            properties.put("hibernate.order_updates", true);
+            // A sequence row holds the last id handed out, as expected by the JDBC inserts reserving ids from it
+            properties.put("hibernate.id.optimizer.pooled.preferred", "pooled-lo");
+            properties.put("hibernate.id.generator.stored_last_used", true);
+        };
+    }
+
+    // Counts the statements of each request, see QueryCountFilter
+    @Bean
+    public HibernatePropertiesCustomizer statementInspectorCustomizer(QueryCountInspector queryCountInspector) {
+        return properties -> properties.put("hibernate.session_factory.statement_inspector", queryCountInspector);
+    }
+
+    // Second-level cache, see ReferenceDataCache for the cached entities and queries
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put("hibernate.cache.use_second_level_cache", true);
+            properties.put("hibernate.cache.use_query_cache", true);
+            properties.put("hibernate.cache.region.factory_class", "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            // Statistics feed the hibernate.* meters and the cache hit ratios, without a log line per session
+            properties.put("hibernate.generate_statistics", true);
+            properties.put("hibernate.session.events.log", false);
+        };
+    }
+
+    // One cache manager per application context, with bounded regions that store the entries by reference
+    // (by value, Caffeine would serialize every entry on each read and write)
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("ministore-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        ReferenceDataCache.ENTITY_REGIONS.forEach((region, maximumSize) ->
+                cacheManager.createCache(region, cacheConfiguration(maximumSize, CACHE_TTL_MINUTES)));
+
+        ReferenceDataCache.QUERY_REGIONS.forEach((region, maximumSize) ->
+                cacheManager.createCache(region, cacheConfiguration(maximumSize, CACHE_TTL_MINUTES)));
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                cacheConfiguration(1_000L, CACHE_TTL_MINUTES));
+
+        // One entry per table, it must outlive the query results that depend on it
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                cacheConfiguration(null, null));
+
+        return cacheManager;
+    }
+
+    private static CaffeineConfiguration<Object, Object> cacheConfiguration(Long maximumSize, Long ttlMinutes) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStoreByValue(false);
+        if (maximumSize != null) configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        if (ttlMinutes != null) configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.MINUTES.toNanos(ttlMinutes)));
+        return configuration;
+    }
+}
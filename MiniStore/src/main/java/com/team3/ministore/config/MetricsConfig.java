@@ -0,0 +1,19 @@
+package com.team3.ministore.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Besides the meters added here, Spring Boot already records http.server.requests per endpoint,
+// spring.data.repository.invocations per repository method and the hikaricp.* pool meters.
+// QueryCountFilter adds the statements per request. Everything is scraped from /actuator/prometheus.
+@Configuration
+public class MetricsConfig {
+
+    // Makes @Timed work on any bean, not only on controllers
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
@@ -0,0 +1,27 @@
+package com.team3.ministore.config;
+
+import com.team3.ministore.metrics.QueryCountInspector;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class PaymentConfig {
+    public static final String PAYMENT_EXECUTOR = "paymentExecutor";
+
+    // Applies the VNPay notifications off the request threads. A full queue rejects the notification,
+    // which is answered with an error so that VNPay sends it again later. The statements of a notification count
+    // for the request that brought it.
+    @Bean(PAYMENT_EXECUTOR)
+    public ThreadPoolTaskExecutor paymentExecutor(QueryCountInspector queryCountInspector) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("payment-");
+        executor.setTaskDecorator(queryCountInspector::decorate);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
@@ -0,0 +1,25 @@
+package com.team3.ministore.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class SchedulingConfig {
+    public static final String AUTO_SCHEDULE_EXECUTOR = "autoScheduleExecutor";
+
+    // Runs the workers of the schedule solver, one per core. The work is CPU bound, more threads would only share
+    // the cores. The queue holds the workers of one more schedule, a third one at the same time is rejected
+    // (503) instead of piling up behind the others.
+    @Bean(AUTO_SCHEDULE_EXECUTOR)
+    public ThreadPoolTaskExecutor autoScheduleExecutor() {
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(cores);
+        executor.setMaxPoolSize(cores);
+        executor.setQueueCapacity(cores);
+        executor.setThreadNamePrefix("auto-schedule-");
+        return executor;
+    }
+}
@@ -7,6 +7,7 @@ import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
 import javax.servlet.http.HttpServletRequest;
 import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
@@ -91,6 +92,30 @@ public class VnPayConfig {
         return hmacSHA512(vnp_HashSecret, sb.toString());
     }
 
+    // Checks vnp_SecureHash of a VNPay callback
+    public boolean verifySignature(Map<String, String> fields) {
+        String secureHash = fields.get("vnp_SecureHash");
+        if (secureHash == null || secureHash.isEmpty()) return false;
+
+        // Compared in constant time, VNPay may send the hash in upper case
+        return MessageDigest.isEqual(secureHash(fields).getBytes(StandardCharsets.US_ASCII),
+                secureHash.toLowerCase().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    // vnp_SecureHash of the fields, computed like the one of the payment URL: over the vnp_ fields but the hash itself,
+    // sorted by name, with their values URL-encoded
+    public String secureHash(Map<String, String> fields) {
+        StringBuilder hashData = new StringBuilder();
+        new TreeMap<>(fields).forEach((fieldName, fieldValue) -> {
+            if (!fieldName.startsWith("vnp_") || fieldName.equals("vnp_SecureHash")
+                    || fieldName.equals("vnp_SecureHashType") || fieldValue == null || fieldValue.isEmpty()) return;
+
+            if (hashData.length() > 0) hashData.append('&');
+            hashData.append(fieldName).append('=').append(URLEncoder.encode(fieldValue, StandardCharsets.US_ASCII));
+        });
+        return hmacSHA512(vnp_HashSecret, hashData.toString());
+    }
+
     public String hmacSHA512(final String key, final String data) {
         try {
 
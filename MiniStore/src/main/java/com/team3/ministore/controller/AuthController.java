@@ -2,6 +2,7 @@ package com.team3.ministore.controller;
 
 import com.team3.ministore.common.responsehandler.ResponseHandler;
 import com.team3.ministore.dto.LoginDto;
+import com.team3.ministore.dto.StaffDetails;
 import com.team3.ministore.dto.StaffDto;
 import com.team3.ministore.jwt.JwtUtils;
 import com.team3.ministore.model.Staff;
@@ -9,8 +10,6 @@ import com.team3.ministore.service.SalaryService;
 import com.team3.ministore.service.StaffService;
 import com.team3.ministore.utils.StaffStatus;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.MalformedJwtException;
-import io.jsonwebtoken.security.SignatureException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
@@ -66,26 +65,19 @@ public class AuthController {
         String token = jwtUtils.getJwtTokenFromRequest(request);
         if (token == null)
             return ResponseHandler.getResponse("Please sign in first.", HttpStatus.BAD_REQUEST);
-        try {
-            String username = jwtUtils.getUsernameFromToken(token);
-            Optional<Staff> foundStaff = staffService.getStaffByUsername(username);
 
-            if (foundStaff.isPresent() && foundStaff.get().getStatus() == StaffStatus.DISABLED)
-                return ResponseHandler.getResponse(new Exception("Your account has been deactivated."), HttpStatus.BAD_REQUEST);
+        // The token was checked by JwtAuthorizationFilter, which left the staff in the security context
+        Optional<StaffDetails> principal = jwtUtils.getAuthenticatedStaff();
+        if (principal.isEmpty())
+            return ResponseHandler.getResponse(new Exception("Forbidden request."), HttpStatus.FORBIDDEN);
 
-            return foundStaff.map(value -> ResponseHandler.getResponse(
-                    new StaffDto(value, salaryService.getSalaryByStaffId(value.getStaffId())), HttpStatus.OK)
-            ).orElseGet(() -> ResponseHandler.getResponse(new Exception("Invalid staff id"), HttpStatus.BAD_REQUEST));
+        if (principal.get().getStatus() == StaffStatus.DISABLED)
+            return ResponseHandler.getResponse(new Exception("Your account has been deactivated."), HttpStatus.BAD_REQUEST);
 
-        } catch (SignatureException e) {
-            e.printStackTrace();
-            return ResponseHandler.getResponse(e, HttpStatus.FORBIDDEN);
-        } catch (MalformedJwtException e) {
-            e.printStackTrace();
-            return ResponseHandler.getResponse(new Exception("Forbidden request."), HttpStatus.FORBIDDEN);
-        } catch (Exception e) {
-            e.printStackTrace();
-            return ResponseHandler.getResponse(e, HttpStatus.BAD_REQUEST);
-        }
+        // The whole staff is answered, which the principal does not hold
+        Optional<Staff> foundStaff = staffService.getStaffById(principal.get().getStaffId());
+        return foundStaff.map(value -> ResponseHandler.getResponse(
+                new StaffDto(value, salaryService.getSalaryByStaffId(value.getStaffId())), HttpStatus.OK)
+        ).orElseGet(() -> ResponseHandler.getResponse(new Exception("Invalid staff id"), HttpStatus.BAD_REQUEST));
     }
 }
@@ -2,10 +2,9 @@ package com.team3.ministore.controller;
 
 import com.team3.ministore.common.responsehandler.ResponseHandler;
 import com.team3.ministore.dto.LeaveRequestDto;
+import com.team3.ministore.dto.StaffDetails;
 import com.team3.ministore.jwt.JwtUtils;
-import com.team3.ministore.model.Staff;
 import com.team3.ministore.service.LeaveRequestService;
-import com.team3.ministore.service.StaffService;
 import com.team3.ministore.utils.Role;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -24,9 +23,6 @@ public class LeaveRequestController {
     @Autowired
     private LeaveRequestService leaveRequestService;
 
-    @Autowired
-    private StaffService staffService;
-
     @Autowired
     private JwtUtils jwt;
 
@@ -45,20 +41,40 @@ public class LeaveRequestController {
     public ResponseEntity<Object> getAllLeaveRequest(@RequestParam("search") Optional<String> search,
                                                      @RequestParam("curPage") Optional<Integer> curPage,
                                                      @RequestParam("perPage") Optional<Integer> perPage,
+                                                     @RequestParam("cursor") Optional<String> cursor,
+                                                     @RequestParam("withCount") Optional<Boolean> withCount,
                                                      HttpServletRequest request) {
-        if (jwt.getJwtTokenFromRequest(request) != null) {
-            Optional<Staff> staff = staffService.getStaffByUsername(jwt.getUsernameFromToken(jwt.getJwtTokenFromRequest(request)));
+        // Staffs only see their own requests. A token that does not authenticate (expired, or issued before
+        // a role change) is refused instead of being answered like a request without token.
+        Optional<StaffDetails> staff = jwt.getAuthenticatedStaff();
+        if (staff.isEmpty() && jwt.getJwtTokenFromRequest(request) != null)
+            return ResponseHandler.getResponse(new Exception("Please sign in again."), HttpStatus.UNAUTHORIZED);
+        Integer staffId = staff.filter(value -> value.getRole() != Role.ADMIN).map(StaffDetails::getStaffId).orElse(null);
 
-            if (staff.isPresent() && !staff.get().getRole().equals(Role.ADMIN)) {
-                return ResponseHandler.getResponse(
-                        leaveRequestService.getLeaveRequestsByStaffId(
-                                staff.get().getStaffId(),
-                                curPage.orElseGet(() -> 1),
-                                perPage.orElseGet(() -> 10)
-                        ).map(LeaveRequestDto::new), HttpStatus.OK);
+        // Keyset pagination when a cursor is given, an empty cursor asks for the first page
+        if (cursor.isPresent()) {
+            try {
+                return ResponseHandler.getResponse(leaveRequestService.getLeaveRequests(
+                        staffId == null ? search : Optional.empty(),
+                        staffId,
+                        cursor.get(),
+                        perPage.orElseGet(() -> 10),
+                        withCount.orElse(false)
+                ).map(LeaveRequestDto::new), HttpStatus.OK);
+            } catch (IllegalArgumentException e) {
+                return ResponseHandler.getResponse(e, HttpStatus.BAD_REQUEST);
             }
         }
 
+        if (staffId != null) {
+            return ResponseHandler.getResponse(
+                    leaveRequestService.getLeaveRequestsByStaffId(
+                            staffId,
+                            curPage.orElseGet(() -> 1),
+                            perPage.orElseGet(() -> 10)
+                    ).map(LeaveRequestDto::new), HttpStatus.OK);
+        }
+
         return ResponseHandler.getResponse(leaveRequestService.getAllLeaveRequest(
                 search,
                 curPage.orElseGet(() -> 1),
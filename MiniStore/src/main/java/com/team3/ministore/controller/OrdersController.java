@@ -5,20 +5,29 @@ import com.team3.ministore.config.VnPayConfig;
 import com.team3.ministore.dto.OrderDto;
 import com.team3.ministore.dto.PaymentDto;
 import com.team3.ministore.model.Order;
+import com.team3.ministore.service.OrderExportService;
 import com.team3.ministore.service.OrderService;
-import com.team3.ministore.utils.PaymentStatus;
+import com.team3.ministore.service.PaymentService;
+import com.team3.ministore.utils.ExportFormat;
+import com.team3.ministore.utils.PaymentResponseCode;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @RestController
@@ -28,6 +37,12 @@ public class OrdersController {
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @Autowired
+    private PaymentService paymentService;
+
     @Autowired
     private VnPayConfig vnPayConfig;
 
@@ -46,6 +61,33 @@ public class OrdersController {
         }
     }
 
+    @GetMapping("/export")
+    public ResponseEntity<Object> exportOrders(@RequestParam("format") Optional<String> formatParam,
+                                               @RequestParam("from") Optional<String> fromDate,
+                                               @RequestParam("to") Optional<String> toDate,
+                                               HttpServletResponse response) throws IOException {
+        ExportFormat format;
+        LocalDateTime from;
+        LocalDateTime to;
+        try {
+            format = ExportFormat.valueOf(formatParam.orElse("ndjson").toUpperCase());
+            from = fromDate.map(LocalDateTime::parse).orElse(null);
+            to = toDate.map(LocalDateTime::parse).orElse(null);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseHandler.getResponse(new Exception("Invalid export format or date."), HttpStatus.BAD_REQUEST);
+        }
+
+        String extension = format == ExportFormat.CSV ? "csv" : "ndjson";
+        response.setStatus(HttpStatus.OK.value());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setContentType(format == ExportFormat.CSV ? "text/csv" : "application/x-ndjson");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders." + extension + "\"");
+
+        // The orders are written straight to the response, returning null tells Spring the response is handled
+        orderExportService.exportOrders(from, to, format, response.getOutputStream());
+        return null;
+    }
+
     @PostMapping("/add")
     public ResponseEntity<Object> createOrders(@Valid @RequestBody OrderDto dto,
                                                @RequestParam("returnData") Optional<Boolean> returnDataParam,
@@ -91,7 +133,27 @@ public class OrdersController {
                                             @RequestParam("amount_from") Optional<Float> fromAmount,
                                             @RequestParam("amount_to") Optional<Float> toAmount,
                                             @RequestParam("curPage") Optional<Integer> curPage,
-                                            @RequestParam("perPage") Optional<Integer> perPage) {
+                                            @RequestParam("perPage") Optional<Integer> perPage,
+                                            @RequestParam("cursor") Optional<String> cursor,
+                                            @RequestParam("withCount") Optional<Boolean> withCount) {
+        // Keyset pagination when a cursor is given, an empty cursor asks for the first page
+        if (cursor.isPresent()) {
+            try {
+                return ResponseHandler.getResponse(orderService.getAllOrders(
+                        agoParam,
+                        fromDate,
+                        toDate,
+                        fromAmount,
+                        toAmount,
+                        cursor.get(),
+                        perPage.orElseGet(() -> 10),
+                        withCount.orElse(false)
+                ).map(OrderDto::new), HttpStatus.OK);
+            } catch (IllegalArgumentException e) {
+                return ResponseHandler.getResponse(e, HttpStatus.BAD_REQUEST);
+            }
+        }
+
         return ResponseHandler.getResponse(orderService.getAllOrders(
                 agoParam,
                 fromDate,
@@ -176,55 +238,27 @@ public class OrdersController {
         return ResponseHandler.getResponse(job, HttpStatus.OK);
     }
 
+    // The customer's browser comes back from VNPay with the result of the payment
     @GetMapping("/payment/response")
-    public ResponseEntity<Object> responsePayment(HttpServletRequest request) {
-        Map<String, Object> result = new HashMap<>();
-        try {
-            Optional<Order> order = orderService.getOrdersById(Integer.parseInt(request.getParameter("vnp_TxnRef")));
-
-            // vnp_TxnRef (orderId) exists in your database
-            if (order.isPresent()) {
-                Float vnp_Amount = Float.parseFloat(request.getParameter("vnp_Amount")) / 100;
-                Float orderAmount = order.get().getGrandTotal();
-
-                // vnp_Amount is valid (Check vnp_Amount VNPAY returns compared to the amount of the code (vnp_TxnRef) in the Your database).
-                if (vnp_Amount.equals(orderAmount)) {
-                    // if PaymnentStatus = 0 (pending)
-                    if (order.get().getPaymentStatus() == PaymentStatus.PENDING) {
-                        Optional<Order> order1;
-                        if ("00".equals(request.getParameter("vnp_ResponseCode"))) {
-                            //Here Code update PaymnentStatus = 1 into your Database
-                            order1 = orderService.updateOrderStatus(order.get().getOrderId(), PaymentStatus.SUCCESS);
-                        } else {
-                            // Here Code update PaymnentStatus = 2 into your Database
-                            order1 = orderService.updateOrderStatus(order.get().getOrderId(), PaymentStatus.FAILED);
-                        }
-                        result.put("RspCode", "00");
-                        result.put("message", "Confirm Success");
-                        order1.ifPresent(value -> result.put("order", new OrderDto(value)));
-                    } else {
-                        result.put("RspCode", "02");
-                        result.put("message", "Order already confirmed");
-                        result.put("order", new OrderDto(order.get()));
-                    }
-                } else {
-                    result.put("RspCode", "04");
-                    result.put("message", "Invalid Amount");
-                }
-            } else {
-                result.put("RspCode", "01");
-                result.put("message", "Order not Found");
-            }
-        } catch (Exception e) {
-            result.put("RspCode", "99");
-            result.put("message", "Unknow error");
-        }
-
-        if (result.get("RspCode").equals("00") || result.get("RspCode").equals("02")) {
+    public CompletableFuture<ResponseEntity<Object>> responsePayment(@RequestParam Map<String, String> params) {
+        return paymentService.confirmPayment(params).thenApply(confirmation -> {
+            PaymentResponseCode responseCode = confirmation.getResponseCode();
+            if (!responseCode.isAcknowledged())
+                return ResponseHandler.getResponse(new Exception(responseCode.getMessage()), HttpStatus.BAD_REQUEST);
+
+            Map<String, Object> result = new HashMap<>();
+            result.put("RspCode", responseCode.getCode());
+            result.put("message", responseCode.getMessage());
+            if (confirmation.getOrder() != null) result.put("order", confirmation.getOrder());
             return ResponseHandler.getResponse(result, HttpStatus.OK);
-        } else {
-            return ResponseHandler.getResponse(new Exception((String) result.get("message")), HttpStatus.BAD_REQUEST);
-        }
+        });
     }
 
+    // Instant payment notification, called by VNPay itself and answered in the format it expects
+    @GetMapping("/payment/ipn")
+    public CompletableFuture<Map<String, String>> notifyPayment(@RequestParam Map<String, String> params) {
+        return paymentService.confirmPayment(params).thenApply(confirmation -> Map.of(
+                "RspCode", confirmation.getResponseCode().getCode(),
+                "Message", confirmation.getResponseCode().getMessage()));
+    }
 }
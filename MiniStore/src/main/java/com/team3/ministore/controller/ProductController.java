@@ -2,9 +2,11 @@ package com.team3.ministore.controller;
 
 import com.team3.ministore.common.responsehandler.ResponseHandler;
 import com.team3.ministore.dto.ProductDto;
+import com.team3.ministore.metrics.QueryBudget;
 import com.team3.ministore.model.Product;
 import com.team3.ministore.service.ProductService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
@@ -44,12 +46,18 @@ public class ProductController {
 
         // Check if barcode is already existed
         if (dto.getBarCode() != null && !dto.getBarCode().isEmpty()) {
-            Optional<Product> sameBarcode = productService.getProductByBarcode(dto.getBarCode());
+            Optional<Integer> sameBarcode = productService.getProductIdByBarcode(dto.getBarCode());
             if (sameBarcode.isPresent())
                 return ResponseHandler.getResponse(new Exception("Barcode is already existed."), HttpStatus.BAD_REQUEST);
         }
 
-        Optional<Product> createdProduct = productService.createProduct(dto);
+        // The index only knows the products of this instance, the unique key of the barcode decides
+        Optional<Product> createdProduct;
+        try {
+            createdProduct = productService.createProduct(dto);
+        } catch (DataIntegrityViolationException e) {
+            return ResponseHandler.getResponse(new Exception("Barcode is already existed."), HttpStatus.BAD_REQUEST);
+        }
         return createdProduct.map(value -> ResponseHandler.getResponse(new ProductDto(value), HttpStatus.CREATED))
                 .orElseGet(() -> ResponseHandler.getResponse(new Exception("Category not found."), HttpStatus.NOT_FOUND));
 
@@ -61,12 +69,17 @@ public class ProductController {
 
         // Check if barcode is already existed
         if (dto.getBarCode() != null && !dto.getBarCode().isEmpty()) {
-            Optional<Product> sameBarcode = productService.getProductByBarcode(dto.getBarCode());
-            if (sameBarcode.isPresent() && sameBarcode.get().getProductId() != id)
+            Optional<Integer> sameBarcode = productService.getProductIdByBarcode(dto.getBarCode());
+            if (sameBarcode.isPresent() && !sameBarcode.get().equals(id))
                 return ResponseHandler.getResponse(new Exception("Barcode is already existed."), HttpStatus.BAD_REQUEST);
         }
 
-        Optional<Product> updatedProduct = productService.updateProduct(id, dto);
+        Optional<Product> updatedProduct;
+        try {
+            updatedProduct = productService.updateProduct(id, dto);
+        } catch (DataIntegrityViolationException e) {
+            return ResponseHandler.getResponse(new Exception("Barcode is already existed."), HttpStatus.BAD_REQUEST);
+        }
 
         return updatedProduct.map(value -> ResponseHandler.getResponse(new ProductDto(value), HttpStatus.OK))
                 .orElseGet(() -> ResponseHandler.getResponse(new Exception("Product or category not found."), HttpStatus.NOT_FOUND));
@@ -86,6 +99,20 @@ public class ProductController {
                 .orElseGet(() -> ResponseHandler.getResponse(new Exception("Product not found"), HttpStatus.NOT_FOUND));
     }
 
+    @GetMapping("/barcode/{barcode}")
+    @QueryBudget(2)
+    public ResponseEntity<Object> getProductByBarcode(@PathVariable("barcode") String barcode) {
+        Optional<ProductDto> product = productService.getProductByBarcode(barcode);
+
+        return product.map(value -> ResponseHandler.getResponse(value, HttpStatus.OK))
+                .orElseGet(() -> ResponseHandler.getResponse(new Exception("Product not found"), HttpStatus.NOT_FOUND));
+    }
+
+    @GetMapping("/barcode-index/stats")
+    public ResponseEntity<Object> getBarcodeIndexStats() {
+        return ResponseHandler.getResponse(productService.getBarcodeIndexStats(), HttpStatus.OK);
+    }
+
     @GetMapping()
     public ResponseEntity<Object> getProducts(@RequestParam("search") Optional<String> search,
                                               @RequestParam("curPage") Integer curPage,
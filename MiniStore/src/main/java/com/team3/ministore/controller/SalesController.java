@@ -0,0 +1,91 @@
+package com.team3.ministore.controller;
+
+import com.team3.ministore.common.responsehandler.ResponseHandler;
+import com.team3.ministore.metrics.QueryBudget;
+import com.team3.ministore.service.SalesService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/sales")
+public class SalesController {
+
+    @Autowired
+    private SalesService salesService;
+
+    @GetMapping("/top-products")
+    @QueryBudget(2)
+    public ResponseEntity<Object> getTopSellingProducts(@RequestParam("from") String from,
+                                                        @RequestParam("to") String to,
+                                                        @RequestParam("limit") Optional<Integer> limit) {
+        LocalDate fromDate;
+        LocalDate toDate;
+        try {
+            fromDate = LocalDate.parse(from);
+            toDate = LocalDate.parse(to);
+        } catch (DateTimeParseException e) {
+            return ResponseHandler.getResponse(new Exception("Invalid input"), HttpStatus.BAD_REQUEST);
+        }
+
+        if (fromDate.isAfter(toDate))
+            return ResponseHandler.getResponse(new Exception("Invalid date range"), HttpStatus.BAD_REQUEST);
+
+        return ResponseHandler.getResponse(salesService.getTopSellingProducts(fromDate, toDate, limit.orElse(5)), HttpStatus.OK);
+    }
+
+    @GetMapping("/revenue")
+    @QueryBudget(2)
+    public ResponseEntity<Object> getRevenue(@RequestParam("from") String from,
+                                             @RequestParam("to") String to,
+                                             @RequestParam("by") Optional<String> by) {
+        LocalDate fromDate;
+        LocalDate toDate;
+        try {
+            fromDate = LocalDate.parse(from);
+            toDate = LocalDate.parse(to);
+        } catch (DateTimeParseException e) {
+            return ResponseHandler.getResponse(new Exception("Invalid input"), HttpStatus.BAD_REQUEST);
+        }
+
+        if (fromDate.isAfter(toDate))
+            return ResponseHandler.getResponse(new Exception("Invalid date range"), HttpStatus.BAD_REQUEST);
+
+        switch (by.orElse("day")) {
+            case "day":
+                return ResponseHandler.getResponse(salesService.getDailyRevenue(fromDate, toDate), HttpStatus.OK);
+            case "hour":
+                return ResponseHandler.getResponse(salesService.getHourlyRevenue(fromDate, toDate), HttpStatus.OK);
+            case "category":
+                return ResponseHandler.getResponse(salesService.getCategorySales(fromDate, toDate), HttpStatus.OK);
+            default:
+                return ResponseHandler.getResponse(new Exception("Invalid revenue grouping: " + by.get()), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @GetMapping("/staffs")
+    public ResponseEntity<Object> getStaffSales(@RequestParam("from") String from,
+                                                @RequestParam("to") String to) {
+        LocalDate fromDate;
+        LocalDate toDate;
+        try {
+            fromDate = LocalDate.parse(from);
+            toDate = LocalDate.parse(to);
+        } catch (DateTimeParseException e) {
+            return ResponseHandler.getResponse(new Exception("Invalid input"), HttpStatus.BAD_REQUEST);
+        }
+
+        if (fromDate.isAfter(toDate))
+            return ResponseHandler.getResponse(new Exception("Invalid date range"), HttpStatus.BAD_REQUEST);
+
+        return ResponseHandler.getResponse(salesService.getStaffSales(fromDate, toDate), HttpStatus.OK);
+    }
+}
@@ -1,7 +1,9 @@
 package com.team3.ministore.controller;
 
+import com.team3.ministore.common.exception.ShiftConflictException;
 import com.team3.ministore.common.responsehandler.ResponseHandler;
 import com.team3.ministore.dto.ScheduleTemplateDto;
+import com.team3.ministore.metrics.QueryBudget;
 import com.team3.ministore.model.ScheduleTemplate;
 import com.team3.ministore.service.ScheduleTemplateService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,6 +13,8 @@ import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -47,6 +51,28 @@ public class ScheduleTemplatesController {
         return ResponseHandler.getResponse(createdScheduleTemplate, HttpStatus.CREATED);
     }
 
+    // Creates the shifts of the template in the week of the given date, none when one of them conflicts
+    @PostMapping("/apply/{id}")
+    @QueryBudget(4)
+    public ResponseEntity<Object> applyScheduleTemplate(@PathVariable("id") Integer id,
+                                                        @RequestParam("week") String week,
+                                                        @RequestParam("published") Optional<Boolean> published) {
+        LocalDate weekStart;
+        try {
+            weekStart = LocalDate.parse(week);
+        } catch (DateTimeParseException e) {
+            return ResponseHandler.getResponse(new Exception("Invalid week: " + week), HttpStatus.BAD_REQUEST);
+        }
+
+        try {
+            return scheduleTemplateService.applyScheduleTemplate(id, weekStart, published.orElse(false))
+                    .map(shifts -> ResponseHandler.getResponse(shifts, HttpStatus.CREATED))
+                    .orElseGet(() -> ResponseHandler.getResponse(new Exception("Schedule template not found"), HttpStatus.NOT_FOUND));
+        } catch (ShiftConflictException e) {
+            return ResponseHandler.getErrorResponse(e.getConflicts(), HttpStatus.CONFLICT);
+        }
+    }
+
     @DeleteMapping("/delete/{id}")
     public ResponseEntity<Object> deleteScheduleTemplate(@PathVariable("id") Integer id) {
         scheduleTemplateService.deleteScheduleTemplate(id);
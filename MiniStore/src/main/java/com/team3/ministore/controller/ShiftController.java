@@ -1,8 +1,10 @@
 package com.team3.ministore.controller;
 
+import com.team3.ministore.common.exception.ShiftConflictException;
 import com.team3.ministore.common.responsehandler.ResponseHandler;
 import com.team3.ministore.dto.CreateShiftDto;
 import com.team3.ministore.dto.ShiftDto;
+import com.team3.ministore.metrics.QueryBudget;
 import com.team3.ministore.model.Shift;
 import com.team3.ministore.model.Staff;
 import com.team3.ministore.service.ShiftService;
@@ -16,6 +18,7 @@ import org.springframework.web.bind.annotation.*;
 import javax.validation.Valid;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/shifts")
@@ -31,31 +34,44 @@ public class ShiftController {
     public ResponseEntity<Object> createShift(@Valid @RequestBody CreateShiftDto shift, BindingResult errors) {
         if (errors.hasErrors()) return ResponseHandler.getResponse(errors, HttpStatus.BAD_REQUEST);
 
-        Optional<ShiftDto> createdShift = shiftService.createShift(shift);
+        try {
+            Optional<ShiftDto> createdShift = shiftService.createShift(shift);
 
-        return createdShift.map(value -> ResponseHandler.getResponse(value, HttpStatus.CREATED))
-                .orElseGet(() -> ResponseHandler.getResponse(new Exception("Invalid staff id"),
-                        HttpStatus.BAD_REQUEST));
+            return createdShift.map(value -> ResponseHandler.getResponse(value, HttpStatus.CREATED))
+                    .orElseGet(() -> ResponseHandler.getResponse(new Exception("Invalid staff id"),
+                            HttpStatus.BAD_REQUEST));
+        } catch (ShiftConflictException e) {
+            return ResponseHandler.getErrorResponse(e.getConflicts(), HttpStatus.CONFLICT);
+        }
     }
 
     @PostMapping("/add/multiple")
     public ResponseEntity<Object> createShifts(@Valid @RequestBody List<CreateShiftDto> dtos, BindingResult errors) {
         if (errors.hasErrors()) return ResponseHandler.getResponse(errors, HttpStatus.BAD_REQUEST);
 
-        List<ShiftDto> createdShifts = shiftService.createShifts(dtos);
+        // Nothing is created while a shift conflicts, all the conflicts are returned at once
+        try {
+            List<ShiftDto> createdShifts = shiftService.createShifts(dtos);
 
-        return ResponseHandler.getResponse(createdShifts, HttpStatus.CREATED);
+            return ResponseHandler.getResponse(createdShifts, HttpStatus.CREATED);
+        } catch (ShiftConflictException e) {
+            return ResponseHandler.getErrorResponse(e.getConflicts(), HttpStatus.CONFLICT);
+        }
     }
 
     @GetMapping("/list")
+    @QueryBudget(2)
     public ResponseEntity<Object> getAllShifts() {
-        return ResponseHandler.getResponse(shiftService.getAllShifts(), HttpStatus.OK);
+        // DTOs and not the entities, their associations are lazy
+        return ResponseHandler.getResponse(shiftService.getAllShifts().stream()
+                .map(shift -> new ShiftDto(shift, true, true, true)).collect(Collectors.toList()), HttpStatus.OK);
     }
 
     @GetMapping("/{id}")
+    @QueryBudget(2)
     public ResponseEntity<Object> getShiftById(@PathVariable("id") Integer id) {
         Optional<Shift> shift = shiftService.getShiftById(id);
-        return new ResponseEntity<>(shift, HttpStatus.OK);
+        return new ResponseEntity<>(shift.map(value -> new ShiftDto(value, true, true, true)), HttpStatus.OK);
     }
 
     @PutMapping("/update/{id}")
@@ -63,22 +79,16 @@ public class ShiftController {
                                               BindingResult errors) {
         if (errors.hasErrors()) return ResponseHandler.getResponse(errors, HttpStatus.BAD_REQUEST);
 
-        Optional<Shift> shift = shiftService.getShiftById(id);
         Optional<Staff> foundStaff = staffService.getStaffById(dto.getStaffId());
-
-        return foundStaff.map(staff -> shift.map(value -> {
-                    value.setStartTime(dto.getStartTime());
-                    value.setEndTime(dto.getEndTime());
-                    value.setDate(dto.getDate());
-                    value.setRole(dto.getRole());
-                    value.setSalaryCoefficient(dto.getSalaryCoefficient());
-                    value.setPublished(dto.isPublished());
-                    value.setName(dto.getName());
-                    value.setStaff(staff);
-
-                    return ResponseHandler.getResponse(shiftService.updateShift(shift.get()), HttpStatus.OK);
-                }).orElseGet(() -> ResponseHandler.getResponse(new Exception("Shift not found"), HttpStatus.NOT_FOUND)))
-                .orElseGet(() -> ResponseHandler.getResponse(new Exception("Staff not found"), HttpStatus.NOT_FOUND));
+        if (foundStaff.isEmpty()) return ResponseHandler.getResponse(new Exception("Staff not found"), HttpStatus.NOT_FOUND);
+
+        try {
+            return shiftService.updateShift(id, foundStaff.get(), dto)
+                    .map(value -> ResponseHandler.getResponse(value, HttpStatus.OK))
+                    .orElseGet(() -> ResponseHandler.getResponse(new Exception("Shift not found"), HttpStatus.NOT_FOUND));
+        } catch (ShiftConflictException e) {
+            return ResponseHandler.getErrorResponse(e.getConflicts(), HttpStatus.CONFLICT);
+        }
 
     }
 
@@ -1,41 +1,43 @@
 package com.team3.ministore.controller;
 
+import com.team3.ministore.common.exception.ShiftConflictException;
 import com.team3.ministore.common.responsehandler.ResponseHandler;
-import com.team3.ministore.dto.*;
-import com.team3.ministore.model.Shift;
-import com.team3.ministore.model.Staff;
-import com.team3.ministore.service.*;
-import com.team3.ministore.utils.LeaveStatus;
-import com.team3.ministore.utils.ShiftCoverStatus;
-import com.team3.ministore.utils.StaffStatus;
+import com.team3.ministore.dto.AutoScheduleRequest;
+import com.team3.ministore.dto.ShiftRequirement;
+import com.team3.ministore.dto.StaffDto;
+import com.team3.ministore.metrics.QueryBudget;
+import com.team3.ministore.service.AutoScheduleService;
+import com.team3.ministore.service.ShiftPlanningService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RequestParam;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.*;
 
+import javax.validation.Valid;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/shift-planning")
 public class ShiftPlanningController {
+    // Longest range of an automatic schedule, about two months
+    private static final int MAX_AUTO_SCHEDULE_DAYS = 62;
+    // Most shifts an automatic schedule may ask for, about twice those of the 500 staffs over 4 weeks of
+    // AutoScheduleBenchmark. It also keeps the cost of the solver within a long.
+    private static final int MAX_AUTO_SCHEDULE_SHIFTS = 20_000;
+
     @Autowired
-    private ShiftService shiftService;
-    @Autowired
-    private StaffService staffService;
-    @Autowired
-    private SalaryService salaryService;
-    @Autowired
-    private LeaveRequestService leaveRequestService;
+    private ShiftPlanningService shiftPlanningService;
+
     @Autowired
-    private ShiftCoverRequestService shiftCoverRequestService;
+    private AutoScheduleService autoScheduleService;
 
     @GetMapping()
+    @QueryBudget(6)
     public ResponseEntity<Object> getShiftPlanning(@RequestParam(value = "from", required = false) String from,
                                                    @RequestParam(value = "to", required = false) String to,
                                                    @RequestParam(value = "staffId", required = false) Integer staffId) {
@@ -49,93 +51,57 @@ public class ShiftPlanningController {
             return ResponseHandler.getResponse(new Exception("Invalid input"), HttpStatus.BAD_REQUEST);
 
         // Get all staffs if staffId is not specified
-        if (staffId == null) {
-            // Get all staffs in the database
-            List<Staff> staffs = staffService.getAllStaffs();
-            // Iterate through all staffs and get their shifts and salary
-            List<StaffDto> staffDtos = staffs.parallelStream()
-                    .filter(staff -> staff.getStatus() == StaffStatus.ACTIVE).map(staff -> {
-                        // Get the salary and leave requests of the staff
-                        SalaryDto salaryDto = salaryService.getSalaryByStaffId(staff.getStaffId());
-                        List<LeaveRequestDto> leaveRequestDtos = leaveRequestService
-                                .getLeaveRequestsByStaffIdAndDates(staff.getStaffId(), fromDate, toDate)
-                                .stream().filter(leaveRequestDto -> leaveRequestDto.getStatus().equals(LeaveStatus.APPROVED))
-                                .collect(Collectors.toList());
-                        // Get the shifts of the staff
-                        List<Shift> shifts = shiftService.getAllShiftsByStaffId(staff.getStaffId(), fromDate, toDate);
-
-                        // Filter out the shifts that are in the leave requests
-                        shifts = shifts.stream().filter(shift -> {
-                            for (LeaveRequestDto leaveRequestDto : leaveRequestDtos) {
-                                if (leaveRequestDto.getStartDate().isEqual(shift.getDate())
-                                        || leaveRequestDto.getEndDate().isEqual(shift.getDate())
-                                        || (leaveRequestDto.getStartDate().isBefore(shift.getDate())
-                                        && leaveRequestDto.getEndDate().isAfter(shift.getDate())))
-                                    return false;
-                            }
-                            return true;
-                        }).collect(Collectors.toList());
-
-                        // Convert shifts to shiftDtos
-                        List<ShiftDto> shiftDtos = shifts.stream().map(ShiftDto::new).collect(Collectors.toList());
-
-                        // Return the staffDtos
-                        return new StaffDto(staff, salaryDto, shiftDtos, leaveRequestDtos);
-                    }).collect(Collectors.toList());
-
-            // Return all staffs
-            return ResponseHandler.getResponse(staffDtos, HttpStatus.OK);
-        }
+        if (staffId == null)
+            return ResponseHandler.getResponse(shiftPlanningService.getShiftPlanning(fromDate, toDate), HttpStatus.OK);
 
         // ------------------------------------------------------------
         // If staffId is specified, return the staff with the given staffId
         // This is for the staff to view their own shift planning
         // ------------------------------------------------------------
-        Optional<Staff> foundStaff = staffService.getStaffById(staffId);
-
-        if (foundStaff.isEmpty() || foundStaff.get().getStatus() == StaffStatus.DISABLED)
-            return ResponseHandler.getResponse(new Exception("Staff not found"), HttpStatus.NOT_FOUND);
-
-        SalaryDto salaryDto = salaryService.getSalaryByStaffId(foundStaff.get().getStaffId());
-        List<LeaveRequestDto> leaveRequestDtos = leaveRequestService
-                .getLeaveRequestsByStaffIdAndDates(foundStaff.get().getStaffId(), fromDate, toDate)
-                .stream().filter(leaveRequestDto -> leaveRequestDto.getStatus().equals(LeaveStatus.APPROVED))
-                .collect(Collectors.toList());
-        // Get the shifts of the staff
-        List<Shift> shifts = shiftService.getAllShiftsByStaffId(foundStaff.get().getStaffId(), fromDate, toDate);
-
-        List<ShiftDto> shiftDtos = shifts.stream()
-                // Filter out the shifts which are covered by other staffs
-                .filter(s -> s.getShiftCoverRequest() == null || s.getShiftCoverRequest().getStatus() != ShiftCoverStatus.APPROVED)
-                // Filter out the shifts that are in the leave requests
-                .filter(shift -> {
-                    for (LeaveRequestDto leaveRequestDto : leaveRequestDtos) {
-                        if (leaveRequestDto.getStartDate().isEqual(shift.getDate())
-                                || leaveRequestDto.getEndDate().isEqual(shift.getDate())
-                                || (leaveRequestDto.getStartDate().isBefore(shift.getDate()) && leaveRequestDto.getEndDate().isAfter(shift.getDate())))
-                            return false;
-                    }
-                    return true;
-                })
-                // Convert shifts to shiftDtos
-                .map(ShiftDto::new).collect(Collectors.toList());
-
-        // Get the shifts of others which are covered by the staff
-        List<ShiftCoverDto> shiftCoverDtos = shiftCoverRequestService
-                .getShiftCoverRequestsByStaffIdAndDates(foundStaff.get().getStaffId(), fromDate, toDate)
-                .stream().filter(s -> s.getStatus() == ShiftCoverStatus.APPROVED).collect(Collectors.toList());
-
-        // Add the shifts which are covered by the staff to the shiftDtos
-        shiftCoverDtos.stream().map(ShiftCoverDto::getShift)
-                .forEach(shift -> {
-                    if (shiftDtos.stream().noneMatch(shift1 -> shift1.getShiftId() == shift.getShiftId()))
-                        shiftDtos.add(shift);
-                });
-
-        // Filter the shifts which are not published
-        List<ShiftDto> lShifts = shiftDtos.stream().filter(ShiftDto::getPublished).collect(Collectors.toList());
-
-        // Return the staffDtos
-        return ResponseHandler.getResponse(List.of(new StaffDto(foundStaff.get(), salaryDto, lShifts, leaveRequestDtos)), HttpStatus.OK);
+        Optional<StaffDto> staffDto = shiftPlanningService.getShiftPlanning(staffId, fromDate, toDate);
+
+        return staffDto.map(value -> ResponseHandler.getResponse(List.of(value), HttpStatus.OK))
+                .orElseGet(() -> ResponseHandler.getResponse(new Exception("Staff not found"), HttpStatus.NOT_FOUND));
+    }
+
+    // Assigns the shifts of the templates to the staffs, within their roles, available hours, leaves and existing shifts.
+    // The schedule is only returned, unless "save" is set.
+    @PostMapping("/auto-schedule")
+    public ResponseEntity<Object> autoSchedule(@Valid @RequestBody AutoScheduleRequest request, BindingResult errors) {
+        if (errors.hasErrors()) return ResponseHandler.getResponse(errors, HttpStatus.BAD_REQUEST);
+
+        if (request.getFrom().isAfter(request.getTo())
+                || ChronoUnit.DAYS.between(request.getFrom(), request.getTo()) >= MAX_AUTO_SCHEDULE_DAYS)
+            return ResponseHandler.getResponse(new Exception("Invalid input"), HttpStatus.BAD_REQUEST);
+
+        if (requiredShifts(request) > MAX_AUTO_SCHEDULE_SHIFTS)
+            return ResponseHandler.getResponse(new Exception("At most " + MAX_AUTO_SCHEDULE_SHIFTS
+                    + " shifts can be scheduled at once"), HttpStatus.BAD_REQUEST);
+
+        try {
+            return ResponseHandler.getResponse(autoScheduleService.createSchedule(request), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return ResponseHandler.getResponse(e, HttpStatus.BAD_REQUEST);
+        } catch (ShiftConflictException e) {
+            return ResponseHandler.getErrorResponse(e.getConflicts(), HttpStatus.CONFLICT);
+        } catch (RejectedExecutionException e) {
+            return ResponseHandler.getResponse(new Exception("Too many schedules are being created, try again later"),
+                    HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+
+    // Shifts the requirements ask for over the range. Without requirements it is one shift per template and day, which
+    // the range alone bounds.
+    private static long requiredShifts(AutoScheduleRequest request) {
+        if (request.getRequirements() == null) return 0;
+
+        long shifts = 0;
+        for (ShiftRequirement requirement : request.getRequirements()) {
+            for (LocalDate date = request.getFrom(); !date.isAfter(request.getTo()); date = date.plusDays(1)) {
+                if (requirement.getDays() == null || requirement.getDays().isEmpty()
+                        || requirement.getDays().contains(date.getDayOfWeek())) shifts += requirement.getStaffCount();
+            }
+        }
+        return shifts;
     }
 }
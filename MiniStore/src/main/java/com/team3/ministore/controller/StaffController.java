@@ -1,14 +1,17 @@
 package com.team3.ministore.controller;
 
 import com.team3.ministore.common.responsehandler.ResponseHandler;
+import com.team3.ministore.dto.AvailabilityWindow;
 import com.team3.ministore.dto.RegisterDto;
 import com.team3.ministore.dto.SalaryDto;
 import com.team3.ministore.dto.StaffDto;
 import com.team3.ministore.dto.UpdateStaffDto;
+import com.team3.ministore.metrics.QueryBudget;
 import com.team3.ministore.model.Salary;
 import com.team3.ministore.model.Staff;
 import com.team3.ministore.service.SalaryService;
 import com.team3.ministore.service.StaffService;
+import com.team3.ministore.utils.Role;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -16,6 +19,10 @@ import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
 import java.util.Optional;
 
 @RestController
@@ -103,9 +110,22 @@ public class StaffController {
     }
 
     @GetMapping()
+    @QueryBudget(5)
     public ResponseEntity<Object> getStaffs(@RequestParam("search") Optional<String> search,
-                                            @RequestParam("curPage") Integer curPage,
-                                            @RequestParam("perPage") Integer perPage) {
+                                            @RequestParam("curPage") Optional<Integer> curPageParam,
+                                            @RequestParam("perPage") Integer perPage,
+                                            @RequestParam("cursor") Optional<String> cursor,
+                                            @RequestParam("withCount") Optional<Boolean> withCount) {
+        // Keyset pagination when a cursor is given, an empty cursor asks for the first page
+        if (cursor.isPresent()) {
+            try {
+                return ResponseHandler.getResponse(staffService.getAllStaff(search, cursor.get(), perPage, withCount.orElse(false)), HttpStatus.OK);
+            } catch (IllegalArgumentException e) {
+                return ResponseHandler.getResponse(e, HttpStatus.BAD_REQUEST);
+            }
+        }
+
+        int curPage = curPageParam.orElse(1);
         return search.map(s -> ResponseHandler.getResponse(staffService.getAllStaff(s, curPage, perPage), HttpStatus.OK))
                 .orElseGet(() -> ResponseHandler.getResponse(staffService.getAllStaff(curPage, perPage), HttpStatus.OK));
     }
@@ -115,4 +135,41 @@ public class StaffController {
         return ResponseHandler.getResponse(staffService.getAllStaffMetaInfos(), HttpStatus.OK);
     }
 
+    // Active staffs of the role free for the whole time on the date and not on leave, e.g.
+    // /staffs/available?role=CASHIER&date=2024-06-03&from=14:00&to=22:00 (an end up to the start is on the next day)
+    @GetMapping("/available")
+    @QueryBudget(3)
+    public ResponseEntity<Object> getAvailableStaffs(@RequestParam("role") Role role,
+                                                     @RequestParam("date") String date,
+                                                     @RequestParam("from") String from,
+                                                     @RequestParam("to") String to) {
+        try {
+            return ResponseHandler.getResponse(staffService.getAvailableStaffs(role, LocalDate.parse(date),
+                    LocalTime.parse(from), LocalTime.parse(to)), HttpStatus.OK);
+        } catch (DateTimeParseException e) {
+            return ResponseHandler.getResponse(new Exception("Invalid input"), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @GetMapping("/{id}/availability")
+    @QueryBudget(2)
+    public ResponseEntity<Object> getAvailability(@PathVariable("id") Integer id) {
+        return staffService.getAvailability(id)
+                .map(windows -> ResponseHandler.getResponse(windows, HttpStatus.OK))
+                .orElseGet(() -> ResponseHandler.getResponse(new Exception("Invalid staff id"), HttpStatus.BAD_REQUEST));
+    }
+
+    // Replaces the hours the staff can work, in whole hours
+    @PutMapping("/{id}/availability")
+    public ResponseEntity<Object> updateAvailability(@PathVariable("id") Integer id,
+                                                     @RequestBody List<AvailabilityWindow> windows) {
+        for (AvailabilityWindow window : windows) {
+            if (window.getDay() == null || window.getStartTime() == null || window.getEndTime() == null)
+                return ResponseHandler.getResponse(new Exception("Invalid input"), HttpStatus.BAD_REQUEST);
+        }
+
+        return staffService.updateAvailability(id, windows)
+                .map(value -> ResponseHandler.getResponse(value, HttpStatus.OK))
+                .orElseGet(() -> ResponseHandler.getResponse(new Exception("Invalid staff id"), HttpStatus.BAD_REQUEST));
+    }
 }
@@ -3,6 +3,7 @@ package com.team3.ministore.controller;
 import com.team3.ministore.common.responsehandler.ResponseHandler;
 import com.team3.ministore.dto.ShiftDto;
 import com.team3.ministore.dto.TimesheetDto;
+import com.team3.ministore.metrics.QueryBudget;
 import com.team3.ministore.model.Shift;
 import com.team3.ministore.model.Staff;
 import com.team3.ministore.model.Timesheet;
@@ -55,17 +56,32 @@ public class TimesheetController {
     }
 
     @GetMapping("/list")
+    @QueryBudget(5)
     public ResponseEntity<Object> getAllTimeSheets(@RequestParam("search") Optional<String> search,
-                                                   @RequestParam("curPage") Integer curPage,
+                                                   @RequestParam("curPage") Optional<Integer> curPageParam,
                                                    @RequestParam("perPage") Integer perPage,
                                                    @RequestParam("from") Optional<String> from,
-                                                   @RequestParam("to") Optional<String> to) {
+                                                   @RequestParam("to") Optional<String> to,
+                                                   @RequestParam("cursor") Optional<String> cursor,
+                                                   @RequestParam("withCount") Optional<Boolean> withCount) {
         if (from.isEmpty() || to.isEmpty())
             return ResponseHandler.getResponse(new Exception("Invalid input"), HttpStatus.BAD_REQUEST);
 
         LocalDate fromDate = LocalDate.parse(from.get());
         LocalDate toDate = LocalDate.parse(to.get());
 
+        // Keyset pagination when a cursor is given, an empty cursor asks for the first page
+        if (cursor.isPresent()) {
+            try {
+                return ResponseHandler.getResponse(timesheetService.getAllTimeSheets(search, cursor.get(), perPage,
+                        fromDate, toDate, withCount.orElse(false)), HttpStatus.OK);
+            } catch (IllegalArgumentException e) {
+                return ResponseHandler.getResponse(e, HttpStatus.BAD_REQUEST);
+            }
+        }
+
+        int curPage = curPageParam.orElse(1);
+
         return search.map(s -> ResponseHandler.getResponse(timesheetService.getAllTimeSheets(s, curPage, perPage, fromDate, toDate), HttpStatus.OK))
                 .orElseGet(() -> ResponseHandler.getResponse(timesheetService.getAllTimeSheets(curPage, perPage, fromDate, toDate), HttpStatus.OK));
     }
@@ -96,6 +112,7 @@ public class TimesheetController {
     }
 
     @GetMapping("/payroll")
+    @QueryBudget(5)
     public ResponseEntity<Object> getAllTimeSheets(@RequestParam("search") Optional<String> search,
                                                    @RequestParam("from") Optional<String> from,
                                                    @RequestParam("to") Optional<String> to) {
@@ -0,0 +1,22 @@
+package com.team3.ministore.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class AutoScheduleDto {
+    private List<ShiftDto> shifts;
+
+    private int requiredShifts;
+
+    // Shifts nobody could take without breaking a rule, by date and template
+    private List<UnfilledShift> unfilledShifts;
+
+    // Hours of the least and the most loaded staff over the range, the shifts they already had included
+    private double minStaffHours;
+
+    private double maxStaffHours;
+
+    private boolean saved;
+}
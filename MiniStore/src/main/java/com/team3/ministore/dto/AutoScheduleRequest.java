@@ -0,0 +1,30 @@
+package com.team3.ministore.dto;
+
+import lombok.Data;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+public class AutoScheduleRequest {
+    @NotNull(message = "From must not be null")
+    private LocalDate from;
+
+    @NotNull(message = "To must not be null")
+    private LocalDate to;
+
+    // Every shift template once a day when empty
+    @Valid
+    private List<ShiftRequirement> requirements;
+
+    @Min(value = 1, message = "Max shifts per week must be between 1 and 7")
+    @Max(value = 7, message = "Max shifts per week must be between 1 and 7")
+    private int maxShiftsPerWeek = 5;
+
+    // Saves the schedule as unpublished shifts, otherwise it is only returned
+    private boolean save;
+}
@@ -0,0 +1,24 @@
+package com.team3.ministore.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotNull;
+import java.sql.Time;
+import java.time.DayOfWeek;
+
+// Hours of a day a staff can work, an end time up to the start time is on the next day
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityWindow {
+    @NotNull(message = "Day must not be null")
+    private DayOfWeek day;
+
+    @NotNull(message = "Start time must not be null")
+    private Time startTime;
+
+    @NotNull(message = "End time must not be null")
+    private Time endTime;
+}
@@ -0,0 +1,14 @@
+package com.team3.ministore.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BarcodeIndexStats {
+    private int size;
+    private long hits;
+    private long misses;
+}
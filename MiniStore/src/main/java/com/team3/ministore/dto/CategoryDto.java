@@ -25,7 +25,6 @@ public class CategoryDto {
         this.categoryId = category.getCategoryId();
         this.name = category.getName();
         this.description = category.getDescription();
-        if (category.getProducts() != null)
-            this.numberOfProducts = category.getProducts().size();
+        this.numberOfProducts = category.getNumberOfProducts();
     }
 }
@@ -0,0 +1,15 @@
+package com.team3.ministore.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategorySales {
+    private int categoryId;
+    private String categoryName;
+    private long quantity;
+    private double revenue;
+}
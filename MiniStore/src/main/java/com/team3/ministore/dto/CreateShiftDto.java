@@ -1,7 +1,9 @@
 package com.team3.ministore.dto;
 
+import com.team3.ministore.model.Shift;
 import com.team3.ministore.utils.Role;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
@@ -9,6 +11,7 @@ import java.sql.Time;
 import java.time.LocalDate;
 
 @Data
+@NoArgsConstructor
 public class CreateShiftDto {
     @NotNull(message = "Staff id must not be null")
     private int staffId;
@@ -34,4 +37,15 @@ public class CreateShiftDto {
     @NotNull(message = "Role must not be null")
     private Role role;
 
+    // A generated shift, checked for conflicts before it is saved
+    public CreateShiftDto(Shift shift) {
+        this.staffId = shift.getStaff().getStaffId();
+        this.date = shift.getDate();
+        this.published = shift.getPublished();
+        this.startTime = shift.getStartTime();
+        this.endTime = shift.getEndTime();
+        this.name = shift.getName();
+        this.salaryCoefficient = shift.getSalaryCoefficient();
+        this.role = shift.getRole();
+    }
 }
@@ -0,0 +1,40 @@
+package com.team3.ministore.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// A page of a keyset (seek) pagination, the next page starts after the row encoded in nextCursor
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private List<T> content;
+
+    private int size;
+
+    private String nextCursor;
+
+    private boolean hasNext;
+
+    // Only counted when the client asks for it
+    private Long totalElements;
+
+    // The rows are expected to be fetched with a limit of size + 1, the extra row tells whether there is a next page
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, String> cursorOf, Long totalElements) {
+        boolean hasNext = rows.size() > size;
+        List<T> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? cursorOf.apply(content.get(content.size() - 1)) : null;
+
+        return new CursorPage<>(content, size, nextCursor, hasNext, totalElements);
+    }
+
+    public <R> CursorPage<R> map(Function<T, R> mapper) {
+        return new CursorPage<>(content.stream().map(mapper).collect(Collectors.toList()), size, nextCursor, hasNext, totalElements);
+    }
+}
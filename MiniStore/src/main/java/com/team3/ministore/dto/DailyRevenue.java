@@ -0,0 +1,16 @@
+package com.team3.ministore.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyRevenue {
+    private LocalDate date;
+    private long orderCount;
+    private double revenue;
+}
@@ -0,0 +1,14 @@
+package com.team3.ministore.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HourlyRevenue {
+    private int hour;
+    private long orderCount;
+    private double revenue;
+}
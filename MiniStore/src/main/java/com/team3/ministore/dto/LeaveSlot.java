@@ -0,0 +1,17 @@
+package com.team3.ministore.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaveSlot {
+    private int leaveRequestId;
+    private int staffId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+}
@@ -0,0 +1,26 @@
+package com.team3.ministore.dto;
+
+import com.team3.ministore.utils.PaymentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// One order item of the export, flattened together with its order
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderExportRow {
+    private Integer orderId;
+    private LocalDateTime orderDate;
+    private Float grandTotal;
+    private PaymentStatus paymentStatus;
+    private Integer staffId;
+    private String staffName;
+    private Integer orderItemId;
+    private Integer productId;
+    private String productName;
+    private Float price;
+    private Integer quantity;
+}
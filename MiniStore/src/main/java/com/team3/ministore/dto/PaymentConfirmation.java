@@ -0,0 +1,20 @@
+package com.team3.ministore.dto;
+
+import com.team3.ministore.utils.PaymentResponseCode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentConfirmation {
+    private PaymentResponseCode responseCode;
+
+    // Null unless the order was found and the amount matches
+    private OrderDto order;
+
+    public PaymentConfirmation(PaymentResponseCode responseCode) {
+        this.responseCode = responseCode;
+    }
+}
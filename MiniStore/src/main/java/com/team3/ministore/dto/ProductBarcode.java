@@ -0,0 +1,30 @@
+package com.team3.ministore.dto;
+
+import com.team3.ministore.model.Product;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// What a scan answers with, held by the barcode index. The category is read from the second-level cache.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductBarcode {
+    private int productId;
+    private String barCode;
+    private String name;
+    private String description;
+    private Float price;
+    private int inventory;
+    private Integer categoryId;
+
+    public ProductBarcode(Product product) {
+        this.productId = product.getProductId();
+        this.barCode = product.getBarCode();
+        this.name = product.getName();
+        this.description = product.getDescription();
+        this.price = product.getPrice();
+        this.inventory = product.getInventory();
+        this.categoryId = product.getCategory() != null ? product.getCategory().getCategoryId() : null;
+    }
+}
@@ -48,4 +48,15 @@ public class ProductDto {
             this.category = null;
         }
     }
+
+    public ProductDto(ProductBarcode product, CategoryDto category) {
+        this.productId = product.getProductId();
+        this.barCode = product.getBarCode();
+        this.name = product.getName();
+        this.description = product.getDescription();
+        this.price = product.getPrice();
+        this.inventory = product.getInventory();
+        this.categoryId = category != null ? category.getCategoryId() : 0;
+        this.category = category;
+    }
 }
@@ -0,0 +1,16 @@
+package com.team3.ministore.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchDocument {
+    private int productId;
+    private String barCode;
+    private String name;
+    private String description;
+    private String categoryName;
+}
@@ -0,0 +1,29 @@
+package com.team3.ministore.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeedOptions {
+
+    private int staffs;
+
+    private int products;
+
+    private int orders;
+
+    // Days of shifts, timesheets, leaves and orders up to today
+    private int days;
+
+    // Days of unpublished shifts after today
+    private int plannedDays;
+
+    // Password of every generated staff
+    private String password;
+
+    // Same seed, same data
+    private long randomSeed;
+}
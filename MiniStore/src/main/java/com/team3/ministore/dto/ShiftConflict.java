@@ -0,0 +1,24 @@
+package com.team3.ministore.dto;
+
+import com.team3.ministore.utils.ShiftConflictType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// A submitted shift that cannot be saved. index is its position in the request (0 for a single shift), the
+// conflict is with another submitted shift, a saved shift or an approved leave of the same staff.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShiftConflict {
+    private int index;
+    private int staffId;
+    private LocalDate date;
+    private ShiftConflictType type;
+    private Integer conflictingIndex;
+    private Integer conflictingShiftId;
+    private Integer leaveRequestId;
+    private String message;
+}
@@ -7,6 +7,8 @@ import lombok.Data;
 import java.sql.Time;
 import java.time.LocalDate;
 
+import static com.team3.ministore.common.utils.DatabaseUtils.isFetched;
+
 @Data
 public class ShiftDto {
 
@@ -34,6 +36,8 @@ public class ShiftDto {
 
     private StaffDto staff;
 
+    // The ids are read from the association proxies, the nested DTOs are only built for the associations
+    // fetched by the query (see the Shift.details entity graph)
     public ShiftDto(Shift shift) {
         this.shiftId = shift.getShiftId();
         this.date = shift.getDate();
@@ -44,9 +48,9 @@ public class ShiftDto {
         this.startTime = shift.getStartTime();
         this.endTime = shift.getEndTime();
         this.staffId = shift.getStaff().getStaffId();
-        if (shift.getTimesheet() != null)
+        if (isFetched(shift.getTimesheet()))
             this.timesheet = new TimesheetDto(shift.getTimesheet());
-        if (shift.getShiftCoverRequest() != null)
+        if (isFetched(shift.getShiftCoverRequest()))
             this.shiftCoverRequest = new ShiftCoverDto(shift.getShiftCoverRequest(), false, false);
     }
 
@@ -60,9 +64,9 @@ public class ShiftDto {
         this.startTime = shift.getStartTime();
         this.endTime = shift.getEndTime();
         this.staffId = shift.getStaff().getStaffId();
-        if (shift.getTimesheet() != null)
+        if (isFetched(shift.getTimesheet()))
             this.timesheet = new TimesheetDto(shift.getTimesheet());
-        if (withShiftCoverRequest && shift.getShiftCoverRequest() != null)
+        if (withShiftCoverRequest && isFetched(shift.getShiftCoverRequest()))
             this.shiftCoverRequest = new ShiftCoverDto(shift.getShiftCoverRequest());
     }
 
@@ -76,11 +80,11 @@ public class ShiftDto {
         this.startTime = shift.getStartTime();
         this.endTime = shift.getEndTime();
         this.staffId = shift.getStaff().getStaffId();
-        if (shift.getTimesheet() != null)
+        if (isFetched(shift.getTimesheet()))
             this.timesheet = new TimesheetDto(shift.getTimesheet());
-        if (withShiftCoverRequest && shift.getShiftCoverRequest() != null)
+        if (withShiftCoverRequest && isFetched(shift.getShiftCoverRequest()))
             this.shiftCoverRequest = new ShiftCoverDto(shift.getShiftCoverRequest());
-        if (withStaff)
+        if (withStaff && isFetched(shift.getStaff()))
             this.staff = new StaffDto(shift.getStaff());
     }
 
@@ -94,11 +98,11 @@ public class ShiftDto {
         this.startTime = shift.getStartTime();
         this.endTime = shift.getEndTime();
         this.staffId = shift.getStaff().getStaffId();
-        if (withTimesheet && shift.getTimesheet() != null)
+        if (withTimesheet && isFetched(shift.getTimesheet()))
             this.timesheet = new TimesheetDto(shift.getTimesheet());
-        if (withShiftCoverRequest && shift.getShiftCoverRequest() != null)
+        if (withShiftCoverRequest && isFetched(shift.getShiftCoverRequest()))
             this.shiftCoverRequest = new ShiftCoverDto(shift.getShiftCoverRequest());
-        if (withStaff)
+        if (withStaff && isFetched(shift.getStaff()))
             this.staff = new StaffDto(shift.getStaff());
     }
 
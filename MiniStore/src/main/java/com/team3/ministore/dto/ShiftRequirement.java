@@ -0,0 +1,22 @@
+package com.team3.ministore.dto;
+
+import lombok.Data;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.time.DayOfWeek;
+import java.util.List;
+
+@Data
+public class ShiftRequirement {
+    @NotNull(message = "Shift template id must not be null")
+    private Integer shiftTemplateId;
+
+    @Min(value = 1, message = "Staff count must be between 1 and 100")
+    @Max(value = 100, message = "Staff count must be between 1 and 100")
+    private int staffCount = 1;
+
+    // Every day when empty
+    private List<DayOfWeek> days;
+}
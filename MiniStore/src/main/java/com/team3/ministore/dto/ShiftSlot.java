@@ -0,0 +1,27 @@
+package com.team3.ministore.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.sql.Time;
+import java.time.LocalDate;
+import java.util.Date;
+
+@Data
+@NoArgsConstructor
+public class ShiftSlot {
+    private int shiftId;
+    private int staffId;
+    private LocalDate date;
+    private Time startTime;
+    private Time endTime;
+
+    // Hibernate types the time columns of a query as java.util.Date
+    public ShiftSlot(int shiftId, int staffId, LocalDate date, Date startTime, Date endTime) {
+        this.shiftId = shiftId;
+        this.staffId = staffId;
+        this.date = date;
+        this.startTime = startTime == null ? null : new Time(startTime.getTime());
+        this.endTime = endTime == null ? null : new Time(endTime.getTime());
+    }
+}
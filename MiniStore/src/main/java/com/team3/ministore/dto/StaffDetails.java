@@ -1,15 +1,45 @@
 package com.team3.ministore.dto;
 
+import com.team3.ministore.model.Staff;
+import com.team3.ministore.utils.Role;
+import com.team3.ministore.utils.StaffStatus;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
 
+// Principal of an authenticated request, with what the controllers need to know of the staff without loading it
 public class StaffDetails extends User implements UserDetails {
     private static final long serialVersionUID = 1L;
 
+    private final Integer staffId;
+    private final Role role;
+    private final StaffStatus status;
+
     public StaffDetails(String username, String password, Collection<? extends GrantedAuthority> authorities) {
         super(username, password, authorities);
+        this.staffId = null;
+        this.role = null;
+        this.status = null;
+    }
+
+    public StaffDetails(Staff staff, Collection<? extends GrantedAuthority> authorities) {
+        super(staff.getUsername(), staff.getPassword(), authorities);
+        this.staffId = staff.getStaffId();
+        this.role = staff.getRole();
+        this.status = staff.getStatus();
+    }
+
+    public Integer getStaffId() {
+        return staffId;
+    }
+
+    public Role getRole() {
+        return role;
+    }
+
+    public StaffStatus getStatus() {
+        return status;
     }
 }
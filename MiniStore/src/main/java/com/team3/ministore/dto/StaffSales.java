@@ -0,0 +1,15 @@
+package com.team3.ministore.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StaffSales {
+    private int staffId;
+    private String staffName;
+    private long orderCount;
+    private double revenue;
+}
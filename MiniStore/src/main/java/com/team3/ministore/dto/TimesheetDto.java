@@ -9,6 +9,8 @@ import lombok.NoArgsConstructor;
 import javax.validation.constraints.NotNull;
 import java.sql.Time;
 
+import static com.team3.ministore.common.utils.DatabaseUtils.isFetched;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -65,11 +67,11 @@ public class TimesheetDto {
         this.status = timesheet.getStatus();
         this.noteTitle = timesheet.getNoteTitle();
         this.noteContent = timesheet.getNoteContent();
-        if (withSalary && timesheet.getSalary() != null)
+        if (withSalary && isFetched(timesheet.getSalary()))
             this.salary = new SalaryDto(timesheet.getSalary());
-        if (withStaff)
+        if (withStaff && isFetched(timesheet.getStaff()))
             this.staff = new StaffDto(timesheet.getStaff());
-        if (withShift)
+        if (withShift && isFetched(timesheet.getShift()))
             this.shift = new ShiftDto(timesheet.getShift(), false, false, false);
     }
 }
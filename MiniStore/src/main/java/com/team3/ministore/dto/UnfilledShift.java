@@ -0,0 +1,19 @@
+package com.team3.ministore.dto;
+
+import com.team3.ministore.utils.Role;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UnfilledShift {
+    private LocalDate date;
+    private int shiftTemplateId;
+    private String name;
+    private Role role;
+    private int missing;
+}
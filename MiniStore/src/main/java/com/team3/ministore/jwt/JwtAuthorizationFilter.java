@@ -1,13 +1,15 @@
 package com.team3.ministore.jwt;
 
+import com.team3.ministore.cache.StaffPrincipalCache;
+import com.team3.ministore.dto.StaffDetails;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -16,16 +18,21 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Component
 public class JwtAuthorizationFilter extends OncePerRequestFilter {
 	private static final Logger logger = LoggerFactory.getLogger(Jwts.class);
 	private final JwtUtils jwtUtils;
-	private final UserDetailsService userDetailsService;
+	private final StaffPrincipalCache staffPrincipalCache;
 	
-	public JwtAuthorizationFilter(JwtUtils utils, UserDetailsService service) {
+	public JwtAuthorizationFilter(JwtUtils utils, StaffPrincipalCache cache) {
 		jwtUtils = utils;
-		userDetailsService = service;
+		staffPrincipalCache = cache;
 	}
 
 	@Override
@@ -34,16 +41,24 @@ public class JwtAuthorizationFilter extends OncePerRequestFilter {
 		// authorize the request before 
 		try {
 			String token = jwtUtils.getJwtTokenFromRequest(request);
+			Optional<Claims> claims = token != null ? jwtUtils.parseJwtToken(token) : Optional.empty();
 			
-			if(token != null && jwtUtils.validateJwtToken(token)) {
-				String username = jwtUtils.getUsernameFromToken(token);
+			if(claims.isPresent()) {
+				String username = claims.get().getSubject();
 				
-				// authorized
+				// authorized, the staff is read from the cache and only loaded on a miss
+				StaffDetails userDetails = staffPrincipalCache.getPrincipal(username);
+				Set<String> currentRoles = userDetails.getAuthorities().stream()
+						.map(GrantedAuthority::getAuthority).collect(Collectors.toSet());
+				List<String> tokenRoles = jwtUtils.getRolesFromClaims(claims.get());
 				
-				UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-				Authentication auth = new UsernamePasswordAuthenticationToken(username, null, userDetails.getAuthorities());
-				
-				SecurityContextHolder.getContext().setAuthentication(auth);
+				// A token issued before a role change is no longer accepted, the controllers refuse it
+				// rather than answering it like a request without token
+				if(tokenRoles.isEmpty() || currentRoles.equals(new HashSet<>(tokenRoles))) {
+					// The controllers read the staff from the principal instead of loading it again
+					Authentication auth = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+					SecurityContextHolder.getContext().setAuthentication(auth);
+				}
 			}
 		} catch (Exception e) {
 			logger.debug("An unauthorized request has been sent from {}.", request.getRemoteAddr());
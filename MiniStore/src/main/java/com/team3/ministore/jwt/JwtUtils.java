@@ -1,10 +1,13 @@
 package com.team3.ministore.jwt;
 
+import com.team3.ministore.dto.StaffDetails;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -12,6 +15,9 @@ import org.springframework.util.StringUtils;
 import javax.crypto.SecretKey;
 import javax.servlet.http.HttpServletRequest;
 import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Component
 public class JwtUtils {
@@ -19,6 +25,7 @@ public class JwtUtils {
     private final Long jwtExpiration = 86400000L; // 1 day
     private final String authHeader = "Authorization";
     private final String tokenPrefix = "Bearer";
+    private final String rolesClaim = "roles";
 
     // Generate a secure key for HS512
     SecretKey key = Keys.secretKeyFor(SignatureAlgorithm.HS512);
@@ -28,8 +35,12 @@ public class JwtUtils {
         Date now = new Date();
 
 
+        List<String> roles = userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority).collect(Collectors.toList());
+
         return Jwts.builder()
                 .setSubject(userDetails.getUsername())
+                .claim(rolesClaim, roles)
                 .setIssuedAt(now)
                 .setExpiration(new Date(now.getTime() + jwtExpiration))
                 .signWith(key, SignatureAlgorithm.HS512)
@@ -37,9 +48,13 @@ public class JwtUtils {
     }
 
     public boolean validateJwtToken(String token) {
+        return parseJwtToken(token).isPresent();
+    }
+
+    // Verify the token and read its claims with a single parse, empty when the token is not valid
+    public Optional<Claims> parseJwtToken(String token) {
         try {
-            Jwts.parser().setSigningKey(key).parseClaimsJws(token);
-            return true;
+            return Optional.of(Jwts.parser().setSigningKey(key).parseClaimsJws(token).getBody());
         } catch (SignatureException e1) {
             logger.error("invalid JWT Signature: {}", e1.getMessage());
         } catch (ExpiredJwtException e2) {
@@ -52,7 +67,7 @@ public class JwtUtils {
             logger.error("JWT Token is not support: {}", e5.getMessage());
         }
 
-        return false;
+        return Optional.empty();
     }
 
     public String getJwtTokenFromRequest(HttpServletRequest request) {
@@ -64,7 +79,23 @@ public class JwtUtils {
         return null;
     }
 
+    // Staff that JwtAuthorizationFilter authenticated for the current request, empty without a valid token
+    public Optional<StaffDetails> getAuthenticatedStaff() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof StaffDetails)) return Optional.empty();
+
+        return Optional.of((StaffDetails) authentication.getPrincipal());
+    }
+
     public String getUsernameFromToken(String token) {
         return Jwts.parser().setSigningKey(key).parseClaimsJws(token).getBody().getSubject();
     }
+
+    // Roles the staff had when the token was issued, empty for tokens issued without the claim
+    public List<String> getRolesFromClaims(Claims claims) {
+        List<?> roles = claims.get(rolesClaim, List.class);
+        if (roles == null) return List.of();
+
+        return roles.stream().map(String::valueOf).collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,15 @@
+package com.team3.ministore.metrics;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Most SQL statements a controller method may run for one request, checked by QueryCountFilter.
+// The whole request counts, including the staff JwtAuthorizationFilter loads for a token missing from
+// StaffPrincipalCache: leave one statement for it.
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+    int value();
+}
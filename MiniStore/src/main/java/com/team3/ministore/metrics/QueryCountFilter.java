@@ -0,0 +1,115 @@
+package com.team3.ministore.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+
+// Counts the SQL statements of every request:
+// - records them per endpoint as ministore.http.queries, a jump of this summary is the sign of an N+1 query
+// - logs the statement shapes repeated at least query-inspector.repeated-threshold times in one request
+// - checks the @QueryBudget of the controller method (or query-inspector.default-budget when above 0).
+//   With query-inspector.strict=true an exceeded budget throws, so that integration tests fail.
+// An async request is counted over its dispatches and recorded once, at the end of the async dispatch. The work it
+// hands to an executor counts when the executor is decorated with QueryCountInspector.decorate (PaymentConfig).
+// It runs before every other filter, so that the statements of JwtAuthorizationFilter count as well.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    public static final String METRIC_NAME = "ministore.http.queries";
+
+    private static final String QUERIES_ATTRIBUTE = QueryCountFilter.class.getName() + ".QUERIES";
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryCountFilter.class);
+
+    @Autowired
+    private QueryCountInspector queryCountInspector;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${query-inspector.repeated-threshold:5}")
+    private int repeatedThreshold;
+
+    @Value("${query-inspector.default-budget:0}")
+    private int defaultBudget;
+
+    @Value("${query-inspector.strict:false}")
+    private boolean strict;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestQueries queries = queryCountInspector.start((RequestQueries) request.getAttribute(QUERIES_ATTRIBUTE));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            queryCountInspector.stop();
+            if (isAsyncStarted(request)) request.setAttribute(QUERIES_ATTRIBUTE, queries);
+            else record(request, queries);
+        }
+
+        if (!isAsyncStarted(request)) checkBudget(request, queries);
+    }
+
+    // The async dispatch ends the request, see doFilterInternal
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    private void record(HttpServletRequest request, RequestQueries queries) {
+        String endpoint = request.getMethod() + " " + getUri(request);
+
+        DistributionSummary.builder(METRIC_NAME)
+                .description("SQL statements executed per HTTP request")
+                .baseUnit("statements")
+                .tag("method", request.getMethod())
+                .tag("uri", getUri(request))
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(queries.getCount());
+
+        for (Map.Entry<String, Integer> shape : queries.getRepeatedShapes(repeatedThreshold).entrySet()) {
+            logger.warn("Possible N+1 query, {} ran {} times the statement: {}", endpoint, shape.getValue(), shape.getKey());
+        }
+    }
+
+    private void checkBudget(HttpServletRequest request, RequestQueries queries) {
+        int budget = defaultBudget;
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (handler instanceof HandlerMethod) {
+            QueryBudget queryBudget = ((HandlerMethod) handler).getMethodAnnotation(QueryBudget.class);
+            if (queryBudget != null) budget = queryBudget.value();
+        }
+
+        if (budget <= 0 || queries.getCount() <= budget) return;
+
+        String message = request.getMethod() + " " + getUri(request) + " ran " + queries.getCount()
+                + " SQL statements, its budget is " + budget;
+        if (strict) throw new IllegalStateException(message);
+        logger.warn(message);
+    }
+
+    // The pattern and not the path, like http.server.requests, to keep the number of series bounded
+    private static String getUri(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+}
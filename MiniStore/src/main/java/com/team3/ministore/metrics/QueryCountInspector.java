@@ -0,0 +1,50 @@
+package com.team3.ministore.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+
+// Records the SQL statements Hibernate prepares during a request. Registered in HibernateConfig,
+// started and stopped around every request by QueryCountFilter. Statements outside a request are ignored,
+// except on the threads of the executors decorated with decorate, which count for the request that gave them work.
+@Component
+public class QueryCountInspector implements StatementInspector {
+
+    private final ThreadLocal<RequestQueries> current = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        RequestQueries queries = current.get();
+        if (queries != null) queries.add(sql);
+        return sql;
+    }
+
+    // Counts on the thread, adding to the statements of an earlier dispatch of the same request when given
+    public RequestQueries start(RequestQueries queries) {
+        RequestQueries started = queries != null ? queries : new RequestQueries();
+        current.set(started);
+        return started;
+    }
+
+    public RequestQueries stop() {
+        RequestQueries queries = current.get();
+        current.remove();
+        return queries != null ? queries : new RequestQueries();
+    }
+
+    // TaskDecorator of the executors doing work for requests: the task counts for the request that submitted it
+    public Runnable decorate(Runnable task) {
+        RequestQueries queries = current.get();
+        if (queries == null) return task;
+
+        return () -> {
+            RequestQueries previous = current.get();
+            current.set(queries);
+            try {
+                task.run();
+            } finally {
+                if (previous != null) current.set(previous);
+                else current.remove();
+            }
+        };
+    }
+}
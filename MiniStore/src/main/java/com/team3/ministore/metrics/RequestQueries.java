@@ -0,0 +1,46 @@
+package com.team3.ministore.metrics;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+// Statements of one request, grouped by shape: the SQL with its literals and IN lists replaced,
+// so that the same query run for different ids counts as the same shape. Async requests add to it from the
+// executor threads as well, hence the locking.
+public class RequestQueries {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final Map<String, Integer> shapes = new HashMap<>();
+    private int count;
+
+    synchronized void add(String sql) {
+        count++;
+        shapes.merge(shapeOf(sql), 1, Integer::sum);
+    }
+
+    public synchronized int getCount() {
+        return count;
+    }
+
+    // Shapes run at least threshold times, most repeated first
+    public synchronized Map<String, Integer> getRepeatedShapes(int threshold) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        shapes.entrySet().stream()
+                .filter(shape -> shape.getValue() >= threshold)
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .forEach(shape -> repeated.put(shape.getKey(), shape.getValue()));
+        return repeated;
+    }
+
+    static String shapeOf(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("(?)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+}
@@ -1,6 +1,10 @@
 package com.team3.ministore.model;
 
+import com.team3.ministore.cache.ReferenceDataCache;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Formula;
 
 import javax.persistence.*;
 import java.util.List;
@@ -8,6 +12,8 @@ import java.util.List;
 @Entity
 @Data
 @Table(name = "categories")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ReferenceDataCache.CATEGORIES)
 public class Category {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -22,4 +28,9 @@ public class Category {
 
     @OneToMany(mappedBy = "category")
     private List<Product> products;
+
+    // Counted when the category is loaded and cached with it, instead of loading the products.
+    // ProductServiceImpl evicts the categories when the products change.
+    @Formula("(SELECT COUNT(*) FROM products p WHERE p.category_id = category_id)")
+    private int numberOfProducts;
 }
@@ -0,0 +1,32 @@
+package com.team3.ministore.model;
+
+import lombok.Data;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+
+@Entity
+@Data
+@Table(name = "dailyproductsales")
+public class DailyProductSales {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "daily_product_sales_id")
+    private int dailyProductSalesId;
+
+    @Column(name = "sales_date")
+    private LocalDate salesDate;
+
+    @Column(name = "product_id")
+    private int productId;
+
+    @Column(name = "category_id")
+    private Integer categoryId;
+
+    @Column(name = "quantity")
+    private int quantity;
+
+    @Column(name = "revenue")
+    private double revenue;
+}
@@ -1,6 +1,9 @@
 package com.team3.ministore.model;
 
+import com.team3.ministore.cache.ReferenceDataCache;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.time.LocalDate;
@@ -8,6 +11,8 @@ import java.time.LocalDate;
 @Entity
 @Data
 @Table(name = "holidays")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ReferenceDataCache.HOLIDAYS)
 public class Holiday {
 
     @Id
@@ -0,0 +1,33 @@
+package com.team3.ministore.model;
+
+import lombok.Data;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+
+@Entity
+@Data
+@Table(name = "hourlystaffsales")
+public class HourlyStaffSales {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "hourly_staff_sales_id")
+    private int hourlyStaffSalesId;
+
+    @Column(name = "sales_date")
+    private LocalDate salesDate;
+
+    @Column(name = "sales_hour")
+    private int salesHour;
+
+    // 0 when the order has no staff
+    @Column(name = "staff_id")
+    private int staffId;
+
+    @Column(name = "order_count")
+    private int orderCount;
+
+    @Column(name = "revenue")
+    private double revenue;
+}
@@ -1,5 +1,6 @@
 package com.team3.ministore.model;
 
+import com.team3.ministore.repository.IdSequenceRepository;
 import com.team3.ministore.utils.PaymentStatus;
 import lombok.Data;
 
@@ -13,7 +14,10 @@ import java.util.List;
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = IdSequenceRepository.ORDERS)
+    @TableGenerator(name = IdSequenceRepository.ORDERS, table = IdSequenceRepository.TABLE,
+            pkColumnName = IdSequenceRepository.NAME_COLUMN, valueColumnName = IdSequenceRepository.VALUE_COLUMN,
+            pkColumnValue = IdSequenceRepository.ORDERS, allocationSize = IdSequenceRepository.ALLOCATION_SIZE)
     @Column(name = "order_id")
     private int orderId;
 
@@ -1,6 +1,9 @@
 package com.team3.ministore.model;
 
+import com.team3.ministore.repository.IdSequenceRepository;
 import lombok.Data;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 
 import javax.persistence.*;
 
@@ -10,12 +13,17 @@ import javax.persistence.*;
 public class OrderItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = IdSequenceRepository.ORDER_ITEMS)
+    @TableGenerator(name = IdSequenceRepository.ORDER_ITEMS, table = IdSequenceRepository.TABLE,
+            pkColumnName = IdSequenceRepository.NAME_COLUMN, valueColumnName = IdSequenceRepository.VALUE_COLUMN,
+            pkColumnValue = IdSequenceRepository.ORDER_ITEMS, allocationSize = IdSequenceRepository.ALLOCATION_SIZE)
     @Column(name = "order_item_id")
     private int orderItemId;
 
+    // Deleted with their order, like the ON DELETE CASCADE of DB_MiniStore.sql
     @ManyToOne
     @JoinColumn(name = "order_id", referencedColumnName = "order_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
     private Order order;
 
     @ManyToOne
@@ -24,4 +32,11 @@ public class OrderItem {
 
     @Column(name = "quantity")
     private int quantity;
+
+    // Price and category of the product when the order was placed, the sales rollups count the order with them
+    @Column(name = "unit_price")
+    private Float unitPrice;
+
+    @Column(name = "category_id")
+    private Integer categoryId;
 }
@@ -1,6 +1,10 @@
 package com.team3.ministore.model;
 
+import com.team3.ministore.cache.ReferenceDataCache;
+import com.team3.ministore.repository.IdSequenceRepository;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.time.LocalDate;
@@ -8,10 +12,15 @@ import java.time.LocalDate;
 @Entity
 @Data
 @Table(name = "salaries")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ReferenceDataCache.SALARIES)
 public class Salary {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = IdSequenceRepository.SALARIES)
+    @TableGenerator(name = IdSequenceRepository.SALARIES, table = IdSequenceRepository.TABLE,
+            pkColumnName = IdSequenceRepository.NAME_COLUMN, valueColumnName = IdSequenceRepository.VALUE_COLUMN,
+            pkColumnValue = IdSequenceRepository.SALARIES, allocationSize = IdSequenceRepository.ALLOCATION_SIZE)
     @Column(name = "salary_id")
     private int salaryId;
 
@@ -24,7 +33,7 @@ public class Salary {
     @Column(name = "termination_date")
     private LocalDate terminationDate;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "staff_id")
     private Staff staff;
 
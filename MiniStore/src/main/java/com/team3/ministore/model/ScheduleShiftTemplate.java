@@ -1,5 +1,6 @@
 package com.team3.ministore.model;
 
+import com.team3.ministore.repository.IdSequenceRepository;
 import com.team3.ministore.utils.Role;
 import lombok.Data;
 
@@ -13,7 +14,10 @@ import java.time.LocalDate;
 public class ScheduleShiftTemplate {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = IdSequenceRepository.SCHEDULE_SHIFT_TEMPLATES)
+    @TableGenerator(name = IdSequenceRepository.SCHEDULE_SHIFT_TEMPLATES, table = IdSequenceRepository.TABLE,
+            pkColumnName = IdSequenceRepository.NAME_COLUMN, valueColumnName = IdSequenceRepository.VALUE_COLUMN,
+            pkColumnValue = IdSequenceRepository.SCHEDULE_SHIFT_TEMPLATES, allocationSize = IdSequenceRepository.ALLOCATION_SIZE)
     @Column(name = "schedule_shift_template_id")
     private int scheduleShiftTemplateId;
 
@@ -1,5 +1,6 @@
 package com.team3.ministore.model;
 
+import com.team3.ministore.repository.IdSequenceRepository;
 import com.team3.ministore.utils.Role;
 import lombok.Data;
 
@@ -11,10 +12,21 @@ import java.time.LocalDate;
 @Entity
 @Data
 @Table(name = "shifts")
+// Everything the shift DTOs show, loaded with a single query by the repository methods using it
+@NamedEntityGraph(name = "Shift.details",
+        attributeNodes = {
+                @NamedAttributeNode("staff"),
+                @NamedAttributeNode(value = "timesheet", subgraph = "timesheet"),
+                @NamedAttributeNode("shiftCoverRequest")
+        },
+        subgraphs = @NamedSubgraph(name = "timesheet", attributeNodes = @NamedAttributeNode("salary")))
 public class Shift {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = IdSequenceRepository.SHIFTS)
+    @TableGenerator(name = IdSequenceRepository.SHIFTS, table = IdSequenceRepository.TABLE,
+            pkColumnName = IdSequenceRepository.NAME_COLUMN, valueColumnName = IdSequenceRepository.VALUE_COLUMN,
+            pkColumnValue = IdSequenceRepository.SHIFTS, allocationSize = IdSequenceRepository.ALLOCATION_SIZE)
     @Column(name = "shift_id")
     private int shiftId;
 
@@ -41,15 +53,15 @@ public class Shift {
     @Column(name = "role")
     private Role role;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "staff_id")
     private Staff staff;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "timesheet_id")
     private Timesheet timesheet;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "shift_cover_request_id")
     private ShiftCoverRequest shiftCoverRequest;
 
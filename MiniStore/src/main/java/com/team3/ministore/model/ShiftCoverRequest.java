@@ -8,6 +8,15 @@ import javax.persistence.*;
 @Entity
 @Data
 @Table(name = "shiftcoverrequests")
+@NamedEntityGraph(name = "ShiftCoverRequest.details",
+        attributeNodes = {
+                @NamedAttributeNode("staff"),
+                @NamedAttributeNode(value = "shift", subgraph = "shift")
+        },
+        subgraphs = @NamedSubgraph(name = "shift", attributeNodes = {
+                @NamedAttributeNode("staff"),
+                @NamedAttributeNode("timesheet")
+        }))
 public class ShiftCoverRequest {
 
     @Id
@@ -1,7 +1,10 @@
 package com.team3.ministore.model;
 
+import com.team3.ministore.cache.ReferenceDataCache;
 import com.team3.ministore.utils.Role;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import javax.validation.constraints.NotNull;
@@ -10,6 +13,8 @@ import java.sql.Time;
 @Entity
 @Data
 @Table(name = "shifttemplates")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ReferenceDataCache.SHIFT_TEMPLATES)
 public class ShiftTemplate {
 
     @Id
@@ -1,6 +1,7 @@
 package com.team3.ministore.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.team3.ministore.common.utils.Availability;
 import com.team3.ministore.utils.Role;
 import com.team3.ministore.utils.StaffStatus;
 import lombok.Data;
@@ -52,6 +53,11 @@ public class Staff {
     @Column(name = "work_days", length = 200)
     private String workDays;
 
+    // Hours of the week the staff can work (see Availability), read from workDays while null
+    @Column(name = "availability", length = Availability.BYTES)
+    @JsonIgnore
+    private byte[] availability;
+
     @Column(name = "leave_balance")
     private Integer leaveBalance;
 
@@ -1,5 +1,6 @@
 package com.team3.ministore.model;
 
+import com.team3.ministore.repository.IdSequenceRepository;
 import com.team3.ministore.utils.TimesheetStatus;
 import lombok.Data;
 
@@ -9,10 +10,18 @@ import java.sql.Time;
 @Entity
 @Data
 @Table(name = "timesheets")
+@NamedEntityGraph(name = "Timesheet.details", attributeNodes = {
+        @NamedAttributeNode("shift"),
+        @NamedAttributeNode("staff"),
+        @NamedAttributeNode("salary")
+})
 public class Timesheet {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = IdSequenceRepository.TIMESHEETS)
+    @TableGenerator(name = IdSequenceRepository.TIMESHEETS, table = IdSequenceRepository.TABLE,
+            pkColumnName = IdSequenceRepository.NAME_COLUMN, valueColumnName = IdSequenceRepository.VALUE_COLUMN,
+            pkColumnValue = IdSequenceRepository.TIMESHEETS, allocationSize = IdSequenceRepository.ALLOCATION_SIZE)
     @Column(name = "timesheet_id")
     private int timesheetId;
 
@@ -32,15 +41,15 @@ public class Timesheet {
     @Column(name = "note_content", length = 100)
     private String noteContent;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "shift_id")
     private Shift shift;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "staff_id")
     private Staff staff;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "salary_id")
     private Salary salary;
 
@@ -0,0 +1,61 @@
+package com.team3.ministore.repository;
+
+import com.team3.ministore.dto.CategorySales;
+import com.team3.ministore.dto.SellingProduct;
+import com.team3.ministore.model.DailyProductSales;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.QueryHint;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.hibernate.jpa.QueryHints.HINT_NATIVE_SPACES;
+
+@Repository
+public interface DailyProductSalesRepository extends JpaRepository<DailyProductSales, Integer> {
+    // The writes name the table they touch, otherwise Hibernate empties the whole second-level cache after each one
+    @Modifying
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "dailyproductsales"))
+    @Query(value = "INSERT INTO dailyproductsales (sales_date, product_id, category_id, quantity, revenue) " +
+            "VALUES (:salesDate, :productId, :categoryId, :quantity, :revenue) " +
+            "ON DUPLICATE KEY UPDATE quantity = quantity + VALUES(quantity), revenue = revenue + VALUES(revenue)",
+            nativeQuery = true)
+    void addSales(LocalDate salesDate, int productId, Integer categoryId, int quantity, double revenue);
+
+    // Recompute the rollups from the successful orders, for rows written around the application (bulk loads). Prices
+    // and categories are those of the order items, the product's for items saved before they were kept. A product
+    // moved to another category during a day keeps one of them for the day.
+    @Modifying
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "dailyproductsales"))
+    @Query(value = "INSERT INTO dailyproductsales (sales_date, product_id, category_id, quantity, revenue) " +
+            "SELECT CAST(o.order_date AS DATE), p.product_id, MIN(COALESCE(oi.category_id, p.category_id)), SUM(oi.quantity), " +
+            "SUM(oi.quantity * COALESCE(oi.unit_price, p.price, 0)) " +
+            "FROM orderitems oi " +
+            "JOIN orders o ON o.order_id = oi.order_id " +
+            "JOIN products p ON p.product_id = oi.product_id " +
+            "WHERE o.payment_status = 1 " +
+            "GROUP BY CAST(o.order_date AS DATE), p.product_id",
+            nativeQuery = true)
+    void insertSalesFromOrders();
+
+    @Query("SELECT new com.team3.ministore.dto.SellingProduct(p.name, SUM(d.quantity), p.price) " +
+            "FROM DailyProductSales d, Product p " +
+            "WHERE d.productId = p.productId " +
+            "AND d.salesDate BETWEEN :from AND :to " +
+            "GROUP BY p.productId, p.name, p.price " +
+            "ORDER BY SUM(d.quantity) DESC")
+    List<SellingProduct> findTopSellingProducts(LocalDate from, LocalDate to, Pageable pageable);
+
+    @Query("SELECT new com.team3.ministore.dto.CategorySales(c.categoryId, c.name, SUM(d.quantity), SUM(d.revenue)) " +
+            "FROM DailyProductSales d, Category c " +
+            "WHERE d.categoryId = c.categoryId " +
+            "AND d.salesDate BETWEEN :from AND :to " +
+            "GROUP BY c.categoryId, c.name " +
+            "ORDER BY SUM(d.revenue) DESC")
+    List<CategorySales> findCategorySales(LocalDate from, LocalDate to);
+}
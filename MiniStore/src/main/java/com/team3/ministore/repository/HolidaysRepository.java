@@ -1,21 +1,28 @@
 package com.team3.ministore.repository;
 
+import com.team3.ministore.cache.ReferenceDataCache;
 import com.team3.ministore.model.Holiday;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDate;
 import java.util.List;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+
 @Repository
 public interface HolidaysRepository extends JpaRepository<Holiday, Integer> {
     Page<Holiday> findByNameContainingIgnoreCase(String name,Pageable pageable);
 
-    @Query("SELECT h FROM Holiday h " +
-            "WHERE ((h.startDate BETWEEN :startDate AND :endDate) OR (h.endDate BETWEEN :startDate AND :endDate) " +
-            "OR (h.startDate <= :startDate AND h.endDate >= :endDate))")
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = ReferenceDataCache.HOLIDAY_QUERIES)})
+    // Holidays overlapping the dates, as two bounds so that idx_holidays_dates can seek the start date
+    @Query("SELECT h FROM Holiday h WHERE h.startDate <= :endDate AND h.endDate >= :startDate")
     List<Holiday> findAllByDates(LocalDate startDate, LocalDate endDate);
 }
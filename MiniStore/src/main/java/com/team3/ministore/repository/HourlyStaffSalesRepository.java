@@ -0,0 +1,61 @@
+package com.team3.ministore.repository;
+
+import com.team3.ministore.dto.DailyRevenue;
+import com.team3.ministore.dto.HourlyRevenue;
+import com.team3.ministore.dto.StaffSales;
+import com.team3.ministore.model.HourlyStaffSales;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.QueryHint;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.hibernate.jpa.QueryHints.HINT_NATIVE_SPACES;
+
+@Repository
+public interface HourlyStaffSalesRepository extends JpaRepository<HourlyStaffSales, Integer> {
+    // The writes name the table they touch, otherwise Hibernate empties the whole second-level cache after each one
+    @Modifying
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "hourlystaffsales"))
+    @Query(value = "INSERT INTO hourlystaffsales (sales_date, sales_hour, staff_id, order_count, revenue) " +
+            "VALUES (:salesDate, :salesHour, :staffId, :orderCount, :revenue) " +
+            "ON DUPLICATE KEY UPDATE order_count = order_count + VALUES(order_count), revenue = revenue + VALUES(revenue)",
+            nativeQuery = true)
+    void addSales(LocalDate salesDate, int salesHour, int staffId, int orderCount, double revenue);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "hourlystaffsales"))
+    @Query(value = "INSERT INTO hourlystaffsales (sales_date, sales_hour, staff_id, order_count, revenue) " +
+            "SELECT CAST(o.order_date AS DATE), HOUR(o.order_date), COALESCE(o.staff_id, 0), COUNT(*), SUM(COALESCE(o.grand_total, 0)) " +
+            "FROM orders o " +
+            "WHERE o.payment_status = 1 " +
+            "GROUP BY CAST(o.order_date AS DATE), HOUR(o.order_date), COALESCE(o.staff_id, 0)",
+            nativeQuery = true)
+    void insertSalesFromOrders();
+
+    @Query("SELECT new com.team3.ministore.dto.DailyRevenue(h.salesDate, SUM(h.orderCount), SUM(h.revenue)) " +
+            "FROM HourlyStaffSales h " +
+            "WHERE h.salesDate BETWEEN :from AND :to " +
+            "GROUP BY h.salesDate " +
+            "ORDER BY h.salesDate")
+    List<DailyRevenue> findDailyRevenue(LocalDate from, LocalDate to);
+
+    @Query("SELECT new com.team3.ministore.dto.HourlyRevenue(h.salesHour, SUM(h.orderCount), SUM(h.revenue)) " +
+            "FROM HourlyStaffSales h " +
+            "WHERE h.salesDate BETWEEN :from AND :to " +
+            "GROUP BY h.salesHour " +
+            "ORDER BY h.salesHour")
+    List<HourlyRevenue> findHourlyRevenue(LocalDate from, LocalDate to);
+
+    @Query("SELECT new com.team3.ministore.dto.StaffSales(s.staffId, s.staffName, SUM(h.orderCount), SUM(h.revenue)) " +
+            "FROM HourlyStaffSales h, Staff s " +
+            "WHERE h.staffId = s.staffId " +
+            "AND h.salesDate BETWEEN :from AND :to " +
+            "GROUP BY s.staffId, s.staffName " +
+            "ORDER BY SUM(h.revenue) DESC")
+    List<StaffSales> findStaffSales(LocalDate from, LocalDate to);
+}
@@ -0,0 +1,79 @@
+package com.team3.ministore.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+
+// Sequences emulated with a table, one row per sequence holding the last id handed out. Hibernate takes
+// ALLOCATION_SIZE ids at a time from it (@TableGenerator with the pooled-lo optimizer), which leaves it free to batch
+// the inserts, and the JDBC inserts reserve their ids from the same rows.
+@Repository
+public class IdSequenceRepository {
+    public static final String TABLE = "id_sequences";
+    public static final String NAME_COLUMN = "sequence_name";
+    public static final String VALUE_COLUMN = "last_id";
+    public static final int ALLOCATION_SIZE = 50;
+
+    public static final String ORDERS = "orders";
+    public static final String ORDER_ITEMS = "orderitems";
+    public static final String SHIFTS = "shifts";
+    public static final String TIMESHEETS = "timesheets";
+    public static final String SALARIES = "salaries";
+    public static final String SCHEDULE_SHIFT_TEMPLATES = "scheduleshifttemplates";
+
+    // Id column of the table of each sequence, the sequences are named after their tables
+    private static final Map<String, String> ID_COLUMNS = Map.of(
+            ORDERS, "order_id",
+            ORDER_ITEMS, "order_item_id",
+            SHIFTS, "shift_id",
+            TIMESHEETS, "timesheet_id",
+            SALARIES, "salary_id",
+            SCHEDULE_SHIFT_TEMPLATES, "schedule_shift_template_id");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Like Hibernate, the ids are taken in a transaction of their own, so the row is locked only for a moment
+    private final TransactionTemplate newTransaction;
+
+    @Autowired
+    public IdSequenceRepository(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // First of count consecutive ids, nobody else gets any of them
+    public int reserve(String sequence, int count) {
+        Integer first = newTransaction.execute(status -> {
+            Long last = jdbcTemplate.queryForObject("SELECT " + VALUE_COLUMN + " FROM " + TABLE
+                    + " WHERE " + NAME_COLUMN + " = ? FOR UPDATE", Long.class, sequence);
+            jdbcTemplate.update("UPDATE " + TABLE + " SET " + VALUE_COLUMN + " = ? WHERE " + NAME_COLUMN + " = ?",
+                    last + count, sequence);
+            return Math.toIntExact(last + 1);
+        });
+        return first;
+    }
+
+    // Hibernate starts a sequence at 1 whatever its table holds: when it creates the schema, and when the row is
+    // missing. Before any insert, the sequences behind their table move past its largest id, or are created there.
+    @EventListener(ContextRefreshedEvent.class)
+    public void alignSequences() {
+        ID_COLUMNS.forEach((sequence, idColumn) -> newTransaction.executeWithoutResult(status -> {
+            Integer maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(" + idColumn + "), 0) FROM " + sequence,
+                    Integer.class);
+            int updated = jdbcTemplate.update("UPDATE " + TABLE + " SET " + VALUE_COLUMN + " = ? WHERE "
+                    + NAME_COLUMN + " = ? AND " + VALUE_COLUMN + " < ?", maxId, sequence, maxId);
+            if (updated > 0) return;
+
+            jdbcTemplate.update("INSERT INTO " + TABLE + " (" + NAME_COLUMN + ", " + VALUE_COLUMN + ") SELECT ?, ? FROM DUAL "
+                    + "WHERE NOT EXISTS (SELECT 1 FROM " + TABLE + " WHERE " + NAME_COLUMN + " = ?)", sequence, maxId, sequence);
+        }));
+    }
+}
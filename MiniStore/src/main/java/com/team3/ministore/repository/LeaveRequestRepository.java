@@ -1,6 +1,8 @@
 package com.team3.ministore.repository;
 
+import com.team3.ministore.dto.LeaveSlot;
 import com.team3.ministore.model.LeaveRequest;
+import com.team3.ministore.utils.LeaveStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -8,16 +10,38 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface LeaveRequestRepository extends JpaRepository<LeaveRequest, Integer> {
 
-    @Query("SELECT l FROM LeaveRequest l WHERE l.staff.staffId = :id AND " +
-            "((l.startDate BETWEEN :startDate AND :endDate) OR (l.endDate BETWEEN :startDate AND :endDate) " +
-            "OR (l.startDate <= :startDate AND l.endDate >= :endDate))")
+    // Leaves overlapping the dates, written as two bounds rather than an OR of ranges so that the index
+    // on (staff_id, start_date, end_date) can seek the start date
+    @Query("SELECT l FROM LeaveRequest l WHERE l.staff.staffId = :id " +
+            "AND l.startDate <= :endDate AND l.endDate >= :startDate")
     List<LeaveRequest> findLeaveRequestsByStaffIdAndDates(Integer id, LocalDate startDate, LocalDate endDate);
 
+    @Query("SELECT l FROM LeaveRequest l WHERE l.status = :status " +
+            "AND l.startDate <= :endDate AND l.endDate >= :startDate")
+    List<LeaveRequest> findLeaveRequestsByStatusAndDates(LeaveStatus status, LocalDate startDate, LocalDate endDate);
+
+    @Query("SELECT l FROM LeaveRequest l WHERE l.staff.staffId IN :ids AND l.status = :status " +
+            "AND l.startDate <= :endDate AND l.endDate >= :startDate")
+    List<LeaveRequest> findLeaveRequestsByStaffIdsAndStatusAndDates(Collection<Integer> ids, LeaveStatus status,
+                                                                    LocalDate startDate, LocalDate endDate);
+
+    // Dates of the leaves of some staffs, without loading the staffs
+    @Query("SELECT new com.team3.ministore.dto.LeaveSlot(l.leaveRequestId, l.staff.staffId, l.startDate, l.endDate) " +
+            "FROM LeaveRequest l WHERE l.staff.staffId IN :ids AND l.status = :status " +
+            "AND l.startDate <= :endDate AND l.endDate >= :startDate")
+    List<LeaveSlot> findSlotsByStaffIdsAndStatusAndDates(Collection<Integer> ids, LeaveStatus status,
+                                                         LocalDate startDate, LocalDate endDate);
+
+    @Query("SELECT new com.team3.ministore.dto.LeaveSlot(l.leaveRequestId, l.staff.staffId, l.startDate, l.endDate) " +
+            "FROM LeaveRequest l WHERE l.status = :status AND l.startDate <= :endDate AND l.endDate >= :startDate")
+    List<LeaveSlot> findSlotsByStatusAndDates(LeaveStatus status, LocalDate startDate, LocalDate endDate);
+
     @Query("SELECT l FROM LeaveRequest l ORDER BY l.leaveRequestId DESC")
     Page<LeaveRequest> findAll(Pageable pageable);
 
@@ -25,4 +49,11 @@ public interface LeaveRequestRepository extends JpaRepository<LeaveRequest, Inte
     Page<LeaveRequest> findAllByFilter(String name, Pageable pageable);
 
     Page<LeaveRequest> findAllByStaff_StaffIdOrderByLeaveRequestIdDesc(Integer staffId, Pageable pageable);
+
+    @Query("SELECT lr FROM LeaveRequest lr " +
+            "WHERE (:name is null OR LOWER(lr.staff.staffName) LIKE %:name% ) " +
+            "AND (:staffId is null OR lr.staff.staffId = :staffId) " +
+            "AND (:cursorId is null OR lr.leaveRequestId < :cursorId) " +
+            "ORDER BY lr.leaveRequestId DESC")
+    List<LeaveRequest> findAllByFilterAfter(String name, Integer staffId, Integer cursorId, Pageable pageable);
 }
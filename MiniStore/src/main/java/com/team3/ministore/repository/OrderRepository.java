@@ -1,13 +1,23 @@
 package com.team3.ministore.repository;
 
+import com.team3.ministore.common.utils.DatabaseUtils;
+import com.team3.ministore.dto.OrderExportRow;
 import com.team3.ministore.model.Order;
+import com.team3.ministore.utils.PaymentStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Integer> {
@@ -18,4 +28,30 @@ public interface OrderRepository extends JpaRepository<Order, Integer> {
             "AND (:grandTotal2 is null OR o.grandTotal <= :grandTotal2 ) " +
             "ORDER BY o.orderDate DESC")
     Page<Order> findAllByFilters(LocalDateTime from, LocalDateTime to, Float grandTotal, Float grandTotal2, Pageable pageable);
+
+    @Query("SELECT o FROM Order o " +
+            "WHERE (:from is null OR o.orderDate >= :from) " +
+            "AND (:to is null OR o.orderDate <= :to) " +
+            "AND (:grandTotal is null OR o.grandTotal >= :grandTotal ) " +
+            "AND (:grandTotal2 is null OR o.grandTotal <= :grandTotal2 ) " +
+            "AND (:cursorDate is null OR o.orderDate < :cursorDate " +
+            "OR (o.orderDate = :cursorDate AND o.orderId < :cursorId)) " +
+            "ORDER BY o.orderDate DESC, o.orderId DESC")
+    List<Order> findAllByFiltersAfter(LocalDateTime from, LocalDateTime to, Float grandTotal, Float grandTotal2,
+                                      LocalDateTime cursorDate, Integer cursorId, Pageable pageable);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Order o SET o.paymentStatus = :status WHERE o.orderId = :orderId AND o.paymentStatus = :expectedStatus")
+    int updatePaymentStatus(Integer orderId, PaymentStatus expectedStatus, PaymentStatus status);
+
+    // The price the item was sold at, the current one of the product for items saved before the snapshot (like
+    // SalesServiceImpl)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = DatabaseUtils.STREAMING_FETCH_SIZE))
+    @Query("SELECT new com.team3.ministore.dto.OrderExportRow(o.orderId, o.orderDate, o.grandTotal, o.paymentStatus, " +
+            "s.staffId, s.staffName, i.orderItemId, p.productId, p.name, COALESCE(i.unitPrice, p.price), i.quantity) " +
+            "FROM Order o LEFT JOIN o.staff s LEFT JOIN o.orderItems i LEFT JOIN i.product p " +
+            "WHERE (:from is null OR o.orderDate >= :from) " +
+            "AND (:to is null OR o.orderDate <= :to) " +
+            "ORDER BY o.orderDate, o.orderId, i.orderItemId")
+    Stream<OrderExportRow> streamExportRows(LocalDateTime from, LocalDateTime to);
 }
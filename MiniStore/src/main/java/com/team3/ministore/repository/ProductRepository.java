@@ -1,19 +1,56 @@
 package com.team3.ministore.repository;
 
+import com.team3.ministore.common.utils.DatabaseUtils;
+import com.team3.ministore.dto.ProductBarcode;
+import com.team3.ministore.dto.ProductSearchDocument;
 import com.team3.ministore.model.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Integer> {
 
     Page<Product> findAll(Pageable pageable);
 
-    Page<Product> findAllByNameContainingIgnoreCaseOrBarCodeContainingIgnoreCaseOrCategory_NameContainingIgnoreCase(String name, String barcode, String categoryName, Pageable pageable);
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category WHERE p.productId IN :productIds")
+    List<Product> findAllWithCategoryByProductIdIn(Collection<Integer> productIds);
 
     Optional<Product> findFirstByBarCode(String barCode);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = DatabaseUtils.STREAMING_FETCH_SIZE))
+    @Query("SELECT new com.team3.ministore.dto.ProductBarcode(p.productId, p.barCode, p.name, p.description, p.price, " +
+            "p.inventory, c.categoryId) FROM Product p LEFT JOIN p.category c " +
+            "WHERE p.barCode IS NOT NULL AND p.barCode <> '' ORDER BY p.productId")
+    Stream<ProductBarcode> streamAllBarcodes();
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = DatabaseUtils.STREAMING_FETCH_SIZE))
+    @Query("SELECT new com.team3.ministore.dto.ProductSearchDocument(p.productId, p.barCode, p.name, p.description, c.name) " +
+            "FROM Product p LEFT JOIN p.category c ORDER BY p.productId")
+    Stream<ProductSearchDocument> streamAllSearchDocuments();
+
+    @Query("SELECT new com.team3.ministore.dto.ProductSearchDocument(p.productId, p.barCode, p.name, p.description, c.name) " +
+            "FROM Product p JOIN p.category c WHERE c.categoryId = :categoryId")
+    List<ProductSearchDocument> findSearchDocumentsByCategoryId(Integer categoryId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Product p SET p.inventory = p.inventory - :quantity " +
+            "WHERE p.productId = :productId AND p.inventory >= :quantity")
+    int decreaseInventory(Integer productId, int quantity);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Product p SET p.inventory = p.inventory + :quantity WHERE p.productId = :productId")
+    int increaseInventory(Integer productId, int quantity);
 }
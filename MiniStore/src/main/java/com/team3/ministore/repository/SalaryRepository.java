@@ -1,13 +1,21 @@
 package com.team3.ministore.repository;
 
+import com.team3.ministore.cache.ReferenceDataCache;
 import com.team3.ministore.model.Salary;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+
 @Repository
 public interface SalaryRepository extends JpaRepository<Salary, Integer> {
 
@@ -17,10 +25,19 @@ public interface SalaryRepository extends JpaRepository<Salary, Integer> {
             "AND sl.terminationDate IS NULL")
     Optional<Salary> findSalaryInformationByStaffId(Integer staffId);
 
+    // The date is a parameter and not CURRENT_DATE, so that a cached result is not reused the next day
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = ReferenceDataCache.SALARY_QUERIES)})
     @Query("SELECT sl FROM Salary sl " +
-            "WHERE sl.effectiveDate <= CURRENT_DATE " +
+            "WHERE sl.effectiveDate <= :today " +
+            "AND sl.terminationDate IS NULL")
+    List<Salary> findSalaryOfAllStaffs(LocalDate today);
+
+    @Query("SELECT sl FROM Salary sl " +
+            "WHERE sl.staff.staffId IN :staffIds " +
+            "AND sl.effectiveDate <= CURRENT_DATE " +
             "AND sl.terminationDate IS NULL")
-    List<Salary> findSalaryOfAllStaffs();
+    List<Salary> findSalaryOfStaffs(Collection<Integer> staffIds);
 
 
 }
@@ -2,8 +2,17 @@ package com.team3.ministore.repository;
 
 import com.team3.ministore.model.ScheduleTemplate;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
 public interface ScheduleTemplateRepository extends JpaRepository<ScheduleTemplate, Integer> {
+
+    @Query("SELECT DISTINCT t FROM ScheduleTemplate t " +
+            "LEFT JOIN FETCH t.scheduleShiftTemplates st " +
+            "LEFT JOIN FETCH st.staff " +
+            "WHERE t.scheduleTemplateId = :id")
+    Optional<ScheduleTemplate> findWithShiftTemplatesById(Integer id);
 }
@@ -1,8 +1,10 @@
 package com.team3.ministore.repository;
 
 import com.team3.ministore.model.ShiftCoverRequest;
+import com.team3.ministore.utils.ShiftCoverStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -12,13 +14,34 @@ import java.util.List;
 
 @Repository
 public interface ShiftCoverRequestRepository extends JpaRepository<ShiftCoverRequest, Integer> {
+    @EntityGraph("ShiftCoverRequest.details")
     @Query("SELECT sc FROM ShiftCoverRequest sc ORDER BY sc.shiftCoverRequestId DESC")
     Page<ShiftCoverRequest> findAll(Pageable pageable);
 
+    @EntityGraph("ShiftCoverRequest.details")
     @Query("SELECT scr FROM ShiftCoverRequest scr WHERE (:name is null OR LOWER(scr.staff.staffName) LIKE %:name% ) ORDER BY scr.shiftCoverRequestId DESC")
     Page<ShiftCoverRequest> findAllByFilter(String name, Pageable pageable);
 
+    @EntityGraph("ShiftCoverRequest.details")
     Page<ShiftCoverRequest> findAllByShift_Staff_StaffIdOrderByShiftCoverRequestIdDesc(Integer staffId, Pageable pageable);
 
+    @EntityGraph("ShiftCoverRequest.details")
+    @Query("SELECT scr FROM ShiftCoverRequest scr " +
+            "WHERE (:name is null OR LOWER(scr.staff.staffName) LIKE %:name% ) " +
+            "AND (:staffId is null OR scr.shift.staff.staffId = :staffId) " +
+            "AND (:cursorId is null OR scr.shiftCoverRequestId < :cursorId) " +
+            "ORDER BY scr.shiftCoverRequestId DESC")
+    List<ShiftCoverRequest> findAllByFilterAfter(String name, Integer staffId, Integer cursorId, Pageable pageable);
+
+    @EntityGraph("ShiftCoverRequest.details")
     List<ShiftCoverRequest> findAllByStaff_StaffIdAndShift_DateBetween(int staff_staffId, LocalDate from, LocalDate to);
+
+    @Query("SELECT sc FROM ShiftCoverRequest sc " +
+            "JOIN FETCH sc.staff " +
+            "JOIN FETCH sc.shift s " +
+            "JOIN FETCH s.staff " +
+            "LEFT JOIN FETCH s.timesheet t " +
+            "LEFT JOIN FETCH t.salary " +
+            "WHERE sc.status = :status AND s.date BETWEEN :from AND :to")
+    List<ShiftCoverRequest> findAllWithDetailsByStatusAndShiftDates(ShiftCoverStatus status, LocalDate from, LocalDate to);
 }
@@ -1,14 +1,49 @@
 package com.team3.ministore.repository;
 
+import com.team3.ministore.dto.ShiftSlot;
 import com.team3.ministore.model.Shift;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ShiftRepository extends JpaRepository<Shift, Integer> {
+    @EntityGraph("Shift.details")
+    Optional<Shift> findById(Integer id);
+
+    @EntityGraph("Shift.details")
+    List<Shift> findAll();
+
+    // Filters on shifts.staff_id: derived from the method name, the filter would go to the staff joined by the
+    // entity graph and idx_shifts_staff_date would not be used
+    @EntityGraph("Shift.details")
+    @Query("SELECT s FROM Shift s WHERE s.staff.staffId = :staffId AND s.date BETWEEN :from AND :to")
     List<Shift> findAllByStaff_StaffIdAndDateBetween(int staffId, LocalDate from, LocalDate to);
+
+    @EntityGraph("Shift.details")
     List<Shift> findAllByDateBetween(LocalDate from, LocalDate to);
+
+    @Query("SELECT s FROM Shift s " +
+            "JOIN FETCH s.staff " +
+            "LEFT JOIN FETCH s.timesheet t " +
+            "LEFT JOIN FETCH t.salary " +
+            "LEFT JOIN FETCH s.shiftCoverRequest " +
+            "WHERE s.date BETWEEN :from AND :to")
+    List<Shift> findAllWithDetailsByDateBetween(LocalDate from, LocalDate to);
+
+    // Times of the shifts of some staffs, to check new shifts against them
+    @Query("SELECT new com.team3.ministore.dto.ShiftSlot(s.shiftId, s.staff.staffId, s.date, s.startTime, s.endTime) " +
+            "FROM Shift s WHERE s.staff.staffId IN :staffIds AND s.date BETWEEN :from AND :to")
+    List<ShiftSlot> findSlotsByStaffIdsAndDateBetween(Collection<Integer> staffIds, LocalDate from, LocalDate to);
+
+    // Times of the shifts of every staff, for the automatic schedule
+    @Query("SELECT new com.team3.ministore.dto.ShiftSlot(s.shiftId, s.staff.staffId, s.date, s.startTime, s.endTime) " +
+            "FROM Shift s WHERE s.date BETWEEN :from AND :to")
+    List<ShiftSlot> findSlotsByDateBetween(LocalDate from, LocalDate to);
 }
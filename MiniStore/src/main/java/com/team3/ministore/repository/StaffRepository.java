@@ -1,6 +1,7 @@
 package com.team3.ministore.repository;
 
 import com.team3.ministore.model.Staff;
+import com.team3.ministore.utils.StaffStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -27,6 +28,14 @@ public interface StaffRepository extends JpaRepository<Staff, Integer> {
     @Query("SELECT s FROM Staff s ORDER BY s.staffId DESC")
     List<Staff> findAll();
 
+    @Query("SELECT s FROM Staff s " +
+            "WHERE (:name is null OR LOWER(s.staffName) LIKE LOWER(CONCAT('%', :name, '%'))) " +
+            "AND (:cursorId is null OR s.staffId < :cursorId) " +
+            "ORDER BY s.staffId DESC")
+    List<Staff> findAllByFilterAfter(String name, Integer cursorId, Pageable pageable);
+
+    List<Staff> findAllByStatus(StaffStatus status);
+
     @Query("SELECT s FROM Staff s WHERE s.staffId = :staffId ORDER BY s.staffId DESC")
     Optional<Staff> findById(Integer staffId);
 
@@ -3,14 +3,27 @@ package com.team3.ministore.repository;
 import com.team3.ministore.model.Timesheet;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.List;
 
 @Repository
 public interface TimesheetRepository extends JpaRepository<Timesheet, Integer> {
+    @EntityGraph("Timesheet.details")
     Page<Timesheet> findAllByShift_DateBetween(LocalDate from, LocalDate to, Pageable pageable);
 
+    @EntityGraph("Timesheet.details")
     Page<Timesheet> findByStaff_StaffNameContainingIgnoreCaseAndShift_DateBetweenOrderByTimesheetIdDesc(String staff_staffName, LocalDate from, LocalDate to, Pageable pageable);
+
+    @EntityGraph("Timesheet.details")
+    @Query("SELECT t FROM Timesheet t " +
+            "WHERE t.shift.date BETWEEN :from AND :to " +
+            "AND (:name is null OR LOWER(t.staff.staffName) LIKE LOWER(CONCAT('%', :name, '%'))) " +
+            "AND (:cursorId is null OR t.timesheetId < :cursorId) " +
+            "ORDER BY t.timesheetId DESC")
+    List<Timesheet> findAllByFilterAfter(String name, LocalDate from, LocalDate to, Integer cursorId, Pageable pageable);
 }
@@ -0,0 +1,176 @@
+package com.team3.ministore.scheduling;
+
+import com.team3.ministore.common.utils.Availability;
+import com.team3.ministore.common.utils.DateRangeIndex;
+import com.team3.ministore.utils.Role;
+
+import java.sql.Time;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Shifts to staff over a date range, and what the staffs can take: their role, their hours, their approved leaves
+// and the shifts they already have. Staffs and slots are numbered in the order they are added, see ScheduleSolver.
+public class ScheduleProblem {
+    static final long SECONDS_PER_DAY = 24 * 60 * 60;
+
+    private final LocalDate from;
+    private final int days;
+    private final long firstMonday;
+    private final int maxShiftsPerWeek;
+
+    final List<StaffInfo> staffs = new ArrayList<>();
+    final List<SlotInfo> slots = new ArrayList<>();
+
+    public ScheduleProblem(LocalDate from, LocalDate to, int maxShiftsPerWeek) {
+        if (to.isBefore(from)) throw new IllegalArgumentException("The range ends before it starts");
+
+        this.from = from;
+        this.days = (int) (to.toEpochDay() - from.toEpochDay() + 1);
+        this.firstMonday = from.with(DayOfWeek.MONDAY).toEpochDay();
+        this.maxShiftsPerWeek = maxShiftsPerWeek;
+    }
+
+    // Index of the staff, availability is an Availability mask
+    public int addStaff(Role role, byte[] availability, DateRangeIndex leaveDays) {
+        staffs.add(new StaffInfo(role, availability, leaveDays == null ? DateRangeIndex.empty() : leaveDays));
+        return staffs.size() - 1;
+    }
+
+    // A shift the staff already has: no new shift overlaps it or falls on its day, and it counts in the week and the
+    // hours
+    public void addSavedShift(int staff, LocalDate date, Time startTime, Time endTime) {
+        if (date == null || startTime == null || endTime == null) return;
+
+        StaffInfo staffInfo = staffs.get(staff);
+        long[] interval = interval(date, startTime, endTime);
+        staffInfo.savedShifts.add(interval);
+
+        int day = dayIndex(date);
+        if (day < 0 || day >= days) return;
+        staffInfo.savedDays.add(day);
+        staffInfo.savedMinutes += (interval[1] - interval[0]) / 60;
+        staffInfo.savedWeekShifts.merge(weekIndex(day), 1, Integer::sum);
+    }
+
+    // Index of the slot, one staff of the role (any role but ADMIN for ALL_ROLES) works it
+    public int addSlot(Role role, LocalDate date, Time startTime, Time endTime) {
+        int day = dayIndex(date);
+        if (day < 0 || day >= days) throw new IllegalArgumentException("The slot is outside of the range: " + date);
+
+        long[] interval = interval(date, startTime, endTime);
+        slots.add(new SlotInfo(role, date, day, weekIndex(day), interval[0], interval[1],
+                Availability.slots(date, startTime.toLocalTime(), endTime.toLocalTime())));
+        return slots.size() - 1;
+    }
+
+    public int getStaffCount() {
+        return staffs.size();
+    }
+
+    public int getSlotCount() {
+        return slots.size();
+    }
+
+    // Minutes each staff works over the range with the assignment of ScheduleSolver, the saved shifts included
+    public long[] getStaffMinutes(int[] assignment) {
+        long[] minutes = new long[staffs.size()];
+        for (int staff = 0; staff < staffs.size(); staff++) minutes[staff] = staffs.get(staff).savedMinutes;
+        for (int slot = 0; slot < assignment.length; slot++) {
+            if (assignment[slot] >= 0) minutes[assignment[slot]] += (slots.get(slot).end - slots.get(slot).start) / 60;
+        }
+        return minutes;
+    }
+
+    int getDays() {
+        return days;
+    }
+
+    int getWeeks() {
+        return weekIndex(days - 1) + 1;
+    }
+
+    int getMaxShiftsPerWeek() {
+        return maxShiftsPerWeek;
+    }
+
+    // Whether the staff can work the slot whatever else is assigned: role, hours, leave and saved shifts
+    boolean isEligible(int staff, int slot) {
+        StaffInfo staffInfo = staffs.get(staff);
+        SlotInfo slotInfo = slots.get(slot);
+
+        if (staffInfo.role == Role.ADMIN) return false;
+        if (slotInfo.role != Role.ALL_ROLES && slotInfo.role != staffInfo.role) return false;
+        if (!Availability.containsAll(staffInfo.availability, slotInfo.hours)) return false;
+        if (staffInfo.savedDays.contains(slotInfo.day)) return false;
+
+        // A shift ending after midnight needs the next day free of leave as well
+        if (staffInfo.leaveDays.contains(slotInfo.date)) return false;
+        if (slotInfo.end > (slotInfo.date.toEpochDay() + 1) * SECONDS_PER_DAY
+                && staffInfo.leaveDays.contains(slotInfo.date.plusDays(1))) return false;
+
+        for (long[] savedShift : staffInfo.savedShifts) {
+            if (savedShift[0] < slotInfo.end && slotInfo.start < savedShift[1]) return false;
+        }
+        return true;
+    }
+
+    private int dayIndex(LocalDate date) {
+        return (int) (date.toEpochDay() - from.toEpochDay());
+    }
+
+    private int weekIndex(int day) {
+        return (int) ((from.toEpochDay() + day - firstMonday) / 7);
+    }
+
+    // Seconds from the epoch, an end time up to the start time is on the next day
+    private static long[] interval(LocalDate date, Time startTime, Time endTime) {
+        long day = date.toEpochDay() * SECONDS_PER_DAY;
+        long start = day + startTime.toLocalTime().toSecondOfDay();
+        long end = day + endTime.toLocalTime().toSecondOfDay();
+        if (end <= start) end += SECONDS_PER_DAY;
+        return new long[]{start, end};
+    }
+
+    static class StaffInfo {
+        final Role role;
+        final byte[] availability;
+        final DateRangeIndex leaveDays;
+        final List<long[]> savedShifts = new ArrayList<>();
+        final Set<Integer> savedDays = new HashSet<>();
+        final Map<Integer, Integer> savedWeekShifts = new HashMap<>();
+        long savedMinutes;
+
+        StaffInfo(Role role, byte[] availability, DateRangeIndex leaveDays) {
+            this.role = role;
+            this.availability = availability;
+            this.leaveDays = leaveDays;
+        }
+    }
+
+    static class SlotInfo {
+        final Role role;
+        final LocalDate date;
+        final int day;
+        final int week;
+        final long start;
+        final long end;
+        // Availability slots of the hours of the shift
+        final int[] hours;
+
+        SlotInfo(Role role, LocalDate date, int day, int week, long start, long end, int[] hours) {
+            this.role = role;
+            this.date = date;
+            this.day = day;
+            this.week = week;
+            this.start = start;
+            this.end = end;
+            this.hours = hours;
+        }
+    }
+}
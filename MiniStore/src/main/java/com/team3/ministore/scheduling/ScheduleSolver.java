@@ -0,0 +1,307 @@
+package com.team3.ministore.scheduling;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.IntStream;
+
+// Assigns the slots of a ScheduleProblem to staffs. Hard rules: the staff is eligible (see ScheduleProblem.isEligible),
+// works at most one shift a day, the new shifts do not overlap, and a week holds at most maxShiftsPerWeek shifts, the
+// saved ones included. Within them, as many slots as possible are filled, then the hours are spread evenly: the
+// cost is UNFILLED per empty slot plus the sum over the staffs of their minutes squared.
+//
+// A greedy pass fills the most constrained slots first with the least loaded staff, then every worker improves it with
+// simulated annealing from its own random seed, in parallel, and the cheapest result wins (the first worker on a tie,
+// so a seed always gives the same schedule when the time limit is not hit). The time limit of a worker starts when it
+// starts running: the workers of a schedule queued behind another one on the executor still get all of it.
+public class ScheduleSolver {
+    static final long UNFILLED = 1_000_000_000_000L;
+
+    // Moves tried by each worker per slot, more barely changes the cost of the rosters in the benchmark
+    private static final int MOVES_PER_SLOT = 400;
+    private static final int CHECK_INTERVAL = 1024;
+
+    private final Executor executor;
+    private final int workers;
+    private final Duration timeLimit;
+
+    public ScheduleSolver(Executor executor, int workers, Duration timeLimit) {
+        this.executor = executor;
+        this.workers = Math.max(1, workers);
+        this.timeLimit = timeLimit;
+    }
+
+    // Staff index of each slot, -1 when nobody can take it
+    public int[] solve(ScheduleProblem problem, long seed) {
+        int slotCount = problem.getSlotCount();
+        if (slotCount == 0 || problem.getStaffCount() == 0) {
+            int[] unassigned = new int[slotCount];
+            Arrays.fill(unassigned, -1);
+            return unassigned;
+        }
+
+        Model model = new Model(problem);
+        State start = greedy(model);
+
+        // When the executor is full, the workers already queued are cancelled, so that they skip the work once they run
+        List<CompletableFuture<State>> results = new ArrayList<>(workers);
+        try {
+            for (int i = 0; i < workers; i++) {
+                SplittableRandom random = new SplittableRandom(seed + i);
+                results.add(CompletableFuture.supplyAsync(
+                        () -> anneal(model, start.copy(), random, System.nanoTime() + timeLimit.toNanos()), executor));
+            }
+        } catch (RejectedExecutionException e) {
+            results.forEach(result -> result.cancel(false));
+            throw e;
+        }
+
+        State best = null;
+        for (CompletableFuture<State> result : results) {
+            State state = result.join();
+            if (best == null || state.cost < best.cost) best = state;
+        }
+        return best.assignment;
+    }
+
+    public static long cost(ScheduleProblem problem, int[] assignment) {
+        Model model = new Model(problem);
+        State state = new State(model);
+        for (int slot = 0; slot < assignment.length; slot++) {
+            if (assignment[slot] >= 0) state.add(slot, assignment[slot]);
+        }
+        return state.cost;
+    }
+
+    private static State greedy(Model model) {
+        State state = new State(model);
+
+        Integer[] order = IntStream.range(0, model.slotCount).boxed().toArray(Integer[]::new);
+        Arrays.sort(order, Comparator.comparingInt((Integer slot) -> model.candidates[slot].length)
+                .thenComparingLong(slot -> model.starts[slot]));
+
+        for (int slot : order) {
+            int chosen = -1;
+            for (int staff : model.candidates[slot]) {
+                if (state.canAdd(slot, staff) && (chosen < 0 || state.load[staff] < state.load[chosen])) chosen = staff;
+            }
+            if (chosen >= 0) state.add(slot, chosen);
+        }
+        return state;
+    }
+
+    private static State anneal(Model model, State state, SplittableRandom random, long deadline) {
+        long moves = (long) model.slotCount * MOVES_PER_SLOT;
+
+        // Starts by taking a move that adds about one slot's worth of unevenness, ends taking almost none
+        double startTemperature = 2.0 * model.averageMinutes * model.averageMinutes;
+        double endTemperature = startTemperature / 1000;
+        double cooling = Math.pow(endTemperature / startTemperature, 1.0 / moves);
+        double temperature = startTemperature;
+
+        State best = state.copy();
+        for (long move = 0; move < moves; move++, temperature *= cooling) {
+            if (move % CHECK_INTERVAL == 0) {
+                if (state.cost < best.cost) best = state.copy();
+                if (System.nanoTime() > deadline) break;
+            }
+
+            long before = state.cost;
+            int slot = random.nextInt(model.slotCount);
+            int[] candidates = model.candidates[slot];
+            if (candidates.length == 0) continue;
+            int staff = candidates[random.nextInt(candidates.length)];
+            int current = state.assignment[slot];
+            if (staff == current) continue;
+
+            if (current < 0 || random.nextBoolean()) {
+                // Give the slot to the staff
+                if (current >= 0) state.remove(slot);
+                if (!state.canAdd(slot, staff)) {
+                    if (current >= 0) state.add(slot, current);
+                    continue;
+                }
+                state.add(slot, staff);
+                if (!accept(state.cost - before, temperature, random)) {
+                    state.remove(slot);
+                    if (current >= 0) state.add(slot, current);
+                }
+            } else {
+                // Swap with one of the shifts of the staff, on a random day
+                int other = state.slotOfDay(staff, random.nextInt(model.days));
+                if (other < 0 || !model.isCandidate(other, current)) continue;
+
+                state.remove(slot);
+                state.remove(other);
+                if (state.canAdd(slot, staff)) {
+                    state.add(slot, staff);
+                    if (state.canAdd(other, current)) {
+                        state.add(other, current);
+                        if (accept(state.cost - before, temperature, random)) continue;
+                        state.remove(other);
+                    }
+                    state.remove(slot);
+                }
+                state.add(slot, current);
+                state.add(other, staff);
+            }
+        }
+        return state.cost < best.cost ? state : best;
+    }
+
+    private static boolean accept(long delta, double temperature, SplittableRandom random) {
+        return delta <= 0 || random.nextDouble() < Math.exp(-delta / temperature);
+    }
+
+    // Flat arrays of the problem: what does not change while solving
+    private static class Model {
+        final int slotCount;
+        final int staffCount;
+        final int days;
+        final int weeks;
+        final int maxShiftsPerWeek;
+        final long[] starts;
+        final long[] ends;
+        final int[] slotDays;
+        final int[] slotWeeks;
+        final long[] slotMinutes;
+        // Eligible staffs of each slot, sorted
+        final int[][] candidates;
+        final long[] savedMinutes;
+        final int[] savedWeekShifts;
+        final double averageMinutes;
+
+        Model(ScheduleProblem problem) {
+            slotCount = problem.getSlotCount();
+            staffCount = problem.getStaffCount();
+            days = problem.getDays();
+            weeks = problem.getWeeks();
+            maxShiftsPerWeek = problem.getMaxShiftsPerWeek();
+
+            starts = new long[slotCount];
+            ends = new long[slotCount];
+            slotDays = new int[slotCount];
+            slotWeeks = new int[slotCount];
+            slotMinutes = new long[slotCount];
+            candidates = new int[slotCount][];
+            long totalMinutes = 0;
+            for (int slot = 0; slot < slotCount; slot++) {
+                ScheduleProblem.SlotInfo slotInfo = problem.slots.get(slot);
+                starts[slot] = slotInfo.start;
+                ends[slot] = slotInfo.end;
+                slotDays[slot] = slotInfo.day;
+                slotWeeks[slot] = slotInfo.week;
+                slotMinutes[slot] = (slotInfo.end - slotInfo.start) / 60;
+                totalMinutes += slotMinutes[slot];
+
+                int current = slot;
+                candidates[slot] = IntStream.range(0, staffCount).filter(staff -> problem.isEligible(staff, current)).toArray();
+            }
+            averageMinutes = slotCount == 0 ? 0 : (double) totalMinutes / slotCount;
+
+            savedMinutes = new long[staffCount];
+            savedWeekShifts = new int[staffCount * weeks];
+            for (int staff = 0; staff < staffCount; staff++) {
+                ScheduleProblem.StaffInfo staffInfo = problem.staffs.get(staff);
+                savedMinutes[staff] = staffInfo.savedMinutes;
+                for (int week = 0; week < weeks; week++) {
+                    savedWeekShifts[staff * weeks + week] = staffInfo.savedWeekShifts.getOrDefault(week, 0);
+                }
+            }
+        }
+
+        boolean isCandidate(int slot, int staff) {
+            return Arrays.binarySearch(candidates[slot], staff) >= 0;
+        }
+
+        boolean overlaps(int slot, int other) {
+            return starts[slot] < ends[other] && starts[other] < ends[slot];
+        }
+    }
+
+    // An assignment and what the rules and the cost need from it, kept up to date by add and remove
+    private static class State {
+        final Model model;
+        final int[] assignment;
+        // Slot of each staff and day, -1 when free
+        final int[] daySlots;
+        final int[] weekShifts;
+        final long[] load;
+        long cost;
+
+        State(Model model) {
+            this.model = model;
+            assignment = new int[model.slotCount];
+            Arrays.fill(assignment, -1);
+            daySlots = new int[model.staffCount * model.days];
+            Arrays.fill(daySlots, -1);
+            weekShifts = model.savedWeekShifts.clone();
+            load = model.savedMinutes.clone();
+
+            cost = UNFILLED * model.slotCount;
+            for (long minutes : load) cost += minutes * minutes;
+        }
+
+        private State(State state) {
+            model = state.model;
+            assignment = state.assignment.clone();
+            daySlots = state.daySlots.clone();
+            weekShifts = state.weekShifts.clone();
+            load = state.load.clone();
+            cost = state.cost;
+        }
+
+        State copy() {
+            return new State(this);
+        }
+
+        int slotOfDay(int staff, int day) {
+            return daySlots[staff * model.days + day];
+        }
+
+        boolean canAdd(int slot, int staff) {
+            int day = model.slotDays[slot];
+            if (daySlots[staff * model.days + day] >= 0) return false;
+            if (weekShifts[staff * model.weeks + model.slotWeeks[slot]] >= model.maxShiftsPerWeek) return false;
+
+            // Overnight shifts can run into the next day
+            if (day > 0) {
+                int previous = daySlots[staff * model.days + day - 1];
+                if (previous >= 0 && model.overlaps(slot, previous)) return false;
+            }
+            if (day < model.days - 1) {
+                int next = daySlots[staff * model.days + day + 1];
+                if (next >= 0 && model.overlaps(slot, next)) return false;
+            }
+            return true;
+        }
+
+        void add(int slot, int staff) {
+            assignment[slot] = staff;
+            daySlots[staff * model.days + model.slotDays[slot]] = slot;
+            weekShifts[staff * model.weeks + model.slotWeeks[slot]]++;
+            setLoad(staff, load[staff] + model.slotMinutes[slot]);
+            cost -= UNFILLED;
+        }
+
+        void remove(int slot) {
+            int staff = assignment[slot];
+            assignment[slot] = -1;
+            daySlots[staff * model.days + model.slotDays[slot]] = -1;
+            weekShifts[staff * model.weeks + model.slotWeeks[slot]]--;
+            setLoad(staff, load[staff] - model.slotMinutes[slot]);
+            cost += UNFILLED;
+        }
+
+        private void setLoad(int staff, long minutes) {
+            cost += minutes * minutes - load[staff] * load[staff];
+            load[staff] = minutes;
+        }
+    }
+}
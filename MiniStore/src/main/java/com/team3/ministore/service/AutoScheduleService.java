@@ -0,0 +1,8 @@
+package com.team3.ministore.service;
+
+import com.team3.ministore.dto.AutoScheduleDto;
+import com.team3.ministore.dto.AutoScheduleRequest;
+
+public interface AutoScheduleService {
+    AutoScheduleDto createSchedule(AutoScheduleRequest request);
+}
@@ -0,0 +1,9 @@
+package com.team3.ministore.service;
+
+import java.util.Map;
+
+public interface InventoryService {
+    void reserveStock(Map<Integer, Integer> quantities) throws IllegalArgumentException;
+
+    void releaseStock(Map<Integer, Integer> quantities);
+}
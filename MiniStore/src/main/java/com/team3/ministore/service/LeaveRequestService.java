@@ -1,5 +1,6 @@
 package com.team3.ministore.service;
 
+import com.team3.ministore.dto.CursorPage;
 import com.team3.ministore.dto.LeaveRequestDto;
 import com.team3.ministore.model.LeaveRequest;
 import org.springframework.data.domain.Page;
@@ -21,4 +22,7 @@ public interface LeaveRequestService {
     void deleteLeaveRequest(Integer id);
 
     Page<LeaveRequest> getLeaveRequestsByStaffId(int staffId, int page, int pageSize);
+
+    CursorPage<LeaveRequest> getLeaveRequests(Optional<String> search, Integer staffId, String cursor, int pageSize,
+                                              boolean withCount) throws IllegalArgumentException;
 }
@@ -0,0 +1,11 @@
+package com.team3.ministore.service;
+
+import com.team3.ministore.utils.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+public interface OrderExportService {
+    void exportOrders(LocalDateTime from, LocalDateTime to, ExportFormat format, OutputStream outputStream) throws IOException;
+}
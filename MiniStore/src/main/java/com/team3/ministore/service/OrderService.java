@@ -1,6 +1,8 @@
 package com.team3.ministore.service;
 
+import com.team3.ministore.dto.CursorPage;
 import com.team3.ministore.dto.OrderDto;
+import com.team3.ministore.dto.PaymentConfirmation;
 import com.team3.ministore.model.Order;
 import com.team3.ministore.utils.PaymentStatus;
 import org.springframework.data.domain.Page;
@@ -19,12 +21,25 @@ public interface OrderService {
             int pageSize
     );
 
+    CursorPage<Order> getAllOrders(
+            Optional<String> ago,
+            Optional<String> fromDate,
+            Optional<String> toDate,
+            Optional<Float> fromAmount,
+            Optional<Float> toAmount,
+            String cursor,
+            int pageSize,
+            boolean withCount
+    ) throws IllegalArgumentException;
+
     Order createOrders(OrderDto dto) throws Exception;
 
     Optional<Order> getOrdersById(Integer id);
 
     Optional<Order> updateOrderStatus(Integer id, PaymentStatus status);
 
+    PaymentConfirmation confirmPayment(Integer id, long amount, PaymentStatus status);
+
     void deleteOrders(Integer id);
 
     List<Order> getListOrders();
@@ -0,0 +1,10 @@
+package com.team3.ministore.service;
+
+import com.team3.ministore.dto.PaymentConfirmation;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+public interface PaymentService {
+    CompletableFuture<PaymentConfirmation> confirmPayment(Map<String, String> params);
+}
@@ -1,5 +1,6 @@
 package com.team3.ministore.service;
 
+import com.team3.ministore.dto.BarcodeIndexStats;
 import com.team3.ministore.dto.ProductDto;
 import com.team3.ministore.dto.SellingProduct;
 import com.team3.ministore.model.Product;
@@ -17,7 +18,11 @@ public interface ProductService {
 
     Optional<Product> getProductById(Integer id);
 
-    Optional<Product> getProductByBarcode(String barcode);
+    Optional<ProductDto> getProductByBarcode(String barcode);
+
+    Optional<Integer> getProductIdByBarcode(String barcode);
+
+    BarcodeIndexStats getBarcodeIndexStats();
 
     Optional<Product> updateProduct(Integer id, ProductDto product);
 
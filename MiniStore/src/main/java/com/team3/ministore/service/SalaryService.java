@@ -4,7 +4,9 @@ import com.team3.ministore.dto.SalaryDto;
 import com.team3.ministore.model.Salary;
 import com.team3.ministore.model.Staff;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface SalaryService {
@@ -14,6 +16,9 @@ public interface SalaryService {
 
     List<SalaryDto> getSalaryOfAllStaffs();
 
+    // Current salaries of the given staffs by staff id, a staff without salary has no entry
+    Map<Integer, SalaryDto> getSalariesByStaffIds(Collection<Integer> staffIds);
+
     Salary createSalary(SalaryDto salary, Staff staff);
 
     Optional<Salary> updateSalary(Integer id, SalaryDto dto);
@@ -0,0 +1,25 @@
+package com.team3.ministore.service;
+
+import com.team3.ministore.dto.*;
+import com.team3.ministore.model.Order;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface SalesService {
+    void recordSale(Order order);
+
+    void revertSale(Order order);
+
+    void rebuildSales();
+
+    List<SellingProduct> getTopSellingProducts(LocalDate from, LocalDate to, int limit);
+
+    List<DailyRevenue> getDailyRevenue(LocalDate from, LocalDate to);
+
+    List<HourlyRevenue> getHourlyRevenue(LocalDate from, LocalDate to);
+
+    List<StaffSales> getStaffSales(LocalDate from, LocalDate to);
+
+    List<CategorySales> getCategorySales(LocalDate from, LocalDate to);
+}
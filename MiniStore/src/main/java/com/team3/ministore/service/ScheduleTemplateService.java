@@ -1,8 +1,10 @@
 package com.team3.ministore.service;
 
 import com.team3.ministore.dto.ScheduleTemplateDto;
+import com.team3.ministore.dto.ShiftDto;
 import com.team3.ministore.model.ScheduleTemplate;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,4 +16,6 @@ public interface ScheduleTemplateService {
     Optional<ScheduleTemplate> getScheduleTemplateById(Integer id);
 
     void deleteScheduleTemplate(Integer id);
+
+    Optional<List<ShiftDto>> applyScheduleTemplate(Integer id, LocalDate weekStart, boolean published);
 }
@@ -0,0 +1,7 @@
+package com.team3.ministore.service;
+
+import com.team3.ministore.dto.SeedOptions;
+
+public interface SeedService {
+    void seed(SeedOptions options);
+}
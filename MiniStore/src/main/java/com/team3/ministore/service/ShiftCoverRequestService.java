@@ -1,5 +1,6 @@
 package com.team3.ministore.service;
 
+import com.team3.ministore.dto.CursorPage;
 import com.team3.ministore.dto.ShiftCoverDto;
 import com.team3.ministore.model.ShiftCoverRequest;
 import org.springframework.data.domain.Page;
@@ -21,4 +22,7 @@ public interface ShiftCoverRequestService {
     List<ShiftCoverDto> getShiftCoverRequestsByStaffIdAndDates(Integer id, LocalDate from, LocalDate to);
 
     Page<ShiftCoverRequest> getShiftCoverRequestsByStaffId(Integer staffId, Integer page, Integer pageSize);
+
+    CursorPage<ShiftCoverRequest> getShiftCoverRequests(Optional<String> search, Integer staffId, String cursor, int pageSize,
+                                                        boolean withCount) throws IllegalArgumentException;
 }
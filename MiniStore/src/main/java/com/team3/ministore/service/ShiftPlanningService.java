@@ -0,0 +1,13 @@
+package com.team3.ministore.service;
+
+import com.team3.ministore.dto.StaffDto;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface ShiftPlanningService {
+    List<StaffDto> getShiftPlanning(LocalDate fromDate, LocalDate toDate);
+
+    Optional<StaffDto> getShiftPlanning(Integer staffId, LocalDate fromDate, LocalDate toDate);
+}
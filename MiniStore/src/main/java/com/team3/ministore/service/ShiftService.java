@@ -1,8 +1,10 @@
 package com.team3.ministore.service;
 
 import com.team3.ministore.dto.CreateShiftDto;
+import com.team3.ministore.dto.ShiftConflict;
 import com.team3.ministore.dto.ShiftDto;
 import com.team3.ministore.model.Shift;
+import com.team3.ministore.model.Staff;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -19,9 +21,15 @@ public interface ShiftService {
 
     ShiftDto updateShift(Shift shift);
 
+    Optional<ShiftDto> updateShift(Integer id, Staff staff, CreateShiftDto dto);
+
     void deleteShift(Integer id);
 
     List<Shift> getAllShifts(LocalDate fromDate, LocalDate toDate);
 
     List<ShiftDto> createShifts(List<CreateShiftDto> dtos);
+
+    List<ShiftConflict> getConflicts(List<CreateShiftDto> dtos);
+
+    List<ShiftConflict> getConflicts(int shiftId, CreateShiftDto dto);
 }
@@ -1,12 +1,17 @@
 package com.team3.ministore.service;
 
+import com.team3.ministore.dto.AvailabilityWindow;
+import com.team3.ministore.dto.CursorPage;
 import com.team3.ministore.dto.RegisterDto;
 import com.team3.ministore.dto.StaffDto;
 import com.team3.ministore.dto.StaffMetaInfo;
 import com.team3.ministore.dto.UpdateStaffDto;
 import com.team3.ministore.model.Staff;
+import com.team3.ministore.utils.Role;
 import org.springframework.data.domain.Page;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,9 +32,17 @@ public interface StaffService {
 
     Page<StaffDto> getAllStaff(int page, int pageSize);
 
+    CursorPage<StaffDto> getAllStaff(Optional<String> search, String cursor, int pageSize, boolean withCount) throws IllegalArgumentException;
+
     Optional<Staff> getStaffByEmail(String email);
 
     Optional<Staff> getStaffByUsername(String username);
 
     List<StaffMetaInfo> getAllStaffMetaInfos();
+
+    Optional<List<AvailabilityWindow>> getAvailability(Integer id);
+
+    Optional<List<AvailabilityWindow>> updateAvailability(Integer id, List<AvailabilityWindow> windows);
+
+    List<StaffMetaInfo> getAvailableStaffs(Role role, LocalDate date, LocalTime startTime, LocalTime endTime);
 }
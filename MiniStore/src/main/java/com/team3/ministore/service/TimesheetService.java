@@ -1,5 +1,6 @@
 package com.team3.ministore.service;
 
+import com.team3.ministore.dto.CursorPage;
 import com.team3.ministore.dto.StaffDto;
 import com.team3.ministore.dto.TimesheetDto;
 import com.team3.ministore.model.Shift;
@@ -17,6 +18,9 @@ public interface TimesheetService {
 
     Page<TimesheetDto> getAllTimeSheets(String search, int page, int pageSize, LocalDate fromDate, LocalDate toDate);
 
+    CursorPage<TimesheetDto> getAllTimeSheets(Optional<String> search, String cursor, int pageSize,
+                                              LocalDate fromDate, LocalDate toDate, boolean withCount) throws IllegalArgumentException;
+
     Timesheet createTimesheet(TimesheetDto dto, Shift shift, Staff staff);
 
     Optional<Timesheet> getTimesheetById(Integer id);
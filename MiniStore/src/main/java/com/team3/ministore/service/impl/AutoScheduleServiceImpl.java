@@ -0,0 +1,205 @@
+package com.team3.ministore.service.impl;
+
+import com.team3.ministore.cache.StaffAvailabilityIndex;
+import com.team3.ministore.common.exception.ShiftConflictException;
+import com.team3.ministore.common.utils.DatabaseUtils;
+import com.team3.ministore.common.utils.DateRangeIndex;
+import com.team3.ministore.config.SchedulingConfig;
+import com.team3.ministore.dto.*;
+import com.team3.ministore.model.Shift;
+import com.team3.ministore.model.ShiftTemplate;
+import com.team3.ministore.model.Staff;
+import com.team3.ministore.repository.*;
+import com.team3.ministore.scheduling.ScheduleProblem;
+import com.team3.ministore.scheduling.ScheduleSolver;
+import com.team3.ministore.service.AutoScheduleService;
+import com.team3.ministore.service.ShiftService;
+import com.team3.ministore.utils.LeaveStatus;
+import com.team3.ministore.utils.Role;
+import com.team3.ministore.utils.StaffStatus;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class AutoScheduleServiceImpl implements AutoScheduleService {
+
+    // The solver keeps its best schedule so far when the time is up
+    private static final Duration TIME_LIMIT = Duration.ofSeconds(10);
+
+    @Autowired
+    private StaffRepository staffRepository;
+
+    @Autowired
+    private ShiftTemplateRepository shiftTemplateRepository;
+
+    @Autowired
+    private ShiftRepository shiftRepository;
+
+    @Autowired
+    private LeaveRequestRepository leaveRequestRepository;
+
+    @Autowired
+    private IdSequenceRepository idSequenceRepository;
+
+    @Autowired
+    private ShiftService shiftService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    @Qualifier(SchedulingConfig.AUTO_SCHEDULE_EXECUTOR)
+    private Executor autoScheduleExecutor;
+
+    @Override
+    @Timed(value = "ministore.auto.schedule", histogram = true)
+    public AutoScheduleDto createSchedule(AutoScheduleRequest request) {
+        LocalDate from = request.getFrom();
+        LocalDate to = request.getTo();
+
+        Map<Integer, ShiftTemplate> templates = shiftTemplateRepository.findAll().stream()
+                .collect(Collectors.toMap(ShiftTemplate::getShiftTemplateId, Function.identity()));
+        List<ShiftRequirement> requirements = requirements(request.getRequirements(), templates);
+
+        List<Staff> staffs = staffRepository.findAllByStatus(StaffStatus.ACTIVE).stream()
+                .filter(staff -> staff.getRole() != Role.ADMIN).collect(Collectors.toList());
+
+        // A shift ending after midnight reaches the next day, and one of the day before can reach the first day
+        Map<Integer, List<LeaveSlot>> leaves = leaveRequestRepository
+                .findSlotsByStatusAndDates(LeaveStatus.APPROVED, from, to.plusDays(1)).stream()
+                .collect(Collectors.groupingBy(LeaveSlot::getStaffId));
+        Map<Integer, List<ShiftSlot>> savedShifts = shiftRepository
+                .findSlotsByDateBetween(from.minusDays(1), to.plusDays(1)).stream()
+                .collect(Collectors.groupingBy(ShiftSlot::getStaffId));
+
+        // The solver works on indexes: the staffs in the order of the list, the slots in the order of the shifts
+        ScheduleProblem problem = new ScheduleProblem(from, to, request.getMaxShiftsPerWeek());
+        for (Staff staff : staffs) {
+            DateRangeIndex leaveDays = DateRangeIndex.of(leaves.getOrDefault(staff.getStaffId(), List.of()),
+                    LeaveSlot::getStartDate, LeaveSlot::getEndDate);
+            int index = problem.addStaff(staff.getRole(), StaffAvailabilityIndex.availability(staff), leaveDays);
+
+            for (ShiftSlot shift : savedShifts.getOrDefault(staff.getStaffId(), List.of())) {
+                problem.addSavedShift(index, shift.getDate(), shift.getStartTime(), shift.getEndTime());
+            }
+        }
+
+        List<ShiftTemplate> slotTemplates = new ArrayList<>();
+        List<LocalDate> slotDates = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            for (ShiftRequirement requirement : requirements) {
+                if (requirement.getDays() != null && !requirement.getDays().isEmpty()
+                        && !requirement.getDays().contains(date.getDayOfWeek())) continue;
+
+                ShiftTemplate template = templates.get(requirement.getShiftTemplateId());
+                for (int i = 0; i < requirement.getStaffCount(); i++) {
+                    problem.addSlot(template.getRole(), date, template.getStartTime(), template.getEndTime());
+                    slotTemplates.add(template);
+                    slotDates.add(date);
+                }
+            }
+        }
+
+        int workers = Runtime.getRuntime().availableProcessors();
+        int[] assignment = new ScheduleSolver(autoScheduleExecutor, workers, TIME_LIMIT)
+                .solve(problem, from.toEpochDay());
+
+        List<Shift> shifts = new ArrayList<>();
+        Map<List<Object>, UnfilledShift> unfilledShifts = new LinkedHashMap<>();
+        for (int slot = 0; slot < assignment.length; slot++) {
+            ShiftTemplate template = slotTemplates.get(slot);
+            LocalDate date = slotDates.get(slot);
+
+            if (assignment[slot] >= 0) {
+                shifts.add(toShift(template, date, staffs.get(assignment[slot])));
+            } else {
+                UnfilledShift unfilledShift = unfilledShifts.computeIfAbsent(List.of(date, template.getShiftTemplateId()),
+                        key -> new UnfilledShift(date, template.getShiftTemplateId(), template.getName(), template.getRole(), 0));
+                unfilledShift.setMissing(unfilledShift.getMissing() + 1);
+            }
+        }
+
+        if (request.isSave() && !shifts.isEmpty()) save(shifts);
+
+        LongSummaryStatistics minutes = Arrays.stream(problem.getStaffMinutes(assignment)).summaryStatistics();
+
+        AutoScheduleDto result = new AutoScheduleDto();
+        result.setShifts(shifts.stream().map(ShiftDto::new).collect(Collectors.toList()));
+        result.setRequiredShifts(assignment.length);
+        result.setUnfilledShifts(new ArrayList<>(unfilledShifts.values()));
+        result.setMinStaffHours(staffs.isEmpty() ? 0 : minutes.getMin() / 60.0);
+        result.setMaxStaffHours(staffs.isEmpty() ? 0 : minutes.getMax() / 60.0);
+        result.setSaved(request.isSave() && !shifts.isEmpty());
+        return result;
+    }
+
+    // Same multi-row INSERTs as the schedule templates, in a transaction of their own: the solver runs without
+    // holding a connection. The shifts saved or the leaves approved while it ran are only seen here, a conflict
+    // throws ShiftConflictException and nothing is saved.
+    private void save(List<Shift> shifts) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<ShiftConflict> conflicts = shiftService.getConflicts(shifts.stream().map(CreateShiftDto::new)
+                    .collect(Collectors.toList()));
+            if (!conflicts.isEmpty()) throw new ShiftConflictException(conflicts);
+
+            int firstShiftId = idSequenceRepository.reserve(IdSequenceRepository.SHIFTS, shifts.size());
+
+            List<Object[]> rows = new ArrayList<>();
+            for (Shift shift : shifts) {
+                shift.setShiftId(firstShiftId + rows.size());
+                rows.add(new Object[]{shift.getShiftId(), Date.valueOf(shift.getDate()), shift.getPublished(), shift.getStartTime(),
+                        shift.getEndTime(), shift.getName(), shift.getSalaryCoefficient(), shift.getRole().name(),
+                        shift.getStaff().getStaffId()});
+            }
+
+            DatabaseUtils.insertRows(jdbcTemplate, "shifts",
+                    "shift_id, date, published, start_time, end_time, name, salary_coefficient, role, staff_id", rows);
+        });
+    }
+
+    // Every template once a day when nothing is asked
+    private static List<ShiftRequirement> requirements(List<ShiftRequirement> requirements,
+                                                      Map<Integer, ShiftTemplate> templates) {
+        if (requirements == null || requirements.isEmpty()) {
+            return templates.keySet().stream().sorted().map(id -> {
+                ShiftRequirement requirement = new ShiftRequirement();
+                requirement.setShiftTemplateId(id);
+                return requirement;
+            }).collect(Collectors.toList());
+        }
+
+        for (ShiftRequirement requirement : requirements) {
+            if (!templates.containsKey(requirement.getShiftTemplateId()))
+                throw new IllegalArgumentException("Shift template not found: " + requirement.getShiftTemplateId());
+        }
+        return requirements;
+    }
+
+    private static Shift toShift(ShiftTemplate template, LocalDate date, Staff staff) {
+        Shift shift = new Shift();
+        shift.setDate(date);
+        shift.setPublished(false);
+        shift.setStartTime(template.getStartTime());
+        shift.setEndTime(template.getEndTime());
+        shift.setName(template.getName());
+        shift.setSalaryCoefficient(template.getSalaryCoefficient());
+        shift.setRole(template.getRole());
+        shift.setStaff(staff);
+        return shift;
+    }
+}
@@ -1,5 +1,6 @@
 package com.team3.ministore.service.impl;
 
+import com.team3.ministore.cache.ProductSearchIndex;
 import com.team3.ministore.dto.CategoryDto;
 import com.team3.ministore.model.Category;
 import com.team3.ministore.repository.CategoryRepository;
@@ -17,8 +18,11 @@ public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
 
-    public CategoryServiceImpl(CategoryRepository categoryRepository) {
+    private final ProductSearchIndex productSearchIndex;
+
+    public CategoryServiceImpl(CategoryRepository categoryRepository, ProductSearchIndex productSearchIndex) {
         this.categoryRepository = categoryRepository;
+        this.productSearchIndex = productSearchIndex;
     }
 
     @Override
@@ -53,7 +57,10 @@ public class CategoryServiceImpl implements CategoryService {
             return category;
         });
 
-        return Optional.of(categoryRepository.save(existingCategory.get()));
+        Category updatedCategory = categoryRepository.save(existingCategory.get());
+        productSearchIndex.putCategory(id);
+
+        return Optional.of(updatedCategory);
     }
 
     @Override
@@ -0,0 +1,57 @@
+package com.team3.ministore.service.impl;
+
+import com.team3.ministore.cache.ProductBarcodeIndex;
+import com.team3.ministore.repository.ProductRepository;
+import com.team3.ministore.service.InventoryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+@Service
+public class InventoryServiceImpl implements InventoryService {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductBarcodeIndex barcodeIndex;
+
+    @Override
+    @Transactional
+    public void reserveStock(Map<Integer, Integer> quantities) throws IllegalArgumentException {
+        // Lock the product rows in id order so concurrent orders never wait on each other in a cycle
+        new TreeMap<>(quantities).forEach((productId, quantity) -> {
+            if (quantity <= 0)
+                throw new IllegalArgumentException("Invalid quantity for product ID: " + productId);
+
+            // The row is only updated when enough stock is left, so no sale can be lost or oversold
+            if (productRepository.decreaseInventory(productId, quantity) == 0)
+                throw new IllegalArgumentException("Not enough inventory for product ID: " + productId);
+        });
+
+        updateBarcodeIndex(quantities, -1);
+    }
+
+    @Override
+    @Transactional
+    public void releaseStock(Map<Integer, Integer> quantities) {
+        new TreeMap<>(quantities).forEach(productRepository::increaseInventory);
+
+        updateBarcodeIndex(quantities, 1);
+    }
+
+    // The scans see the new stock once it is committed, never the stock of a rolled back order
+    private void updateBarcodeIndex(Map<Integer, Integer> quantities, int sign) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                quantities.forEach((productId, quantity) -> barcodeIndex.addInventory(productId, sign * quantity));
+            }
+        });
+    }
+}
@@ -1,5 +1,7 @@
 package com.team3.ministore.service.impl;
 
+import com.team3.ministore.common.utils.CursorUtils;
+import com.team3.ministore.dto.CursorPage;
 import com.team3.ministore.dto.LeaveRequestDto;
 import com.team3.ministore.model.LeaveRequest;
 import com.team3.ministore.model.Staff;
@@ -41,6 +43,20 @@ public class LeaveRequestServiceImpl implements LeaveRequestService {
         return leaveRequestRepository.findAllByStaff_StaffIdOrderByLeaveRequestIdDesc(staffId, pageable);
     }
 
+    @Override
+    public CursorPage<LeaveRequest> getLeaveRequests(Optional<String> search, Integer staffId, String cursor, int pageSize,
+                                                     boolean withCount) throws IllegalArgumentException {
+        List<LeaveRequest> leaveRequests = leaveRequestRepository.findAllByFilterAfter(search.orElse(null), staffId,
+                CursorUtils.decodeId(cursor), PageRequest.of(0, pageSize + 1));
+
+        Long total = null;
+        if (withCount) {
+            total = (staffId != null ? getLeaveRequestsByStaffId(staffId, 1, 1) : getAllLeaveRequest(search, 1, 1)).getTotalElements();
+        }
+
+        return CursorPage.of(leaveRequests, pageSize, l -> CursorUtils.encode(l.getLeaveRequestId()), total);
+    }
+
     @Override
     public Optional<LeaveRequestDto> createLeaveRequest(LeaveRequestDto dto) {
         LeaveRequest leave = new LeaveRequest();
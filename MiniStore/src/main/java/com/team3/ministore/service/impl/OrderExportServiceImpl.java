@@ -0,0 +1,127 @@
+package com.team3.ministore.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.team3.ministore.dto.OrderExportRow;
+import com.team3.ministore.repository.OrderRepository;
+import com.team3.ministore.service.OrderExportService;
+import com.team3.ministore.utils.ExportFormat;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+@Service
+public class OrderExportServiceImpl implements OrderExportService {
+
+    private static final String CSV_HEADER = "order_id,order_date,grand_total,payment_status,staff_id,staff_name," +
+            "order_item_id,product_id,product_name,price,quantity";
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // The rows are read from a streaming cursor and written as they come, so only one order is held in memory
+    @Override
+    @Transactional(readOnly = true)
+    public void exportOrders(LocalDateTime from, LocalDateTime to, ExportFormat format, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+
+        try (Stream<OrderExportRow> rows = orderRepository.streamExportRows(from, to)) {
+            if (format == ExportFormat.CSV) writeCsv(rows.iterator(), writer);
+            else writeNdjson(rows.iterator(), createJsonGenerator(writer));
+        }
+
+        writer.flush();
+    }
+
+    private void writeCsv(Iterator<OrderExportRow> rows, Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+
+        while (rows.hasNext()) {
+            OrderExportRow row = rows.next();
+            writer.write(csv(row.getOrderId()) + ',' + csv(row.getOrderDate()) + ',' + csv(row.getGrandTotal()) + ',' +
+                    csv(row.getPaymentStatus()) + ',' + csv(row.getStaffId()) + ',' + csv(row.getStaffName()) + ',' +
+                    csv(row.getOrderItemId()) + ',' + csv(row.getProductId()) + ',' + csv(row.getProductName()) + ',' +
+                    csv(row.getPrice()) + ',' + csv(row.getQuantity()));
+            writer.write('\n');
+        }
+    }
+
+    private JsonGenerator createJsonGenerator(Writer writer) throws IOException {
+        JsonGenerator json = objectMapper.createGenerator(writer);
+        // Orders are separated by a line break only, and the writer is flushed once at the end
+        json.setRootValueSeparator(null);
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        json.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        return json;
+    }
+
+    private void writeNdjson(Iterator<OrderExportRow> rows, JsonGenerator json) throws IOException {
+        // The rows of an order are consecutive, so an order is written as soon as the next one starts
+        List<OrderExportRow> orderRows = new ArrayList<>();
+
+        while (rows.hasNext()) {
+            OrderExportRow row = rows.next();
+            if (!orderRows.isEmpty() && !Objects.equals(orderRows.get(0).getOrderId(), row.getOrderId())) {
+                writeOrder(orderRows, json);
+                orderRows.clear();
+            }
+            orderRows.add(row);
+        }
+
+        if (!orderRows.isEmpty()) writeOrder(orderRows, json);
+        json.close();
+    }
+
+    private void writeOrder(List<OrderExportRow> orderRows, JsonGenerator json) throws IOException {
+        OrderExportRow order = orderRows.get(0);
+
+        json.writeStartObject();
+        json.writeObjectField("orderId", order.getOrderId());
+        json.writeObjectField("orderDate", order.getOrderDate());
+        json.writeObjectField("grandTotal", order.getGrandTotal());
+        json.writeObjectField("paymentStatus", order.getPaymentStatus());
+        json.writeObjectField("staffId", order.getStaffId());
+        json.writeObjectField("staffName", order.getStaffName());
+
+        json.writeArrayFieldStart("orderItems");
+        for (OrderExportRow row : orderRows) {
+            // An order without items has a single row without item columns
+            if (row.getOrderItemId() == null) continue;
+
+            json.writeStartObject();
+            json.writeObjectField("orderItemId", row.getOrderItemId());
+            json.writeObjectField("productId", row.getProductId());
+            json.writeObjectField("productName", row.getProductName());
+            json.writeObjectField("price", row.getPrice());
+            json.writeObjectField("quantity", row.getQuantity());
+            json.writeEndObject();
+        }
+        json.writeEndArray();
+
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    private String csv(Object value) {
+        if (value == null) return "";
+
+        String text = value.toString();
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r"))
+            return '"' + text.replace("\"", "\"\"") + '"';
+
+        return text;
+    }
+}
@@ -4,6 +4,7 @@ import com.team3.ministore.dto.SellingProduct;
 import com.team3.ministore.model.OrderItem;
 import com.team3.ministore.repository.OrderItemRepository;
 import com.team3.ministore.service.OrderItemService;
+import com.team3.ministore.service.SalesService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -11,6 +12,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @Service
@@ -19,6 +21,9 @@ public class OrderItemServiceImpl implements OrderItemService {
     @Autowired
     private OrderItemRepository orderItemRepository;
 
+    @Autowired
+    private SalesService salesService;
+
     @Override
     public List<OrderItem> getAllOrderItems() {
         return orderItemRepository.findAll();
@@ -57,7 +62,8 @@ public class OrderItemServiceImpl implements OrderItemService {
 
     @Override
     public List<SellingProduct> getTopSellingProduct() {
-        List<SellingProduct> topSellingProduct = orderItemRepository.getTopSellingProduct();
-        return topSellingProduct.subList(0, Math.min(5, topSellingProduct.size()));
+        // Read the current month from the daily sales rollup
+        LocalDate today = LocalDate.now();
+        return salesService.getTopSellingProducts(today.withDayOfMonth(1), today.withDayOfMonth(today.lengthOfMonth()), 5);
     }
 }
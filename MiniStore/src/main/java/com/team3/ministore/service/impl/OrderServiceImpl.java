@@ -1,26 +1,38 @@
 package com.team3.ministore.service.impl;
 
+import com.team3.ministore.common.utils.CursorUtils;
+import com.team3.ministore.dto.CursorPage;
 import com.team3.ministore.dto.OrderDto;
+import com.team3.ministore.dto.OrderItemDto;
+import com.team3.ministore.dto.PaymentConfirmation;
 import com.team3.ministore.model.Order;
 import com.team3.ministore.model.OrderItem;
 import com.team3.ministore.model.Product;
 import com.team3.ministore.model.Staff;
 import com.team3.ministore.repository.OrderItemRepository;
 import com.team3.ministore.repository.OrderRepository;
+import com.team3.ministore.repository.ProductRepository;
 import com.team3.ministore.repository.StaffRepository;
+import com.team3.ministore.service.InventoryService;
 import com.team3.ministore.service.OrderService;
-import com.team3.ministore.service.ProductService;
+import com.team3.ministore.service.SalesService;
+import com.team3.ministore.utils.PaymentResponseCode;
 import com.team3.ministore.utils.PaymentStatus;
 import com.team3.ministore.utils.StaffStatus;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class OrderServiceImpl implements OrderService {
@@ -35,7 +47,13 @@ public class OrderServiceImpl implements OrderService {
     private StaffRepository staffRepository;
 
     @Autowired
-    private ProductService productService;
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private SalesService salesService;
 
     @Override
     public Page<Order> getAllOrders(
@@ -47,6 +65,65 @@ public class OrderServiceImpl implements OrderService {
             int page,
             int pageSize
     ) {
+        LocalDateTime[] dateRange = getDateRange(ago, fromDate, toDate);
+
+        return orderRepository.findAllByFilters(
+                dateRange[0],
+                dateRange[1],
+                fromAmount.orElseGet(() -> null),
+                toAmount.orElseGet(() -> null),
+                PageRequest.of(page - 1, pageSize)
+        );
+    }
+
+    @Override
+    public CursorPage<Order> getAllOrders(
+            Optional<String> ago,
+            Optional<String> fromDate,
+            Optional<String> toDate,
+            Optional<Float> fromAmount,
+            Optional<Float> toAmount,
+            String cursor,
+            int pageSize,
+            boolean withCount
+    ) throws IllegalArgumentException {
+        LocalDateTime[] dateRange = getDateRange(ago, fromDate, toDate);
+
+        // The cursor holds the date and id of the last order of the previous page
+        String[] keys = CursorUtils.decode(cursor, 2);
+        LocalDateTime cursorDate = null;
+        Integer cursorId = null;
+        if (keys != null) {
+            try {
+                cursorDate = LocalDateTime.parse(keys[0]);
+                cursorId = Integer.parseInt(keys[1]);
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
+
+        List<Order> orders = orderRepository.findAllByFiltersAfter(
+                dateRange[0],
+                dateRange[1],
+                fromAmount.orElseGet(() -> null),
+                toAmount.orElseGet(() -> null),
+                cursorDate,
+                cursorId,
+                PageRequest.of(0, pageSize + 1)
+        );
+
+        Long total = withCount ? orderRepository.findAllByFilters(
+                dateRange[0],
+                dateRange[1],
+                fromAmount.orElseGet(() -> null),
+                toAmount.orElseGet(() -> null),
+                PageRequest.of(0, 1)
+        ).getTotalElements() : null;
+
+        return CursorPage.of(orders, pageSize, o -> CursorUtils.encode(o.getOrderDate(), o.getOrderId()), total);
+    }
+
+    private LocalDateTime[] getDateRange(Optional<String> ago, Optional<String> fromDate, Optional<String> toDate) {
         LocalDateTime fromDateTime = fromDate.map(LocalDateTime::parse).orElseGet(() -> null);
         LocalDateTime toDateTime = toDate.map(LocalDateTime::parse).orElseGet(() -> null);
 
@@ -73,16 +150,11 @@ public class OrderServiceImpl implements OrderService {
             }
         }
 
-        return orderRepository.findAllByFilters(
-                fromDateTime,
-                toDateTime,
-                fromAmount.orElseGet(() -> null),
-                toAmount.orElseGet(() -> null),
-                PageRequest.of(page - 1, pageSize)
-        );
+        return new LocalDateTime[]{fromDateTime, toDateTime};
     }
 
     @Override
+    @Transactional
     public Order createOrders(OrderDto dto) throws IllegalArgumentException {
 
         Optional<Staff> staff = staffRepository.findById(dto.getStaffId());
@@ -90,6 +162,17 @@ public class OrderServiceImpl implements OrderService {
             throw new IllegalArgumentException("Invalid Staff ID: " + dto.getStaffId());
         }
 
+        // Load all products of the order in one query
+        List<Integer> productIds = dto.getOrderItems().stream()
+                .map(OrderItemDto::getProductId).distinct().collect(Collectors.toList());
+        Map<Integer, Product> products = productRepository.findAllById(productIds)
+                .stream().collect(Collectors.toMap(Product::getProductId, Function.identity()));
+
+        for (Integer productId : productIds) {
+            if (!products.containsKey(productId))
+                throw new IllegalArgumentException("Invalid Product ID: " + productId);
+        }
+
         // Create order
         Order order = new Order();
         order.setOrderDate(dto.getOrderDate());
@@ -100,22 +183,27 @@ public class OrderServiceImpl implements OrderService {
 
         Order newOrder = orderRepository.save(order);
 
-        // Create order items
-        dto.getOrderItems().forEach(orderItemDto -> {
-            Optional<Product> existingProduct = productService.getProductById(orderItemDto.getProductId());
-            if (existingProduct.isEmpty()) {
-                // Rollback
-                orderRepository.delete(newOrder);
-                throw new IllegalArgumentException("Invalid Product ID: " + orderItemDto.getProductId());
-            }
-
+        // Create order items, they are flushed together when the transaction commits
+        List<OrderItem> orderItems = dto.getOrderItems().stream().map(orderItemDto -> {
+            Product product = products.get(orderItemDto.getProductId());
             OrderItem orderItem = new OrderItem();
             orderItem.setOrder(newOrder);
-            orderItem.setProduct(existingProduct.get());
+            orderItem.setProduct(product);
             orderItem.setQuantity(orderItemDto.getQuantity());
-            OrderItem item = orderItemRepository.save(orderItem);
-            newOrder.getOrderItems().add(item);
-        });
+            orderItem.setUnitPrice(product.getPrice());
+            orderItem.setCategoryId(product.getCategory() != null ? product.getCategory().getCategoryId() : null);
+            return orderItem;
+        }).collect(Collectors.toList());
+
+        newOrder.getOrderItems().addAll(orderItemRepository.saveAll(orderItems));
+
+        // Take the sold quantities out of stock last, so the product rows stay locked only until commit
+        if (newOrder.getPaymentStatus() != PaymentStatus.FAILED) {
+            inventoryService.reserveStock(dto.getOrderItems().stream().collect(
+                    Collectors.groupingBy(OrderItemDto::getProductId, Collectors.summingInt(OrderItemDto::getQuantity))));
+        }
+
+        if (newOrder.getPaymentStatus() == PaymentStatus.SUCCESS) salesService.recordSale(newOrder);
 
         return newOrder;
     }
@@ -126,10 +214,22 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
+    @Transactional
     public Optional<Order> updateOrderStatus(Integer id, PaymentStatus status) {
         Optional<Order> existingOrder = getOrdersById(id);
         if (existingOrder.isEmpty()) return Optional.empty();
 
+        // Only orders out of FAILED hold stock: put it back when the payment fails, take it again when a failed order
+        // is retried, which rejects the change when the stock has run out since
+        boolean wasFailed = existingOrder.get().getPaymentStatus() == PaymentStatus.FAILED;
+        if (!wasFailed && status == PaymentStatus.FAILED) inventoryService.releaseStock(quantities(existingOrder.get()));
+        if (wasFailed && status != PaymentStatus.FAILED) inventoryService.reserveStock(quantities(existingOrder.get()));
+
+        // Keep the sales rollups in line with the successful orders
+        boolean wasSuccess = existingOrder.get().getPaymentStatus() == PaymentStatus.SUCCESS;
+        if (!wasSuccess && status == PaymentStatus.SUCCESS) salesService.recordSale(existingOrder.get());
+        if (wasSuccess && status != PaymentStatus.SUCCESS) salesService.revertSale(existingOrder.get());
+
         existingOrder.map(o -> {
             o.setPaymentStatus(status);
             return o;
@@ -139,7 +239,42 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
+    @Transactional
+    public PaymentConfirmation confirmPayment(Integer id, long amount, PaymentStatus status) {
+        Optional<Order> order = orderRepository.findById(id);
+        if (order.isEmpty()) return new PaymentConfirmation(PaymentResponseCode.ORDER_NOT_FOUND);
+
+        // VNPay sends the amount in hundredths of a dong, compared as a whole number rather than as floats
+        if (Math.round(order.get().getGrandTotal() * 100d) != amount)
+            return new PaymentConfirmation(PaymentResponseCode.INVALID_AMOUNT);
+
+        if (order.get().getPaymentStatus() != PaymentStatus.PENDING)
+            return new PaymentConfirmation(PaymentResponseCode.ALREADY_CONFIRMED, new OrderDto(order.get()));
+
+        // Of concurrent notifications only one moves the order out of PENDING, the others find it confirmed
+        boolean confirmed = orderRepository.updatePaymentStatus(id, PaymentStatus.PENDING, status) == 1;
+        Order confirmedOrder = orderRepository.findById(id).orElseThrow();
+        if (!confirmed) return new PaymentConfirmation(PaymentResponseCode.ALREADY_CONFIRMED, new OrderDto(confirmedOrder));
+
+        // Put the reserved stock back when the payment fails, count the sale when it succeeds
+        if (status == PaymentStatus.FAILED) {
+            inventoryService.releaseStock(quantities(confirmedOrder));
+        } else {
+            salesService.recordSale(confirmedOrder);
+        }
+
+        return new PaymentConfirmation(PaymentResponseCode.CONFIRMED, new OrderDto(confirmedOrder));
+    }
+
+    @Override
+    @Transactional
     public void deleteOrders(Integer id) {
+        // A deleted order gives back its sale and, unless its payment failed, the stock it holds
+        orderRepository.findById(id).ifPresent(order -> {
+            if (order.getPaymentStatus() == PaymentStatus.SUCCESS) salesService.revertSale(order);
+            if (order.getPaymentStatus() != PaymentStatus.FAILED) inventoryService.releaseStock(quantities(order));
+        });
+
         orderRepository.deleteById(id);
     }
 
@@ -147,4 +282,10 @@ public class OrderServiceImpl implements OrderService {
     public List<Order> getListOrders() {
         return orderRepository.findAll();
     }
+
+    // Quantity of each product of the order
+    private static Map<Integer, Integer> quantities(Order order) {
+        return order.getOrderItems().stream().collect(
+                Collectors.groupingBy(item -> item.getProduct().getProductId(), Collectors.summingInt(OrderItem::getQuantity)));
+    }
 }
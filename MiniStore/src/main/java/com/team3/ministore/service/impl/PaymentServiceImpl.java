@@ -0,0 +1,99 @@
+package com.team3.ministore.service.impl;
+
+import com.team3.ministore.config.PaymentConfig;
+import com.team3.ministore.config.VnPayConfig;
+import com.team3.ministore.dto.PaymentConfirmation;
+import com.team3.ministore.service.OrderService;
+import com.team3.ministore.service.PaymentService;
+import com.team3.ministore.utils.PaymentResponseCode;
+import com.team3.ministore.utils.PaymentStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+@Service
+public class PaymentServiceImpl implements PaymentService {
+    private static final Logger logger = LoggerFactory.getLogger(PaymentServiceImpl.class);
+
+    // VNPay sends a notification again until it is acknowledged, and the browser of the customer brings the same
+    // parameters back to /orders/payment/response. The notifications of an order within TTL_MILLIS share the
+    // confirmation of the first one, even while it is being applied.
+    private static final long TTL_MILLIS = 60 * 60 * 1000L;
+    private static final int MAX_SIZE = 10_000;
+
+    private final Map<String, Notification> notifications = new ConcurrentHashMap<>();
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private VnPayConfig vnPayConfig;
+
+    @Autowired
+    @Qualifier(PaymentConfig.PAYMENT_EXECUTOR)
+    private Executor paymentExecutor;
+
+    @Override
+    public CompletableFuture<PaymentConfirmation> confirmPayment(Map<String, String> params) {
+        if (!vnPayConfig.verifySignature(params))
+            return CompletableFuture.completedFuture(new PaymentConfirmation(PaymentResponseCode.INVALID_CHECKSUM));
+
+        String txnRef = params.get("vnp_TxnRef");
+        int orderId;
+        long amount;
+        try {
+            orderId = Integer.parseInt(txnRef);
+            amount = Long.parseLong(params.get("vnp_Amount"));
+        } catch (NumberFormatException e) {
+            return CompletableFuture.completedFuture(new PaymentConfirmation(PaymentResponseCode.UNKNOWN_ERROR));
+        }
+        PaymentStatus status = "00".equals(params.get("vnp_ResponseCode")) ? PaymentStatus.SUCCESS : PaymentStatus.FAILED;
+
+        long now = System.currentTimeMillis();
+        if (notifications.size() >= MAX_SIZE) evict(now);
+
+        Notification notification;
+        try {
+            notification = notifications.compute(txnRef, (key, current) -> current != null && current.expiresAt > now
+                    ? current
+                    : new Notification(CompletableFuture.supplyAsync(
+                    () -> orderService.confirmPayment(orderId, amount, status), paymentExecutor), now + TTL_MILLIS));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Payment notification of order {} rejected, the queue is full", orderId);
+            return CompletableFuture.completedFuture(new PaymentConfirmation(PaymentResponseCode.UNKNOWN_ERROR));
+        }
+
+        // A failed notification is forgotten, so that the next one is applied again
+        return notification.confirmation.exceptionally(e -> {
+            notifications.remove(txnRef, notification);
+            logger.error("Payment notification of order {} failed", orderId, e);
+            return new PaymentConfirmation(PaymentResponseCode.UNKNOWN_ERROR);
+        });
+    }
+
+    private void evict(long now) {
+        notifications.values().removeIf(notification -> notification.expiresAt <= now);
+
+        // Still full, start over rather than tracking the oldest entries. The orders stay safe,
+        // a repeated notification finds its order already confirmed.
+        if (notifications.size() >= MAX_SIZE) notifications.clear();
+    }
+
+    private static class Notification {
+        private final CompletableFuture<PaymentConfirmation> confirmation;
+        private final long expiresAt;
+
+        private Notification(CompletableFuture<PaymentConfirmation> confirmation, long expiresAt) {
+            this.confirmation = confirmation;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -1,19 +1,30 @@
 package com.team3.ministore.service.impl;
 
+import com.team3.ministore.cache.ProductBarcodeIndex;
+import com.team3.ministore.cache.ProductSearchIndex;
+import com.team3.ministore.cache.ReferenceDataCache;
+import com.team3.ministore.dto.BarcodeIndexStats;
+import com.team3.ministore.dto.CategoryDto;
 import com.team3.ministore.dto.ProductDto;
 import com.team3.ministore.model.Category;
 import com.team3.ministore.model.Product;
 import com.team3.ministore.repository.CategoryRepository;
 import com.team3.ministore.repository.ProductRepository;
 import com.team3.ministore.service.ProductService;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class ProductServiceImpl implements ProductService {
@@ -24,12 +35,31 @@ public class ProductServiceImpl implements ProductService {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private ProductBarcodeIndex barcodeIndex;
+
+    @Autowired
+    private ProductSearchIndex searchIndex;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
     @Override
+    @Timed(value = "ministore.product.search", histogram = true)
     public Page<ProductDto> getAllProducts(String search, Integer page, Integer pageSize) {
+        if (search.isBlank()) return getAllProducts(page, pageSize);
+
         Pageable pageable = PageRequest.of(page - 1, pageSize);
-        return productRepository
-                .findAllByNameContainingIgnoreCaseOrBarCodeContainingIgnoreCaseOrCategory_NameContainingIgnoreCase(search, search, search, pageable)
-                .map(ProductDto::new);
+        Page<Integer> productIds = searchIndex.search(search, pageable);
+        if (!productIds.hasContent()) return new PageImpl<>(List.of(), pageable, productIds.getTotalElements());
+
+        Map<Integer, Product> products = productRepository.findAllWithCategoryByProductIdIn(productIds.getContent())
+                .stream().collect(Collectors.toMap(Product::getProductId, Function.identity()));
+
+        // Keeps the order of the index, a product deleted since the search is left out
+        List<ProductDto> productDtos = productIds.stream().map(products::get).filter(Objects::nonNull)
+                .map(ProductDto::new).collect(Collectors.toList());
+        return new PageImpl<>(productDtos, pageable, productIds.getTotalElements());
     }
 
     @Override
@@ -45,14 +75,19 @@ public class ProductServiceImpl implements ProductService {
 
         Product product = new Product();
 
-        product.setBarCode(dto.getBarCode());
+        product.setBarCode(barcode(dto));
         product.setName(dto.getName());
         product.setDescription(dto.getDescription());
         category.ifPresent(product::setCategory);
         product.setPrice(dto.getPrice());
         product.setInventory(dto.getInventory());
 
-        return Optional.of(productRepository.save(product));
+        Product createdProduct = productRepository.save(product);
+        barcodeIndex.put(createdProduct);
+        searchIndex.put(createdProduct);
+        referenceDataCache.evictCategories();
+
+        return Optional.of(createdProduct);
     }
 
     @Override
@@ -61,8 +96,20 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
-    public Optional<Product> getProductByBarcode(String barcode) {
-        return productRepository.findFirstByBarCode(barcode);
+    public Optional<ProductDto> getProductByBarcode(String barcode) {
+        // Only the category is read, from the second-level cache once warm
+        return barcodeIndex.getProduct(barcode).map(product -> new ProductDto(product, product.getCategoryId() == null
+                ? null : categoryRepository.findById(product.getCategoryId()).map(CategoryDto::new).orElse(null)));
+    }
+
+    @Override
+    public Optional<Integer> getProductIdByBarcode(String barcode) {
+        return barcodeIndex.getProductId(barcode);
+    }
+
+    @Override
+    public BarcodeIndexStats getBarcodeIndexStats() {
+        return barcodeIndex.getStats();
     }
 
     @Override
@@ -74,7 +121,7 @@ public class ProductServiceImpl implements ProductService {
         if (existingProduct.isEmpty()) return Optional.empty();
 
         existingProduct.map(value -> {
-            value.setBarCode(dto.getBarCode());
+            value.setBarCode(barcode(dto));
             value.setName(dto.getName());
             value.setDescription(dto.getDescription());
             value.setCategory(category.orElseGet(() -> null));
@@ -83,16 +130,29 @@ public class ProductServiceImpl implements ProductService {
             return value;
         });
 
-        return Optional.of(productRepository.save(existingProduct.get()));
+        Product updatedProduct = productRepository.save(existingProduct.get());
+        barcodeIndex.put(updatedProduct);
+        searchIndex.put(updatedProduct);
+        referenceDataCache.evictCategories();
+
+        return Optional.of(updatedProduct);
     }
 
     @Override
     public void deleteProduct(Integer id) {
         productRepository.deleteById(id);
+        barcodeIndex.remove(id);
+        searchIndex.remove(id);
+        referenceDataCache.evictCategories();
     }
 
     @Override
     public List<Product> getListProducts() {
         return productRepository.findAll();
     }
+
+    // No barcode is stored as NULL, the unique key of the barcode would reject a second empty one
+    private static String barcode(ProductDto dto) {
+        return dto.getBarCode() == null || dto.getBarCode().isEmpty() ? null : dto.getBarCode();
+    }
 }
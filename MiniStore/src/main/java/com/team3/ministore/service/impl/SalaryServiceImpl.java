@@ -8,7 +8,10 @@ import com.team3.ministore.service.SalaryService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -30,7 +33,15 @@ public class SalaryServiceImpl implements SalaryService {
 
     @Override
     public List<SalaryDto> getSalaryOfAllStaffs() {
-        return salaryRepository.findSalaryOfAllStaffs().stream().map(SalaryDto::new).collect(Collectors.toList());
+        return salaryRepository.findSalaryOfAllStaffs(LocalDate.now()).stream().map(SalaryDto::new).collect(Collectors.toList());
+    }
+
+    @Override
+    public Map<Integer, SalaryDto> getSalariesByStaffIds(Collection<Integer> staffIds) {
+        if (staffIds.isEmpty()) return Map.of();
+
+        return salaryRepository.findSalaryOfStaffs(staffIds).stream().map(SalaryDto::new)
+                .collect(Collectors.toMap(SalaryDto::getStaffId, salary -> salary, (a, b) -> b));
     }
 
     @Override
@@ -0,0 +1,118 @@
+package com.team3.ministore.service.impl;
+
+import com.team3.ministore.dto.*;
+import com.team3.ministore.model.Order;
+import com.team3.ministore.model.OrderItem;
+import com.team3.ministore.model.Product;
+import com.team3.ministore.repository.DailyProductSalesRepository;
+import com.team3.ministore.repository.HourlyStaffSalesRepository;
+import com.team3.ministore.service.SalesService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Service
+public class SalesServiceImpl implements SalesService {
+
+    @Autowired
+    private DailyProductSalesRepository dailyProductSalesRepository;
+
+    @Autowired
+    private HourlyStaffSalesRepository hourlyStaffSalesRepository;
+
+    // Called in the transaction that moves an order to SUCCESS
+    @Override
+    @Transactional
+    public void recordSale(Order order) {
+        addSales(order, 1);
+    }
+
+    // Called in the transaction that moves a successful order to another status or deletes it
+    @Override
+    @Transactional
+    public void revertSale(Order order) {
+        addSales(order, -1);
+    }
+
+    // Throws the rollups away and computes them again from the orders, same as the V1 migration backfill
+    @Override
+    @Transactional
+    public void rebuildSales() {
+        dailyProductSalesRepository.deleteAllInBatch();
+        hourlyStaffSalesRepository.deleteAllInBatch();
+
+        dailyProductSalesRepository.insertSalesFromOrders();
+        hourlyStaffSalesRepository.insertSalesFromOrders();
+    }
+
+    private void addSales(Order order, int sign) {
+        LocalDate salesDate = order.getOrderDate().toLocalDate();
+        int staffId = order.getStaff() != null ? order.getStaff().getStaffId() : 0;
+        double grandTotal = order.getGrandTotal() != null ? order.getGrandTotal() : 0;
+
+        hourlyStaffSalesRepository.addSales(salesDate, order.getOrderDate().getHour(), staffId, sign, sign * grandTotal);
+
+        if (order.getOrderItems() == null) return;
+
+        // One upsert per product, in product id order so that concurrent orders lock the rows in the same order. The
+        // price and category are those of the order items, so that reverting the order takes back what was counted
+        // whatever was done to the product since.
+        Map<Integer, Integer> quantities = new TreeMap<>();
+        Map<Integer, Double> revenues = new TreeMap<>();
+        Map<Integer, Integer> categoryIds = new TreeMap<>();
+        for (OrderItem orderItem : order.getOrderItems()) {
+            int productId = orderItem.getProduct().getProductId();
+            quantities.merge(productId, orderItem.getQuantity(), Integer::sum);
+            revenues.merge(productId, orderItem.getQuantity() * (double) unitPrice(orderItem), Double::sum);
+            categoryIds.putIfAbsent(productId, categoryId(orderItem));
+        }
+
+        for (Map.Entry<Integer, Integer> entry : quantities.entrySet()) {
+            dailyProductSalesRepository.addSales(salesDate, entry.getKey(), categoryIds.get(entry.getKey()),
+                    sign * entry.getValue(), sign * revenues.get(entry.getKey()));
+        }
+    }
+
+    // Items saved before the snapshot columns have the current values of the product, like the V5 migration backfill
+    private static float unitPrice(OrderItem orderItem) {
+        if (orderItem.getUnitPrice() != null) return orderItem.getUnitPrice();
+        return orderItem.getProduct().getPrice() != null ? orderItem.getProduct().getPrice() : 0;
+    }
+
+    private static Integer categoryId(OrderItem orderItem) {
+        if (orderItem.getCategoryId() != null) return orderItem.getCategoryId();
+        Product product = orderItem.getProduct();
+        return product.getCategory() != null ? product.getCategory().getCategoryId() : null;
+    }
+
+    @Override
+    public List<SellingProduct> getTopSellingProducts(LocalDate from, LocalDate to, int limit) {
+        return dailyProductSalesRepository.findTopSellingProducts(from, to, PageRequest.of(0, limit));
+    }
+
+    @Override
+    public List<DailyRevenue> getDailyRevenue(LocalDate from, LocalDate to) {
+        return hourlyStaffSalesRepository.findDailyRevenue(from, to);
+    }
+
+    @Override
+    public List<HourlyRevenue> getHourlyRevenue(LocalDate from, LocalDate to) {
+        return hourlyStaffSalesRepository.findHourlyRevenue(from, to);
+    }
+
+    @Override
+    public List<StaffSales> getStaffSales(LocalDate from, LocalDate to) {
+        return hourlyStaffSalesRepository.findStaffSales(from, to);
+    }
+
+    @Override
+    public List<CategorySales> getCategorySales(LocalDate from, LocalDate to) {
+        return dailyProductSalesRepository.findCategorySales(from, to);
+    }
+}
@@ -1,20 +1,34 @@
 package com.team3.ministore.service.impl;
 
+import com.team3.ministore.common.exception.ShiftConflictException;
+import com.team3.ministore.common.utils.DatabaseUtils;
+import com.team3.ministore.dto.CreateShiftDto;
 import com.team3.ministore.dto.ScheduleShiftTemplateDto;
 import com.team3.ministore.dto.ScheduleTemplateDto;
+import com.team3.ministore.dto.ShiftConflict;
+import com.team3.ministore.dto.ShiftDto;
 import com.team3.ministore.model.ScheduleShiftTemplate;
 import com.team3.ministore.model.ScheduleTemplate;
+import com.team3.ministore.model.Shift;
 import com.team3.ministore.model.Staff;
+import com.team3.ministore.repository.IdSequenceRepository;
+import com.team3.ministore.repository.ScheduleShiftTemplateRepository;
 import com.team3.ministore.repository.ScheduleTemplateRepository;
-import com.team3.ministore.service.ScheduleShiftTemplateService;
+import com.team3.ministore.repository.StaffRepository;
 import com.team3.ministore.service.ScheduleTemplateService;
-import com.team3.ministore.service.StaffService;
+import com.team3.ministore.service.ShiftService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
+import java.sql.Date;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class ScheduleTemplateServiceImpl implements ScheduleTemplateService {
@@ -23,10 +37,19 @@ public class ScheduleTemplateServiceImpl implements ScheduleTemplateService {
     private ScheduleTemplateRepository scheduleTemplateRepository;
 
     @Autowired
-    private StaffService staffService;
+    private ScheduleShiftTemplateRepository scheduleShiftTemplateRepository;
 
     @Autowired
-    private ScheduleShiftTemplateService scheduleShiftTemplateService;
+    private StaffRepository staffRepository;
+
+    @Autowired
+    private IdSequenceRepository idSequenceRepository;
+
+    @Autowired
+    private ShiftService shiftService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
 
     @Override
     public List<ScheduleTemplate> getAllScheduleTemplates() {
@@ -34,6 +57,7 @@ public class ScheduleTemplateServiceImpl implements ScheduleTemplateService {
     }
 
     @Override
+    @Transactional
     public ScheduleTemplateDto createScheduleTemplate(ScheduleTemplateDto dto) {
         // Create schedule template
         ScheduleTemplate scheduleTemplate = new ScheduleTemplate();
@@ -48,13 +72,17 @@ public class ScheduleTemplateServiceImpl implements ScheduleTemplateService {
         ScheduleTemplateDto result = new ScheduleTemplateDto(createdScheduleTemplate);
 
         // ------------------------------------------------
-        // Create shift schedule templates
-        dto.getScheduleShiftTemplates().forEach(scheduleShiftTemplateDto -> {
-            ScheduleShiftTemplate scheduleShiftTemplate = new ScheduleShiftTemplate();
+        // Create shift schedule templates, with the staffs loaded in one query
+        Map<Integer, Staff> staffs = staffRepository.findAllById(dto.getScheduleShiftTemplates().stream()
+                        .map(ScheduleShiftTemplateDto::getStaffId).collect(Collectors.toSet()))
+                .stream().collect(Collectors.toMap(Staff::getStaffId, Function.identity()));
 
-            Optional<Staff> staff = staffService.getStaffById(scheduleShiftTemplateDto.getStaffId());
-            if (staff.isEmpty()) return;
+        List<ScheduleShiftTemplate> scheduleShiftTemplates = new ArrayList<>();
+        dto.getScheduleShiftTemplates().forEach(scheduleShiftTemplateDto -> {
+            Staff staff = staffs.get(scheduleShiftTemplateDto.getStaffId());
+            if (staff == null) return;
 
+            ScheduleShiftTemplate scheduleShiftTemplate = new ScheduleShiftTemplate();
             scheduleShiftTemplate.setDate(scheduleShiftTemplateDto.getDate());
             scheduleShiftTemplate.setStartTime(scheduleShiftTemplateDto.getStartTime());
             scheduleShiftTemplate.setEndTime(scheduleShiftTemplateDto.getEndTime());
@@ -62,16 +90,14 @@ public class ScheduleTemplateServiceImpl implements ScheduleTemplateService {
             scheduleShiftTemplate.setRole(scheduleShiftTemplateDto.getRole());
             scheduleShiftTemplate.setSalaryCoefficient(scheduleShiftTemplateDto.getSalaryCoefficient());
             scheduleShiftTemplate.setScheduleTemplate(createdScheduleTemplate);
-            scheduleShiftTemplate.setStaff(staff.get());
-
-            ScheduleShiftTemplateDto shift = new ScheduleShiftTemplateDto(
-                    scheduleShiftTemplateService.createShiftScheduleTemplates(scheduleShiftTemplate)
-            );
-
-            // Add shift to schedule template
-            result.getScheduleShiftTemplates().add(shift);
+            scheduleShiftTemplate.setStaff(staff);
+            scheduleShiftTemplates.add(scheduleShiftTemplate);
         });
 
+        // Add shifts to schedule template
+        scheduleShiftTemplateRepository.saveAll(scheduleShiftTemplates)
+                .forEach(shift -> result.getScheduleShiftTemplates().add(new ScheduleShiftTemplateDto(shift)));
+
         return result;
     }
 
@@ -84,4 +110,56 @@ public class ScheduleTemplateServiceImpl implements ScheduleTemplateService {
     public void deleteScheduleTemplate(Integer id) {
         scheduleTemplateRepository.deleteById(id);
     }
+
+    // Throws ShiftConflictException, and saves nothing, when a shift overlaps a saved shift or an approved leave of
+    // its staff, or another shift of the template
+    @Override
+    @Transactional
+    public Optional<List<ShiftDto>> applyScheduleTemplate(Integer id, LocalDate weekStart, boolean published) {
+        // The template with its shifts and their staffs in one query
+        Optional<ScheduleTemplate> scheduleTemplate = scheduleTemplateRepository.findWithShiftTemplatesById(id);
+        if (scheduleTemplate.isEmpty()) return Optional.empty();
+
+        List<ScheduleShiftTemplate> scheduleShiftTemplates = scheduleTemplate.get().getScheduleShiftTemplates().stream()
+                .filter(scheduleShiftTemplate -> scheduleShiftTemplate.getDate() != null).collect(Collectors.toList());
+        if (scheduleShiftTemplates.isEmpty()) return Optional.of(List.of());
+
+        // The shifts keep their distance to the Monday of the first week of the template
+        LocalDate templateWeekStart = scheduleShiftTemplates.stream().map(ScheduleShiftTemplate::getDate)
+                .min(Comparator.naturalOrder()).orElseThrow().with(DayOfWeek.MONDAY);
+        LocalDate targetWeekStart = weekStart.with(DayOfWeek.MONDAY);
+
+        List<Shift> shifts = new ArrayList<>();
+        for (ScheduleShiftTemplate scheduleShiftTemplate : scheduleShiftTemplates) {
+            Shift shift = new Shift();
+            shift.setDate(targetWeekStart.plusDays(ChronoUnit.DAYS.between(templateWeekStart, scheduleShiftTemplate.getDate())));
+            shift.setPublished(published);
+            shift.setStartTime(scheduleShiftTemplate.getStartTime());
+            shift.setEndTime(scheduleShiftTemplate.getEndTime());
+            shift.setName(scheduleShiftTemplate.getName());
+            shift.setSalaryCoefficient(scheduleShiftTemplate.getSalaryCoefficient());
+            shift.setRole(scheduleShiftTemplate.getRole());
+            shift.setStaff(scheduleShiftTemplate.getStaff());
+            shifts.add(shift);
+        }
+
+        List<ShiftConflict> conflicts = shiftService.getConflicts(shifts.stream().map(CreateShiftDto::new)
+                .collect(Collectors.toList()));
+        if (!conflicts.isEmpty()) throw new ShiftConflictException(conflicts);
+
+        // Multi-row INSERTs, faster still than the JDBC batches of Hibernate, with ids from the shift sequence
+        int firstShiftId = idSequenceRepository.reserve(IdSequenceRepository.SHIFTS, shifts.size());
+
+        List<Object[]> rows = new ArrayList<>();
+        for (Shift shift : shifts) {
+            shift.setShiftId(firstShiftId + rows.size());
+            rows.add(new Object[]{shift.getShiftId(), Date.valueOf(shift.getDate()), published, shift.getStartTime(), shift.getEndTime(),
+                    shift.getName(), shift.getSalaryCoefficient(), shift.getRole().name(), shift.getStaff().getStaffId()});
+        }
+
+        DatabaseUtils.insertRows(jdbcTemplate, "shifts",
+                "shift_id, date, published, start_time, end_time, name, salary_coefficient, role, staff_id", rows);
+
+        return Optional.of(shifts.stream().map(ShiftDto::new).collect(Collectors.toList()));
+    }
 }
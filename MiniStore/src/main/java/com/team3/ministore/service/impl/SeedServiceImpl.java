@@ -0,0 +1,355 @@
+package com.team3.ministore.service.impl;
+
+import com.team3.ministore.cache.ProductBarcodeIndex;
+import com.team3.ministore.cache.ProductSearchIndex;
+import com.team3.ministore.cache.ReferenceDataCache;
+import com.team3.ministore.cache.StaffAvailabilityIndex;
+import com.team3.ministore.common.utils.Availability;
+import com.team3.ministore.common.utils.DatabaseUtils;
+import com.team3.ministore.dto.SeedOptions;
+import com.team3.ministore.repository.IdSequenceRepository;
+import com.team3.ministore.service.SalesService;
+import com.team3.ministore.service.SeedService;
+import com.team3.ministore.utils.LeaveStatus;
+import com.team3.ministore.utils.LeaveType;
+import com.team3.ministore.utils.PaymentStatus;
+import com.team3.ministore.utils.Role;
+import com.team3.ministore.utils.ShiftCoverStatus;
+import com.team3.ministore.utils.StaffStatus;
+import com.team3.ministore.utils.TimesheetStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+// Generates a realistic data set with multi-row INSERT statements, going around JPA which would
+// insert the rows one by one. New rows are told apart from existing ones by their ids, the tables
+// with an id sequence get ids reserved from it.
+@Service
+public class SeedServiceImpl implements SeedService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeedServiceImpl.class);
+
+    // Orders generated and written at a time
+    private static final int ORDERS_PER_CHUNK = 5000;
+
+    private static final String[] CATEGORY_NAMES = {
+            "Beverages", "Dairy", "Bakery", "Snacks", "Frozen food",
+            "Household", "Personal care", "Canned food", "Fruits", "Vegetables"
+    };
+
+    // Every product name ends with one of these words, a search for one matches about a tenth of the products
+    private static final String[] PRODUCT_WORDS = {
+            "milk", "bread", "coffee", "tea", "rice", "noodle", "juice", "candy", "soap", "water"
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private IdSequenceRepository idSequenceRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private SalesService salesService;
+
+    @Autowired
+    private ProductBarcodeIndex barcodeIndex;
+
+    @Autowired
+    private ProductSearchIndex searchIndex;
+
+    @Autowired
+    private StaffAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Override
+    public void seed(SeedOptions options) {
+        Random random = new Random(options.getRandomSeed());
+        LocalDate today = LocalDate.now();
+        LocalDate fromDate = today.minusDays(Math.max(options.getDays(), 1) - 1);
+        LocalDate toDate = today.plusDays(options.getPlannedDays());
+        long start = System.currentTimeMillis();
+
+        List<SeedStaff> staffs = seedStaffs(options, random);
+        seedSalaries(staffs, fromDate, today, random);
+        logger.info("Seeded {} staffs", staffs.size());
+
+        List<SeedProduct> products = seedProducts(options.getProducts(), random);
+        logger.info("Seeded {} products", products.size());
+
+        List<SeedStaff> activeStaffs = staffs.stream().filter(staff -> staff.active).collect(Collectors.toList());
+        seedShifts(activeStaffs, fromDate, toDate, today, random);
+        seedLeaveRequests(activeStaffs, fromDate, toDate, today, random);
+        logger.info("Seeded the shifts, timesheets and requests from {} to {}", fromDate, toDate);
+
+        seedOrders(options.getOrders(), activeStaffs, products, fromDate, today, random);
+
+        // The rows did not go through the services, so the rollups and the product indexes are built again
+        // and the second-level cache is dropped
+        salesService.rebuildSales();
+        barcodeIndex.rebuild();
+        searchIndex.rebuild();
+        availabilityIndex.rebuild();
+        referenceDataCache.evictAll();
+        logger.info("Seeded {} orders in {} ms", options.getOrders(), System.currentTimeMillis() - start);
+    }
+
+    private List<SeedStaff> seedStaffs(SeedOptions options, Random random) {
+        int first = nextId("staffs", "staff_id");
+        // Encoding is slow on purpose, every staff gets the same hash
+        String password = passwordEncoder.encode(options.getPassword());
+
+        byte[] availability = Availability.parse("Whole week");
+
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < options.getStaffs(); i++) {
+            int number = first + i;
+            int dice = random.nextInt(10);
+            Role role = dice == 0 ? Role.MANAGER : dice < 7 ? Role.CASHIER : Role.GUARD;
+            StaffStatus status = random.nextInt(20) == 0 ? StaffStatus.DISABLED : StaffStatus.ACTIVE;
+
+            rows.add(new Object[]{"Staff " + number, role.name(), "staff" + number, "staff" + number + "@mail.com",
+                    password, String.format("09%08d", number), status.ordinal(), "", "Whole week", availability, 12});
+        }
+        insertRows("staffs", "staff_name, role, username, email, password, phone_number, status, image, work_days, availability, leave_balance", rows);
+
+        return jdbcTemplate.query("SELECT staff_id, role, status FROM staffs WHERE staff_id >= ? ORDER BY staff_id",
+                (rs, rowNum) -> new SeedStaff(rs.getInt(1), Role.valueOf(rs.getString(2)),
+                        rs.getInt(3) == StaffStatus.ACTIVE.ordinal()), first);
+    }
+
+    // Up to three salaries per staff, each one ends the day before the next raise
+    private void seedSalaries(List<SeedStaff> staffs, LocalDate fromDate, LocalDate today, Random random) {
+        List<Object[]> rows = new ArrayList<>();
+        for (SeedStaff staff : staffs) {
+            LocalDate effectiveDate = fromDate.minusDays(random.nextInt(365));
+            int wage = 20000 + random.nextInt(20) * 1000;
+            int raises = random.nextInt(3);
+
+            for (int i = 0; ; i++) {
+                LocalDate nextDate = effectiveDate.plusDays(90 + random.nextInt(120));
+                boolean current = i == raises || nextDate.isAfter(today);
+
+                rows.add(new Object[]{null, String.valueOf(wage), Date.valueOf(effectiveDate),
+                        current ? null : Date.valueOf(nextDate.minusDays(1)), staff.staffId});
+                if (current) break;
+
+                effectiveDate = nextDate;
+                wage += (1 + random.nextInt(5)) * 1000;
+            }
+        }
+        setIds(rows, idSequenceRepository.reserve(IdSequenceRepository.SALARIES, rows.size()));
+        insertRows("salaries", "salary_id, hourly_wage, effective_date, termination_date, staff_id", rows);
+    }
+
+    private List<SeedProduct> seedProducts(int count, Random random) {
+        int firstCategory = nextId("categories", "category_id");
+        insertRows("categories", "name, description", Arrays.stream(CATEGORY_NAMES)
+                .map(name -> new Object[]{name, ""}).collect(Collectors.toList()));
+        List<Integer> categoryIds = jdbcTemplate.queryForList(
+                "SELECT category_id FROM categories WHERE category_id >= ?", Integer.class, firstCategory);
+
+        int first = nextId("products", "product_id");
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int number = first + i;
+            String word = PRODUCT_WORDS[random.nextInt(PRODUCT_WORDS.length)];
+
+            rows.add(new Object[]{String.format("89%011d", number), "Product " + number + " " + word, "",
+                    (5 + random.nextInt(200)) * 500f, 100000, categoryIds.get(random.nextInt(categoryIds.size()))});
+        }
+        insertRows("products", "barcode, name, description, price, inventory, category_id", rows);
+
+        return jdbcTemplate.query("SELECT product_id, price, category_id FROM products WHERE product_id >= ? ORDER BY product_id",
+                (rs, rowNum) -> new SeedProduct(rs.getInt(1), rs.getFloat(2), rs.getInt(3)), first);
+    }
+
+    // Five shifts a week per staff, published up to today. Past shifts get an approved timesheet
+    // with the salary of that day, a few get a cover request.
+    private void seedShifts(List<SeedStaff> staffs, LocalDate fromDate, LocalDate toDate, LocalDate today, Random random) {
+        List<Object[]> rows = new ArrayList<>();
+        for (LocalDate date = fromDate; !date.isAfter(toDate); date = date.plusDays(1)) {
+            boolean weekend = date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY;
+
+            for (SeedStaff staff : staffs) {
+                // Two days off a week, different for each staff
+                if ((date.getDayOfWeek().getValue() + staff.staffId) % 7 < 2) continue;
+
+                boolean morning = random.nextBoolean();
+                rows.add(new Object[]{null, Date.valueOf(date), !date.isAfter(today),
+                        Time.valueOf(morning ? "06:00:00" : "14:00:00"), Time.valueOf(morning ? "14:00:00" : "22:00:00"),
+                        morning ? "Morning shift" : "Afternoon shift", weekend ? 1.5f : 1f, staff.role.name(), staff.staffId});
+            }
+        }
+        int first = idSequenceRepository.reserve(IdSequenceRepository.SHIFTS, rows.size());
+        setIds(rows, first);
+        insertRows("shifts", "shift_id, date, published, start_time, end_time, name, salary_coefficient, role, staff_id", rows);
+
+        // At most one timesheet per new shift, numbered like the shifts
+        int firstTimesheet = idSequenceRepository.reserve(IdSequenceRepository.TIMESHEETS, rows.size());
+        jdbcTemplate.update("INSERT INTO timesheets (timesheet_id, check_in_time, check_out_time, status, note_title, " +
+                        "note_content, shift_id, staff_id, salary_id) " +
+                        "SELECT ? + s.shift_id - ?, s.start_time, s.end_time, ?, '', '', s.shift_id, s.staff_id, " +
+                        "(SELECT MAX(sa.salary_id) FROM salaries sa WHERE sa.staff_id = s.staff_id AND sa.effective_date <= s.date " +
+                        "AND (sa.termination_date IS NULL OR sa.termination_date >= s.date)) " +
+                        "FROM shifts s WHERE s.shift_id >= ? AND s.date < ?",
+                firstTimesheet, first, TimesheetStatus.APPROVED.ordinal(), first, Date.valueOf(today));
+        jdbcTemplate.update("UPDATE shifts s SET timesheet_id = " +
+                        "(SELECT t.timesheet_id FROM timesheets t WHERE t.shift_id = s.shift_id) " +
+                        "WHERE s.shift_id >= ? AND s.date < ?",
+                first, Date.valueOf(today));
+
+        if (staffs.size() < 2) return;
+
+        int firstCover = nextId("shiftcoverrequests", "shift_cover_request_id");
+        List<Object[]> covers = new ArrayList<>();
+        jdbcTemplate.query("SELECT shift_id, staff_id, date FROM shifts WHERE shift_id >= ? ORDER BY shift_id", rs -> {
+            if (random.nextInt(100) >= 3) return;
+
+            SeedStaff coverStaff = staffs.get(random.nextInt(staffs.size()));
+            if (coverStaff.staffId == rs.getInt(2)) return;
+
+            ShiftCoverStatus status = !rs.getDate(3).toLocalDate().isBefore(today) ? ShiftCoverStatus.PENDING
+                    : random.nextInt(5) == 0 ? ShiftCoverStatus.REJECTED : ShiftCoverStatus.APPROVED;
+            covers.add(new Object[]{"Cannot make it to this shift", status.ordinal(), coverStaff.staffId, rs.getInt(1)});
+        }, first);
+        insertRows("shiftcoverrequests", "note, status, staff_id, shift_id", covers);
+
+        jdbcTemplate.update("UPDATE shifts s SET shift_cover_request_id = " +
+                        "(SELECT sc.shift_cover_request_id FROM shiftcoverrequests sc WHERE sc.shift_id = s.shift_id) " +
+                        "WHERE s.shift_id IN (SELECT sc.shift_id FROM shiftcoverrequests sc WHERE sc.shift_cover_request_id >= ?)",
+                firstCover);
+    }
+
+    // About one leave of one to three days per staff and month
+    private void seedLeaveRequests(List<SeedStaff> staffs, LocalDate fromDate, LocalDate toDate, LocalDate today, Random random) {
+        int days = (int) (toDate.toEpochDay() - fromDate.toEpochDay() + 1);
+        LeaveType[] types = LeaveType.values();
+
+        List<Object[]> rows = new ArrayList<>();
+        for (SeedStaff staff : staffs) {
+            int leaves = days / 30 + (random.nextInt(30) < days % 30 ? 1 : 0);
+
+            for (int i = 0; i < leaves; i++) {
+                LocalDate startDate = fromDate.plusDays(random.nextInt(days));
+                LeaveStatus status = startDate.isAfter(today)
+                        ? (random.nextBoolean() ? LeaveStatus.PENDING : LeaveStatus.APPROVED)
+                        : (random.nextInt(5) == 0 ? LeaveStatus.REJECTED : LeaveStatus.APPROVED);
+
+                rows.add(new Object[]{types[random.nextInt(types.length)].name(), Date.valueOf(startDate),
+                        Date.valueOf(startDate.plusDays(random.nextInt(3))), status.ordinal(), "Personal reasons", "",
+                        staff.staffId});
+            }
+        }
+        insertRows("leaverequests", "leave_type, start_date, end_date, status, reason, admin_reply, staff_id", rows);
+    }
+
+    // Orders of the cashiers and managers during the opening hours, busier in the evening
+    private void seedOrders(int count, List<SeedStaff> staffs, List<SeedProduct> products, LocalDate fromDate,
+                            LocalDate today, Random random) {
+        List<SeedStaff> sellers = staffs.stream().filter(staff -> staff.role == Role.CASHIER || staff.role == Role.MANAGER)
+                .collect(Collectors.toList());
+        if (sellers.isEmpty()) sellers = staffs;
+        if (sellers.isEmpty() || products.isEmpty()) return;
+
+        int days = (int) (today.toEpochDay() - fromDate.toEpochDay() + 1);
+
+        for (int done = 0; done < count; done += ORDERS_PER_CHUNK) {
+            int size = Math.min(ORDERS_PER_CHUNK, count - done);
+            List<Object[]> orders = new ArrayList<>(size);
+            List<List<Object[]>> items = new ArrayList<>(size);
+
+            for (int i = 0; i < size; i++) {
+                int hour = random.nextInt(3) == 0 ? 17 + random.nextInt(4) : 7 + random.nextInt(15);
+                LocalDateTime orderDate = fromDate.plusDays(random.nextInt(days)).atTime(hour, random.nextInt(60), random.nextInt(60));
+
+                Map<Integer, Object[]> orderItems = new LinkedHashMap<>();
+                float grandTotal = 0;
+                for (int j = 1 + random.nextInt(5); j > 0; j--) {
+                    SeedProduct product = products.get(random.nextInt(products.size()));
+                    int quantity = 1 + random.nextInt(3);
+                    if (orderItems.putIfAbsent(product.productId, new Object[]{null, null, product.productId, quantity,
+                            product.price, product.categoryId}) == null)
+                        grandTotal += product.price * quantity;
+                }
+
+                int dice = random.nextInt(100);
+                PaymentStatus status = dice < 90 ? PaymentStatus.SUCCESS : dice < 97 ? PaymentStatus.PENDING : PaymentStatus.FAILED;
+
+                orders.add(new Object[]{null, Timestamp.valueOf(orderDate), grandTotal, status.ordinal(),
+                        sellers.get(random.nextInt(sellers.size())).staffId});
+                items.add(new ArrayList<>(orderItems.values()));
+            }
+
+            int first = idSequenceRepository.reserve(IdSequenceRepository.ORDERS, size);
+            setIds(orders, first);
+            insertRows("orders", "order_id, order_date, grand_total, payment_status, staff_id", orders);
+
+            List<Object[]> itemRows = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                for (Object[] item : items.get(i)) {
+                    item[1] = first + i;
+                    itemRows.add(item);
+                }
+            }
+            setIds(itemRows, idSequenceRepository.reserve(IdSequenceRepository.ORDER_ITEMS, itemRows.size()));
+            insertRows("orderitems", "order_item_id, order_id, product_id, quantity, unit_price, category_id", itemRows);
+
+            logger.info("Seeded {}/{} orders", done + size, count);
+        }
+    }
+
+    private int nextId(String table, String idColumn) {
+        Integer max = jdbcTemplate.queryForObject("SELECT MAX(" + idColumn + ") FROM " + table, Integer.class);
+        return max == null ? 1 : max + 1;
+    }
+
+    // Numbers the rows from the first id, in the first column
+    private static void setIds(List<Object[]> rows, int first) {
+        for (int i = 0; i < rows.size(); i++) rows.get(i)[0] = first + i;
+    }
+
+    private void insertRows(String table, String columns, List<Object[]> rows) {
+        DatabaseUtils.insertRows(jdbcTemplate, table, columns, rows);
+    }
+
+    private static class SeedStaff {
+        private final int staffId;
+        private final Role role;
+        private final boolean active;
+
+        private SeedStaff(int staffId, Role role, boolean active) {
+            this.staffId = staffId;
+            this.role = role;
+            this.active = active;
+        }
+    }
+
+    private static class SeedProduct {
+        private final int productId;
+        private final float price;
+        private final int categoryId;
+
+        private SeedProduct(int productId, float price, int categoryId) {
+            this.productId = productId;
+            this.price = price;
+            this.categoryId = categoryId;
+        }
+    }
+}
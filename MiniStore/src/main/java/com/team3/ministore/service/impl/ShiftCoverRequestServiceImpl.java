@@ -1,5 +1,7 @@
 package com.team3.ministore.service.impl;
 
+import com.team3.ministore.common.utils.CursorUtils;
+import com.team3.ministore.dto.CursorPage;
 import com.team3.ministore.dto.ShiftCoverDto;
 import com.team3.ministore.model.Shift;
 import com.team3.ministore.model.ShiftCoverRequest;
@@ -44,6 +46,20 @@ public class ShiftCoverRequestServiceImpl implements ShiftCoverRequestService {
                 .findAllByShift_Staff_StaffIdOrderByShiftCoverRequestIdDesc(staffId, pageable);
     }
 
+    @Override
+    public CursorPage<ShiftCoverRequest> getShiftCoverRequests(Optional<String> search, Integer staffId, String cursor, int pageSize,
+                                                               boolean withCount) throws IllegalArgumentException {
+        List<ShiftCoverRequest> shiftCoverRequests = shiftCoverRequestRepository.findAllByFilterAfter(search.orElse(null), staffId,
+                CursorUtils.decodeId(cursor), PageRequest.of(0, pageSize + 1));
+
+        Long total = null;
+        if (withCount) {
+            total = (staffId != null ? getShiftCoverRequestsByStaffId(staffId, 1, 1) : getAllShiftCoverRequests(search, 1, 1)).getTotalElements();
+        }
+
+        return CursorPage.of(shiftCoverRequests, pageSize, sc -> CursorUtils.encode(sc.getShiftCoverRequestId()), total);
+    }
+
     @Override
     public Optional<ShiftCoverDto> createShiftCoverRequest(ShiftCoverDto dto) {
 
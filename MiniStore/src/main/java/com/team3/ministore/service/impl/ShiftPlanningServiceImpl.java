@@ -0,0 +1,134 @@
+package com.team3.ministore.service.impl;
+
+import com.team3.ministore.common.utils.DateRangeIndex;
+import com.team3.ministore.dto.*;
+import com.team3.ministore.model.Shift;
+import com.team3.ministore.model.Staff;
+import com.team3.ministore.repository.LeaveRequestRepository;
+import com.team3.ministore.repository.SalaryRepository;
+import com.team3.ministore.repository.ShiftRepository;
+import com.team3.ministore.repository.StaffRepository;
+import com.team3.ministore.service.*;
+import com.team3.ministore.utils.LeaveStatus;
+import com.team3.ministore.utils.ShiftCoverStatus;
+import com.team3.ministore.utils.StaffStatus;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@Service
+public class ShiftPlanningServiceImpl implements ShiftPlanningService {
+
+    @Autowired
+    private StaffRepository staffRepository;
+
+    @Autowired
+    private SalaryRepository salaryRepository;
+
+    @Autowired
+    private LeaveRequestRepository leaveRequestRepository;
+
+    @Autowired
+    private ShiftRepository shiftRepository;
+
+    @Autowired
+    private SalaryService salaryService;
+
+    @Autowired
+    private LeaveRequestService leaveRequestService;
+
+    @Autowired
+    private ShiftService shiftService;
+
+    @Autowired
+    private ShiftCoverRequestService shiftCoverRequestService;
+
+    @Override
+    @Timed(value = "ministore.shift.planning", extraTags = {"scope", "all"}, histogram = true)
+    @Transactional(readOnly = true)
+    public List<StaffDto> getShiftPlanning(LocalDate fromDate, LocalDate toDate) {
+        // Load every staff, salary, leave request and shift of the period with one query each
+        List<Staff> staffs = staffRepository.findAll();
+
+        Map<Integer, SalaryDto> salaries = salaryRepository.findSalaryOfAllStaffs(LocalDate.now()).stream()
+                .map(SalaryDto::new)
+                .collect(Collectors.toMap(SalaryDto::getStaffId, salary -> salary, (a, b) -> b));
+
+        Map<Integer, List<LeaveRequestDto>> leaveRequests = leaveRequestRepository
+                .findLeaveRequestsByStatusAndDates(LeaveStatus.APPROVED, fromDate, toDate).stream()
+                .map(leaveRequest -> new LeaveRequestDto(leaveRequest, false))
+                .collect(Collectors.groupingBy(LeaveRequestDto::getStaffId));
+
+        Map<Integer, List<Shift>> shifts = shiftRepository.findAllWithDetailsByDateBetween(fromDate, toDate).stream()
+                .collect(Collectors.groupingBy(shift -> shift.getStaff().getStaffId()));
+
+        // Join them in memory
+        return staffs.stream().filter(staff -> staff.getStatus() == StaffStatus.ACTIVE).map(staff -> {
+            List<LeaveRequestDto> leaveRequestDtos = leaveRequests.getOrDefault(staff.getStaffId(), new ArrayList<>());
+            DateRangeIndex leaveDays = leaveDays(leaveRequestDtos);
+
+            // Filter out the shifts that are in the leave requests
+            List<ShiftDto> shiftDtos = shifts.getOrDefault(staff.getStaffId(), List.of()).stream()
+                    .filter(shift -> !leaveDays.contains(shift.getDate()))
+                    .map(ShiftDto::new).collect(Collectors.toList());
+
+            return new StaffDto(staff, salaries.get(staff.getStaffId()), shiftDtos, leaveRequestDtos);
+        }).collect(Collectors.toList());
+    }
+
+    @Override
+    @Timed(value = "ministore.shift.planning", extraTags = {"scope", "staff"}, histogram = true)
+    @Transactional(readOnly = true)
+    public Optional<StaffDto> getShiftPlanning(Integer staffId, LocalDate fromDate, LocalDate toDate) {
+        Optional<Staff> foundStaff = staffRepository.findById(staffId);
+
+        if (foundStaff.isEmpty() || foundStaff.get().getStatus() == StaffStatus.DISABLED)
+            return Optional.empty();
+
+        SalaryDto salaryDto = salaryService.getSalaryByStaffId(staffId);
+        List<LeaveRequestDto> leaveRequestDtos = leaveRequestService
+                .getLeaveRequestsByStaffIdAndDates(staffId, fromDate, toDate)
+                .stream().filter(leaveRequestDto -> leaveRequestDto.getStatus().equals(LeaveStatus.APPROVED))
+                .collect(Collectors.toList());
+        DateRangeIndex leaveDays = leaveDays(leaveRequestDtos);
+        // Get the shifts of the staff
+        List<Shift> shifts = shiftService.getAllShiftsByStaffId(staffId, fromDate, toDate);
+
+        List<ShiftDto> shiftDtos = shifts.stream()
+                // Filter out the shifts which are covered by other staffs
+                .filter(s -> s.getShiftCoverRequest() == null || s.getShiftCoverRequest().getStatus() != ShiftCoverStatus.APPROVED)
+                // Filter out the shifts that are in the leave requests
+                .filter(shift -> !leaveDays.contains(shift.getDate()))
+                // Convert shifts to shiftDtos
+                .map(ShiftDto::new).collect(Collectors.toList());
+
+        // Get the shifts of others which are covered by the staff
+        List<ShiftCoverDto> shiftCoverDtos = shiftCoverRequestService
+                .getShiftCoverRequestsByStaffIdAndDates(staffId, fromDate, toDate)
+                .stream().filter(s -> s.getStatus() == ShiftCoverStatus.APPROVED).collect(Collectors.toList());
+
+        // Add the shifts which are covered by the staff to the shiftDtos
+        shiftCoverDtos.stream().map(ShiftCoverDto::getShift)
+                .forEach(shift -> {
+                    if (shiftDtos.stream().noneMatch(shift1 -> shift1.getShiftId() == shift.getShiftId()))
+                        shiftDtos.add(shift);
+                });
+
+        // Filter the shifts which are not published
+        List<ShiftDto> lShifts = shiftDtos.stream().filter(ShiftDto::getPublished).collect(Collectors.toList());
+
+        return Optional.of(new StaffDto(foundStaff.get(), salaryDto, lShifts, leaveRequestDtos));
+    }
+
+    private DateRangeIndex leaveDays(List<LeaveRequestDto> leaveRequestDtos) {
+        return DateRangeIndex.of(leaveRequestDtos, LeaveRequestDto::getStartDate, LeaveRequestDto::getEndDate);
+    }
+}
@@ -1,29 +1,40 @@
 package com.team3.ministore.service.impl;
 
-import com.team3.ministore.dto.CreateShiftDto;
-import com.team3.ministore.dto.ShiftDto;
+import com.team3.ministore.common.exception.ShiftConflictException;
+import com.team3.ministore.common.utils.IntervalSweep;
+import com.team3.ministore.dto.*;
 import com.team3.ministore.model.Shift;
 import com.team3.ministore.model.Staff;
+import com.team3.ministore.repository.LeaveRequestRepository;
 import com.team3.ministore.repository.ShiftRepository;
 import com.team3.ministore.repository.StaffRepository;
 import com.team3.ministore.service.ShiftService;
+import com.team3.ministore.utils.LeaveStatus;
+import com.team3.ministore.utils.ShiftConflictType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Time;
 import java.time.LocalDate;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class ShiftServiceImpl implements ShiftService {
 
+    private static final long SECONDS_PER_DAY = 24 * 60 * 60;
+
     @Autowired
     private ShiftRepository shiftRepository;
 
     @Autowired
     private StaffRepository staffRepository;
 
+    @Autowired
+    private LeaveRequestRepository leaveRequestRepository;
+
     @Override
     public List<Shift> getAllShifts() {
         return shiftRepository.findAll();
@@ -34,14 +45,38 @@ public class ShiftServiceImpl implements ShiftService {
         return shiftRepository.findAllByStaff_StaffIdAndDateBetween(staffId, from, to);
     }
 
+    // The conflicts are checked in the transaction of the insert, a conflicting shift throws ShiftConflictException
     @Override
+    @Transactional
     public Optional<ShiftDto> createShift(CreateShiftDto dto) {
-        Shift shift = new Shift();
+        checkConflicts(List.of(dto), null);
 
         Optional<Staff> staff = staffRepository.findById(dto.getStaffId());
         if (staff.isEmpty()) return Optional.empty();
 
-        shift.setStaff(staff.get());
+        return Optional.of(new ShiftDto(shiftRepository.save(toShift(dto, staff.get()))));
+    }
+
+    // The staffs are loaded in one query and the shifts inserted in JDBC batches, the shifts of unknown staffs
+    // are skipped. Nothing is created while a shift conflicts, all the conflicts are thrown at once.
+    @Override
+    @Transactional
+    public List<ShiftDto> createShifts(List<CreateShiftDto> dtos) {
+        checkConflicts(dtos, null);
+
+        Map<Integer, Staff> staffs = staffRepository.findAllById(dtos.stream().map(CreateShiftDto::getStaffId)
+                        .collect(Collectors.toSet()))
+                .stream().collect(Collectors.toMap(Staff::getStaffId, Function.identity()));
+
+        List<Shift> shifts = dtos.stream().filter(dto -> staffs.containsKey(dto.getStaffId()))
+                .map(dto -> toShift(dto, staffs.get(dto.getStaffId()))).collect(Collectors.toList());
+
+        return shiftRepository.saveAll(shifts).stream().map(ShiftDto::new).collect(Collectors.toList());
+    }
+
+    private static Shift toShift(CreateShiftDto dto, Staff staff) {
+        Shift shift = new Shift();
+        shift.setStaff(staff);
         shift.setDate(dto.getDate());
         shift.setPublished(dto.isPublished());
         shift.setStartTime(dto.getStartTime());
@@ -49,14 +84,7 @@ public class ShiftServiceImpl implements ShiftService {
         shift.setName(dto.getName());
         shift.setSalaryCoefficient(dto.getSalaryCoefficient());
         shift.setRole(dto.getRole());
-
-        return Optional.of(new ShiftDto(shiftRepository.save(shift)));
-    }
-
-    @Override
-    public List<ShiftDto> createShifts(List<CreateShiftDto> dtos) {
-        return dtos.stream().map(this::createShift)
-                .filter(Optional::isPresent).map(Optional::get).collect(Collectors.toList());
+        return shift;
     }
 
     @Override
@@ -69,6 +97,28 @@ public class ShiftServiceImpl implements ShiftService {
         return new ShiftDto(shiftRepository.save(shift));
     }
 
+    // The shift is checked against the other shifts of the staff in the transaction of the update, a conflict throws
+    // ShiftConflictException
+    @Override
+    @Transactional
+    public Optional<ShiftDto> updateShift(Integer id, Staff staff, CreateShiftDto dto) {
+        Optional<Shift> found = shiftRepository.findById(id);
+        if (found.isEmpty()) return Optional.empty();
+
+        checkConflicts(List.of(dto), id);
+
+        Shift shift = found.get();
+        shift.setStartTime(dto.getStartTime());
+        shift.setEndTime(dto.getEndTime());
+        shift.setDate(dto.getDate());
+        shift.setRole(dto.getRole());
+        shift.setSalaryCoefficient(dto.getSalaryCoefficient());
+        shift.setPublished(dto.isPublished());
+        shift.setName(dto.getName());
+        shift.setStaff(staff);
+        return Optional.of(new ShiftDto(shiftRepository.save(shift)));
+    }
+
     @Override
     public void deleteShift(Integer id) {
         shiftRepository.deleteById(id);
@@ -78,4 +128,127 @@ public class ShiftServiceImpl implements ShiftService {
     public List<Shift> getAllShifts(LocalDate fromDate, LocalDate toDate) {
         return shiftRepository.findAllByDateBetween(fromDate, toDate);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ShiftConflict> getConflicts(List<CreateShiftDto> dtos) {
+        return findConflicts(dtos, null);
+    }
+
+    // The shift is checked against the other shifts of the staff, not its saved version
+    @Override
+    @Transactional(readOnly = true)
+    public List<ShiftConflict> getConflicts(int shiftId, CreateShiftDto dto) {
+        return findConflicts(List.of(dto), shiftId);
+    }
+
+    private void checkConflicts(List<CreateShiftDto> dtos, Integer updatedShiftId) {
+        List<ShiftConflict> conflicts = findConflicts(dtos, updatedShiftId);
+        if (!conflicts.isEmpty()) throw new ShiftConflictException(conflicts);
+    }
+
+    // Loads the saved shifts and the approved leaves of the staffs over the dates of the submitted shifts, one query
+    // each, then sweeps the timeline of each staff once. Every conflict of every submitted shift is returned.
+    private List<ShiftConflict> findConflicts(List<CreateShiftDto> dtos, Integer updatedShiftId) {
+        Map<Integer, List<TimeSlot>> timelines = new HashMap<>();
+        LocalDate from = null;
+        LocalDate to = null;
+        for (int i = 0; i < dtos.size(); i++) {
+            CreateShiftDto dto = dtos.get(i);
+            if (dto.getDate() == null || dto.getStartTime() == null || dto.getEndTime() == null) continue;
+
+            timelines.computeIfAbsent(dto.getStaffId(), staffId -> new ArrayList<>()).add(TimeSlot.submitted(i, dto));
+            if (from == null || dto.getDate().isBefore(from)) from = dto.getDate();
+            if (to == null || dto.getDate().isAfter(to)) to = dto.getDate();
+        }
+        if (timelines.isEmpty()) return List.of();
+
+        // A shift ending after midnight reaches into the next day
+        shiftRepository.findSlotsByStaffIdsAndDateBetween(timelines.keySet(), from.minusDays(1), to.plusDays(1)).stream()
+                .filter(shift -> updatedShiftId == null || shift.getShiftId() != updatedShiftId)
+                .forEach(shift -> timelines.get(shift.getStaffId()).add(TimeSlot.saved(shift)));
+        leaveRequestRepository.findSlotsByStaffIdsAndStatusAndDates(timelines.keySet(), LeaveStatus.APPROVED,
+                        from, to.plusDays(1))
+                .forEach(leave -> timelines.get(leave.getStaffId()).add(TimeSlot.leave(leave)));
+
+        List<ShiftConflict> conflicts = new ArrayList<>();
+        timelines.forEach((staffId, timeline) -> IntervalSweep.forEachOverlap(timeline, slot -> slot.start, slot -> slot.end,
+                (first, second) -> {
+                    if (first.index != null) conflicts.add(toConflict(staffId, first, second));
+                    if (second.index != null) conflicts.add(toConflict(staffId, second, first));
+                }));
+
+        conflicts.sort(Comparator.comparingInt(ShiftConflict::getIndex).thenComparing(ShiftConflict::getType));
+        return conflicts;
+    }
+
+    private static ShiftConflict toConflict(int staffId, TimeSlot shift, TimeSlot other) {
+        ShiftConflict conflict = new ShiftConflict();
+        conflict.setIndex(shift.index);
+        conflict.setStaffId(staffId);
+        conflict.setDate(shift.date);
+
+        if (other.leave != null) {
+            conflict.setType(ShiftConflictType.APPROVED_LEAVE);
+            conflict.setLeaveRequestId(other.leave.getLeaveRequestId());
+            conflict.setMessage("Staff " + staffId + " is on leave from " + other.leave.getStartDate() + " to "
+                    + other.leave.getEndDate());
+        } else if (other.index != null) {
+            conflict.setType(ShiftConflictType.OVERLAPPING_SHIFT);
+            conflict.setConflictingIndex(other.index);
+            conflict.setMessage("Overlaps shift " + other.index + " of the request, on " + other.date);
+        } else {
+            conflict.setType(ShiftConflictType.OVERLAPPING_SHIFT);
+            conflict.setConflictingShiftId(other.shiftId);
+            conflict.setMessage("Overlaps shift " + other.shiftId + " of staff " + staffId + ", on " + other.date);
+        }
+        return conflict;
+    }
+
+    // A submitted shift, a saved shift or a leave on the timeline of a staff, in seconds from the epoch
+    private static class TimeSlot {
+        private final Integer index;
+        private final Integer shiftId;
+        private final LeaveSlot leave;
+        private final LocalDate date;
+        private final long start;
+        private final long end;
+
+        private TimeSlot(Integer index, Integer shiftId, LeaveSlot leave, LocalDate date, long start, long end) {
+            this.index = index;
+            this.shiftId = shiftId;
+            this.leave = leave;
+            this.date = date;
+            this.start = start;
+            this.end = end;
+        }
+
+        private static TimeSlot submitted(int index, CreateShiftDto dto) {
+            return shift(index, null, dto.getDate(), dto.getStartTime(), dto.getEndTime());
+        }
+
+        private static TimeSlot saved(ShiftSlot shift) {
+            return shift(null, shift.getShiftId(), shift.getDate(), shift.getStartTime(), shift.getEndTime());
+        }
+
+        // An end time up to the start time is on the next day, a saved shift without times takes no time
+        private static TimeSlot shift(Integer index, Integer shiftId, LocalDate date, Time startTime, Time endTime) {
+            if (date == null || startTime == null || endTime == null) return new TimeSlot(index, shiftId, null, date, 0, 0);
+
+            long day = date.toEpochDay() * SECONDS_PER_DAY;
+            long start = day + startTime.toLocalTime().toSecondOfDay();
+            long end = day + endTime.toLocalTime().toSecondOfDay();
+            if (end <= start) end += SECONDS_PER_DAY;
+            return new TimeSlot(index, shiftId, null, date, start, end);
+        }
+
+        // The whole days of the leave
+        private static TimeSlot leave(LeaveSlot leave) {
+            if (leave.getStartDate() == null || leave.getEndDate() == null)
+                return new TimeSlot(null, null, leave, leave.getStartDate(), 0, 0);
+
+            return new TimeSlot(null, null, leave, leave.getStartDate(), leave.getStartDate().toEpochDay() * SECONDS_PER_DAY,
+                    (leave.getEndDate().toEpochDay() + 1) * SECONDS_PER_DAY);
+        }
+    }
 }
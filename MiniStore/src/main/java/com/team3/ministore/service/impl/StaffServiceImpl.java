@@ -1,13 +1,23 @@
 package com.team3.ministore.service.impl;
 
+import com.team3.ministore.cache.StaffAvailabilityIndex;
+import com.team3.ministore.cache.StaffPrincipalCache;
+import com.team3.ministore.common.utils.Availability;
+import com.team3.ministore.common.utils.CursorUtils;
+import com.team3.ministore.dto.AvailabilityWindow;
+import com.team3.ministore.dto.CursorPage;
+import com.team3.ministore.dto.LeaveSlot;
 import com.team3.ministore.dto.RegisterDto;
+import com.team3.ministore.dto.SalaryDto;
 import com.team3.ministore.dto.StaffDto;
 import com.team3.ministore.dto.StaffMetaInfo;
 import com.team3.ministore.dto.UpdateStaffDto;
 import com.team3.ministore.model.Staff;
+import com.team3.ministore.repository.LeaveRequestRepository;
 import com.team3.ministore.repository.StaffRepository;
 import com.team3.ministore.service.SalaryService;
 import com.team3.ministore.service.StaffService;
+import com.team3.ministore.utils.LeaveStatus;
 import com.team3.ministore.utils.Role;
 import com.team3.ministore.utils.StaffStatus;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,8 +27,12 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-import java.util.Optional;
+import java.sql.Time;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,6 +44,15 @@ public class StaffServiceImpl implements StaffService {
     @Autowired
     private SalaryService salaryService;
 
+    @Autowired
+    private StaffPrincipalCache staffPrincipalCache;
+
+    @Autowired
+    private StaffAvailabilityIndex staffAvailabilityIndex;
+
+    @Autowired
+    private LeaveRequestRepository leaveRequestRepository;
+
     public StaffServiceImpl(StaffRepository staffRepository, PasswordEncoder encoder) {
         this.staffRepository = staffRepository;
         this.encoder = encoder;
@@ -72,9 +95,12 @@ public class StaffServiceImpl implements StaffService {
     @Override
     public Optional<Staff> updateStaff(Integer id, UpdateStaffDto staff) {
         Optional<Staff> existingStaff = getStaffById(id);
+        if (existingStaff.isEmpty()) return Optional.empty();
 
-        return existingStaff.map(value -> saveStaff(
-                value,
+        // The username and the role may change, drop the cached principal once the staff is saved
+        String oldUsername = existingStaff.get().getUsername();
+        Staff updatedStaff = saveStaff(
+                existingStaff.get(),
                 staff.getStaffName(),
                 staff.getRole(),
                 staff.getUsername(),
@@ -84,26 +110,54 @@ public class StaffServiceImpl implements StaffService {
                 staff.getEmail(),
                 staff.getWorkDays(),
                 staff.getLeaveBalance()
-        ));
+        );
+        staffPrincipalCache.invalidate(oldUsername);
+
+        return Optional.of(updatedStaff);
     }
 
     @Override
     public void deleteStaff(Integer id) {
+        Optional<Staff> staff = staffRepository.findById(id);
         staffRepository.deleteById(id);
+        staff.ifPresent(value -> staffPrincipalCache.invalidate(value.getUsername()));
+        staffAvailabilityIndex.remove(id);
     }
 
     @Override
     public Page<StaffDto> getAllStaff(String search, int page, int pageSize) {
         Pageable pageable = PageRequest.of(page - 1, pageSize);
-        return staffRepository.findByStaffNameContainingIgnoreCaseOrderByStaffIdDesc(search, pageable)
-                .map(staff -> new StaffDto(staff, salaryService.getSalaryByStaffId(staff.getStaffId())));
+        Page<Staff> staffs = staffRepository.findByStaffNameContainingIgnoreCaseOrderByStaffIdDesc(search, pageable);
+        return staffs.map(toStaffDto(staffs.getContent()));
     }
 
     @Override
     public Page<StaffDto> getAllStaff(int page, int pageSize) {
         Pageable pageable = PageRequest.of(page - 1, pageSize);
-        return staffRepository.findAll(pageable)
-                .map(staff -> new StaffDto(staff, salaryService.getSalaryByStaffId(staff.getStaffId())));
+        Page<Staff> staffs = staffRepository.findAll(pageable);
+        return staffs.map(toStaffDto(staffs.getContent()));
+    }
+
+    @Override
+    public CursorPage<StaffDto> getAllStaff(Optional<String> search, String cursor, int pageSize, boolean withCount) throws IllegalArgumentException {
+        List<Staff> staffs = staffRepository.findAllByFilterAfter(search.orElse(null), CursorUtils.decodeId(cursor), PageRequest.of(0, pageSize + 1));
+
+        Long total = null;
+        if (withCount) {
+            total = search.map(s -> staffRepository.findByStaffNameContainingIgnoreCaseOrderByStaffIdDesc(s, PageRequest.of(0, 1)))
+                    .orElseGet(() -> staffRepository.findAll(PageRequest.of(0, 1))).getTotalElements();
+        }
+
+        return CursorPage.of(staffs, pageSize, staff -> CursorUtils.encode(staff.getStaffId()), total)
+                .map(toStaffDto(staffs));
+    }
+
+    // Loads the salaries of the whole page with one query instead of one per staff
+    private Function<Staff, StaffDto> toStaffDto(List<Staff> staffs) {
+        Map<Integer, SalaryDto> salaries = salaryService.getSalariesByStaffIds(
+                staffs.stream().map(Staff::getStaffId).collect(Collectors.toList()));
+
+        return staff -> new StaffDto(staff, salaries.get(staff.getStaffId()));
     }
 
     @Override
@@ -131,10 +185,75 @@ public class StaffServiceImpl implements StaffService {
         staff.setPhoneNumber(phoneNumber == null ? "" : phoneNumber);
         staff.setStatus(status == null ? StaffStatus.ACTIVE : status);
         staff.setImage(image == null ? "" : image);
-        staff.setWorkDays(workDays == null ? "" : workDays);
+        // The hours follow the work days when they change, otherwise they are kept as set through the availability
+        String newWorkDays = workDays == null ? "" : workDays;
+        if (staff.getAvailability() == null || !newWorkDays.equals(staff.getWorkDays()))
+            staff.setAvailability(Availability.parse(newWorkDays));
+        staff.setWorkDays(newWorkDays);
         staff.setLeaveBalance(leaveBalance == null ? 0 : leaveBalance);
 
-        return staffRepository.save(staff);
+        Staff savedStaff = staffRepository.save(staff);
+        staffAvailabilityIndex.put(savedStaff);
+        return savedStaff;
+    }
+
+    @Override
+    public Optional<List<AvailabilityWindow>> getAvailability(Integer id) {
+        return getStaffById(id).map(staff -> windows(StaffAvailabilityIndex.availability(staff)));
+    }
+
+    @Override
+    public Optional<List<AvailabilityWindow>> updateAvailability(Integer id, List<AvailabilityWindow> windows) {
+        Optional<Staff> staff = getStaffById(id);
+        if (staff.isEmpty()) return Optional.empty();
+
+        byte[] availability = new byte[Availability.BYTES];
+        for (AvailabilityWindow window : windows) {
+            Availability.add(availability, window.getDay(), window.getStartTime().toLocalTime(), window.getEndTime().toLocalTime());
+        }
+        staff.get().setAvailability(availability);
+
+        Staff savedStaff = staffRepository.save(staff.get());
+        staffAvailabilityIndex.put(savedStaff);
+        return Optional.of(windows(availability));
+    }
+
+    @Override
+    public List<StaffMetaInfo> getAvailableStaffs(Role role, LocalDate date, LocalTime startTime, LocalTime endTime) {
+        List<Integer> staffIds = staffAvailabilityIndex.getAvailableStaffIds(role, Availability.slots(date, startTime, endTime));
+        if (staffIds.isEmpty()) return List.of();
+
+        // A shift ending after midnight needs the next day free of leave as well
+        LocalDate endDate = endTime.isAfter(startTime) ? date : date.plusDays(1);
+        Set<Integer> onLeave = leaveRequestRepository
+                .findSlotsByStaffIdsAndStatusAndDates(staffIds, LeaveStatus.APPROVED, date, endDate).stream()
+                .map(LeaveSlot::getStaffId).collect(Collectors.toSet());
+        staffIds.removeAll(onLeave);
+        if (staffIds.isEmpty()) return List.of();
+
+        return staffRepository.findAllById(staffIds).stream()
+                .sorted(Comparator.comparingInt(Staff::getStaffId))
+                .map(StaffMetaInfo::new).collect(Collectors.toList());
+    }
+
+    // The hours of each day as the fewest windows, a window running until midnight ends at 00:00
+    private static List<AvailabilityWindow> windows(byte[] availability) {
+        List<AvailabilityWindow> windows = new ArrayList<>();
+        for (DayOfWeek day : DayOfWeek.values()) {
+            int hour = 0;
+            while (hour < Availability.HOURS_PER_DAY) {
+                if (!Availability.contains(availability, Availability.slot(day, hour))) {
+                    hour++;
+                    continue;
+                }
+
+                int start = hour;
+                while (hour < Availability.HOURS_PER_DAY && Availability.contains(availability, Availability.slot(day, hour))) hour++;
+                windows.add(new AvailabilityWindow(day, Time.valueOf(LocalTime.of(start, 0)),
+                        Time.valueOf(LocalTime.of(hour % Availability.HOURS_PER_DAY, 0))));
+            }
+        }
+        return windows;
     }
 
 }
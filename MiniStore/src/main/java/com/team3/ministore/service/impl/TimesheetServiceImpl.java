@@ -1,27 +1,32 @@
 package com.team3.ministore.service.impl;
 
+import com.team3.ministore.common.utils.CursorUtils;
+import com.team3.ministore.common.utils.DateRangeIndex;
 import com.team3.ministore.dto.*;
-import com.team3.ministore.model.Salary;
-import com.team3.ministore.model.Shift;
-import com.team3.ministore.model.Staff;
-import com.team3.ministore.model.Timesheet;
+import com.team3.ministore.model.*;
+import com.team3.ministore.repository.LeaveRequestRepository;
 import com.team3.ministore.repository.SalaryRepository;
+import com.team3.ministore.repository.ShiftCoverRequestRepository;
+import com.team3.ministore.repository.ShiftRepository;
 import com.team3.ministore.repository.TimesheetRepository;
 import com.team3.ministore.service.*;
 import com.team3.ministore.utils.LeaveStatus;
 import com.team3.ministore.utils.ShiftCoverStatus;
 import com.team3.ministore.utils.TimesheetStatus;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.sql.Time;
 import java.time.LocalDate;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class TimesheetServiceImpl implements TimesheetService {
@@ -32,54 +37,68 @@ public class TimesheetServiceImpl implements TimesheetService {
     @Autowired
     private SalaryRepository salaryRepository;
 
-    @Autowired
-    private LeaveRequestService leaveRequestService;
-
     @Autowired
     private StaffService staffService;
 
     @Autowired
-    private ShiftService shiftService;
+    private ShiftRepository shiftRepository;
 
     @Autowired
-    private SalaryService salaryService;
+    private LeaveRequestRepository leaveRequestRepository;
 
     @Autowired
-    private ShiftCoverRequestService shiftCoverRequestService;
+    private ShiftCoverRequestRepository shiftCoverRequestRepository;
 
     @Override
     public Page<TimesheetDto> getAllTimeSheets(int page, int pageSize, LocalDate fromDate, LocalDate toDate) {
         Pageable pageable = PageRequest.of(page - 1, pageSize);
-        return timesheetRepository.findAllByShift_DateBetween(fromDate, toDate, pageable).map(t -> {
-                    // Get the salary and leave requests of the staff
-                    List<LeaveRequestDto> leaveRequestDtos = leaveRequestService
-                            .getLeaveRequestsByStaffIdAndDates(t.getStaff().getStaffId(), fromDate, toDate)
-                            .stream().filter(leaveRequestDto -> leaveRequestDto.getStatus().equals(LeaveStatus.APPROVED))
-                            .collect(Collectors.toList());
-
-                    // Set the salary and leave requests to the staff
-                    TimesheetDto dto = new TimesheetDto(t, true, true, true);
-                    dto.getStaff().setLeaveRequests(leaveRequestDtos);
-                    return dto;
-                });
+        Page<Timesheet> timesheets = timesheetRepository.findAllByShift_DateBetween(fromDate, toDate, pageable);
+        return timesheets.map(toTimesheetDto(timesheets.getContent(), fromDate, toDate));
     }
 
     @Override
     public Page<TimesheetDto> getAllTimeSheets(String search, int page, int pageSize, LocalDate fromDate, LocalDate toDate) {
         Pageable pageable = PageRequest.of(page - 1, pageSize);
 
-        return timesheetRepository.findByStaff_StaffNameContainingIgnoreCaseAndShift_DateBetweenOrderByTimesheetIdDesc(search, fromDate, toDate, pageable)
-                .map(t -> {
-                    List<LeaveRequestDto> leaveRequestDtos = leaveRequestService
-                            .getLeaveRequestsByStaffIdAndDates(t.getStaff().getStaffId(), fromDate, toDate)
-                            .stream().filter(leaveRequestDto -> leaveRequestDto.getStatus().equals(LeaveStatus.APPROVED))
-                            .collect(Collectors.toList());
-
-                    // Set the salary and leave requests to the staff
-                    TimesheetDto dto = new TimesheetDto(t, true, true, true);
-                    dto.getStaff().setLeaveRequests(leaveRequestDtos);
-                    return dto;
-                });
+        Page<Timesheet> timesheets = timesheetRepository
+                .findByStaff_StaffNameContainingIgnoreCaseAndShift_DateBetweenOrderByTimesheetIdDesc(search, fromDate, toDate, pageable);
+        return timesheets.map(toTimesheetDto(timesheets.getContent(), fromDate, toDate));
+    }
+
+    @Override
+    public CursorPage<TimesheetDto> getAllTimeSheets(Optional<String> search, String cursor, int pageSize,
+                                                     LocalDate fromDate, LocalDate toDate, boolean withCount) throws IllegalArgumentException {
+        List<Timesheet> timesheets = timesheetRepository.findAllByFilterAfter(search.orElse(null), fromDate, toDate,
+                CursorUtils.decodeId(cursor), PageRequest.of(0, pageSize + 1));
+
+        Long total = null;
+        if (withCount) {
+            // Straight from the repository, the count needs no DTO
+            total = search.map(s -> timesheetRepository
+                            .findByStaff_StaffNameContainingIgnoreCaseAndShift_DateBetweenOrderByTimesheetIdDesc(s, fromDate, toDate, PageRequest.of(0, 1)))
+                    .orElseGet(() -> timesheetRepository.findAllByShift_DateBetween(fromDate, toDate, PageRequest.of(0, 1)))
+                    .getTotalElements();
+        }
+
+        return CursorPage.of(timesheets, pageSize, t -> CursorUtils.encode(t.getTimesheetId()), total)
+                .map(toTimesheetDto(timesheets, fromDate, toDate));
+    }
+
+    // The shift, staff and salary come with the timesheets (Timesheet.details entity graph),
+    // the approved leave requests of the page are loaded with one query
+    private Function<Timesheet, TimesheetDto> toTimesheetDto(List<Timesheet> timesheets, LocalDate fromDate, LocalDate toDate) {
+        Set<Integer> staffIds = timesheets.stream().map(t -> t.getStaff().getStaffId()).collect(Collectors.toSet());
+        Map<Integer, List<LeaveRequestDto>> leaveRequests = staffIds.isEmpty() ? Map.of() : leaveRequestRepository
+                .findLeaveRequestsByStaffIdsAndStatusAndDates(staffIds, LeaveStatus.APPROVED, fromDate, toDate).stream()
+                .map(leaveRequest -> new LeaveRequestDto(leaveRequest, false))
+                .collect(Collectors.groupingBy(LeaveRequestDto::getStaffId));
+
+        return t -> {
+            // Set the salary and leave requests to the staff
+            TimesheetDto dto = new TimesheetDto(t, true, true, true);
+            dto.getStaff().setLeaveRequests(new ArrayList<>(leaveRequests.getOrDefault(t.getStaff().getStaffId(), List.of())));
+            return dto;
+        };
     }
 
     @Override
@@ -129,6 +148,8 @@ public class TimesheetServiceImpl implements TimesheetService {
     }
 
     @Override
+    @Timed(value = "ministore.payroll", extraTags = {"search", "true"}, histogram = true)
+    @Transactional(readOnly = true)
     public List<StaffDto> getPayroll(String search, LocalDate fromDate, LocalDate toDate) {
         List<Staff> staffs = staffService.getAllStaffs(search);
 
@@ -138,6 +159,8 @@ public class TimesheetServiceImpl implements TimesheetService {
 
 
     @Override
+    @Timed(value = "ministore.payroll", extraTags = {"search", "false"}, histogram = true)
+    @Transactional(readOnly = true)
     public List<StaffDto> getPayroll(LocalDate fromDate, LocalDate toDate) {
         List<Staff> staffs = staffService.getAllStaffs();
 
@@ -160,37 +183,44 @@ public class TimesheetServiceImpl implements TimesheetService {
     }
 
     private List<StaffDto> getStaffDtos(LocalDate fromDate, LocalDate toDate, List<Staff> staffs) {
+        // Load the approved leave requests, the shifts and the approved cover requests of the period at once
+        Map<Integer, List<LeaveRequestDto>> leaveRequests = leaveRequestRepository
+                .findLeaveRequestsByStatusAndDates(LeaveStatus.APPROVED, fromDate, toDate).stream()
+                .map(leaveRequest -> new LeaveRequestDto(leaveRequest, false))
+                .collect(Collectors.groupingBy(LeaveRequestDto::getStaffId));
+
+        List<Shift> allShifts = shiftRepository.findAllWithDetailsByDateBetween(fromDate, toDate);
+        Map<Integer, List<Shift>> shifts = allShifts.stream()
+                .collect(Collectors.groupingBy(shift -> shift.getStaff().getStaffId()));
+
+        List<ShiftCoverRequest> allShiftCovers = shiftCoverRequestRepository
+                .findAllWithDetailsByStatusAndShiftDates(ShiftCoverStatus.APPROVED, fromDate, toDate);
+        Map<Integer, List<ShiftCoverRequest>> shiftCovers = allShiftCovers.stream()
+                .collect(Collectors.groupingBy(shiftCover -> shiftCover.getStaff().getStaffId()));
+
+        // The salaries of the timesheets are fetched together with the shifts
+        Map<Integer, SalaryDto> salaries = new HashMap<>();
+        Stream.concat(allShifts.stream(), allShiftCovers.stream().map(ShiftCoverRequest::getShift))
+                .map(Shift::getTimesheet)
+                .filter(timesheet -> timesheet != null && timesheet.getSalary() != null)
+                .forEach(timesheet -> salaries.putIfAbsent(timesheet.getSalary().getSalaryId(), new SalaryDto(timesheet.getSalary())));
+
+        // Everything is in memory now, so the staffs can be processed in parallel without touching the database
         return staffs.parallelStream().map(staff -> {
             // Get leave requests of the staff
-            List<LeaveRequestDto> leaveRequestDtos = leaveRequestService
-                    .getLeaveRequestsByStaffIdAndDates(staff.getStaffId(), fromDate, toDate)
-                    .stream().filter(leaveRequestDto -> leaveRequestDto.getStatus().equals(LeaveStatus.APPROVED))
-                    .collect(Collectors.toList());
-            // Get the shifts of the staff
-            List<Shift> shifts = shiftService.getAllShiftsByStaffId(staff.getStaffId(), fromDate, toDate);
+            List<LeaveRequestDto> leaveRequestDtos = leaveRequests.getOrDefault(staff.getStaffId(), new ArrayList<>());
+            DateRangeIndex leaveDays = DateRangeIndex.of(leaveRequestDtos, LeaveRequestDto::getStartDate, LeaveRequestDto::getEndDate);
             // Convert shifts to shiftDtos
-            List<ShiftDto> shiftDtos = shifts.stream()
+            List<ShiftDto> shiftDtos = shifts.getOrDefault(staff.getStaffId(), List.of()).stream()
                     // Filter out the shifts which are covered by other staffs
                     .filter(s -> s.getShiftCoverRequest() == null || s.getShiftCoverRequest().getStatus() != ShiftCoverStatus.APPROVED)
                     // Filter out the shifts that are in the leave requests
-                    .filter(shift -> {
-                        for (LeaveRequestDto leaveRequestDto : leaveRequestDtos) {
-                            if (leaveRequestDto.getStartDate().isEqual(shift.getDate())
-                                    || leaveRequestDto.getEndDate().isEqual(shift.getDate())
-                                    || (leaveRequestDto.getStartDate().isBefore(shift.getDate()) && leaveRequestDto.getEndDate().isAfter(shift.getDate())))
-                                return false;
-                        }
-                        return true;
-                    })
+                    .filter(shift -> !leaveDays.contains(shift.getDate()))
                     .map(ShiftDto::new).collect(Collectors.toList());
 
-            // Get the shifts of others which are covered by the staff
-            List<ShiftCoverDto> shiftCoverDtos = shiftCoverRequestService
-                    .getShiftCoverRequestsByStaffIdAndDates(staff.getStaffId(), fromDate, toDate)
-                    .stream().filter(s -> s.getStatus() == ShiftCoverStatus.APPROVED).collect(Collectors.toList());
-
-            // Add the shifts which are covered by the staff to the shiftDtos
-            shiftCoverDtos.stream().map(ShiftCoverDto::getShift)
+            // Add the shifts of others which are covered by the staff to the shiftDtos
+            shiftCovers.getOrDefault(staff.getStaffId(), List.of()).stream()
+                    .map(shiftCover -> new ShiftDto(shiftCover.getShift(), true, false))
                     .forEach(shift -> {
                         if (shiftDtos.stream().noneMatch(shift1 -> shift1.getShiftId() == shift.getShiftId()))
                             shiftDtos.add(shift);
@@ -199,12 +229,12 @@ public class TimesheetServiceImpl implements TimesheetService {
             // Filter the shifts which are not published
             List<ShiftDto> lShifts = shiftDtos.stream()
                     .filter(ShiftDto::getPublished)
-                    // Get salary for each timesheet
-                    .peek(shiftDto ->{
+                    // Set salary for each timesheet
+                    .peek(shiftDto -> {
                         if (shiftDto.getTimesheet() == null) return;
-                        Optional<Salary> salary = salaryService.getSalaryById(shiftDto.getTimesheet().getSalaryId());
-                        if (salary.isEmpty()) return;
-                        shiftDto.getTimesheet().setSalary(new SalaryDto(salary.get()));
+                        SalaryDto salary = salaries.get(shiftDto.getTimesheet().getSalaryId());
+                        if (salary == null) return;
+                        shiftDto.getTimesheet().setSalary(salary);
                     })
                     .collect(Collectors.toList());
 
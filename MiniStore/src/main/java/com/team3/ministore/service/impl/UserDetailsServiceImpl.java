@@ -28,7 +28,7 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         String roleName = staff.get().getRole().name();
         authorities.add(new SimpleGrantedAuthority(roleName));
 
-        return new StaffDetails(username, staff.get().getPassword(), authorities);
+        return new StaffDetails(staff.get(), authorities);
     }
 
 }
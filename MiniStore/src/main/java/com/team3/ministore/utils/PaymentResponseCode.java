@@ -0,0 +1,31 @@
+package com.team3.ministore.utils;
+
+// Answers to a VNPay payment notification, VNPay stops notifying once it gets CONFIRMED or ALREADY_CONFIRMED
+public enum PaymentResponseCode {
+    CONFIRMED("00", "Confirm Success"),
+    ORDER_NOT_FOUND("01", "Order not Found"),
+    ALREADY_CONFIRMED("02", "Order already confirmed"),
+    INVALID_AMOUNT("04", "Invalid Amount"),
+    INVALID_CHECKSUM("97", "Invalid Checksum"),
+    UNKNOWN_ERROR("99", "Unknow error");
+
+    private final String code;
+    private final String message;
+
+    PaymentResponseCode(String code, String message) {
+        this.code = code;
+        this.message = message;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public boolean isAcknowledged() {
+        return this == CONFIRMED || this == ALREADY_CONFIRMED;
+    }
+}
@@ -0,0 +1,6 @@
+package com.team3.ministore.utils;
+
+public enum ShiftConflictType {
+    OVERLAPPING_SHIFT,
+    APPROVED_LEAVE
+}
@@ -0,0 +1,44 @@
+package com.team3.ministore;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.ClassUtils;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+
+// The streaming queries ask for the MySQL fetch size Integer.MIN_VALUE, which H2 rejects, so negative fetch sizes
+// are turned into the driver default. Same as BenchmarkContext for the benchmarks.
+@Configuration
+public class H2FetchSizeConfig {
+
+    @Bean
+    public static BeanPostProcessor fetchSizeAdapter() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource ? wrap(bean) : bean;
+            }
+        };
+    }
+
+    // Connections of the data source, statements of the connections
+    private static Object wrap(Object target) {
+        return Proxy.newProxyInstance(target.getClass().getClassLoader(), ClassUtils.getAllInterfaces(target),
+                (proxy, method, args) -> {
+                    if (target instanceof Statement && method.getName().equals("setFetchSize") && (Integer) args[0] < 0)
+                        args[0] = 0;
+
+                    try {
+                        Object result = method.invoke(target, args);
+                        return result instanceof Connection || result instanceof Statement ? wrap(result) : result;
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
@@ -0,0 +1,109 @@
+package com.team3.ministore.cache;
+
+import com.team3.ministore.dto.ProductBarcode;
+import com.team3.ministore.dto.ProductDto;
+import com.team3.ministore.model.Product;
+import com.team3.ministore.repository.CategoryRepository;
+import com.team3.ministore.repository.ProductRepository;
+import com.team3.ministore.service.impl.ProductServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+
+// The products a scan finds, when barcodes saved before the unique key are shared and when a save is rolled back
+class ProductBarcodeIndexTest {
+
+    private final ProductBarcodeIndex index = new ProductBarcodeIndex();
+
+    private final ProductRepository productRepository = Mockito.mock(ProductRepository.class);
+
+    ProductBarcodeIndexTest() {
+        ReflectionTestUtils.setField(index, "productRepository", productRepository);
+    }
+
+    @Test
+    void sharedLegacyBarcodeKeepsEveryProduct() {
+        Mockito.when(productRepository.streamAllBarcodes()).thenReturn(Stream.of(
+                barcode(3, "8930000000001", "Green tea"),
+                barcode(5, "8930000000001", "Black tea"),
+                barcode(8, "8930000000002", "Coffee")));
+        index.rebuild();
+
+        // The lowest id answers, like findFirstByBarCode
+        assertThat(index.getProductId("8930000000001")).contains(3);
+
+        // Updating the other product of the barcode keeps both
+        index.put(product(5, "8930000000001", "Black tea 100g"));
+        assertThat(index.getProductId("8930000000001")).contains(3);
+
+        // The next one takes over when the first moves to another barcode, then when it is deleted
+        index.put(product(3, "8930000000003", "Green tea"));
+        assertThat(index.getProduct("8930000000001")).map(ProductBarcode::getName).contains("Black tea 100g");
+        assertThat(index.getProductId("8930000000003")).contains(3);
+
+        index.remove(5);
+        assertThat(index.getProductId("8930000000001")).isEmpty();
+        assertThat(index.getProductId("8930000000002")).contains(8);
+        assertThat(index.getStats().getSize()).isEqualTo(2);
+    }
+
+    // A save rejected by the database, e.g. by ux_products_barcode, never reaches the index
+    @Test
+    void rolledBackSaveLeavesTheIndexUnchanged() {
+        index.put(product(3, "8930000000001", "Green tea"));
+        ProductServiceImpl productService = productService();
+        Mockito.when(productRepository.findById(3)).thenReturn(Optional.of(product(3, "8930000000001", "Green tea")));
+        Mockito.when(productRepository.save(any())).thenThrow(new DataIntegrityViolationException("ux_products_barcode"));
+
+        assertThatThrownBy(() -> productService.updateProduct(3, dto("8930000000002", "Matcha")))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        assertThatThrownBy(() -> productService.createProduct(dto("8930000000004", "Oolong")))
+                .isInstanceOf(DataIntegrityViolationException.class);
+
+        assertThat(index.getProduct("8930000000001")).map(ProductBarcode::getName).contains("Green tea");
+        assertThat(index.getProductId("8930000000002")).isEmpty();
+        assertThat(index.getProductId("8930000000004")).isEmpty();
+        assertThat(index.getStats().getSize()).isEqualTo(1);
+    }
+
+    private ProductServiceImpl productService() {
+        ProductServiceImpl productService = new ProductServiceImpl();
+        ReflectionTestUtils.setField(productService, "productRepository", productRepository);
+        ReflectionTestUtils.setField(productService, "categoryRepository", Mockito.mock(CategoryRepository.class));
+        ReflectionTestUtils.setField(productService, "barcodeIndex", index);
+        ReflectionTestUtils.setField(productService, "searchIndex", Mockito.mock(ProductSearchIndex.class));
+        ReflectionTestUtils.setField(productService, "referenceDataCache", Mockito.mock(ReferenceDataCache.class));
+        return productService;
+    }
+
+    private static ProductBarcode barcode(int id, String barcode, String name) {
+        return new ProductBarcode(id, barcode, name, null, 10000f, 10, null);
+    }
+
+    private static Product product(int id, String barcode, String name) {
+        Product product = new Product();
+        product.setProductId(id);
+        product.setBarCode(barcode);
+        product.setName(name);
+        product.setPrice(10000f);
+        product.setInventory(10);
+        return product;
+    }
+
+    private static ProductDto dto(String barcode, String name) {
+        ProductDto dto = new ProductDto();
+        dto.setBarCode(barcode);
+        dto.setName(name);
+        dto.setPrice(10000f);
+        dto.setInventory(10);
+        return dto;
+    }
+}
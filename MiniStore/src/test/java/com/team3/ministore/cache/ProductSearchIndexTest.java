@@ -0,0 +1,147 @@
+package com.team3.ministore.cache;
+
+import com.team3.ministore.dto.ProductSearchDocument;
+import com.team3.ministore.model.Category;
+import com.team3.ministore.model.Product;
+import com.team3.ministore.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The products the in-memory index finds for a search, and in which order
+class ProductSearchIndexTest {
+
+    private final ProductSearchIndex index = new ProductSearchIndex();
+
+    private final ProductRepository productRepository = Mockito.mock(ProductRepository.class);
+
+    ProductSearchIndexTest() throws IOException {
+        ReflectionTestUtils.setField(index, "productRepository", productRepository);
+        index.open();
+    }
+
+    @AfterEach
+    void close() throws IOException {
+        index.close();
+    }
+
+    @Test
+    void wordsMatchByPrefix() {
+        index.put(product(1, "8934563138165", "Coffee beans", "Arabica", "Drinks"));
+        index.put(product(2, "8934563138172", "Green tea", "Loose leaves", "Drinks"));
+
+        assertThat(search("cof")).containsExactly(1);
+        assertThat(search("COFFEE BE")).containsExactly(1);
+        // Every word of the search has to match
+        assertThat(search("coffee tea")).isEmpty();
+    }
+
+    @Test
+    void accentsAreFolded() {
+        index.put(product(1, null, "Sữa tươi", "Không đường", "Đồ uống"));
+        index.put(product(2, null, "Sua chua", null, null));
+
+        assertThat(search("sua")).containsExactlyInAnyOrder(1, 2);
+        assertThat(search("sữa tuoi")).containsExactly(1);
+        assertThat(search("khong duong")).containsExactly(1);
+        assertThat(search("do uong")).containsExactly(1);
+    }
+
+    @Test
+    void wordsMatchWithATypo() {
+        index.put(product(1, null, "Coffee beans", null, null));
+        index.put(product(2, null, "Chocolate biscuits", null, null));
+        index.put(product(3, null, "Tea", null, null));
+
+        assertThat(search("cofee")).containsExactly(1);
+        assertThat(search("biscuts")).containsExactly(2);
+        // Two typos in a word of 8 letters or more, none in a word under 4 letters
+        assertThat(search("chocolatte biscuts")).containsExactly(2);
+        assertThat(search("choclatte")).containsExactly(2);
+        assertThat(search("tee")).isEmpty();
+    }
+
+    @Test
+    void barcodesMatchByPrefix() {
+        index.put(product(1, "8934563138165", "Coffee beans", null, null));
+        index.put(product(2, "8931234567890", "Green tea", null, null));
+
+        assertThat(search("893456")).containsExactly(1);
+        assertThat(search("893")).containsExactly(1, 2);
+        assertThat(search("8934563138165")).containsExactly(1);
+        assertThat(search("34563")).isEmpty();
+    }
+
+    // The same word in the name first, then a longer word starting with it, then the category and the description.
+    // Products scoring the same come in id order.
+    @Test
+    void bestMatchesFirstThenById() {
+        index.put(product(6, null, "Yogurt", "Made with milk", null));
+        index.put(product(5, null, "Yogurt", null, "Milk"));
+        index.put(product(4, null, "Milkshake", null, null));
+        index.put(product(3, null, "Milk", null, null));
+        index.put(product(1, null, "Milk", null, null));
+        index.put(product(2, null, "Bread", null, null));
+
+        assertThat(search("milk")).containsExactly(1, 3, 4, 5, 6);
+
+        Page<Integer> page = index.search("milk", PageRequest.of(1, 2));
+        assertThat(page.getContent()).containsExactly(4, 5);
+        assertThat(page.getTotalElements()).isEqualTo(5);
+    }
+
+    @Test
+    void productsAreUpdatedAndRemoved() {
+        index.put(product(1, null, "Coffee beans", null, null));
+        index.put(product(1, null, "Coffee powder", null, null));
+
+        assertThat(search("beans")).isEmpty();
+        assertThat(search("powder")).containsExactly(1);
+
+        index.remove(1);
+        assertThat(search("coffee")).isEmpty();
+    }
+
+    // The products of a renamed category are found by the new name only
+    @Test
+    void putCategoryReindexesItsProducts() {
+        index.put(product(1, null, "Coffee beans", null, "Drinks"));
+        index.put(product(2, null, "Green tea", null, "Drinks"));
+        index.put(product(3, null, "Bread", null, "Bakery"));
+        Mockito.when(productRepository.findSearchDocumentsByCategoryId(7)).thenReturn(List.of(
+                new ProductSearchDocument(1, null, "Coffee beans", null, "Beverages"),
+                new ProductSearchDocument(2, null, "Green tea", null, "Beverages")));
+
+        index.putCategory(7);
+
+        assertThat(search("drinks")).isEmpty();
+        assertThat(search("beverages")).containsExactly(1, 2);
+        assertThat(search("bread")).containsExactly(3);
+    }
+
+    private List<Integer> search(String search) {
+        return index.search(search, PageRequest.of(0, 20)).getContent();
+    }
+
+    private static Product product(int id, String barCode, String name, String description, String categoryName) {
+        Product product = new Product();
+        product.setProductId(id);
+        product.setBarCode(barCode);
+        product.setName(name);
+        product.setDescription(description);
+        if (categoryName != null) {
+            Category category = new Category();
+            category.setName(categoryName);
+            product.setCategory(category);
+        }
+        return product;
+    }
+}
@@ -0,0 +1,107 @@
+package com.team3.ministore.cache;
+
+import com.team3.ministore.common.utils.Availability;
+import com.team3.ministore.model.Staff;
+import com.team3.ministore.utils.Role;
+import com.team3.ministore.utils.StaffStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The staffs the index finds against checking the availability of every staff, with more staffs of a role than the
+// 64 bits of a word
+class StaffAvailabilityIndexTest {
+
+    private static final Role[] ROLES = {Role.ADMIN, Role.MANAGER, Role.CASHIER, Role.GUARD};
+    private static final LocalDate MONDAY = LocalDate.of(2024, 6, 3);
+
+    private final StaffAvailabilityIndex index = new StaffAvailabilityIndex();
+
+    private final Map<Integer, Staff> staffs = new HashMap<>();
+
+    StaffAvailabilityIndexTest() {
+        Random random = new Random(42);
+        for (int id = 1; id <= 300; id++) {
+            // Most of them cashiers, so that their role takes several words
+            Staff staff = staff(id, random.nextInt(3) == 0 ? ROLES[random.nextInt(ROLES.length)] : Role.CASHIER,
+                    new byte[Availability.BYTES]);
+            for (DayOfWeek day : DayOfWeek.values()) {
+                int start = random.nextInt(16);
+                Availability.add(staff.getAvailability(), day, LocalTime.of(start, 0), LocalTime.of(start + 4 + random.nextInt(5), 0));
+            }
+            staffs.put(id, staff);
+            index.put(staff);
+        }
+    }
+
+    @Test
+    void findsTheStaffsAvailableForTheWholeShift() {
+        int found = 0;
+        for (Role role : Role.values()) {
+            for (int day = 0; day < 7; day++) {
+                for (int start = 0; start < 24; start += 3) {
+                    int[] slots = Availability.slots(MONDAY.plusDays(day), LocalTime.of(start, 0), LocalTime.of((start + 5) % 24, 30));
+                    assertThat(index.getAvailableStaffIds(role, slots)).as("%s on day %d at %d", role, day, start)
+                            .containsExactlyInAnyOrderElementsOf(expected(role, slots));
+                    found += expected(role, slots).size();
+                }
+            }
+        }
+        assertThat(found).isGreaterThan(1000);
+    }
+
+    @Test
+    void allRolesLeavesTheAdminsOut() {
+        int[] slots = Availability.slots(MONDAY, LocalTime.of(10, 0), LocalTime.of(11, 0));
+        List<Integer> staffIds = index.getAvailableStaffIds(Role.ALL_ROLES, slots);
+
+        assertThat(staffIds).isNotEmpty().allSatisfy(id -> assertThat(staffs.get(id).getRole()).isNotEqualTo(Role.ADMIN));
+        assertThat(staffs.values()).anySatisfy(staff -> {
+            assertThat(staff.getRole()).isEqualTo(Role.ADMIN);
+            assertThat(Availability.containsAll(staff.getAvailability(), slots)).isTrue();
+        });
+    }
+
+    @Test
+    void followsTheChangesOfTheStaffs() {
+        int[] slots = Availability.slots(MONDAY, LocalTime.of(10, 0), LocalTime.of(11, 0));
+        Staff first = staff(1001, Role.GUARD, Availability.ofWorkDays(1));
+        Staff last = staff(1002, Role.GUARD, Availability.ofWorkDays(1));
+        index.put(first);
+        index.put(last);
+        assertThat(index.getAvailableStaffIds(Role.GUARD, slots)).contains(1001, 1002);
+
+        first.setStatus(StaffStatus.DISABLED);
+        index.put(first);
+        index.remove(1002);
+        assertThat(index.getAvailableStaffIds(Role.GUARD, slots)).doesNotContain(1001, 1002)
+                .containsExactlyInAnyOrderElementsOf(expected(Role.GUARD, slots));
+    }
+
+    private List<Integer> expected(Role role, int[] slots) {
+        List<Integer> staffIds = new ArrayList<>();
+        staffs.forEach((id, staff) -> {
+            boolean roleMatches = role == Role.ALL_ROLES ? staff.getRole() != Role.ADMIN : staff.getRole() == role;
+            if (roleMatches && Availability.containsAll(staff.getAvailability(), slots)) staffIds.add(id);
+        });
+        return staffIds;
+    }
+
+    private static Staff staff(int id, Role role, byte[] availability) {
+        Staff staff = new Staff();
+        staff.setStaffId(id);
+        staff.setRole(role);
+        staff.setStatus(StaffStatus.ACTIVE);
+        staff.setAvailability(availability);
+        return staff;
+    }
+}
@@ -0,0 +1,60 @@
+package com.team3.ministore.cache;
+
+import com.team3.ministore.dto.StaffDetails;
+import com.team3.ministore.model.Staff;
+import com.team3.ministore.utils.Role;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The staff is loaded on a miss only, and a load overtaken by an invalidation is not cached
+class StaffPrincipalCacheTest {
+
+    private final StaffPrincipalCache cache = new StaffPrincipalCache();
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private Runnable duringLoad = () -> {
+    };
+
+    StaffPrincipalCacheTest() {
+        ReflectionTestUtils.setField(cache, "userDetailsService", (UserDetailsService) username -> {
+            duringLoad.run();
+            Staff staff = new Staff();
+            staff.setStaffId(loads.incrementAndGet());
+            staff.setUsername(username);
+            staff.setPassword("");
+            staff.setRole(Role.CASHIER);
+            return new StaffDetails(staff, List.of(new SimpleGrantedAuthority(Role.CASHIER.name())));
+        });
+    }
+
+    @Test
+    void loadsOnMissOnly() {
+        assertThat(cache.getPrincipal("staff1").getStaffId()).isEqualTo(1);
+        assertThat(cache.getPrincipal("staff1").getStaffId()).isEqualTo(1);
+        assertThat(loads).hasValue(1);
+
+        cache.invalidate("staff1");
+        assertThat(cache.getPrincipal("staff1").getStaffId()).isEqualTo(2);
+    }
+
+    @Test
+    void loadOvertakenByInvalidationIsNotCached() {
+        // The staff is updated while the request loads it, the request still gets what it read
+        duringLoad = () -> cache.invalidate("staff1");
+        assertThat(cache.getPrincipal("staff1").getStaffId()).isEqualTo(1);
+
+        duringLoad = () -> {
+        };
+        assertThat(cache.getPrincipal("staff1").getStaffId()).isEqualTo(2);
+        assertThat(cache.getPrincipal("staff1").getStaffId()).isEqualTo(2);
+        assertThat(loads).hasValue(2);
+    }
+}
@@ -0,0 +1,71 @@
+package com.team3.ministore.common.responsehandler;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.team3.ministore.common.utils.DateUtils;
+import com.team3.ministore.dto.CursorPage;
+import com.team3.ministore.dto.SellingProduct;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+// The typed envelope against the map envelope it replaced, written by a mapper with the settings of Spring MVC
+class ResponseHandlerTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Test
+    void contentIsWrittenLikeTheMapEnvelope() throws Exception {
+        assertSameJson(ResponseHandler.getResponse(List.of(new SellingProduct("Coffee", 3, 25000f)), HttpStatus.OK), HttpStatus.OK);
+        assertSameJson(ResponseHandler.getResponse(Map.of("orderId", 12), HttpStatus.CREATED), HttpStatus.CREATED);
+        assertSameJson(ResponseHandler.getResponse("Done", HttpStatus.OK), HttpStatus.OK);
+        assertSameJson(ResponseHandler.getResponse(LocalDate.of(2024, 6, 3), HttpStatus.OK), HttpStatus.OK);
+        assertSameJson(ResponseHandler.getResponse(CursorPage.of(List.of(1, 2, 3), 2, String::valueOf, 3L), HttpStatus.OK), HttpStatus.OK);
+        assertSameJson(ResponseHandler.getResponse((Object) null, HttpStatus.OK), HttpStatus.OK);
+        assertSameJson(ResponseHandler.getResponse(HttpStatus.NO_CONTENT), HttpStatus.NO_CONTENT);
+    }
+
+    @Test
+    void errorsAreWrittenLikeTheMapEnvelope() throws Exception {
+        assertSameJson(ResponseHandler.getResponse(new Exception("Order not found."), HttpStatus.NOT_FOUND), HttpStatus.NOT_FOUND);
+        assertSameJson(ResponseHandler.getResponse(new Exception(), HttpStatus.BAD_REQUEST), HttpStatus.BAD_REQUEST);
+        assertSameJson(ResponseHandler.getErrorResponse(List.of(Map.of("shiftId", 1)), HttpStatus.CONFLICT), HttpStatus.CONFLICT);
+
+        BindingResult errors = new BeanPropertyBindingResult(new SellingProduct(), "product");
+        errors.reject("name", "Name must not be empty");
+        errors.reject("price", "Price \"must\" be positive");
+        assertSameJson(ResponseHandler.getResponse(errors, HttpStatus.BAD_REQUEST), HttpStatus.BAD_REQUEST);
+    }
+
+    private void assertSameJson(ResponseEntity<Object> response, HttpStatus status) throws Exception {
+        assertThat(response.getStatusCode()).isEqualTo(status);
+
+        ResponseEnvelope envelope = (ResponseEnvelope) response.getBody();
+        // The timestamp is cached for a second, it reads the same as DateUtils.toString(LocalDateTime.now())
+        assertThat(DateUtils.toDate(envelope.getTimestamp())).isCloseTo(LocalDateTime.now(), within(2, ChronoUnit.SECONDS));
+        assertThat(objectMapper.writeValueAsString(envelope))
+                .isEqualTo(objectMapper.writeValueAsString(getMapBody(envelope)));
+    }
+
+    // The body ResponseHandler built before the typed envelope, with the same values
+    private static Map<String, Object> getMapBody(ResponseEnvelope envelope) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("content", envelope.getContent());
+        map.put("errors", envelope.getErrors());
+        map.put("timestamp", envelope.getTimestamp());
+        map.put("status", envelope.getStatus());
+        return map;
+    }
+}
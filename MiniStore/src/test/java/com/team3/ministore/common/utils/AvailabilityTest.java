@@ -0,0 +1,78 @@
+package com.team3.ministore.common.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Windows of availability take the whole hours within them, shifts every hour they touch
+class AvailabilityTest {
+
+    // A Sunday
+    private static final LocalDate SUNDAY = LocalDate.of(2024, 6, 9);
+
+    @Test
+    void windowTakesTheWholeHoursWithinIt() {
+        byte[] mask = new byte[Availability.BYTES];
+        Availability.add(mask, DayOfWeek.MONDAY, LocalTime.of(8, 30), LocalTime.of(14, 15));
+
+        assertThat(hours(mask)).containsExactly(9, 10, 11, 12, 13);
+    }
+
+    @Test
+    void windowWithinAnHourTakesNone() {
+        byte[] mask = new byte[Availability.BYTES];
+        Availability.add(mask, DayOfWeek.MONDAY, LocalTime.of(8, 10), LocalTime.of(8, 50));
+        Availability.add(mask, DayOfWeek.MONDAY, LocalTime.of(9, 30), LocalTime.of(10, 30));
+
+        assertThat(hours(mask)).isEmpty();
+    }
+
+    @Test
+    void windowEndingAtMidnightOrLaterRunsIntoTheNextDay() {
+        byte[] mask = new byte[Availability.BYTES];
+        Availability.add(mask, DayOfWeek.MONDAY, LocalTime.of(22, 0), LocalTime.MIDNIGHT);
+        Availability.add(mask, DayOfWeek.SUNDAY, LocalTime.of(23, 0), LocalTime.of(1, 30));
+
+        assertThat(hours(mask)).containsExactly(0, 22, 23, Availability.slot(DayOfWeek.SUNDAY, 23));
+    }
+
+    @Test
+    void shiftTakesEveryHourItTouches() {
+        assertThat(Availability.slots(SUNDAY.plusDays(1), LocalTime.of(8, 30), LocalTime.of(14, 15)))
+                .containsExactly(8, 9, 10, 11, 12, 13, 14);
+        assertThat(Availability.slots(SUNDAY.plusDays(1), LocalTime.of(8, 0), LocalTime.of(14, 0)))
+                .containsExactly(8, 9, 10, 11, 12, 13);
+        // Sunday night runs into Monday morning
+        assertThat(Availability.slots(SUNDAY, LocalTime.of(22, 0), LocalTime.of(2, 0)))
+                .containsExactly(Availability.slot(DayOfWeek.SUNDAY, 22), Availability.slot(DayOfWeek.SUNDAY, 23), 0, 1);
+    }
+
+    @Test
+    void shiftFitsAWindowOnlyWhenItIsWithinIt() {
+        byte[] mask = new byte[Availability.BYTES];
+        Availability.add(mask, DayOfWeek.MONDAY, LocalTime.of(8, 30), LocalTime.of(14, 0));
+        LocalDate monday = SUNDAY.plusDays(1);
+
+        assertThat(Availability.containsAll(mask, Availability.slots(monday, LocalTime.of(9, 0), LocalTime.of(14, 0)))).isTrue();
+        assertThat(Availability.containsAll(mask, Availability.slots(monday, LocalTime.of(8, 30), LocalTime.of(14, 0)))).isFalse();
+        assertThat(Availability.containsAll(mask, Availability.slots(monday, LocalTime.of(9, 0), LocalTime.of(14, 30)))).isFalse();
+    }
+
+    @Test
+    void workDaysTakeTheirWholeDays() {
+        byte[] mask = Availability.ofWorkDays(WorkDays.bit(DayOfWeek.TUESDAY) | WorkDays.bit(DayOfWeek.SUNDAY));
+
+        assertThat(hours(mask)).containsExactly(IntStream.concat(
+                IntStream.range(Availability.slot(DayOfWeek.TUESDAY, 0), Availability.slot(DayOfWeek.WEDNESDAY, 0)),
+                IntStream.range(Availability.slot(DayOfWeek.SUNDAY, 0), Availability.SLOTS)).toArray());
+    }
+
+    private static int[] hours(byte[] mask) {
+        return IntStream.range(0, Availability.SLOTS).filter(slot -> Availability.contains(mask, slot)).toArray();
+    }
+}
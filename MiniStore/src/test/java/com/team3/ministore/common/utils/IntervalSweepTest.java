@@ -0,0 +1,77 @@
+package com.team3.ministore.common.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The sweep finds the pairs comparing every two intervals would find, once each
+class IntervalSweepTest {
+
+    @Test
+    void touchingEmptyAndReversedIntervalsDoNotOverlap() {
+        List<long[]> intervals = List.of(new long[]{0, 10}, new long[]{10, 20}, new long[]{5, 5}, new long[]{15, 12});
+
+        assertThat(overlaps(intervals)).isEmpty();
+    }
+
+    @Test
+    void pairStartsWithTheIntervalStartingFirst() {
+        long[] late = {5, 15};
+        long[] early = {0, 10};
+        List<long[][]> pairs = new ArrayList<>();
+
+        IntervalSweep.forEachOverlap(List.of(late, early), interval -> interval[0], interval -> interval[1],
+                (first, second) -> pairs.add(new long[][]{first, second}));
+
+        assertThat(pairs).hasSize(1);
+        assertThat(pairs.get(0)[0]).isSameAs(early);
+        assertThat(pairs.get(0)[1]).isSameAs(late);
+    }
+
+    @Test
+    void nestedIntervalsOverlapEveryOpenOne() {
+        List<long[]> intervals = List.of(new long[]{0, 100}, new long[]{10, 20}, new long[]{15, 30}, new long[]{40, 50});
+
+        assertThat(overlaps(intervals)).containsExactlyInAnyOrder("0-1", "0-2", "0-3", "1-2");
+    }
+
+    @Test
+    void findsTheSamePairsAsComparingEveryTwo() {
+        Random random = new Random(42);
+        List<long[]> intervals = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            long start = random.nextInt(1000);
+            intervals.add(new long[]{start, start + random.nextInt(40) - 5});
+        }
+
+        Set<String> expected = new HashSet<>();
+        for (int i = 0; i < intervals.size(); i++) {
+            for (int j = i + 1; j < intervals.size(); j++) {
+                long[] a = intervals.get(i);
+                long[] b = intervals.get(j);
+                if (a[0] < a[1] && b[0] < b[1] && a[0] < b[1] && b[0] < a[1]) expected.add(i + "-" + j);
+            }
+        }
+
+        List<String> found = overlaps(intervals);
+        assertThat(found).doesNotHaveDuplicates();
+        assertThat(new HashSet<>(found)).isEqualTo(expected);
+    }
+
+    // The pairs as "i-j" with the indexes of the intervals, the lower first
+    private static List<String> overlaps(List<long[]> intervals) {
+        List<String> pairs = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        for (int i = 0; i < intervals.size(); i++) indexes.add(i);
+
+        IntervalSweep.forEachOverlap(indexes, i -> intervals.get(i)[0], i -> intervals.get(i)[1],
+                (first, second) -> pairs.add(Math.min(first, second) + "-" + Math.max(first, second)));
+        return pairs;
+    }
+}
@@ -0,0 +1,33 @@
+package com.team3.ministore.common.utils;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The free text of Staff.workDays, days being written Monday first
+class WorkDaysTest {
+
+    @ParameterizedTest(name = "\"{0}\" is {1}")
+    @CsvSource(delimiter = '|', value = {
+            "MON, TUE, WED       | 1110000",
+            "Monday & Friday     | 1000100",
+            "Mon - Fri           | 1111100",
+            "Mon–Thu             | 1111000",
+            "Monday to Friday    | 1111100",
+            "Tuesday through Thu | 0111000",
+            "Fri - Mon           | 1000111",
+            "Mon-Wed, Sat        | 1110010",
+            "Weekdays            | 1111100",
+            "Weekends            | 0000011",
+            "Week-end, Wed       | 0010011",
+            "Whole week          | 1111111",
+            "Every day           | 1111111",
+            "'   '               | 1111111",
+            "Part time           | 0000000",
+    })
+    void parse(String workDays, String days) {
+        assertThat(new StringBuilder(Integer.toBinaryString(WorkDays.parse(workDays) | 1 << 7)).reverse().substring(0, 7))
+                .isEqualTo(days);
+    }
+}
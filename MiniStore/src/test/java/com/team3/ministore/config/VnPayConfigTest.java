@@ -0,0 +1,71 @@
+package com.team3.ministore.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Only a callback signed with the hash secret over its own fields is accepted
+class VnPayConfigTest {
+
+    private final VnPayConfig vnPayConfig = new VnPayConfig();
+
+    VnPayConfigTest() {
+        vnPayConfig.vnp_HashSecret = "TEST";
+    }
+
+    @Test
+    void signedCallbackIsAccepted() {
+        Map<String, String> params = signed();
+
+        assertThat(vnPayConfig.verifySignature(params)).isTrue();
+
+        params.put("vnp_SecureHash", params.get("vnp_SecureHash").toUpperCase());
+        params.put("vnp_SecureHashType", "HmacSHA512");
+        params.put("other", "not a vnp_ field");
+        assertThat(vnPayConfig.verifySignature(params)).isTrue();
+    }
+
+    @Test
+    void tamperedFieldIsRejected() {
+        Map<String, String> params = signed();
+        params.put("vnp_Amount", "100");
+
+        assertThat(vnPayConfig.verifySignature(params)).isFalse();
+
+        Map<String, String> added = signed();
+        added.put("vnp_BankCode", "NCB");
+        assertThat(vnPayConfig.verifySignature(added)).isFalse();
+    }
+
+    @Test
+    void hashOfAnotherSecretOrLengthIsRejected() {
+        Map<String, String> params = signed();
+        String secureHash = params.get("vnp_SecureHash");
+
+        params.put("vnp_SecureHash", secureHash.substring(0, 64));
+        assertThat(vnPayConfig.verifySignature(params)).isFalse();
+
+        params.put("vnp_SecureHash", secureHash + "00");
+        assertThat(vnPayConfig.verifySignature(params)).isFalse();
+
+        params.remove("vnp_SecureHash");
+        assertThat(vnPayConfig.verifySignature(params)).isFalse();
+
+        Map<String, String> otherSecret = signed();
+        vnPayConfig.vnp_HashSecret = "OTHER";
+        assertThat(vnPayConfig.verifySignature(otherSecret)).isFalse();
+    }
+
+    private Map<String, String> signed() {
+        Map<String, String> params = new HashMap<>();
+        params.put("vnp_Amount", "1500000");
+        params.put("vnp_OrderInfo", "Thanh toan don hang: 12");
+        params.put("vnp_ResponseCode", "00");
+        params.put("vnp_TxnRef", "12");
+        params.put("vnp_SecureHash", vnPayConfig.secureHash(params));
+        return params;
+    }
+}
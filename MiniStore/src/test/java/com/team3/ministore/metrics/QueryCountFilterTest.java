@@ -0,0 +1,205 @@
+package com.team3.ministore.metrics;
+
+import com.team3.ministore.cache.StaffPrincipalCache;
+import com.team3.ministore.config.VnPayConfig;
+import com.team3.ministore.dto.StaffDetails;
+import com.team3.ministore.dto.OrderDto;
+import com.team3.ministore.dto.OrderItemDto;
+import com.team3.ministore.dto.SeedOptions;
+import com.team3.ministore.jwt.JwtUtils;
+import com.team3.ministore.model.Order;
+import com.team3.ministore.model.Staff;
+import com.team3.ministore.repository.ProductRepository;
+import com.team3.ministore.repository.StaffRepository;
+import com.team3.ministore.service.OrderService;
+import com.team3.ministore.service.SeedService;
+import com.team3.ministore.service.StaffService;
+import com.team3.ministore.utils.PaymentStatus;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@Import(QueryCountFilterTest.StaffNamesController.class)
+@ExtendWith(OutputCaptureExtension.class)
+class QueryCountFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private SeedService seedService;
+
+    @Autowired
+    private StaffService staffService;
+
+    @Autowired
+    private StaffRepository staffRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private VnPayConfig vnPayConfig;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private StaffPrincipalCache staffPrincipalCache;
+
+    @BeforeAll
+    void seed() {
+        seedService.seed(new SeedOptions(5, 5, 0, 1, 0, "123456", 42));
+    }
+
+    // The payment notification is applied on the payment executor and answered in an async dispatch
+    @Test
+    void asyncRequestCountsTheStatementsOfTheExecutor() throws Exception {
+        Order order = createPendingOrder();
+
+        MvcResult result = mockMvc.perform(signed(get("/orders/payment/ipn"), Map.of(
+                        "vnp_TxnRef", String.valueOf(order.getOrderId()),
+                        "vnp_Amount", String.valueOf(Math.round(order.getGrandTotal() * 100d)),
+                        "vnp_ResponseCode", "00")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.RspCode").value("00"));
+
+        DistributionSummary queries = meterRegistry.get(QueryCountFilter.METRIC_NAME).tag("uri", "/orders/payment/ipn").summary();
+        assertThat(queries.count()).isEqualTo(1);
+        // At least the order read, the status update and the sales rollups
+        assertThat(queries.totalAmount()).isGreaterThanOrEqualTo(4);
+    }
+
+    // The tests run with query-inspector.strict=true
+    @Test
+    void requestOverItsBudgetFails() {
+        assertThatThrownBy(() -> mockMvc.perform(get("/test/staff-names")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageStartingWith("GET /test/staff-names ran ")
+                .hasMessageEndingWith(" SQL statements, its budget is 2");
+    }
+
+    // The filter wraps JwtAuthorizationFilter, the staff it loads on a cache miss counts against the budget
+    @Test
+    void statementsOfTheAuthorizationCount() {
+        Staff staff = staffRepository.findAll().get(0);
+        StaffDetails principal = staffPrincipalCache.getPrincipal(staff.getUsername());
+        String token = jwtUtils.generateJwtToken(new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        staffPrincipalCache.invalidateAll();
+
+        assertThatThrownBy(() -> mockMvc.perform(get("/test/staff-count").header("Authorization", "Bearer " + token)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("GET /test/staff-count ran 2 SQL statements, its budget is 1");
+    }
+
+    @Test
+    void repeatedStatementIsLoggedAsPossibleNPlusOne(CapturedOutput output) {
+        assertThatThrownBy(() -> mockMvc.perform(get("/test/staff-names")));
+
+        assertThat(output).contains("Possible N+1 query, GET /test/staff-names ran " + staffRepository.count()
+                + " times the statement: select");
+    }
+
+    @Test
+    void requestWithinItsBudgetPasses(CapturedOutput output) throws Exception {
+        mockMvc.perform(get("/test/staff-count"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").value(staffRepository.count()));
+
+        assertThat(output).doesNotContain("Possible N+1 query");
+    }
+
+    private Order createPendingOrder() throws Exception {
+        OrderItemDto item = new OrderItemDto();
+        item.setProductId(productRepository.findAll().get(0).getProductId());
+        item.setQuantity(2);
+
+        OrderDto dto = new OrderDto();
+        dto.setStaffId(staffService.getAllStaffs().get(0).getStaffId());
+        dto.setOrderDate(LocalDateTime.now());
+        dto.setGrandTotal(20000f);
+        dto.setPaymentStatus(PaymentStatus.PENDING);
+        dto.setOrderItems(List.of(item));
+        return orderService.createOrders(dto);
+    }
+
+    // The fields with the signature VNPay would add
+    private MockHttpServletRequestBuilder signed(MockHttpServletRequestBuilder request, Map<String, String> fields) {
+        String hashData = new TreeMap<>(fields).entrySet().stream()
+                .map(field -> field.getKey() + "=" + URLEncoder.encode(field.getValue(), StandardCharsets.US_ASCII))
+                .collect(Collectors.joining("&"));
+
+        fields.forEach((name, value) -> request.param(name, value));
+        return request.param("vnp_SecureHash", vnPayConfig.hmacSHA512(vnPayConfig.vnp_HashSecret, hashData));
+    }
+
+    // Reads every staff again by id, the N+1 shape the filter is there to catch
+    @RestController
+    static class StaffNamesController {
+
+        private final StaffRepository staffRepository;
+
+        StaffNamesController(StaffRepository staffRepository) {
+            this.staffRepository = staffRepository;
+        }
+
+        @GetMapping("/test/staff-names")
+        @QueryBudget(2)
+        public List<String> getStaffNames() {
+            return staffRepository.findAll().stream()
+                    .map(staff -> staffRepository.findById(staff.getStaffId()).map(Staff::getStaffName).orElse(null))
+                    .collect(Collectors.toList());
+        }
+
+        @GetMapping("/test/staff-count")
+        @QueryBudget(1)
+        public long getStaffCount() {
+            return staffRepository.count();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.team3.ministore.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The ids reserved from the sequence table never overlap, and the sequences start past the ids already in the tables
+class IdSequenceRepositoryTest {
+
+    private static final List<String> SEQUENCES = List.of(IdSequenceRepository.ORDERS, IdSequenceRepository.ORDER_ITEMS,
+            IdSequenceRepository.SHIFTS, IdSequenceRepository.TIMESHEETS, IdSequenceRepository.SALARIES,
+            IdSequenceRepository.SCHEDULE_SHIFT_TEMPLATES);
+
+    private JdbcTemplate jdbcTemplate;
+
+    private IdSequenceRepository idSequenceRepository;
+
+    @BeforeEach
+    void createTables() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID()
+                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=VALUE;LOCK_TIMEOUT=10000;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        idSequenceRepository = new IdSequenceRepository(jdbcTemplate, new DataSourceTransactionManager(dataSource));
+
+        jdbcTemplate.execute("CREATE TABLE id_sequences (sequence_name VARCHAR(255) PRIMARY KEY, last_id BIGINT)");
+        jdbcTemplate.execute("CREATE TABLE orders (order_id INT PRIMARY KEY)");
+        jdbcTemplate.execute("CREATE TABLE orderitems (order_item_id INT PRIMARY KEY)");
+        jdbcTemplate.execute("CREATE TABLE shifts (shift_id INT PRIMARY KEY)");
+        jdbcTemplate.execute("CREATE TABLE timesheets (timesheet_id INT PRIMARY KEY)");
+        jdbcTemplate.execute("CREATE TABLE salaries (salary_id INT PRIMARY KEY)");
+        jdbcTemplate.execute("CREATE TABLE scheduleshifttemplates (schedule_shift_template_id INT PRIMARY KEY)");
+    }
+
+    @Test
+    void reserveHandsOutConsecutiveIds() {
+        idSequenceRepository.alignSequences();
+
+        assertThat(idSequenceRepository.reserve(IdSequenceRepository.ORDERS, 3)).isEqualTo(1);
+        assertThat(idSequenceRepository.reserve(IdSequenceRepository.ORDERS, 2)).isEqualTo(4);
+        assertThat(idSequenceRepository.reserve(IdSequenceRepository.SHIFTS, 1)).isEqualTo(1);
+        assertThat(lastId(IdSequenceRepository.ORDERS)).isEqualTo(5);
+    }
+
+    @Test
+    void concurrentReservationsDoNotOverlap() throws Exception {
+        idSequenceRepository.alignSequences();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Integer>> reservations = IntStream.range(0, 200)
+                    .mapToObj(i -> (Callable<Integer>) () -> idSequenceRepository.reserve(IdSequenceRepository.ORDERS, 5))
+                    .collect(Collectors.toList());
+
+            Set<Integer> ids = new HashSet<>();
+            for (Future<Integer> first : executor.invokeAll(reservations)) {
+                for (int id = first.get(); id < first.get() + 5; id++) assertThat(ids.add(id)).as("id %d", id).isTrue();
+            }
+            assertThat(ids).hasSize(1000);
+            assertThat(lastId(IdSequenceRepository.ORDERS)).isEqualTo(1000);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void alignSequencesCreatesTheMissingRowsPastTheLargestId() {
+        jdbcTemplate.update("INSERT INTO orders (order_id) VALUES (7), (42)");
+
+        idSequenceRepository.alignSequences();
+
+        assertThat(lastId(IdSequenceRepository.ORDERS)).isEqualTo(42);
+        assertThat(lastId(IdSequenceRepository.SHIFTS)).isZero();
+        assertThat(sequenceNames()).containsExactlyInAnyOrderElementsOf(SEQUENCES);
+        assertThat(idSequenceRepository.reserve(IdSequenceRepository.ORDERS, 1)).isEqualTo(43);
+    }
+
+    @Test
+    void alignSequencesMovesASequenceBehindItsTableOnly() {
+        jdbcTemplate.update("INSERT INTO shifts (shift_id) VALUES (100)");
+        jdbcTemplate.update("INSERT INTO timesheets (timesheet_id) VALUES (100)");
+        jdbcTemplate.update("INSERT INTO id_sequences (sequence_name, last_id) VALUES (?, 1), (?, 150)",
+                IdSequenceRepository.SHIFTS, IdSequenceRepository.TIMESHEETS);
+
+        idSequenceRepository.alignSequences();
+        idSequenceRepository.alignSequences();
+
+        assertThat(lastId(IdSequenceRepository.SHIFTS)).isEqualTo(100);
+        // Ids Hibernate already took past the table are not handed out again
+        assertThat(lastId(IdSequenceRepository.TIMESHEETS)).isEqualTo(150);
+        assertThat(sequenceNames()).hasSize(SEQUENCES.size());
+    }
+
+    private long lastId(String sequence) {
+        return jdbcTemplate.queryForObject("SELECT last_id FROM id_sequences WHERE sequence_name = ?", Long.class, sequence);
+    }
+
+    private List<String> sequenceNames() {
+        return jdbcTemplate.queryForList("SELECT sequence_name FROM id_sequences", String.class);
+    }
+}
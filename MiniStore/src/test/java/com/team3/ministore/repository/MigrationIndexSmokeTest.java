@@ -0,0 +1,275 @@
+package com.team3.ministore.repository;
+
+import com.team3.ministore.cache.ReferenceDataCache;
+import com.team3.ministore.dto.SeedOptions;
+import com.team3.ministore.service.SeedService;
+import com.team3.ministore.utils.LeaveStatus;
+import com.team3.ministore.utils.ShiftCoverStatus;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ClassUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Smoke check of the index migrations on the H2 test database: the scripts run, and the SQL Hibernate generates for
+// each repository method, recorded with its values, can be served by the index the migration adds for it. H2 plans
+// differently from MySQL, so this does not tell which index MySQL picks: that takes EXPLAIN on a MySQL database.
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class MigrationIndexSmokeTest {
+
+    private static final Path MIGRATIONS = Path.of("..", "database", "migrations");
+
+    @Autowired
+    private SeedService seedService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private StatementRecorder statementRecorder;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ShiftRepository shiftRepository;
+
+    @Autowired
+    private ShiftCoverRequestRepository shiftCoverRequestRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StaffRepository staffRepository;
+
+    @Autowired
+    private LeaveRequestRepository leaveRequestRepository;
+
+    @Autowired
+    private SalaryRepository salaryRepository;
+
+    @Autowired
+    private HolidaysRepository holidaysRepository;
+
+    private final LocalDate today = LocalDate.now();
+
+    @BeforeAll
+    void createIndexes() throws IOException {
+        seedService.seed(new SeedOptions(40, 500, 2000, 60, 14, "123456", 42));
+        for (int i = 0; i < 50; i++) {
+            jdbcTemplate.update("INSERT INTO holidays (name, start_date, end_date, coefficient) VALUES (?, ?, ?, 2)",
+                    "Holiday " + i, today.minusDays(7 * i), today.minusDays(7 * i - 1));
+        }
+
+        for (String migration : List.of("V2__query_indexes.sql", "V6__products_barcode_unique.sql")) {
+            for (String statement : statements(MIGRATIONS.resolve(migration))) {
+                if (!statement.startsWith("USE ")) jdbcTemplate.execute(statement);
+            }
+        }
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @ParameterizedTest(name = "{0} {1}")
+    @MethodSource("repositoryQueries")
+    void h2PlanUsesIndex(String index, String method, Runnable query) {
+        // Query results cached by Hibernate would not reach the database
+        referenceDataCache.evictAll();
+        List<RecordedStatement> statements = statementRecorder.record(() -> transactionTemplate.executeWithoutResult(status -> query.run()));
+        assertThat(statements).as(method).isNotEmpty();
+
+        // The first statement is the query of the method, a paged one runs its count query after it
+        String sql = statements.get(0).inlined();
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+
+        assertThat(plan).as(sql).containsIgnoringCase(index);
+    }
+
+    // The index the migrations add for each repository method, with arguments as the services pass them
+    Stream<Arguments> repositoryQueries() {
+        LocalDateTime now = today.atStartOfDay();
+        return Stream.of(
+                Arguments.of("idx_orders_order_date", "OrderRepository.findAllByFilters",
+                        (Runnable) () -> orderRepository.findAllByFilters(now.minusDays(7), now, null, null, PageRequest.of(0, 10))),
+                Arguments.of("idx_orders_order_date", "OrderRepository.findAllByFiltersAfter",
+                        (Runnable) () -> orderRepository.findAllByFiltersAfter(now.minusDays(7), now, null, null,
+                                now.minusDays(1), 1000, PageRequest.of(0, 11))),
+                Arguments.of("idx_orders_order_date", "OrderRepository.streamExportRows",
+                        (Runnable) () -> {
+                            try (Stream<?> rows = orderRepository.streamExportRows(now.minusDays(7), now)) {
+                                rows.count();
+                            }
+                        }),
+                Arguments.of("idx_orders_grand_total", "OrderRepository.findAllByFilters",
+                        (Runnable) () -> orderRepository.findAllByFilters(null, null, 100000f, 101000f, PageRequest.of(0, 10))),
+                Arguments.of("idx_shifts_staff_date", "ShiftRepository.findAllByStaff_StaffIdAndDateBetween",
+                        (Runnable) () -> shiftRepository.findAllByStaff_StaffIdAndDateBetween(1, today.minusDays(6), today)),
+                Arguments.of("idx_shifts_date", "ShiftRepository.findAllByDateBetween",
+                        (Runnable) () -> shiftRepository.findAllByDateBetween(today.minusDays(6), today)),
+                Arguments.of("idx_shifts_date", "ShiftRepository.findAllWithDetailsByDateBetween",
+                        (Runnable) () -> shiftRepository.findAllWithDetailsByDateBetween(today.minusDays(6), today)),
+                Arguments.of("idx_shifts_date", "ShiftRepository.findSlotsByDateBetween",
+                        (Runnable) () -> shiftRepository.findSlotsByDateBetween(today.minusDays(6), today)),
+                Arguments.of("idx_shiftcoverrequests_status", "ShiftCoverRequestRepository.findAllWithDetailsByStatusAndShiftDates",
+                        (Runnable) () -> shiftCoverRequestRepository.findAllWithDetailsByStatusAndShiftDates(
+                                ShiftCoverStatus.APPROVED, today.minusDays(6), today)),
+                Arguments.of("ux_products_barcode", "ProductRepository.findFirstByBarCode",
+                        (Runnable) () -> productRepository.findFirstByBarCode("8900000000001")),
+                Arguments.of("idx_staffs_username", "StaffRepository.findByUsername",
+                        (Runnable) () -> staffRepository.findByUsername("staff1")),
+                Arguments.of("idx_staffs_email", "StaffRepository.findByEmail",
+                        (Runnable) () -> staffRepository.findByEmail("staff1@mail.com")),
+                Arguments.of("idx_leaverequests_staff_dates", "LeaveRequestRepository.findLeaveRequestsByStaffIdAndDates",
+                        (Runnable) () -> leaveRequestRepository.findLeaveRequestsByStaffIdAndDates(1, today.minusDays(6), today)),
+                Arguments.of("idx_leaverequests_status_dates", "LeaveRequestRepository.findLeaveRequestsByStatusAndDates",
+                        (Runnable) () -> leaveRequestRepository.findLeaveRequestsByStatusAndDates(
+                                LeaveStatus.APPROVED, today.minusDays(6), today)),
+                Arguments.of("idx_leaverequests_status_dates", "LeaveRequestRepository.findSlotsByStatusAndDates",
+                        (Runnable) () -> leaveRequestRepository.findSlotsByStatusAndDates(
+                                LeaveStatus.APPROVED, today.minusDays(6), today)),
+                Arguments.of("idx_salaries_staff_current", "SalaryRepository.findSalaryInformationByStaffId",
+                        (Runnable) () -> salaryRepository.findSalaryInformationByStaffId(1)),
+                Arguments.of("idx_salaries_current", "SalaryRepository.findSalaryOfAllStaffs",
+                        (Runnable) () -> salaryRepository.findSalaryOfAllStaffs(today)),
+                Arguments.of("idx_holidays_dates", "HolidaysRepository.findAllByDates",
+                        (Runnable) () -> holidaysRepository.findAllByDates(today.minusDays(6), today)));
+    }
+
+    // The statements of a script, without its comments
+    private static List<String> statements(Path script) throws IOException {
+        String sql = Files.readAllLines(script).stream()
+                .filter(line -> !line.startsWith("--"))
+                .collect(Collectors.joining("\n"));
+        return Arrays.stream(sql.split(";")).map(String::trim).filter(statement -> !statement.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    @TestConfiguration
+    static class RecorderConfig {
+        @Bean
+        StatementRecorder statementRecorder() {
+            return new StatementRecorder();
+        }
+
+        @Bean
+        static BeanPostProcessor statementRecorderAdapter() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource ? StatementRecorder.wrap(bean, null) : bean;
+                }
+            };
+        }
+    }
+
+    // A statement run while recording, with the values bound to its parameters
+    static class RecordedStatement {
+        private final String sql;
+        private final Map<Integer, Object> values = new TreeMap<>();
+
+        RecordedStatement(String sql) {
+            this.sql = sql;
+        }
+
+        // Connector/J sends the values inlined in the SQL (client-side prepared statements), so MySQL plans the query
+        // with them and drops the "? is null" branches of the optional filters. H2 would plan the query before
+        // binding, the values are inlined the same way here.
+        String inlined() {
+            StringBuilder sql = new StringBuilder();
+            boolean quoted = false;
+            int parameter = 1;
+            for (char c : this.sql.toCharArray()) {
+                if (c == '\'') quoted = !quoted;
+                if (c == '?' && !quoted) sql.append(literal(values.get(parameter++)));
+                else sql.append(c);
+            }
+            return sql.toString();
+        }
+
+        private static String literal(Object value) {
+            if (value == null) return "NULL";
+            if (value instanceof Number || value instanceof Boolean) return value.toString();
+            if (value instanceof java.sql.Date) return "DATE '" + value + "'";
+            if (value instanceof java.sql.Timestamp) return "TIMESTAMP '" + value + "'";
+            if (value instanceof java.sql.Time) return "TIME '" + value + "'";
+            return "'" + value.toString().replace("'", "''") + "'";
+        }
+    }
+
+    // Records the statements the connections of the data source run, only during record
+    static class StatementRecorder {
+        private static final ThreadLocal<List<RecordedStatement>> recorded = new ThreadLocal<>();
+
+        List<RecordedStatement> record(Runnable work) {
+            List<RecordedStatement> statements = new ArrayList<>();
+            recorded.set(statements);
+            try {
+                work.run();
+            } finally {
+                recorded.remove();
+            }
+            return statements;
+        }
+
+        // Connections of the data source, prepared statements of the connections
+        static Object wrap(Object target, RecordedStatement statement) {
+            return Proxy.newProxyInstance(target.getClass().getClassLoader(), ClassUtils.getAllInterfaces(target),
+                    (proxy, method, args) -> {
+                        if (statement != null && method.getName().startsWith("set") && args != null && args.length >= 2
+                                && args[0] instanceof Integer) {
+                            statement.values.put((Integer) args[0], method.getName().equals("setNull") ? null : args[1]);
+                        }
+                        if (statement != null && method.getName().startsWith("execute") && recorded.get() != null) {
+                            recorded.get().add(statement);
+                        }
+
+                        try {
+                            Object result = method.invoke(target, args);
+                            if (result instanceof PreparedStatement && method.getName().equals("prepareStatement"))
+                                return wrap(result, new RecordedStatement((String) args[0]));
+                            return result instanceof Connection ? wrap(result, null) : result;
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.team3.ministore.scheduling;
+
+import com.team3.ministore.common.utils.Availability;
+import com.team3.ministore.common.utils.DateRangeIndex;
+import com.team3.ministore.common.utils.WorkDays;
+import com.team3.ministore.dto.LeaveSlot;
+import com.team3.ministore.utils.Role;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Time;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// The schedules of the solver keep the hard rules whatever the seed, a seed always gives the same schedule, and a
+// full executor rejects the whole schedule
+class ScheduleSolverTest {
+
+    private static final LocalDate FROM = LocalDate.of(2024, 6, 5);
+    private static final LocalDate TO = FROM.plusDays(20);
+    private static final int MAX_SHIFTS_PER_WEEK = 4;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    // Far above what the problems take, a solve hitting it would not be repeatable
+    private final ScheduleSolver solver = new ScheduleSolver(executor, 4, Duration.ofMinutes(1));
+
+    @AfterEach
+    void shutDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void schedulesKeepTheHardRules() {
+        ScheduleProblem problem = randomProblem(new Random(42));
+
+        for (long seed = 0; seed < 5; seed++) {
+            int[] assignment = solver.solve(problem, seed);
+
+            assertThat(assignment).hasSize(problem.getSlotCount());
+            assertHardRules(problem, assignment);
+            // More shifts than the staffs can work, but most of them are filled
+            assertThat(assignment).contains(-1);
+            assertThat(filled(assignment)).isGreaterThan(problem.getSlotCount() / 2);
+        }
+    }
+
+    @Test
+    void seedGivesTheSameSchedule() {
+        ScheduleProblem problem = randomProblem(new Random(7));
+
+        int[] first = solver.solve(problem, 123);
+        int[] second = solver.solve(problem, 123);
+
+        assertThat(second).isEqualTo(first);
+        assertThat(ScheduleSolver.cost(problem, second)).isEqualTo(ScheduleSolver.cost(problem, first));
+    }
+
+    @Test
+    void hoursAreSpreadEvenly() {
+        ScheduleProblem problem = new ScheduleProblem(FROM, FROM.plusDays(3), 7);
+        for (int i = 0; i < 2; i++) problem.addStaff(Role.CASHIER, Availability.ofWorkDays(WorkDays.WHOLE_WEEK), null);
+        for (int day = 0; day < 4; day++) problem.addSlot(Role.CASHIER, FROM.plusDays(day), time("08:00"), time("16:00"));
+
+        int[] assignment = solver.solve(problem, 1);
+
+        assertThat(problem.getStaffMinutes(assignment)).containsExactly(2 * 8 * 60, 2 * 8 * 60);
+    }
+
+    @Test
+    void slotWithoutEligibleStaffIsLeftEmpty() {
+        ScheduleProblem problem = new ScheduleProblem(FROM, FROM, 5);
+        problem.addStaff(Role.ADMIN, Availability.ofWorkDays(WorkDays.WHOLE_WEEK), null);
+        problem.addStaff(Role.GUARD, Availability.ofWorkDays(WorkDays.WHOLE_WEEK), null);
+        problem.addSlot(Role.CASHIER, FROM, time("08:00"), time("16:00"));
+        problem.addSlot(Role.ALL_ROLES, FROM, time("08:00"), time("16:00"));
+
+        assertThat(solver.solve(problem, 1)).containsExactly(-1, 1);
+    }
+
+    @Test
+    void fullExecutorRejectsTheSchedule() {
+        List<Runnable> queued = new ArrayList<>();
+        Executor full = command -> {
+            if (queued.size() == 2) throw new RejectedExecutionException("Queue full");
+            queued.add(command);
+        };
+
+        assertThatThrownBy(() -> new ScheduleSolver(full, 4, Duration.ofMinutes(1)).solve(randomProblem(new Random(3)), 1))
+                .isInstanceOf(RejectedExecutionException.class);
+        assertThat(queued).hasSize(2);
+    }
+
+    // Cashiers on two shifts a day and guards on an overnight one, for fewer staffs than they need, with part-time
+    // hours, leaves and saved shifts
+    private static ScheduleProblem randomProblem(Random random) {
+        ScheduleProblem problem = new ScheduleProblem(FROM, TO, MAX_SHIFTS_PER_WEEK);
+        for (int i = 0; i < 24; i++) {
+            Role role = i % 3 == 0 ? Role.GUARD : Role.CASHIER;
+            byte[] availability = Availability.ofWorkDays(random.nextInt(4) == 0 ? WorkDays.WHOLE_WEEK
+                    : WorkDays.WHOLE_WEEK & ~WorkDays.bit(DayOfWeek.of(1 + random.nextInt(7))));
+            if (random.nextBoolean()) {
+                availability = new byte[Availability.BYTES];
+                for (DayOfWeek day : DayOfWeek.values()) Availability.add(availability, day, LocalTime.of(6, 0), LocalTime.of(15, 0));
+            }
+
+            LocalDate leaveStart = FROM.plusDays(random.nextInt(20));
+            DateRangeIndex leaves = random.nextInt(4) == 0
+                    ? DateRangeIndex.of(List.of(new LeaveSlot(i, i, leaveStart, leaveStart.plusDays(random.nextInt(5)))),
+                    LeaveSlot::getStartDate, LeaveSlot::getEndDate)
+                    : DateRangeIndex.empty();
+
+            int staff = problem.addStaff(role, availability, leaves);
+            if (random.nextInt(3) == 0) {
+                // The evening before the range as well, it runs into its first day
+                problem.addSavedShift(staff, FROM.minusDays(1), time("20:00"), time("04:00"));
+                problem.addSavedShift(staff, FROM.plusDays(random.nextInt(21)), time("10:00"), time("18:00"));
+            }
+        }
+
+        for (LocalDate date = FROM; !date.isAfter(TO); date = date.plusDays(1)) {
+            for (int i = 0; i < 5; i++) problem.addSlot(Role.CASHIER, date, time("06:00"), time("14:00"));
+            for (int i = 0; i < 4; i++) problem.addSlot(Role.CASHIER, date, time("14:00"), time("22:00"));
+            for (int i = 0; i < 3; i++) problem.addSlot(Role.GUARD, date, time("22:00"), time("06:00"));
+            problem.addSlot(Role.ALL_ROLES, date, time("12:00"), time("16:00"));
+        }
+        return problem;
+    }
+
+    // Eligible staffs only, one shift a day, no overlapping shifts, at most MAX_SHIFTS_PER_WEEK a week with the saved ones
+    private static void assertHardRules(ScheduleProblem problem, int[] assignment) {
+        Map<Integer, ScheduleProblem.SlotInfo> staffDays = new HashMap<>();
+        Map<Integer, Integer> staffWeeks = new HashMap<>();
+
+        for (int slot = 0; slot < assignment.length; slot++) {
+            int staff = assignment[slot];
+            if (staff < 0) continue;
+            ScheduleProblem.SlotInfo slotInfo = problem.slots.get(slot);
+
+            assertThat(problem.isEligible(staff, slot)).as("staff %d eligible for slot %d", staff, slot).isTrue();
+            assertThat(staffDays.put(staff * problem.getDays() + slotInfo.day, slotInfo))
+                    .as("second shift of staff %d on day %d", staff, slotInfo.day).isNull();
+
+            for (int day : new int[]{slotInfo.day - 1, slotInfo.day + 1}) {
+                ScheduleProblem.SlotInfo other = staffDays.get(staff * problem.getDays() + day);
+                if (day >= 0 && day < problem.getDays() && other != null)
+                    assertThat(other.start < slotInfo.end && slotInfo.start < other.end)
+                            .as("slot %d of staff %d overlaps", slot, staff).isFalse();
+            }
+            staffWeeks.merge(staff * problem.getWeeks() + slotInfo.week, 1, Integer::sum);
+        }
+
+        staffWeeks.forEach((staffWeek, shifts) -> {
+            int staff = staffWeek / problem.getWeeks();
+            int saved = problem.staffs.get(staff).savedWeekShifts.getOrDefault(staffWeek % problem.getWeeks(), 0);
+            assertThat(shifts + saved).as("shifts of staff %d in a week", staff).isLessThanOrEqualTo(MAX_SHIFTS_PER_WEEK);
+        });
+    }
+
+    private static long filled(int[] assignment) {
+        return Arrays.stream(assignment).filter(staff -> staff >= 0).count();
+    }
+
+    private static Time time(String time) {
+        return Time.valueOf(time + ":00");
+    }
+}
@@ -0,0 +1,108 @@
+package com.team3.ministore.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.team3.ministore.dto.OrderExportRow;
+import com.team3.ministore.repository.OrderRepository;
+import com.team3.ministore.utils.ExportFormat;
+import com.team3.ministore.utils.PaymentStatus;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The files written from the rows of the export query, one row per order item and one for an order without items
+class OrderExportServiceImplTest {
+
+    private static final LocalDateTime DATE = LocalDateTime.of(2024, 6, 3, 9, 30);
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private final OrderExportServiceImpl orderExportService = new OrderExportServiceImpl();
+
+    private final OrderRepository orderRepository = Mockito.mock(OrderRepository.class);
+
+    private final List<OrderExportRow> rows = new ArrayList<>();
+
+    OrderExportServiceImplTest() {
+        Mockito.when(orderRepository.streamExportRows(null, null)).thenAnswer(invocation -> rows.stream());
+
+        ReflectionTestUtils.setField(orderExportService, "orderRepository", orderRepository);
+        ReflectionTestUtils.setField(orderExportService, "objectMapper", objectMapper);
+    }
+
+    @Test
+    void ndjsonHasOneLinePerOrder() throws IOException {
+        rows.add(row(1, 11, 101, "Coffee", 25000f, 2));
+        rows.add(row(1, 12, 102, "Green tea", 18000f, 1));
+        rows.add(row(2, null, null, null, null, null));
+        rows.add(row(3, 13, 101, "Coffee", 24000f, 3));
+
+        List<String> lines = export(ExportFormat.NDJSON).lines().collect(Collectors.toList());
+
+        assertThat(lines).hasSize(3);
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertThat(first.get("orderId").asInt()).isEqualTo(1);
+        assertThat(objectMapper.treeToValue(first.get("orderDate"), LocalDateTime.class)).isEqualTo(DATE);
+        assertThat(first.get("paymentStatus").asText()).isEqualTo("SUCCESS");
+        assertThat(first.get("staffName").asText()).isEqualTo("Staff, \"Lan\"");
+        assertThat(first.get("orderItems")).hasSize(2);
+        assertThat(first.get("orderItems").get(1).get("productName").asText()).isEqualTo("Green tea");
+        assertThat(first.get("orderItems").get(1).get("price").floatValue()).isEqualTo(18000f);
+
+        // An order without items has an empty array, not an item of nulls
+        JsonNode second = objectMapper.readTree(lines.get(1));
+        assertThat(second.get("orderId").asInt()).isEqualTo(2);
+        assertThat(second.get("orderItems").isArray()).isTrue();
+        assertThat(second.get("orderItems")).isEmpty();
+
+        assertThat(objectMapper.readTree(lines.get(2)).get("orderItems").get(0).get("quantity").asInt()).isEqualTo(3);
+    }
+
+    @Test
+    void emptyExportWritesNothing() throws IOException {
+        assertThat(export(ExportFormat.NDJSON)).isEmpty();
+        assertThat(export(ExportFormat.CSV)).isEqualTo("order_id,order_date,grand_total,payment_status,staff_id," +
+                "staff_name,order_item_id,product_id,product_name,price,quantity\n");
+    }
+
+    // Values with a comma, a quote or a line break are quoted, their quotes doubled
+    @Test
+    void csvQuotesTheValuesThatNeedIt() throws IOException {
+        rows.add(row(1, 11, 101, "Coffee, ground", 25000f, 2));
+        rows.add(row(1, 12, 102, "Tea \"Oolong\"", 18000f, 1));
+        rows.add(row(2, 13, 103, "Milk\n1L", 30000f, 1));
+        rows.add(row(3, null, null, null, null, null));
+
+        String csv = export(ExportFormat.CSV);
+
+        assertThat(csv).isEqualTo("order_id,order_date,grand_total,payment_status,staff_id,staff_name,order_item_id," +
+                "product_id,product_name,price,quantity\n" +
+                "1,2024-06-03T09:30,100000.0,SUCCESS,7,\"Staff, \"\"Lan\"\"\",11,101,\"Coffee, ground\",25000.0,2\n" +
+                "1,2024-06-03T09:30,100000.0,SUCCESS,7,\"Staff, \"\"Lan\"\"\",12,102,\"Tea \"\"Oolong\"\"\",18000.0,1\n" +
+                "2,2024-06-03T09:30,100000.0,SUCCESS,7,\"Staff, \"\"Lan\"\"\",13,103,\"Milk\n1L\",30000.0,1\n" +
+                "3,2024-06-03T09:30,100000.0,SUCCESS,7,\"Staff, \"\"Lan\"\"\",,,,,\n");
+    }
+
+    private String export(ExportFormat format) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        orderExportService.exportOrders(null, null, format, outputStream);
+        return outputStream.toString(StandardCharsets.UTF_8);
+    }
+
+    private static OrderExportRow row(int orderId, Integer orderItemId, Integer productId, String productName, Float price,
+                                      Integer quantity) {
+        return new OrderExportRow(orderId, DATE, 100000f, PaymentStatus.SUCCESS, 7, "Staff, \"Lan\"", orderItemId,
+                productId, productName, price, quantity);
+    }
+}
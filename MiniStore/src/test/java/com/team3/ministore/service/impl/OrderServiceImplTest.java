@@ -0,0 +1,394 @@
+package com.team3.ministore.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.team3.ministore.config.VnPayConfig;
+import com.team3.ministore.dto.OrderDto;
+import com.team3.ministore.dto.OrderItemDto;
+import com.team3.ministore.dto.SeedOptions;
+import com.team3.ministore.metrics.QueryCountInspector;
+import com.team3.ministore.metrics.RequestQueries;
+import com.team3.ministore.model.Category;
+import com.team3.ministore.model.Order;
+import com.team3.ministore.model.Product;
+import com.team3.ministore.repository.OrderRepository;
+import com.team3.ministore.repository.ProductRepository;
+import com.team3.ministore.service.OrderExportService;
+import com.team3.ministore.service.OrderService;
+import com.team3.ministore.service.PaymentService;
+import com.team3.ministore.service.SeedService;
+import com.team3.ministore.service.StaffService;
+import com.team3.ministore.utils.ExportFormat;
+import com.team3.ministore.utils.PaymentResponseCode;
+import com.team3.ministore.utils.PaymentStatus;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class OrderServiceImplTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private SeedService seedService;
+
+    @Autowired
+    private StaffService staffService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private QueryCountInspector queryCountInspector;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private VnPayConfig vnPayConfig;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private List<Product> products;
+
+    @BeforeAll
+    void seed() {
+        seedService.seed(new SeedOptions(5, 40, 0, 1, 0, "123456", 42));
+        products = productRepository.findAll();
+    }
+
+    // Round trips of an order: whatever the size of the basket, its products are read in one query and its items
+    // written in one batch
+    @ParameterizedTest(name = "{0} items")
+    @ValueSource(ints = {1, 10, 30})
+    void orderReadsItsProductsAndWritesItsItemsOnce(int items) throws Exception {
+        queryCountInspector.start(null);
+        try {
+            orderService.createOrders(order(items, PaymentStatus.PENDING));
+        } finally {
+            RequestQueries queries = queryCountInspector.stop();
+            Map<String, Integer> shapes = queries.getRepeatedShapes(1);
+
+            assertThat(count(shapes, "select ", " from products ")).isEqualTo(1);
+            assertThat(count(shapes, "insert into orderitems ", "")).isEqualTo(1);
+            assertThat(count(shapes, "insert into orders ", "")).isEqualTo(1);
+        }
+    }
+
+    // Counting a sale writes the rollups only, the cached reference data stays
+    @Test
+    void saleKeepsTheCachedCategories() throws Exception {
+        Category category = products.get(0).getCategory();
+        assertThat(entityManagerFactory.getCache().contains(Category.class, category.getCategoryId())).isTrue();
+
+        orderService.createOrders(order(1, PaymentStatus.SUCCESS));
+
+        assertThat(entityManagerFactory.getCache().contains(Category.class, category.getCategoryId())).isTrue();
+    }
+
+    // An order holds its stock unless its payment failed, and counts as a sale once successful
+    @Test
+    void createdOrderHoldsStockUnlessFailed() throws Exception {
+        Product product = products.get(31);
+        int inventory = inventory(product.getProductId());
+        int sold = sold(product.getProductId());
+
+        orderService.createOrders(order(product, 3, PaymentStatus.FAILED));
+        assertThat(inventory(product.getProductId())).isEqualTo(inventory);
+        assertThat(sold(product.getProductId())).isEqualTo(sold);
+
+        orderService.createOrders(order(product, 3, PaymentStatus.SUCCESS));
+        assertThat(inventory(product.getProductId())).isEqualTo(inventory - 3);
+        assertThat(sold(product.getProductId())).isEqualTo(sold + 3);
+    }
+
+    @Test
+    void statusChangesMoveTheStockInAndOutOfFailed() throws Exception {
+        Product product = products.get(32);
+        int inventory = inventory(product.getProductId());
+        int sold = sold(product.getProductId());
+        Order order = orderService.createOrders(order(product, 2, PaymentStatus.PENDING));
+        assertThat(inventory(product.getProductId())).isEqualTo(inventory - 2);
+
+        orderService.updateOrderStatus(order.getOrderId(), PaymentStatus.FAILED);
+        assertThat(inventory(product.getProductId())).isEqualTo(inventory);
+
+        orderService.updateOrderStatus(order.getOrderId(), PaymentStatus.FAILED);
+        assertThat(inventory(product.getProductId())).isEqualTo(inventory);
+
+        orderService.updateOrderStatus(order.getOrderId(), PaymentStatus.SUCCESS);
+        assertThat(inventory(product.getProductId())).isEqualTo(inventory - 2);
+        assertThat(sold(product.getProductId())).isEqualTo(sold + 2);
+
+        orderService.updateOrderStatus(order.getOrderId(), PaymentStatus.PENDING);
+        assertThat(inventory(product.getProductId())).isEqualTo(inventory - 2);
+        assertThat(sold(product.getProductId())).isEqualTo(sold);
+
+        orderService.updateOrderStatus(order.getOrderId(), PaymentStatus.FAILED);
+        assertThat(inventory(product.getProductId())).isEqualTo(inventory);
+    }
+
+    // Deleting an order gives back its stock and its sale, a failed one holds neither
+    @Test
+    void deletedOrderGivesBackItsStock() throws Exception {
+        Product product = products.get(33);
+        int inventory = inventory(product.getProductId());
+        int sold = sold(product.getProductId());
+        Order successful = orderService.createOrders(order(product, 4, PaymentStatus.SUCCESS));
+        Order failed = orderService.createOrders(order(product, 5, PaymentStatus.FAILED));
+        assertThat(inventory(product.getProductId())).isEqualTo(inventory - 4);
+
+        orderService.deleteOrders(failed.getOrderId());
+        assertThat(inventory(product.getProductId())).isEqualTo(inventory - 4);
+
+        orderService.deleteOrders(successful.getOrderId());
+        assertThat(inventory(product.getProductId())).isEqualTo(inventory);
+        assertThat(sold(product.getProductId())).isEqualTo(sold);
+        assertThat(orderRepository.findById(successful.getOrderId())).isEmpty();
+    }
+
+    // Nothing of an order is saved when a product runs out, and a failed order is not retried without the stock
+    @Test
+    void notEnoughInventoryRollsTheOrderBack() throws Exception {
+        Product product = products.get(34);
+        Product other = products.get(35);
+        jdbcTemplate.update("UPDATE products SET inventory = 2 WHERE product_id = ?", product.getProductId());
+        int otherInventory = inventory(other.getProductId());
+        int orders = orderCount();
+
+        OrderDto dto = order(other, 1, PaymentStatus.PENDING);
+        dto.getOrderItems().addAll(order(product, 3, PaymentStatus.PENDING).getOrderItems());
+        assertThatThrownBy(() -> orderService.createOrders(dto)).isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Not enough inventory");
+
+        assertThat(orderCount()).isEqualTo(orders);
+        assertThat(inventory(product.getProductId())).isEqualTo(2);
+        assertThat(inventory(other.getProductId())).isEqualTo(otherInventory);
+
+        Order failed = orderService.createOrders(order(product, 3, PaymentStatus.FAILED));
+        assertThatThrownBy(() -> orderService.updateOrderStatus(failed.getOrderId(), PaymentStatus.SUCCESS))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("Not enough inventory");
+        assertThat(paymentStatus(failed)).isEqualTo(PaymentStatus.FAILED);
+        assertThat(inventory(product.getProductId())).isEqualTo(2);
+    }
+
+    // A notification signed with the hash secret confirms the payment once: its replays, from VNPay or the browser of
+    // the customer, are acknowledged without counting the sale again
+    @Test
+    void replayedNotificationCountsTheSaleOnce() throws Exception {
+        Order order = orderService.createOrders(order(2, PaymentStatus.PENDING));
+        int productId = products.get(0).getProductId();
+        int inventory = inventory(productId);
+        int sold = sold(productId);
+
+        Map<String, String> params = notification(order, "00");
+        assertThat(paymentService.confirmPayment(params).get().getResponseCode()).isEqualTo(PaymentResponseCode.CONFIRMED);
+        assertThat(paymentStatus(order)).isEqualTo(PaymentStatus.SUCCESS);
+        assertThat(sold(productId)).isEqualTo(sold + 1);
+
+        assertThat(paymentService.confirmPayment(params).get().getResponseCode()).isEqualTo(PaymentResponseCode.CONFIRMED);
+        assertThat(orderService.confirmPayment(order.getOrderId(), amount(order), PaymentStatus.SUCCESS).getResponseCode())
+                .isEqualTo(PaymentResponseCode.ALREADY_CONFIRMED);
+        assertThat(orderService.confirmPayment(order.getOrderId(), amount(order), PaymentStatus.FAILED).getResponseCode())
+                .isEqualTo(PaymentResponseCode.ALREADY_CONFIRMED);
+        // Of two notifications read as PENDING at once, only the first update matches the order
+        Integer updated = new TransactionTemplate(transactionManager).execute(status -> orderRepository.updatePaymentStatus(
+                order.getOrderId(), PaymentStatus.PENDING, PaymentStatus.FAILED));
+        assertThat(updated).isZero();
+
+        assertThat(paymentStatus(order)).isEqualTo(PaymentStatus.SUCCESS);
+        assertThat(sold(productId)).isEqualTo(sold + 1);
+        assertThat(inventory(productId)).isEqualTo(inventory);
+    }
+
+    @Test
+    void replayedFailedPaymentPutsTheStockBackOnce() throws Exception {
+        int productId = products.get(0).getProductId();
+        int inventory = inventory(productId);
+        int sold = sold(productId);
+        Order order = orderService.createOrders(order(1, PaymentStatus.PENDING));
+        assertThat(inventory(productId)).isEqualTo(inventory - 1);
+
+        Map<String, String> params = notification(order, "24");
+        for (int i = 0; i < 2; i++) {
+            assertThat(paymentService.confirmPayment(params).get().getResponseCode()).isEqualTo(PaymentResponseCode.CONFIRMED);
+        }
+        assertThat(orderService.confirmPayment(order.getOrderId(), amount(order), PaymentStatus.FAILED).getResponseCode())
+                .isEqualTo(PaymentResponseCode.ALREADY_CONFIRMED);
+
+        assertThat(paymentStatus(order)).isEqualTo(PaymentStatus.FAILED);
+        assertThat(inventory(productId)).isEqualTo(inventory);
+        assertThat(sold(productId)).isEqualTo(sold);
+    }
+
+    @Test
+    void forgedNotificationIsRejected() throws Exception {
+        Order order = orderService.createOrders(order(1, PaymentStatus.PENDING));
+        int sold = sold(products.get(0).getProductId());
+
+        // A failed payment passed off as a successful one
+        Map<String, String> params = notification(order, "24");
+        params.put("vnp_ResponseCode", "00");
+
+        assertThat(paymentService.confirmPayment(params).get().getResponseCode())
+                .isEqualTo(PaymentResponseCode.INVALID_CHECKSUM);
+        assertThat(paymentStatus(order)).isEqualTo(PaymentStatus.PENDING);
+        assertThat(sold(products.get(0).getProductId())).isEqualTo(sold);
+    }
+
+    @Test
+    void wrongAmountIsRejected() throws Exception {
+        Order order = orderService.createOrders(order(1, PaymentStatus.PENDING));
+
+        Map<String, String> params = notification(order, "00");
+        params.put("vnp_Amount", String.valueOf(amount(order) - 100));
+        params.put("vnp_SecureHash", vnPayConfig.secureHash(params));
+
+        assertThat(paymentService.confirmPayment(params).get().getResponseCode())
+                .isEqualTo(PaymentResponseCode.INVALID_AMOUNT);
+        assertThat(paymentStatus(order)).isEqualTo(PaymentStatus.PENDING);
+    }
+
+    // The export reads the orders through the streaming cursor, one line per order with the prices it was sold at
+    @Test
+    void exportStreamsOneLinePerOrder() throws Exception {
+        Product product = products.get(36);
+        Product other = products.get(37);
+        OrderDto dto = order(List.of(product, other), 2, PaymentStatus.PENDING);
+        dto.setOrderDate(LocalDateTime.of(2001, 2, 3, 10, 0));
+        Order order = orderService.createOrders(dto);
+        OrderDto emptyDto = order(List.of(), 1, PaymentStatus.PENDING);
+        emptyDto.setOrderDate(LocalDateTime.of(2001, 2, 3, 11, 0));
+        Order empty = orderService.createOrders(emptyDto);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        jdbcTemplate.update("UPDATE products SET price = price + 1000 WHERE product_id = ?", product.getProductId());
+        try {
+            orderExportService.exportOrders(LocalDateTime.of(2001, 2, 3, 0, 0), LocalDateTime.of(2001, 2, 3, 23, 59),
+                    ExportFormat.NDJSON, outputStream);
+        } finally {
+            jdbcTemplate.update("UPDATE products SET price = price - 1000 WHERE product_id = ?", product.getProductId());
+        }
+
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : outputStream.toString(StandardCharsets.UTF_8).split("\n")) lines.add(objectMapper.readTree(line));
+
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(0).get("orderId").asInt()).isEqualTo(order.getOrderId());
+        JsonNode items = lines.get(0).get("orderItems");
+        assertThat(items).hasSize(2);
+        assertThat(items.get(0).get("productId").asInt()).isEqualTo(product.getProductId());
+        assertThat(items.get(0).get("price").floatValue()).isEqualTo(product.getPrice());
+        assertThat(items.get(1).get("productId").asInt()).isEqualTo(other.getProductId());
+        assertThat(items.get(1).get("quantity").asInt()).isEqualTo(2);
+
+        assertThat(lines.get(1).get("orderId").asInt()).isEqualTo(empty.getOrderId());
+        assertThat(lines.get(1).get("orderItems")).isEmpty();
+    }
+
+    private OrderDto order(int items, PaymentStatus status) {
+        return order(products.subList(0, items), 1, status);
+    }
+
+    private OrderDto order(Product product, int quantity, PaymentStatus status) {
+        return order(List.of(product), quantity, status);
+    }
+
+    private OrderDto order(List<Product> products, int quantity, PaymentStatus status) {
+        List<OrderItemDto> orderItems = products.stream().map(product -> {
+            OrderItemDto item = new OrderItemDto();
+            item.setProductId(product.getProductId());
+            item.setQuantity(quantity);
+            return item;
+        }).collect(Collectors.toCollection(ArrayList::new));
+
+        OrderDto dto = new OrderDto();
+        dto.setStaffId(staffService.getAllStaffs().get(0).getStaffId());
+        dto.setOrderDate(LocalDateTime.now());
+        dto.setGrandTotal(10000f * products.size() * quantity);
+        dto.setPaymentStatus(status);
+        dto.setOrderItems(orderItems);
+        return dto;
+    }
+
+    // The parameters VNPay sends for the payment of the order, signed with the hash secret
+    private Map<String, String> notification(Order order, String responseCode) {
+        Map<String, String> params = new HashMap<>();
+        params.put("vnp_Amount", String.valueOf(amount(order)));
+        params.put("vnp_OrderInfo", "Thanh toan don hang: " + order.getOrderId());
+        params.put("vnp_ResponseCode", responseCode);
+        params.put("vnp_TxnRef", String.valueOf(order.getOrderId()));
+        params.put("vnp_SecureHash", vnPayConfig.secureHash(params));
+        return params;
+    }
+
+    private static long amount(Order order) {
+        return Math.round(order.getGrandTotal() * 100d);
+    }
+
+    private PaymentStatus paymentStatus(Order order) {
+        return orderRepository.findById(order.getOrderId()).orElseThrow().getPaymentStatus();
+    }
+
+    private int inventory(int productId) {
+        return jdbcTemplate.queryForObject("SELECT inventory FROM products WHERE product_id = ?", Integer.class, productId);
+    }
+
+    private int orderCount() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders", Integer.class);
+    }
+
+    // Quantity of the product in the sales rollups
+    private int sold(int productId) {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(SUM(quantity), 0) FROM dailyproductsales WHERE product_id = ?",
+                Integer.class, productId);
+    }
+
+    // Statements run of the shapes starting with the prefix and containing the text
+    private static int count(Map<String, Integer> shapes, String prefix, String text) {
+        return shapes.entrySet().stream()
+                .filter(shape -> shape.getKey().toLowerCase().startsWith(prefix) && shape.getKey().toLowerCase().contains(text))
+                .mapToInt(Map.Entry::getValue).sum();
+    }
+}
@@ -0,0 +1,168 @@
+package com.team3.ministore.service.impl;
+
+import com.team3.ministore.common.exception.ShiftConflictException;
+import com.team3.ministore.dto.CreateShiftDto;
+import com.team3.ministore.dto.LeaveSlot;
+import com.team3.ministore.dto.ShiftConflict;
+import com.team3.ministore.dto.ShiftSlot;
+import com.team3.ministore.model.Shift;
+import com.team3.ministore.model.Staff;
+import com.team3.ministore.repository.LeaveRequestRepository;
+import com.team3.ministore.repository.ShiftRepository;
+import com.team3.ministore.repository.StaffRepository;
+import com.team3.ministore.utils.LeaveStatus;
+import com.team3.ministore.utils.Role;
+import com.team3.ministore.utils.ShiftConflictType;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Time;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+
+// The conflicts of submitted shifts with each other, with the saved shifts and with the approved leaves of their
+// staff, on repositories answering from lists, and the conflicting shifts are never saved
+class ShiftServiceImplTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2024, 6, 3);
+    private static final int STAFF_ID = 7;
+
+    private final ShiftServiceImpl shiftService = new ShiftServiceImpl();
+
+    private final List<ShiftSlot> savedShifts = new ArrayList<>();
+
+    private final List<LeaveSlot> leaves = new ArrayList<>();
+
+    private final ShiftRepository shiftRepository = Mockito.mock(ShiftRepository.class);
+
+    private final StaffRepository staffRepository = Mockito.mock(StaffRepository.class);
+
+    ShiftServiceImplTest() {
+        Mockito.when(shiftRepository.findSlotsByStaffIdsAndDateBetween(anyCollection(), any(), any()))
+                .thenAnswer(invocation -> savedShifts);
+        LeaveRequestRepository leaveRequestRepository = Mockito.mock(LeaveRequestRepository.class);
+        Mockito.when(leaveRequestRepository.findSlotsByStaffIdsAndStatusAndDates(anyCollection(), eq(LeaveStatus.APPROVED),
+                any(), any())).thenAnswer(invocation -> leaves);
+
+        ReflectionTestUtils.setField(shiftService, "shiftRepository", shiftRepository);
+        ReflectionTestUtils.setField(shiftService, "staffRepository", staffRepository);
+        ReflectionTestUtils.setField(shiftService, "leaveRequestRepository", leaveRequestRepository);
+    }
+
+    @Test
+    void overnightShiftOverlapsTheMorningOfTheNextDay() {
+        savedShifts.add(new ShiftSlot(1, STAFF_ID, MONDAY, Time.valueOf("22:00:00"), Time.valueOf("06:00:00")));
+
+        List<ShiftConflict> conflicts = shiftService.getConflicts(List.of(shift(MONDAY.plusDays(1), "05:00:00", "13:00:00")));
+
+        assertThat(conflicts).hasSize(1);
+        assertThat(conflicts.get(0).getType()).isEqualTo(ShiftConflictType.OVERLAPPING_SHIFT);
+        assertThat(conflicts.get(0).getConflictingShiftId()).isEqualTo(1);
+        assertThat(shiftService.getConflicts(List.of(shift(MONDAY.plusDays(1), "06:00:00", "14:00:00")))).isEmpty();
+    }
+
+    @Test
+    void submittedShiftsConflictWithEachOther() {
+        List<ShiftConflict> conflicts = shiftService.getConflicts(List.of(
+                shift(MONDAY, "08:00:00", "16:00:00"),
+                shift(MONDAY, "23:00:00", "07:00:00"),
+                shift(MONDAY.plusDays(1), "06:00:00", "10:00:00")));
+
+        assertThat(conflicts).extracting(ShiftConflict::getIndex, ShiftConflict::getConflictingIndex)
+                .containsExactly(tuple(1, 2), tuple(2, 1));
+    }
+
+    @Test
+    void everyDayOfAnApprovedLeaveConflicts() {
+        leaves.add(new LeaveSlot(3, STAFF_ID, MONDAY.plusDays(1), MONDAY.plusDays(2)));
+
+        List<ShiftConflict> conflicts = shiftService.getConflicts(List.of(
+                shift(MONDAY, "08:00:00", "16:00:00"),
+                shift(MONDAY, "22:00:00", "02:00:00"),
+                shift(MONDAY.plusDays(2), "20:00:00", "23:59:00"),
+                shift(MONDAY.plusDays(3), "00:00:00", "08:00:00")));
+
+        assertThat(conflicts).extracting(ShiftConflict::getIndex).containsExactly(1, 2);
+        assertThat(conflicts).allSatisfy(conflict -> {
+            assertThat(conflict.getType()).isEqualTo(ShiftConflictType.APPROVED_LEAVE);
+            assertThat(conflict.getLeaveRequestId()).isEqualTo(3);
+        });
+    }
+
+    @Test
+    void updatedShiftIsNotCheckedAgainstItsSavedVersion() {
+        savedShifts.add(new ShiftSlot(1, STAFF_ID, MONDAY, Time.valueOf("08:00:00"), Time.valueOf("16:00:00")));
+        savedShifts.add(new ShiftSlot(2, STAFF_ID, MONDAY, Time.valueOf("16:00:00"), Time.valueOf("20:00:00")));
+
+        assertThat(shiftService.getConflicts(1, shift(MONDAY, "09:00:00", "16:00:00"))).isEmpty();
+
+        List<ShiftConflict> conflicts = shiftService.getConflicts(1, shift(MONDAY, "09:00:00", "17:00:00"));
+        assertThat(conflicts).extracting(ShiftConflict::getConflictingShiftId).containsExactly(2);
+    }
+
+    @Test
+    void shiftsOfOtherStaffsDoNotConflict() {
+        savedShifts.add(new ShiftSlot(1, STAFF_ID + 1, MONDAY, Time.valueOf("08:00:00"), Time.valueOf("16:00:00")));
+        leaves.add(new LeaveSlot(3, STAFF_ID + 1, MONDAY, MONDAY));
+
+        CreateShiftDto other = shift(MONDAY, "08:00:00", "16:00:00");
+        other.setStaffId(STAFF_ID + 1);
+        assertThat(shiftService.getConflicts(List.of(shift(MONDAY, "08:00:00", "16:00:00"), other)))
+                .extracting(ShiftConflict::getIndex).containsExactly(1, 1);
+    }
+
+    @Test
+    void conflictingShiftsAreNotSaved() {
+        savedShifts.add(new ShiftSlot(1, STAFF_ID, MONDAY, Time.valueOf("08:00:00"), Time.valueOf("16:00:00")));
+
+        assertThatThrownBy(() -> shiftService.createShift(shift(MONDAY, "12:00:00", "20:00:00")))
+                .isInstanceOfSatisfying(ShiftConflictException.class, e -> assertThat(e.getConflicts())
+                        .extracting(ShiftConflict::getConflictingShiftId).containsExactly(1));
+        assertThatThrownBy(() -> shiftService.createShifts(List.of(shift(MONDAY.plusDays(1), "08:00:00", "16:00:00"),
+                shift(MONDAY, "15:00:00", "18:00:00")))).isInstanceOf(ShiftConflictException.class);
+
+        Mockito.verify(shiftRepository, Mockito.never()).save(any());
+        Mockito.verify(shiftRepository, Mockito.never()).saveAll(any());
+    }
+
+    @Test
+    void conflictingUpdateIsNotSaved() {
+        Staff staff = new Staff();
+        staff.setStaffId(STAFF_ID);
+        Shift saved = new Shift();
+        saved.setShiftId(1);
+        saved.setStaff(staff);
+        Mockito.when(shiftRepository.findById(1)).thenReturn(Optional.of(saved));
+        savedShifts.add(new ShiftSlot(1, STAFF_ID, MONDAY, Time.valueOf("08:00:00"), Time.valueOf("16:00:00")));
+        savedShifts.add(new ShiftSlot(2, STAFF_ID, MONDAY, Time.valueOf("16:00:00"), Time.valueOf("20:00:00")));
+
+        assertThatThrownBy(() -> shiftService.updateShift(1, staff, shift(MONDAY, "09:00:00", "17:00:00")))
+                .isInstanceOf(ShiftConflictException.class);
+        Mockito.verify(shiftRepository, Mockito.never()).save(any());
+        assertThat(saved.getEndTime()).isNull();
+
+        assertThat(shiftService.updateShift(2, staff, shift(MONDAY, "09:00:00", "17:00:00"))).isEmpty();
+    }
+
+    private static CreateShiftDto shift(LocalDate date, String startTime, String endTime) {
+        CreateShiftDto dto = new CreateShiftDto();
+        dto.setStaffId(STAFF_ID);
+        dto.setDate(date);
+        dto.setStartTime(Time.valueOf(startTime));
+        dto.setEndTime(Time.valueOf(endTime));
+        dto.setName("Shift");
+        dto.setSalaryCoefficient(1f);
+        dto.setRole(Role.CASHIER);
+        return dto;
+    }
+}
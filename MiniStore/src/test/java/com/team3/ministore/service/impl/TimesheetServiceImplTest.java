@@ -0,0 +1,145 @@
+package com.team3.ministore.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.team3.ministore.dto.*;
+import com.team3.ministore.model.Salary;
+import com.team3.ministore.model.Shift;
+import com.team3.ministore.model.Staff;
+import com.team3.ministore.repository.ShiftCoverRequestRepository;
+import com.team3.ministore.service.*;
+import com.team3.ministore.utils.LeaveStatus;
+import com.team3.ministore.utils.ShiftCoverStatus;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The payroll computed from the bulk queries against the per-staff computation it replaced, on seeded shifts,
+// timesheets, leaves and cover requests
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class TimesheetServiceImplTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Autowired
+    private TimesheetService timesheetService;
+
+    @Autowired
+    private SeedService seedService;
+
+    @Autowired
+    private StaffService staffService;
+
+    @Autowired
+    private LeaveRequestService leaveRequestService;
+
+    @Autowired
+    private ShiftService shiftService;
+
+    @Autowired
+    private ShiftCoverRequestService shiftCoverRequestService;
+
+    @Autowired
+    private SalaryService salaryService;
+
+    @Autowired
+    private ShiftCoverRequestRepository shiftCoverRequestRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeAll
+    void seed() {
+        seedService.seed(new SeedOptions(60, 20, 50, 60, 14, "123456", 42));
+    }
+
+    @Test
+    void payrollMatchesPerStaffComputation() throws Exception {
+        LocalDate fromDate = TODAY.minusDays(30);
+        LocalDate toDate = TODAY.plusDays(7);
+
+        List<StaffDto> expected = transactionTemplate.execute(status -> getPerStaffPayroll(staffService.getAllStaffs(), fromDate, toDate));
+        List<StaffDto> payroll = timesheetService.getPayroll(fromDate, toDate);
+
+        // The period has to cover every case of the computation
+        assertThat(expected).anyMatch(staff -> !staff.getLeaveRequests().isEmpty());
+        assertThat(expected).flatMap(StaffDto::getShifts).anyMatch(shift -> shift.getTimesheet() != null && shift.getTimesheet().getSalary() != null);
+        assertThat(shiftCoverRequestRepository.findAll()).anyMatch(cover -> cover.getStatus() == ShiftCoverStatus.APPROVED
+                && !cover.getShift().getDate().isBefore(fromDate) && !cover.getShift().getDate().isAfter(toDate));
+
+        assertThat(objectMapper.writeValueAsString(payroll)).isEqualTo(objectMapper.writeValueAsString(expected));
+    }
+
+    @Test
+    void searchedPayrollMatchesPerStaffComputation() throws Exception {
+        LocalDate fromDate = TODAY.minusDays(59);
+        LocalDate toDate = TODAY;
+
+        List<StaffDto> expected = transactionTemplate.execute(status -> getPerStaffPayroll(staffService.getAllStaffs("Staff 1"), fromDate, toDate));
+        List<StaffDto> payroll = timesheetService.getPayroll("Staff 1", fromDate, toDate);
+
+        assertThat(payroll).isNotEmpty();
+        assertThat(objectMapper.writeValueAsString(payroll)).isEqualTo(objectMapper.writeValueAsString(expected));
+    }
+
+    // The payroll as computed before the bulk queries, with a leave, a shift and a cover query per staff and a salary
+    // query per timesheet
+    private List<StaffDto> getPerStaffPayroll(List<Staff> staffs, LocalDate fromDate, LocalDate toDate) {
+        return staffs.stream().map(staff -> {
+            List<LeaveRequestDto> leaveRequestDtos = leaveRequestService
+                    .getLeaveRequestsByStaffIdAndDates(staff.getStaffId(), fromDate, toDate)
+                    .stream().filter(leaveRequestDto -> leaveRequestDto.getStatus().equals(LeaveStatus.APPROVED))
+                    .collect(Collectors.toList());
+            List<Shift> shifts = shiftService.getAllShiftsByStaffId(staff.getStaffId(), fromDate, toDate);
+            List<ShiftDto> shiftDtos = shifts.stream()
+                    .filter(s -> s.getShiftCoverRequest() == null || s.getShiftCoverRequest().getStatus() != ShiftCoverStatus.APPROVED)
+                    .filter(shift -> {
+                        for (LeaveRequestDto leaveRequestDto : leaveRequestDtos) {
+                            if (leaveRequestDto.getStartDate().isEqual(shift.getDate())
+                                    || leaveRequestDto.getEndDate().isEqual(shift.getDate())
+                                    || (leaveRequestDto.getStartDate().isBefore(shift.getDate()) && leaveRequestDto.getEndDate().isAfter(shift.getDate())))
+                                return false;
+                        }
+                        return true;
+                    })
+                    .map(ShiftDto::new).collect(Collectors.toList());
+
+            List<ShiftCoverDto> shiftCoverDtos = shiftCoverRequestService
+                    .getShiftCoverRequestsByStaffIdAndDates(staff.getStaffId(), fromDate, toDate)
+                    .stream().filter(s -> s.getStatus() == ShiftCoverStatus.APPROVED).collect(Collectors.toList());
+
+            shiftCoverDtos.stream().map(ShiftCoverDto::getShift)
+                    .forEach(shift -> {
+                        if (shiftDtos.stream().noneMatch(shift1 -> shift1.getShiftId() == shift.getShiftId()))
+                            shiftDtos.add(shift);
+                    });
+
+            List<ShiftDto> lShifts = shiftDtos.stream()
+                    .filter(ShiftDto::getPublished)
+                    .peek(shiftDto -> {
+                        if (shiftDto.getTimesheet() == null) return;
+                        Optional<Salary> salary = salaryService.getSalaryById(shiftDto.getTimesheet().getSalaryId());
+                        if (salary.isEmpty()) return;
+                        shiftDto.getTimesheet().setSalary(new SalaryDto(salary.get()));
+                    })
+                    .collect(Collectors.toList());
+
+            return new StaffDto(staff, lShifts, leaveRequestDtos);
+        }).collect(Collectors.toList());
+    }
+}
@@ -14,6 +14,8 @@ CREATE TABLE staffs (
     image NVARCHAR(200),
     email NVARCHAR(200),
     work_days NVARCHAR(200),
+    -- Hours of the week the staff can work (see migrations/V4__staff_availability.sql), read from work_days while NULL
+    availability VARBINARY(21),
     leave_balance INT,
     PRIMARY KEY (staff_id)
 );
@@ -158,13 +160,61 @@ CREATE TABLE orderitems (
 	order_id INT NOT NULL,
 	product_id INT NOT NULL,
 	quantity INT,
+	unit_price FLOAT,
+	category_id INT,
 	PRIMARY KEY (order_item_id),
 	FOREIGN KEY (order_id) REFERENCES orders(order_id) ON DELETE cascade,
 	FOREIGN KEY (product_id) REFERENCES products(product_id) ON DELETE cascade
 );
 
+CREATE TABLE dailyproductsales (
+	daily_product_sales_id INT AUTO_INCREMENT NOT NULL,
+	sales_date DATE NOT NULL,
+	product_id INT NOT NULL,
+	category_id INT,
+	quantity INT NOT NULL DEFAULT 0,
+	revenue DOUBLE NOT NULL DEFAULT 0,
+	PRIMARY KEY (daily_product_sales_id),
+	UNIQUE KEY uk_dailyproductsales (sales_date, product_id)
+);
+
+CREATE TABLE hourlystaffsales (
+	hourly_staff_sales_id INT AUTO_INCREMENT NOT NULL,
+	sales_date DATE NOT NULL,
+	sales_hour INT NOT NULL,
+	staff_id INT NOT NULL,
+	order_count INT NOT NULL DEFAULT 0,
+	revenue DOUBLE NOT NULL DEFAULT 0,
+	PRIMARY KEY (hourly_staff_sales_id),
+	UNIQUE KEY uk_hourlystaffsales (sales_date, sales_hour, staff_id)
+);
+
+
+-- Id sequences of the bulk tables (see migrations/V3__id_sequences.sql), the row holds the last id handed out
+CREATE TABLE id_sequences (
+	sequence_name VARCHAR(255) NOT NULL,
+	last_id BIGINT,
+	PRIMARY KEY (sequence_name)
+);
+INSERT INTO id_sequences (sequence_name, last_id) VALUES
+	('orders', 0), ('orderitems', 0), ('shifts', 0), ('timesheets', 0), ('salaries', 0), ('scheduleshifttemplates', 0);
+
 
 alter table timesheets add FOREIGN KEY (shift_id) REFERENCES shifts(shift_id) ON DELETE cascade;
 alter table timesheets add FOREIGN KEY (staff_id) REFERENCES staffs(staff_id) ON DELETE cascade;
 alter table timesheets add FOREIGN KEY (salary_id) REFERENCES salaries(salary_id) ON DELETE SET NULL;
-alter table shiftcoverrequests add FOREIGN KEY (shift_id) REFERENCES shifts(shift_id) ON DELETE cascade;
\ No newline at end of file
+alter table shiftcoverrequests add FOREIGN KEY (shift_id) REFERENCES shifts(shift_id) ON DELETE cascade;
+-- Indexes (see migrations/V2__query_indexes.sql for the queries they serve)
+CREATE INDEX idx_orders_order_date ON orders (order_date, order_id);
+CREATE INDEX idx_orders_grand_total ON orders (grand_total);
+CREATE INDEX idx_shifts_staff_date ON shifts (staff_id, date);
+CREATE INDEX idx_shifts_date ON shifts (date);
+CREATE INDEX idx_shiftcoverrequests_status ON shiftcoverrequests (status, shift_id);
+CREATE UNIQUE INDEX ux_products_barcode ON products (barcode);
+CREATE INDEX idx_staffs_username ON staffs (username);
+CREATE INDEX idx_staffs_email ON staffs (email);
+CREATE INDEX idx_leaverequests_staff_dates ON leaverequests (staff_id, start_date, end_date);
+CREATE INDEX idx_leaverequests_status_dates ON leaverequests (status, start_date, end_date);
+CREATE INDEX idx_salaries_staff_current ON salaries (staff_id, termination_date, effective_date);
+CREATE INDEX idx_salaries_current ON salaries (termination_date, effective_date);
+CREATE INDEX idx_holidays_dates ON holidays (start_date, end_date);
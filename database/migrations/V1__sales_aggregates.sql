@@ -0,0 +1,42 @@
+-- Daily sales rollups maintained by the application when an order reaches SUCCESS (payment_status = 1).
+-- Run once on an existing database, the INSERT ... SELECT statements backfill the orders already paid.
+USE ministore;
+
+CREATE TABLE IF NOT EXISTS dailyproductsales (
+	daily_product_sales_id INT AUTO_INCREMENT NOT NULL,
+	sales_date DATE NOT NULL,
+	product_id INT NOT NULL,
+	category_id INT,
+	quantity INT NOT NULL DEFAULT 0,
+	revenue DOUBLE NOT NULL DEFAULT 0,
+	PRIMARY KEY (daily_product_sales_id),
+	UNIQUE KEY uk_dailyproductsales (sales_date, product_id)
+);
+
+CREATE TABLE IF NOT EXISTS hourlystaffsales (
+	hourly_staff_sales_id INT AUTO_INCREMENT NOT NULL,
+	sales_date DATE NOT NULL,
+	sales_hour INT NOT NULL,
+	staff_id INT NOT NULL,
+	order_count INT NOT NULL DEFAULT 0,
+	revenue DOUBLE NOT NULL DEFAULT 0,
+	PRIMARY KEY (hourly_staff_sales_id),
+	UNIQUE KEY uk_hourlystaffsales (sales_date, sales_hour, staff_id)
+);
+
+DELETE FROM dailyproductsales;
+DELETE FROM hourlystaffsales;
+
+INSERT INTO dailyproductsales (sales_date, product_id, category_id, quantity, revenue)
+SELECT DATE(o.order_date), p.product_id, p.category_id, SUM(oi.quantity), SUM(oi.quantity * COALESCE(p.price, 0))
+FROM orderitems oi
+JOIN orders o ON o.order_id = oi.order_id
+JOIN products p ON p.product_id = oi.product_id
+WHERE o.payment_status = 1
+GROUP BY DATE(o.order_date), p.product_id, p.category_id;
+
+INSERT INTO hourlystaffsales (sales_date, sales_hour, staff_id, order_count, revenue)
+SELECT DATE(o.order_date), HOUR(o.order_date), COALESCE(o.staff_id, 0), COUNT(*), SUM(COALESCE(o.grand_total, 0))
+FROM orders o
+WHERE o.payment_status = 1
+GROUP BY DATE(o.order_date), HOUR(o.order_date), COALESCE(o.staff_id, 0);
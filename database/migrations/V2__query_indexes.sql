@@ -0,0 +1,38 @@
+-- Secondary indexes matching the filters and sort orders of the Spring Data repositories.
+-- Foreign key columns already have an index created by InnoDB, only composite or missing ones are added here.
+-- LIKE '%...%' searches on names cannot use a B-tree index and are not covered.
+USE ministore;
+
+-- OrderRepository.findAllByFilters / findAllByFiltersAfter / streamExportRows: range on order_date, sort and seek on (order_date, order_id)
+CREATE INDEX idx_orders_order_date ON orders (order_date, order_id);
+-- OrderRepository.findAllByFilters: amount range when no date range is given
+CREATE INDEX idx_orders_grand_total ON orders (grand_total);
+
+-- ShiftRepository.findAllByStaff_StaffIdAndDateBetween, ShiftCoverRequestRepository.findAllByStaff_StaffIdAndShift_DateBetween
+CREATE INDEX idx_shifts_staff_date ON shifts (staff_id, date);
+-- ShiftRepository.findAllByDateBetween / findAllWithDetailsByDateBetween, TimesheetRepository.*Shift_DateBetween
+CREATE INDEX idx_shifts_date ON shifts (date);
+
+-- ShiftCoverRequestRepository.findAllWithDetailsByStatusAndShiftDates
+CREATE INDEX idx_shiftcoverrequests_status ON shiftcoverrequests (status, shift_id);
+
+-- ProductRepository.findFirstByBarCode
+CREATE INDEX idx_products_barcode ON products (barcode);
+
+-- StaffRepository.findByUsername (every login) / findByEmail
+-- Not unique on purpose: uniqueness is checked by the application and existing data may hold duplicates
+CREATE INDEX idx_staffs_username ON staffs (username);
+CREATE INDEX idx_staffs_email ON staffs (email);
+
+-- LeaveRequestRepository.findLeaveRequestsByStaffIdAndDates
+CREATE INDEX idx_leaverequests_staff_dates ON leaverequests (staff_id, start_date, end_date);
+-- LeaveRequestRepository.findLeaveRequestsByStatusAndDates
+CREATE INDEX idx_leaverequests_status_dates ON leaverequests (status, start_date, end_date);
+
+-- SalaryRepository.findSalaryInformationByStaffId: current salary of a staff
+CREATE INDEX idx_salaries_staff_current ON salaries (staff_id, termination_date, effective_date);
+-- SalaryRepository.findSalaryOfAllStaffs
+CREATE INDEX idx_salaries_current ON salaries (termination_date, effective_date);
+
+-- HolidaysRepository.findAllByDates
+CREATE INDEX idx_holidays_dates ON holidays (start_date, end_date);
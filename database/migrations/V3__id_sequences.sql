@@ -0,0 +1,21 @@
+-- Id sequences emulated with a table (see IdSequenceRepository), so that Hibernate can batch the inserts of the
+-- bulk tables: with AUTO_INCREMENT ids it has to run every INSERT on its own to read the generated id.
+-- A row holds the last id handed out, Hibernate reserves 50 ids at a time from it.
+-- Run once on an existing database, with the application stopped: the sequences start after the largest ids.
+-- The id columns keep AUTO_INCREMENT, the application always sends the ids of these tables.
+USE ministore;
+
+CREATE TABLE IF NOT EXISTS id_sequences (
+	sequence_name VARCHAR(255) NOT NULL,
+	last_id BIGINT,
+	PRIMARY KEY (sequence_name)
+);
+
+INSERT INTO id_sequences (sequence_name, last_id)
+SELECT 'orders', COALESCE(MAX(order_id), 0) FROM orders
+UNION ALL SELECT 'orderitems', COALESCE(MAX(order_item_id), 0) FROM orderitems
+UNION ALL SELECT 'shifts', COALESCE(MAX(shift_id), 0) FROM shifts
+UNION ALL SELECT 'timesheets', COALESCE(MAX(timesheet_id), 0) FROM timesheets
+UNION ALL SELECT 'salaries', COALESCE(MAX(salary_id), 0) FROM salaries
+UNION ALL SELECT 'scheduleshifttemplates', COALESCE(MAX(schedule_shift_template_id), 0) FROM scheduleshifttemplates
+ON DUPLICATE KEY UPDATE last_id = GREATEST(last_id, VALUES(last_id));
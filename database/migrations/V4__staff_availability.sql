@@ -0,0 +1,24 @@
+-- Hours of the week each staff can work (see Availability), 168 bits: bit day * 24 + hour with Monday 0:00 as bit 0,
+-- bit i in byte i / 8, so every day is three bytes. Replaces reading the free text of work_days, which stays for display.
+-- Run once on an existing database. Only a plain list of days ("MON, TUE, WED", "Monday & Friday": words starting with
+-- the first three letters of a day, separated by spaces, commas, slashes...) is read here, as whole days.
+-- The rows with anything else, ranges ("Mon - Fri", "Monday to Friday"), "Weekdays", "Whole week" or empty text,
+-- stay NULL: the application reads them from work_days with WorkDays.parse, the one reading of ranges and words.
+USE ministore;
+
+ALTER TABLE staffs ADD COLUMN availability VARBINARY(21) AFTER work_days;
+
+UPDATE staffs SET availability = CONCAT(
+		IF(UPPER(work_days) REGEXP '(^|[^A-Z])MON', X'FFFFFF', X'000000'),
+		IF(UPPER(work_days) REGEXP '(^|[^A-Z])TUE', X'FFFFFF', X'000000'),
+		IF(UPPER(work_days) REGEXP '(^|[^A-Z])WED', X'FFFFFF', X'000000'),
+		IF(UPPER(work_days) REGEXP '(^|[^A-Z])THU', X'FFFFFF', X'000000'),
+		IF(UPPER(work_days) REGEXP '(^|[^A-Z])FRI', X'FFFFFF', X'000000'),
+		IF(UPPER(work_days) REGEXP '(^|[^A-Z])SAT', X'FFFFFF', X'000000'),
+		IF(UPPER(work_days) REGEXP '(^|[^A-Z])SUN', X'FFFFFF', X'000000'))
+WHERE availability IS NULL
+	AND UPPER(work_days) REGEXP '^[ ,;/&.+]*(MON|TUE|WED|THU|FRI|SAT|SUN)[A-Z]*([ ,;/&.+]+(MON|TUE|WED|THU|FRI|SAT|SUN)[A-Z]*)*[ ,;/&.+]*$';
+
+-- The rows left to the application. The ones without any day, range or week word it can read get no hours (logged
+-- at startup) until they are set through PUT /staffs/{id}/availability.
+SELECT staff_id, staff_name, work_days FROM staffs WHERE availability IS NULL;
@@ -0,0 +1,12 @@
+-- Price and category of each order item when the order was placed, so that the sales rollups count an order and take
+-- it back with the same numbers after the product is repriced or moved to another category.
+-- Run once on an existing database. The items already saved get the current price and category of their product,
+-- which is what the rollups were computed with until now.
+USE ministore;
+
+ALTER TABLE orderitems ADD COLUMN unit_price FLOAT AFTER quantity, ADD COLUMN category_id INT AFTER unit_price;
+
+UPDATE orderitems oi
+JOIN products p ON p.product_id = oi.product_id
+SET oi.unit_price = p.price, oi.category_id = p.category_id
+WHERE oi.unit_price IS NULL;
@@ -0,0 +1,13 @@
+-- Unique barcodes, checked by the database for every instance of the application.
+-- ProductBarcodeIndex answers the scans and the duplicate check of the product form from memory, but it only sees
+-- the writes of its own instance: this key is what keeps two products from sharing a barcode.
+-- Run once on an existing database. Products saved without a barcode may hold an empty string, which becomes NULL
+-- like a missing barcode (NULLs do not collide in a unique key). The key cannot be created while barcodes are shared,
+-- list them first and give the products new barcodes:
+--   SELECT barcode, GROUP_CONCAT(product_id) FROM products WHERE barcode IS NOT NULL GROUP BY barcode HAVING COUNT(*) > 1;
+USE ministore;
+
+UPDATE products SET barcode = NULL WHERE barcode = '';
+
+DROP INDEX idx_products_barcode ON products;
+CREATE UNIQUE INDEX ux_products_barcode ON products (barcode);